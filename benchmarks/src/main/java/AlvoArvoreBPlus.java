@@ -0,0 +1,62 @@
+import java.util.function.IntConsumer;
+
+import benchmarks.Alvo;
+
+/**
+ * Adapta ArvoreBPlus à interface medida pelos benchmarks.
+ *
+ * Fica no pacote padrão, junto com a árvore, e é instanciada por reflexão
+ * pelos benchmarks.
+ *
+ */
+public class AlvoArvoreBPlus implements Alvo {
+
+    /**
+     * Árvore medida.
+     */
+    private final ArvoreBPlus arvore;
+
+    /**
+     * Construtor com parâmetro.
+     *
+     * @param t Grau mínimo (define o intervalo para o número de chaves).
+     */
+    public AlvoArvoreBPlus(int t) {
+        this.arvore = new ArvoreBPlus(t);
+    }
+
+    @Override
+    public void inserir(int k) {
+        arvore.inserir(k);
+    }
+
+    @Override
+    public boolean procurar(int k) {
+        return arvore.procurar(k) != null;
+    }
+
+    @Override
+    public boolean remover(int k) {
+        return arvore.remover(k);
+    }
+
+    @Override
+    public boolean atualizar(int antigo, int novo) {
+        return arvore.atualizar(antigo, novo);
+    }
+
+    @Override
+    public int minimo() {
+        return arvore.getValorMinimo();
+    }
+
+    @Override
+    public int maximo() {
+        return arvore.getValorMaximo();
+    }
+
+    @Override
+    public int percorrer(IntConsumer consumidor) {
+        return arvore.intervalo(Integer.MIN_VALUE, Integer.MAX_VALUE, consumidor);
+    }
+}
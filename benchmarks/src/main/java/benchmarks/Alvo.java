@@ -0,0 +1,71 @@
+package benchmarks;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Operações comuns às estruturas medidas pelos benchmarks.
+ *
+ * As classes da árvore estão no pacote padrão e não podem ser importadas de
+ * um pacote com nome, e o JMH não aceita benchmarks no pacote padrão. Por
+ * isso os benchmarks enxergam a árvore só por esta interface, implementada
+ * por AlvoArvoreBPlus no pacote padrão e carregada por reflexão uma única
+ * vez. Como cada benchmark usa uma só implementação, a chamada pela
+ * interface é monomórfica e o compilador JIT a expande em linha.
+ *
+ */
+public interface Alvo {
+
+    /**
+     * Insere uma chave.
+     *
+     * @param k Chave a ser inserida.
+     */
+    void inserir(int k);
+
+    /**
+     * Procura uma chave.
+     *
+     * @param k Chave a ser procurada.
+     * @return Verdadeiro se a chave está na estrutura.
+     */
+    boolean procurar(int k);
+
+    /**
+     * Remove uma chave.
+     *
+     * @param k Chave a ser removida.
+     * @return Verdadeiro se a chave foi removida.
+     */
+    boolean remover(int k);
+
+    /**
+     * Troca uma chave por outra.
+     *
+     * @param antigo Chave a ser trocada.
+     * @param novo Nova chave.
+     * @return Verdadeiro se a chave antiga foi encontrada.
+     */
+    boolean atualizar(int antigo, int novo);
+
+    /**
+     * Retorna a menor chave.
+     *
+     * @return A menor chave.
+     */
+    int minimo();
+
+    /**
+     * Retorna a maior chave.
+     *
+     * @return A maior chave.
+     */
+    int maximo();
+
+    /**
+     * Percorre todas as chaves em ordem crescente.
+     *
+     * @param consumidor Recebe cada chave.
+     * @return A quantidade de chaves percorridas.
+     */
+    int percorrer(IntConsumer consumidor);
+}
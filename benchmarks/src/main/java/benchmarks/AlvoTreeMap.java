@@ -0,0 +1,66 @@
+package benchmarks;
+
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+
+/**
+ * Referência de comparação: java.util.TreeMap com chaves Integer.
+ *
+ * O valor é sempre o mesmo objeto, assim a memória medida é a dos nós da
+ * árvore rubro-negra e das chaves encaixotadas.
+ *
+ */
+public class AlvoTreeMap implements Alvo {
+
+    /**
+     * Valor associado a todas as chaves.
+     */
+    private static final Object PRESENTE = new Object();
+
+    /**
+     * Mapa medido.
+     */
+    private final TreeMap<Integer, Object> mapa = new TreeMap<>();
+
+    @Override
+    public void inserir(int k) {
+        mapa.put(k, PRESENTE);
+    }
+
+    @Override
+    public boolean procurar(int k) {
+        return mapa.containsKey(k);
+    }
+
+    @Override
+    public boolean remover(int k) {
+        return mapa.remove(k) != null;
+    }
+
+    @Override
+    public boolean atualizar(int antigo, int novo) {
+        if (mapa.remove(antigo) == null) {
+            return false;
+        }
+        mapa.put(novo, PRESENTE);
+        return true;
+    }
+
+    @Override
+    public int minimo() {
+        return mapa.firstKey();
+    }
+
+    @Override
+    public int maximo() {
+        return mapa.lastKey();
+    }
+
+    @Override
+    public int percorrer(IntConsumer consumidor) {
+        for (Integer k : mapa.keySet()) {
+            consumidor.accept(k);
+        }
+        return mapa.size();
+    }
+}
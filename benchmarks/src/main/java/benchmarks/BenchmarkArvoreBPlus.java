@@ -0,0 +1,40 @@
+package benchmarks;
+
+import java.lang.reflect.Constructor;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Benchmarks das operações em ArvoreBPlus, com várias ordens t.
+ *
+ */
+public class BenchmarkArvoreBPlus extends BenchmarkOperacoes {
+
+    /**
+     * Construtor de AlvoArvoreBPlus, que está no pacote padrão.
+     */
+    private static final Constructor<? extends Alvo> CONSTRUTOR;
+
+    static {
+        try {
+            CONSTRUTOR = Class.forName("AlvoArvoreBPlus").asSubclass(Alvo.class).getConstructor(int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Grau mínimo da árvore.
+     */
+    @Param({"2", "8", "32", "128"})
+    public int t;
+
+    @Override
+    protected Alvo criar() {
+        try {
+            return CONSTRUTOR.newInstance(t);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Não foi possível criar a árvore", e);
+        }
+    }
+}
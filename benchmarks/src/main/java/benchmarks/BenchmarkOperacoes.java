@@ -0,0 +1,235 @@
+package benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks das operações básicas, comuns à árvore e à referência.
+ *
+ * A estrutura é carregada uma vez por rodada com as chaves 2x de cada
+ * valor-base x, na ordem da distribuição. As operações que modificam a
+ * estrutura são medidas aos pares que a devolvem ao estado inicial, assim
+ * o tamanho e a forma não derivam durante a medição:
+ * inserirRemover insere e remove a chave ausente 2x + 1, removerInserir
+ * remove e reinsere a chave presente 2x, e atualizar troca 2x por 2x + 1 e
+ * desfaz a troca. O benchmark carregar mede a inserção de todas as chaves
+ * em uma estrutura vazia.
+ *
+ * As subclasses definem a estrutura medida e os parâmetros próprios dela.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public abstract class BenchmarkOperacoes {
+
+    /**
+     * Quantidade de acessos pré-gerados, potência de 2.
+     */
+    private static final int ACESSOS = 1 << 20;
+
+    /**
+     * Semente fixa, para que as chaves sejam as mesmas em toda execução.
+     */
+    private static final long SEMENTE = 42;
+
+    /**
+     * Quantidade de chaves carregadas.
+     */
+    @Param({"1000", "100000", "1000000"})
+    public int tamanho;
+
+    /**
+     * Distribuição das chaves e dos acessos.
+     */
+    @Param
+    public Distribuicao distribuicao;
+
+    /**
+     * Valores-base na ordem de inserção.
+     */
+    private int[] base;
+
+    /**
+     * Valores-base na ordem de acesso.
+     */
+    private int[] acessos;
+
+    /**
+     * Estrutura carregada.
+     */
+    private Alvo alvo;
+
+    /**
+     * Próximo acesso.
+     */
+    private int proximo;
+
+    /**
+     * Soma das chaves percorridas, consumida pelo benchmark percorrer.
+     */
+    private long soma;
+
+    /**
+     * Consumidor das chaves percorridas, criado uma vez para não medir a
+     * alocação dele.
+     */
+    private final IntConsumer somador = k -> soma += k;
+
+    /**
+     * Cria uma estrutura vazia.
+     *
+     * @return A estrutura criada.
+     */
+    protected abstract Alvo criar();
+
+    /**
+     * Gera as chaves e carrega a estrutura.
+     */
+    @Setup
+    public void preparar() {
+        base = distribuicao.gerarBase(tamanho);
+        acessos = distribuicao.gerarAcessos(base, ACESSOS, new Random(SEMENTE));
+        alvo = carregar(criar());
+        proximo = 0;
+    }
+
+    /**
+     * Insere todas as chaves na estrutura.
+     *
+     * @param a Estrutura a ser carregada.
+     * @return A própria estrutura.
+     */
+    private Alvo carregar(Alvo a) {
+        for (int x : base) {
+            a.inserir(2 * x);
+        }
+        return a;
+    }
+
+    /**
+     * Retorna o próximo valor-base da sequência de acessos.
+     *
+     * @return O valor-base.
+     */
+    private int proximoAcesso() {
+        return acessos[proximo++ & (ACESSOS - 1)];
+    }
+
+    /**
+     * Procura uma chave presente.
+     *
+     * @return O resultado da busca.
+     */
+    @Benchmark
+    public boolean procurar() {
+        return alvo.procurar(2 * proximoAcesso());
+    }
+
+    /**
+     * Procura uma chave ausente vizinha de uma presente.
+     *
+     * @return O resultado da busca.
+     */
+    @Benchmark
+    public boolean procurarAusente() {
+        return alvo.procurar(2 * proximoAcesso() + 1);
+    }
+
+    /**
+     * Insere uma chave ausente e a remove em seguida.
+     *
+     * @return O resultado da remoção.
+     */
+    @Benchmark
+    public boolean inserirRemover() {
+        int k = 2 * proximoAcesso() + 1;
+        alvo.inserir(k);
+        return alvo.remover(k);
+    }
+
+    /**
+     * Remove uma chave presente e a insere de volta.
+     *
+     * @return O resultado da remoção.
+     */
+    @Benchmark
+    public boolean removerInserir() {
+        int k = 2 * proximoAcesso();
+        boolean removida = alvo.remover(k);
+        alvo.inserir(k);
+        return removida;
+    }
+
+    /**
+     * Troca uma chave presente pela vizinha ausente e desfaz a troca.
+     *
+     * @return O resultado da segunda troca.
+     */
+    @Benchmark
+    public boolean atualizar() {
+        int k = 2 * proximoAcesso();
+        alvo.atualizar(k, k + 1);
+        return alvo.atualizar(k + 1, k);
+    }
+
+    /**
+     * Retorna a menor chave.
+     *
+     * @return A menor chave.
+     */
+    @Benchmark
+    public int minimo() {
+        return alvo.minimo();
+    }
+
+    /**
+     * Retorna a maior chave.
+     *
+     * @return A maior chave.
+     */
+    @Benchmark
+    public int maximo() {
+        return alvo.maximo();
+    }
+
+    /**
+     * Percorre todas as chaves em ordem.
+     *
+     * @return A soma das chaves.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long percorrer() {
+        soma = 0;
+        alvo.percorrer(somador);
+        return soma;
+    }
+
+    /**
+     * Insere todas as chaves em uma estrutura vazia.
+     *
+     * @return A estrutura carregada.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Alvo carregar() {
+        return carregar(criar());
+    }
+}
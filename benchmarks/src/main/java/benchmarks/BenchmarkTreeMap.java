@@ -0,0 +1,14 @@
+package benchmarks;
+
+/**
+ * Benchmarks das operações em java.util.TreeMap, a referência de
+ * comparação da árvore.
+ *
+ */
+public class BenchmarkTreeMap extends BenchmarkOperacoes {
+
+    @Override
+    protected Alvo criar() {
+        return new AlvoTreeMap();
+    }
+}
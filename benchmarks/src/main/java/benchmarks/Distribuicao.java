@@ -0,0 +1,203 @@
+package benchmarks;
+
+import java.util.Random;
+
+/**
+ * Distribuições das chaves usadas nos benchmarks.
+ *
+ * Cada distribuição gera os valores-base carregados na estrutura, na ordem
+ * de inserção, e a sequência de acessos a esses valores. Os valores-base
+ * são distintos e ficam em [0, 2^30), assim os benchmarks podem usar 2x
+ * como chave presente e 2x + 1 como chave ausente vizinha.
+ *
+ */
+public enum Distribuicao {
+
+    /**
+     * Chaves 0, 1, 2, ... inseridas e acessadas em ordem crescente.
+     */
+    SEQUENCIAL {
+        @Override
+        public int[] gerarBase(int n) {
+            int[] base = new int[n];
+            for (int i = 0; i < n; i++) {
+                base[i] = i;
+            }
+            return base;
+        }
+
+        @Override
+        public int[] gerarAcessos(int[] base, int m, Random aleatorio) {
+            int[] acessos = new int[m];
+            for (int j = 0; j < m; j++) {
+                acessos[j] = base[j % base.length];
+            }
+            return acessos;
+        }
+    },
+
+    /**
+     * Chaves espalhadas, inseridas em ordem embaralhada e acessadas de
+     * modo uniforme.
+     */
+    UNIFORME {
+        @Override
+        public int[] gerarBase(int n) {
+            return espalhar(n);
+        }
+
+        @Override
+        public int[] gerarAcessos(int[] base, int m, Random aleatorio) {
+            int[] acessos = new int[m];
+            for (int j = 0; j < m; j++) {
+                acessos[j] = base[aleatorio.nextInt(base.length)];
+            }
+            return acessos;
+        }
+    },
+
+    /**
+     * Chaves espalhadas como em UNIFORME, com acessos concentrados em
+     * poucas chaves quentes segundo uma lei de Zipf com expoente 0,99.
+     */
+    ZIPF {
+        @Override
+        public int[] gerarBase(int n) {
+            return espalhar(n);
+        }
+
+        @Override
+        public int[] gerarAcessos(int[] base, int m, Random aleatorio) {
+            int n = base.length;
+            double zetaN = zeta(n);
+            double alfa = 1.0 / (1.0 - TETA);
+            double zeta2 = 1.0 + Math.pow(0.5, TETA);
+            double eta = (1.0 - Math.pow(2.0 / n, 1.0 - TETA)) / (1.0 - zeta2 / zetaN);
+            int[] acessos = new int[m];
+            for (int j = 0; j < m; j++) {
+                double u = aleatorio.nextDouble();
+                double uz = u * zetaN;
+                int posicao;
+                if (uz < 1.0) {
+                    posicao = 0;
+                } else if (uz < zeta2) {
+                    posicao = 1;
+                } else {
+                    posicao = (int) Math.min(n - 1, (long) (n * Math.pow(eta * u - eta + 1.0, alfa)));
+                }
+                // A ordem da base já é embaralhada, assim as chaves quentes
+                // ficam espalhadas pela árvore.
+                acessos[j] = base[posicao];
+            }
+            return acessos;
+        }
+    },
+
+    /**
+     * Grupos de TAMANHO_GRUPO chaves consecutivas em posições espalhadas,
+     * inseridos um grupo por vez; os acessos visitam um grupo sorteado com
+     * várias chaves seguidas dele.
+     */
+    AGRUPADA {
+        @Override
+        public int[] gerarBase(int n) {
+            int[] base = new int[n];
+            int deslocamento = Integer.numberOfTrailingZeros(TAMANHO_GRUPO);
+            int mascara = (1 << (BITS - deslocamento)) - 1;
+            for (int i = 0; i < n; i++) {
+                int grupo = (i >>> deslocamento) * MULTIPLICADOR & mascara;
+                base[i] = grupo << deslocamento | i & (TAMANHO_GRUPO - 1);
+            }
+            return base;
+        }
+
+        @Override
+        public int[] gerarAcessos(int[] base, int m, Random aleatorio) {
+            int[] acessos = new int[m];
+            int grupos = (base.length + TAMANHO_GRUPO - 1) / TAMANHO_GRUPO;
+            int inicio = 0;
+            for (int j = 0; j < m; j++) {
+                if (j % ACESSOS_GRUPO == 0) {
+                    inicio = aleatorio.nextInt(grupos) * TAMANHO_GRUPO;
+                }
+                int limite = Math.min(TAMANHO_GRUPO, base.length - inicio);
+                acessos[j] = base[inicio + aleatorio.nextInt(limite)];
+            }
+            return acessos;
+        }
+    };
+
+    /**
+     * Quantidade de bits dos valores-base.
+     */
+    private static final int BITS = 30;
+
+    /**
+     * Multiplicador ímpar que embaralha os valores-base: multiplicar por
+     * um número ímpar módulo 2^BITS é uma bijeção, assim os valores
+     * continuam distintos.
+     */
+    private static final int MULTIPLICADOR = 0x9E3779B1;
+
+    /**
+     * Expoente da distribuição de Zipf.
+     */
+    private static final double TETA = 0.99;
+
+    /**
+     * Quantidade de chaves consecutivas em cada grupo de AGRUPADA.
+     */
+    private static final int TAMANHO_GRUPO = 64;
+
+    /**
+     * Quantidade de acessos seguidos a cada grupo de AGRUPADA.
+     */
+    private static final int ACESSOS_GRUPO = 16;
+
+    /**
+     * Gera os valores-base da carga.
+     *
+     * @param n Quantidade de valores.
+     * @return Os valores distintos, na ordem de inserção.
+     */
+    public abstract int[] gerarBase(int n);
+
+    /**
+     * Gera a sequência de acessos aos valores-base.
+     *
+     * @param base Valores-base gerados por gerarBase.
+     * @param m Quantidade de acessos.
+     * @param aleatorio Gerador de números aleatórios.
+     * @return Os valores acessados, na ordem dos acessos.
+     */
+    public abstract int[] gerarAcessos(int[] base, int m, Random aleatorio);
+
+    /**
+     * Gera n valores distintos espalhados por [0, 2^BITS).
+     *
+     * @param n Quantidade de valores.
+     * @return Os valores gerados.
+     */
+    private static int[] espalhar(int n) {
+        int[] base = new int[n];
+        int mascara = (1 << BITS) - 1;
+        for (int i = 0; i < n; i++) {
+            base[i] = i * MULTIPLICADOR & mascara;
+        }
+        return base;
+    }
+
+    /**
+     * Calcula a soma de 1 / i^TETA para i de 1 a n.
+     *
+     * @param n Quantidade de termos.
+     * @return A soma calculada.
+     */
+    private static double zeta(int n) {
+        double soma = 0;
+        for (int i = 1; i <= n; i++) {
+            soma += 1.0 / Math.pow(i, TETA);
+        }
+        return soma;
+    }
+}
@@ -0,0 +1,44 @@
+package benchmarks;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Executa os benchmarks com as opções de linha de comando do JMH.
+ *
+ * Quando nenhum perfilador é indicado com -prof, usa o perfilador de coleta
+ * de lixo do JMH, que informa a taxa de alocação por operação
+ * (gc.alloc.rate.norm) e a quantidade e o tempo das coletas.
+ *
+ * Uso: java -jar target/benchmarks.jar [opções do JMH]
+ *
+ * Exemplo: java -jar target/benchmarks.jar procurar -p t=32 -p
+ * distribuicao=ZIPF -rf json -rff procurar.json
+ *
+ */
+public class ExecutarBenchmarks {
+
+    /**
+     * Método principal.
+     *
+     * @param args Opções de linha de comando do JMH.
+     * @throws Exception Se as opções forem inválidas ou a execução falhar.
+     */
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions linha = new CommandLineOptions(args);
+        if (linha.shouldHelp() || linha.shouldList() || linha.shouldListWithParams()
+                || linha.shouldListProfilers() || linha.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+        ChainedOptionsBuilder opcoes = new OptionsBuilder().parent(linha);
+        if (linha.getProfilers().isEmpty()) {
+            opcoes.addProfiler(GCProfiler.class);
+        }
+        new Runner(opcoes.build()).run();
+    }
+}
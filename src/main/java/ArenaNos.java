@@ -0,0 +1,382 @@
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Arena de nós fora do heap.
+ *
+ * Os nós da árvore B+ ficam em posições(slots) de tamanho fixo de blocos de
+ * memória alocados com ByteBuffer.allocateDirect e são identificados por um
+ * número inteiro. Filhos e próximo nó são números de slot, assim a árvore não
+ * cria um objeto Java por nó e o coletor de lixo não precisa percorrê-los.
+ *
+ * Formato de um slot, em inteiros de 32 bits:
+ * <pre>
+ * [n] [folha] [próximo] [chave 0 .. chave 2t-2] [filho 0 .. filho 2t-1]
+ * </pre>
+ * Slots liberados formam uma lista encadeada pelo primeiro inteiro do slot e
+ * são reaproveitados pelas próximas alocações.
+ *
+ */
+public class ArenaNos {
+
+    /**
+     * Identificador de slot nulo.
+     */
+    public static final int NULO = -1;
+
+    /**
+     * Deslocamento do campo n no slot.
+     */
+    private static final int N = 0;
+
+    /**
+     * Deslocamento do campo folha no slot.
+     */
+    private static final int FOLHA = 4;
+
+    /**
+     * Deslocamento do campo próximo no slot.
+     */
+    private static final int PROXIMO = 8;
+
+    /**
+     * Deslocamento da primeira chave no slot.
+     */
+    private static final int CHAVES = 12;
+
+    /**
+     * Tamanho máximo, em bytes, de cada bloco de memória.
+     */
+    private static final int BYTES_BLOCO = 64 << 20;
+
+    /**
+     * Ordem da árvore.
+     */
+    private final int t;
+
+    /**
+     * Deslocamento do primeiro filho no slot.
+     */
+    private final int filhos;
+
+    /**
+     * Tamanho do slot em bytes.
+     */
+    private final int tamanhoSlot;
+
+    /**
+     * Bits do identificador que indicam a posição dentro do bloco.
+     */
+    private final int bitsBloco;
+
+    /**
+     * Blocos de memória fora do heap.
+     */
+    private ByteBuffer[] blocos;
+
+    /**
+     * Quantidade de blocos alocados.
+     */
+    private int qtdeBlocos;
+
+    /**
+     * Próximo slot nunca usado.
+     */
+    private int proximoSlot;
+
+    /**
+     * Primeiro slot da lista de livres.
+     */
+    private int livre;
+
+    /**
+     * Quantidade de slots em uso.
+     */
+    private int usados;
+
+    /**
+     * Construtor com parâmetro.
+     *
+     * @param t Grau mínimo da árvore cujos nós serão armazenados.
+     */
+    public ArenaNos(int t) {
+        this.t = t;
+        this.filhos = CHAVES + 4 * (2 * t - 1);
+        this.tamanhoSlot = filhos + 4 * (2 * t);
+        // Quantidade de slots por bloco em potência de 2
+        int bits = 0;
+        while ((long) tamanhoSlot << (bits + 1) <= BYTES_BLOCO) {
+            bits++;
+        }
+        this.bitsBloco = bits;
+        this.blocos = new ByteBuffer[8];
+        liberarTudo();
+    }
+
+    /**
+     * Recuperador de t.
+     *
+     * @return O grau da árvore
+     */
+    public int getT() {
+        return t;
+    }
+
+    /**
+     * Retorna o tamanho de um slot.
+     *
+     * @return O tamanho do slot em bytes.
+     */
+    public int getTamanhoSlot() {
+        return tamanhoSlot;
+    }
+
+    /**
+     * Retorna a quantidade de slots em uso.
+     *
+     * @return A quantidade de nós alocados.
+     */
+    public int getUsados() {
+        return usados;
+    }
+
+    /**
+     * Retorna a memória fora do heap reservada pela arena.
+     *
+     * @return A quantidade de bytes reservados.
+     */
+    public long getBytesReservados() {
+        long total = 0;
+        for (int b = 0; b < qtdeBlocos; b++) {
+            total = total + blocos[b].capacity();
+        }
+        return total;
+    }
+
+    /**
+     * Aloca um slot para um novo nó vazio.
+     *
+     * @param folha Indica se o nó é uma folha.
+     * @return O identificador do slot.
+     */
+    public int alocar(boolean folha) {
+        int id;
+        if (livre != NULO) {
+            // Reaproveita um slot liberado
+            id = livre;
+            livre = getN(id);
+        } else {
+            id = proximoSlot;
+            if ((id >>> bitsBloco) == qtdeBlocos) {
+                novoBloco();
+            }
+            proximoSlot++;
+        }
+        ByteBuffer bloco = bloco(id);
+        int base = base(id);
+        bloco.putInt(base + N, 0);
+        bloco.putInt(base + FOLHA, folha ? 1 : 0);
+        bloco.putInt(base + PROXIMO, NULO);
+        usados++;
+        return id;
+    }
+
+    /**
+     * Devolve um slot para a lista de livres.
+     *
+     * @param id Identificador do slot.
+     */
+    public void liberar(int id) {
+        setN(id, livre);
+        livre = id;
+        usados--;
+    }
+
+    /**
+     * Libera todos os slots, mantendo o primeiro bloco para reuso.
+     */
+    public final void liberarTudo() {
+        for (int b = 1; b < qtdeBlocos; b++) {
+            blocos[b] = null;
+        }
+        qtdeBlocos = Math.min(qtdeBlocos, 1);
+        proximoSlot = 0;
+        livre = NULO;
+        usados = 0;
+    }
+
+    /**
+     * Aloca mais um bloco de memória fora do heap.
+     */
+    private void novoBloco() {
+        if (qtdeBlocos == blocos.length) {
+            blocos = Arrays.copyOf(blocos, 2 * qtdeBlocos);
+        }
+        ByteBuffer bloco = ByteBuffer.allocateDirect(tamanhoSlot << bitsBloco);
+        bloco.order(ByteOrder.nativeOrder());
+        blocos[qtdeBlocos] = bloco;
+        qtdeBlocos++;
+    }
+
+    /**
+     * Bloco de memória do slot.
+     *
+     * @param id Identificador do slot.
+     * @return O bloco onde está o slot.
+     */
+    private ByteBuffer bloco(int id) {
+        return blocos[id >>> bitsBloco];
+    }
+
+    /**
+     * Posição do slot dentro do bloco.
+     *
+     * @param id Identificador do slot.
+     * @return A posição, em bytes, do início do slot.
+     */
+    private int base(int id) {
+        return (id & ((1 << bitsBloco) - 1)) * tamanhoSlot;
+    }
+
+    /**
+     * Retorna a quantidade de chaves do nó.
+     *
+     * @param id Identificador do nó.
+     * @return A quantidade de chaves.
+     */
+    public int getN(int id) {
+        return bloco(id).getInt(base(id) + N);
+    }
+
+    /**
+     * Modificador da quantidade de chaves do nó.
+     *
+     * @param id Identificador do nó.
+     * @param n A nova quantidade de chaves.
+     */
+    public void setN(int id, int n) {
+        bloco(id).putInt(base(id) + N, n);
+    }
+
+    /**
+     * Retorna se o nó é folha.
+     *
+     * @param id Identificador do nó.
+     * @return Verdadeiro se o nó é folha.
+     */
+    public boolean getFolha(int id) {
+        return bloco(id).getInt(base(id) + FOLHA) != 0;
+    }
+
+    /**
+     * Recuperador do próximo nó.
+     *
+     * @param id Identificador do nó.
+     * @return O identificador do próximo nó ou NULO.
+     */
+    public int getProximo(int id) {
+        return bloco(id).getInt(base(id) + PROXIMO);
+    }
+
+    /**
+     * Modificador do próximo nó.
+     *
+     * @param id Identificador do nó.
+     * @param proximo O identificador do próximo nó ou NULO.
+     */
+    public void setProximo(int id, int proximo) {
+        bloco(id).putInt(base(id) + PROXIMO, proximo);
+    }
+
+    /**
+     * Recuperador da chave.
+     *
+     * @param id Identificador do nó.
+     * @param i Posição da chave.
+     * @return O valor da chave.
+     */
+    public int getChave(int id, int i) {
+        return bloco(id).getInt(base(id) + CHAVES + 4 * i);
+    }
+
+    /**
+     * Modificador da chave.
+     *
+     * @param id Identificador do nó.
+     * @param i Posição da chave.
+     * @param k Valor da chave.
+     */
+    public void setChave(int id, int i, int k) {
+        bloco(id).putInt(base(id) + CHAVES + 4 * i, k);
+    }
+
+    /**
+     * Recuperador do nó filho.
+     *
+     * @param id Identificador do nó.
+     * @param i Posição do filho.
+     * @return O identificador do filho.
+     */
+    public int getC(int id, int i) {
+        return bloco(id).getInt(base(id) + filhos + 4 * i);
+    }
+
+    /**
+     * Modificador do nó filho.
+     *
+     * @param id Identificador do nó.
+     * @param i Posição do filho.
+     * @param filho O identificador do filho.
+     */
+    public void setC(int id, int i, int filho) {
+        bloco(id).putInt(base(id) + filhos + 4 * i, filho);
+    }
+
+    /**
+     * Procura a posição da primeira chave maior ou igual a k no nó.
+     *
+     * @param id Identificador do nó.
+     * @param k Chave a ser procurada.
+     * @return A posição encontrada.
+     */
+    public int procurarPosicaoChave(int id, int k) {
+        ByteBuffer bloco = bloco(id);
+        int base = base(id);
+        int inicio = 0;
+        int fim = bloco.getInt(base + N);
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (bloco.getInt(base + CHAVES + 4 * meio) < k) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return inicio;
+    }
+
+    /**
+     * Procura a posição da primeira chave maior que k no nó.
+     *
+     * @param id Identificador do nó.
+     * @param k Chave a ser procurada.
+     * @return A posição do filho a ser seguido.
+     */
+    public int procurarPosicaoFilho(int id, int k) {
+        ByteBuffer bloco = bloco(id);
+        int base = base(id);
+        int inicio = 0;
+        int fim = bloco.getInt(base + N);
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (bloco.getInt(base + CHAVES + 4 * meio) <= k) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return inicio;
+    }
+}
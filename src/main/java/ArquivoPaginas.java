@@ -0,0 +1,364 @@
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Arquivo de páginas de tamanho fixo de uma árvore B+ em disco.
+ *
+ * A página 0 é o cabeçalho, com a raiz, a altura e a lista de páginas livres
+ * da árvore. As demais páginas guardam um nó cada e são lidas e gravadas com
+ * FileChannel. Sem cache, cada página é lida ao ser fixada e gravada ao ser
+ * desafixada suja pela última vez.
+ *
+ * Formato do cabeçalho, em inteiros de 32 bits:
+ * <pre>
+ * [assinatura] [versão] [tamanho da página] [t] [raiz] [altura] [primeira livre] [quantidade de páginas]
+ * </pre>
+ *
+ */
+public class ArquivoPaginas implements Paginador {
+
+    /**
+     * Assinatura do arquivo ("BPLS").
+     */
+    private static final int ASSINATURA = 0x42504C53;
+
+    /**
+     * Versão do formato do arquivo.
+     */
+    private static final int VERSAO = 1;
+
+    /**
+     * Tamanho do cabeçalho em bytes.
+     */
+    private static final int TAMANHO_CABECALHO = 32;
+
+    /**
+     * Canal de acesso ao arquivo.
+     */
+    private final FileChannel canal;
+
+    /**
+     * Tamanho das páginas em bytes.
+     */
+    private final int tamanhoPagina;
+
+    /**
+     * Ordem da árvore gravada no arquivo.
+     */
+    private final int t;
+
+    /**
+     * Página da raiz da árvore.
+     */
+    private int raiz;
+
+    /**
+     * Altura da árvore.
+     */
+    private int altura;
+
+    /**
+     * Primeira página da lista de livres.
+     */
+    private int livre;
+
+    /**
+     * Quantidade de páginas do arquivo, incluindo o cabeçalho.
+     */
+    private int qtdePaginas;
+
+    /**
+     * Páginas fixadas no momento.
+     */
+    private final Map<Integer, Quadro> fixadas;
+
+    /**
+     * Página fixada na memória.
+     */
+    private static class Quadro {
+
+        /**
+         * Conteúdo da página.
+         */
+        final ByteBuffer buffer;
+
+        /**
+         * Quantidade de fixações.
+         */
+        int fixacoes;
+
+        /**
+         * Indica se o conteúdo foi modificado.
+         */
+        boolean suja;
+
+        /**
+         * Construtor com parâmetro.
+         *
+         * @param buffer Conteúdo da página.
+         */
+        Quadro(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+    }
+
+    /**
+     * Construtor com parâmetros.
+     *
+     * @param canal Canal de acesso ao arquivo.
+     * @param tamanhoPagina Tamanho das páginas em bytes.
+     * @param t Ordem da árvore.
+     */
+    private ArquivoPaginas(FileChannel canal, int tamanhoPagina, int t) {
+        this.canal = canal;
+        this.tamanhoPagina = tamanhoPagina;
+        this.t = t;
+        this.fixadas = new HashMap<>();
+    }
+
+    /**
+     * Cria um novo arquivo de páginas vazio.
+     *
+     * @param arquivo Caminho do arquivo, substituído se existir.
+     * @param tamanhoPagina Tamanho das páginas, potência de 2 (4 a 16 KiB são
+     * os valores usuais).
+     * @return O arquivo criado.
+     * @throws IOException Se o arquivo não puder ser criado.
+     */
+    public static ArquivoPaginas criar(Path arquivo, int tamanhoPagina) throws IOException {
+        if (tamanhoPagina < 64 || Integer.bitCount(tamanhoPagina) != 1) {
+            throw new IllegalArgumentException("Tamanho de página inválido: " + tamanhoPagina);
+        }
+        FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ArquivoPaginas paginas = new ArquivoPaginas(canal, tamanhoPagina, FormatoNo.ordem(tamanhoPagina));
+        paginas.raiz = NULO;
+        paginas.altura = 0;
+        paginas.livre = NULO;
+        paginas.qtdePaginas = 1;
+        paginas.gravarCabecalho();
+        return paginas;
+    }
+
+    /**
+     * Abre um arquivo de páginas existente.
+     *
+     * Apenas o cabeçalho é lido, as páginas dos nós são lidas sob demanda.
+     *
+     * @param arquivo Caminho do arquivo.
+     * @return O arquivo aberto.
+     * @throws IOException Se o arquivo não puder ser lido ou for inválido.
+     */
+    public static ArquivoPaginas abrir(Path arquivo) throws IOException {
+        FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO);
+        while (cabecalho.hasRemaining() && canal.read(cabecalho, cabecalho.position()) > 0) {
+        }
+        if (cabecalho.hasRemaining() || cabecalho.getInt(0) != ASSINATURA || cabecalho.getInt(4) != VERSAO) {
+            canal.close();
+            throw new IOException("Arquivo de páginas inválido: " + arquivo);
+        }
+        ArquivoPaginas paginas = new ArquivoPaginas(canal, cabecalho.getInt(8), cabecalho.getInt(12));
+        paginas.raiz = cabecalho.getInt(16);
+        paginas.altura = cabecalho.getInt(20);
+        paginas.livre = cabecalho.getInt(24);
+        paginas.qtdePaginas = cabecalho.getInt(28);
+        return paginas;
+    }
+
+    /**
+     * Grava o cabeçalho na página 0.
+     *
+     * @throws IOException Se a gravação falhar.
+     */
+    private void gravarCabecalho() throws IOException {
+        ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO);
+        cabecalho.putInt(ASSINATURA).putInt(VERSAO).putInt(tamanhoPagina).putInt(t);
+        cabecalho.putInt(raiz).putInt(altura).putInt(livre).putInt(qtdePaginas);
+        cabecalho.flip();
+        gravar(cabecalho, 0);
+    }
+
+    /**
+     * Lê uma página do disco.
+     *
+     * @param pagina Número da página.
+     * @param destino Buffer que recebe o conteúdo.
+     * @throws IOException Se a leitura falhar.
+     */
+    public void ler(int pagina, ByteBuffer destino) throws IOException {
+        destino.clear();
+        long posicao = (long) pagina * tamanhoPagina;
+        while (destino.hasRemaining()) {
+            if (canal.read(destino, posicao + destino.position()) < 0) {
+                // Página alocada mas ainda não gravada
+                while (destino.hasRemaining()) {
+                    destino.put((byte) 0);
+                }
+            }
+        }
+        destino.clear();
+    }
+
+    /**
+     * Grava uma página no disco.
+     *
+     * @param pagina Número da página.
+     * @param origem Buffer com o conteúdo da página.
+     * @throws IOException Se a gravação falhar.
+     */
+    public void gravar(int pagina, ByteBuffer origem) throws IOException {
+        ByteBuffer conteudo = origem.duplicate();
+        conteudo.clear();
+        gravar(conteudo, (long) pagina * tamanhoPagina);
+    }
+
+    /**
+     * Grava todo o conteúdo do buffer na posição do arquivo.
+     *
+     * @param conteudo Conteúdo a ser gravado.
+     * @param posicao Posição no arquivo.
+     * @throws IOException Se a gravação falhar.
+     */
+    private void gravar(ByteBuffer conteudo, long posicao) throws IOException {
+        while (conteudo.hasRemaining()) {
+            canal.write(conteudo, posicao + conteudo.position());
+        }
+    }
+
+    @Override
+    public int getTamanhoPagina() {
+        return tamanhoPagina;
+    }
+
+    @Override
+    public ByteBuffer fixar(int pagina) throws IOException {
+        Quadro quadro = fixadas.get(pagina);
+        if (quadro == null) {
+            quadro = new Quadro(ByteBuffer.allocate(tamanhoPagina));
+            ler(pagina, quadro.buffer);
+            fixadas.put(pagina, quadro);
+        }
+        quadro.fixacoes++;
+        return quadro.buffer;
+    }
+
+    @Override
+    public void desafixar(int pagina, boolean suja) throws IOException {
+        Quadro quadro = fixadas.get(pagina);
+        quadro.suja = quadro.suja || suja;
+        quadro.fixacoes--;
+        if (quadro.fixacoes == 0) {
+            fixadas.remove(pagina);
+            if (quadro.suja) {
+                gravar(pagina, quadro.buffer);
+            }
+        }
+    }
+
+    @Override
+    public int alocar() throws IOException {
+        if (livre != NULO) {
+            // Reaproveita a primeira página da lista de livres
+            int pagina = livre;
+            ByteBuffer proxima = ByteBuffer.allocate(4);
+            long posicao = (long) pagina * tamanhoPagina;
+            while (proxima.hasRemaining()) {
+                if (canal.read(proxima, posicao + proxima.position()) < 0) {
+                    throw new IOException("Página livre " + pagina + " fora do arquivo");
+                }
+            }
+            livre = proxima.getInt(0);
+            return pagina;
+        }
+        int pagina = qtdePaginas;
+        qtdePaginas++;
+        return pagina;
+    }
+
+    @Override
+    public void liberar(int pagina) throws IOException {
+        // A página liberada guarda a próxima da lista de livres
+        ByteBuffer proxima = ByteBuffer.allocate(4);
+        proxima.putInt(0, livre);
+        gravar(proxima, (long) pagina * tamanhoPagina);
+        livre = pagina;
+    }
+
+    @Override
+    public void preCarregar(int pagina) {
+        // Sem cache, a página é lida somente quando for fixada
+    }
+
+    @Override
+    public void descarregar() throws IOException {
+        gravarCabecalho();
+        canal.force(true);
+    }
+
+    @Override
+    public void fechar() throws IOException {
+        descarregar();
+        canal.close();
+    }
+
+    /**
+     * Recuperador de t.
+     *
+     * @return A ordem da árvore gravada no arquivo.
+     */
+    public int getT() {
+        return t;
+    }
+
+    /**
+     * Recuperador da raiz.
+     *
+     * @return A página da raiz ou NULO.
+     */
+    public int getRaiz() {
+        return raiz;
+    }
+
+    /**
+     * Modificador da raiz.
+     *
+     * @param raiz A página da raiz ou NULO.
+     */
+    public void setRaiz(int raiz) {
+        this.raiz = raiz;
+    }
+
+    /**
+     * Recuperador da altura.
+     *
+     * @return A altura da árvore.
+     */
+    public int getAltura() {
+        return altura;
+    }
+
+    /**
+     * Modificador da altura.
+     *
+     * @param altura A altura da árvore.
+     */
+    public void setAltura(int altura) {
+        this.altura = altura;
+    }
+
+    /**
+     * Retorna a quantidade de páginas do arquivo.
+     *
+     * @return A quantidade de páginas, incluindo o cabeçalho.
+     */
+    public int getQtdePaginas() {
+        return qtdePaginas;
+    }
+}
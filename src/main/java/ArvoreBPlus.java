@@ -1,6 +1,19 @@
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.LinkedList;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
 import java.util.Queue;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
 
 /**
  * Árvore B+.
@@ -13,16 +26,62 @@ import java.util.Queue;
  */
 public class ArvoreBPlus {
 
+    /**
+     * Tamanho de uma linha de cache.
+     */
+    public static final int BYTES_LINHA_CACHE = 64;
+
+    /**
+     * Tamanho de uma página de memória.
+     */
+    public static final int BYTES_PAGINA = 4096;
+
+    /**
+     * Cabeçalho de um vetor na JVM de 64 bits com ponteiros comprimidos.
+     */
+    private static final int BYTES_CABECALHO_VETOR = 16;
+
     /**
      * Nó de início da árvore.
      */
     private No raiz;
 
     /**
-     * Ordem da árvore;
+     * Ordem dos nós internos;
      */
     private int t;
 
+    /**
+     * Ordem das folhas.
+     */
+    private int tFolha;
+
+    /**
+     * Estratégia de busca das chaves dentro dos nós.
+     */
+    private EstrategiaBusca busca;
+
+    /**
+     * Indica se os nós internos mantêm a contagem de chaves de cada filho.
+     */
+    private boolean contagens;
+
+    /**
+     * Indica se chaves repetidas ocupam uma única posição da folha com a
+     * quantidade de ocorrências.
+     */
+    private final boolean multiconjunto;
+
+    /**
+     * Quantidade de chaves da árvore, contando as repetições.
+     */
+    private int tamanho;
+
+    /**
+     * Métricas das operações ou null se a árvore não estiver sendo medida.
+     */
+    private MetricasArvore metricas;
+
     /**
      * Construtor sem parâmetro.
      *
@@ -39,10 +98,80 @@ public class ArvoreBPlus {
      * @param t Grau mínimo (define o intervalo para o número de chaves).
      */
     public ArvoreBPlus(int t) {
+        this(t, EstrategiaBusca.BINARIA);
+    }
+
+    /**
+     * Construtor com parâmetros.
+     *
+     * @param t Grau mínimo (define o intervalo para o número de chaves).
+     * @param busca Estratégia de busca das chaves dentro dos nós.
+     */
+    public ArvoreBPlus(int t, EstrategiaBusca busca) {
+        this(t, busca, false);
+    }
+
+    /**
+     * Construtor com parâmetros.
+     *
+     * @param t Grau mínimo (define o intervalo para o número de chaves).
+     * @param busca Estratégia de busca das chaves dentro dos nós.
+     * @param contagens Indica se os nós internos mantêm a contagem de chaves
+     * de cada filho, necessária para rank, selecionar e contarIntervalo.
+     */
+    public ArvoreBPlus(int t, EstrategiaBusca busca, boolean contagens) {
+        this(t, t, busca, contagens);
+    }
+
+    /**
+     * Construtor com ordens diferentes para os nós internos e as folhas.
+     *
+     * Os nós internos são lidos em toda descida e rendem mais quanto mais
+     * largos forem, até o limite do cache; as folhas são lidas em sequência
+     * nas consultas por intervalo e podem ter o tamanho de uma página.
+     * ordemParaBytes escolhe a ordem que cabe em um orçamento de bytes.
+     *
+     * @param t Grau mínimo dos nós internos.
+     * @param tFolha Grau mínimo das folhas.
+     * @param busca Estratégia de busca das chaves dentro dos nós.
+     * @param contagens Indica se os nós internos mantêm a contagem de chaves
+     * de cada filho, necessária para rank, selecionar e contarIntervalo.
+     */
+    public ArvoreBPlus(int t, int tFolha, EstrategiaBusca busca, boolean contagens) {
+        this(t, tFolha, busca, contagens, false);
+    }
+
+    /**
+     * Construtor com todas as opções.
+     *
+     * No modo multiconjunto, cada chave distinta ocupa uma única posição da
+     * folha junto com a sua quantidade de ocorrências, e a memória depende
+     * da quantidade de chaves distintas e não da quantidade de inserções. As
+     * consultas continuam vendo cada ocorrência: tamanho, rank, selecionar,
+     * contarIntervalo, intervalo e chaves contam e repetem as chaves como
+     * se elas estivessem gravadas uma a uma.
+     *
+     * @param t Grau mínimo dos nós internos.
+     * @param tFolha Grau mínimo das folhas.
+     * @param busca Estratégia de busca das chaves dentro dos nós.
+     * @param contagens Indica se os nós internos mantêm a contagem de chaves
+     * de cada filho, necessária para rank, selecionar e contarIntervalo.
+     * @param multiconjunto Indica se as chaves repetidas são guardadas uma
+     * única vez com a quantidade de ocorrências.
+     */
+    public ArvoreBPlus(int t, int tFolha, EstrategiaBusca busca, boolean contagens, boolean multiconjunto) {
+        if (t < 2 || tFolha < 2) {
+            throw new IllegalArgumentException("Ordem inválida: " + t + "/" + tFolha);
+        }
         this.t = t;
+        this.tFolha = tFolha;
+        this.busca = busca;
+        this.contagens = contagens;
+        this.multiconjunto = multiconjunto;
 
         //Define árvore como vazia
         this.raiz = null;
+        this.tamanho = 0;
     }
 
     /**
@@ -61,6 +190,8 @@ public class ArvoreBPlus {
      */
     public void setRaiz(No raiz) {
         this.raiz = raiz;
+        // Recalcula o tamanho e as contagens da nova árvore
+        this.tamanho = recontar(raiz);
     }
 
     /**
@@ -81,6 +212,271 @@ public class ArvoreBPlus {
         this.t = t;
     }
 
+    /**
+     * Recuperador da ordem das folhas.
+     *
+     * @return O grau mínimo das folhas.
+     */
+    public int getTFolha() {
+        return tFolha;
+    }
+
+    /**
+     * Modificador da ordem das folhas.
+     *
+     * @param tFolha O grau mínimo das folhas.
+     */
+    public void setTFolha(int tFolha) {
+        this.tFolha = tFolha;
+    }
+
+    /**
+     * Calcula a maior ordem cujo vetor de chaves cabe em um orçamento de
+     * bytes.
+     *
+     * O vetor de chaves de um nó de ordem t ocupa BYTES_CABECALHO_VETOR +
+     * 4(2t - 1) bytes e é o que a busca dentro do nó percorre. Para um nó
+     * interno, um orçamento de algumas linhas de cache (múltiplo de
+     * BYTES_LINHA_CACHE) mantém a descida no cache L1/L2; para uma folha,
+     * BYTES_PAGINA favorece as consultas por intervalo.
+     *
+     * @param bytes Orçamento de bytes do vetor de chaves.
+     * @return A maior ordem que cabe no orçamento, no mínimo 2.
+     */
+    public static int ordemParaBytes(int bytes) {
+        int chaves = (bytes - BYTES_CABECALHO_VETOR) / 4;
+        return Math.max(2, (chaves + 1) / 2);
+    }
+
+    /**
+     * Calcula os bytes do vetor de chaves de um nó de ordem t.
+     *
+     * @param t Grau mínimo do nó.
+     * @return Os bytes do vetor de chaves, com o cabeçalho.
+     */
+    public static int bytesChaves(int t) {
+        return BYTES_CABECALHO_VETOR + 4 * (2 * t - 1);
+    }
+
+    /**
+     * Cria uma árvore com as ordens escolhidas por orçamentos de bytes.
+     *
+     * Exemplo: dimensionada(4 * BYTES_LINHA_CACHE, BYTES_PAGINA) cria nós
+     * internos de 4 linhas de cache e folhas de uma página.
+     *
+     * @param bytesInterno Orçamento do vetor de chaves dos nós internos.
+     * @param bytesFolha Orçamento do vetor de chaves das folhas.
+     * @return A árvore vazia.
+     */
+    public static ArvoreBPlus dimensionada(int bytesInterno, int bytesFolha) {
+        return new ArvoreBPlus(ordemParaBytes(bytesInterno), ordemParaBytes(bytesFolha),
+                EstrategiaBusca.BINARIA, false);
+    }
+
+    /**
+     * Retorna a ordem de um nó da árvore.
+     *
+     * @param no Nó da árvore.
+     * @return tFolha para uma folha ou t para um nó interno.
+     */
+    private int ordem(No no) {
+        return no.getFolha() ? tFolha : t;
+    }
+
+    /**
+     * Verifica se um nó está cheio.
+     *
+     * @param no Nó da árvore.
+     * @return Verdadeiro se o nó tem o máximo de chaves da sua ordem.
+     */
+    private boolean cheio(No no) {
+        return no.getN() == 2 * ordem(no) - 1;
+    }
+
+    /**
+     * Recuperador da estratégia de busca.
+     *
+     * @return A estratégia de busca das chaves dentro dos nós.
+     */
+    public EstrategiaBusca getBusca() {
+        return busca;
+    }
+
+    /**
+     * Modificador da estratégia de busca.
+     *
+     * @param busca A estratégia de busca das chaves dentro dos nós.
+     */
+    public void setBusca(EstrategiaBusca busca) {
+        this.busca = busca;
+    }
+
+    /**
+     * Recuperador das métricas.
+     *
+     * @return As métricas da árvore ou null se ela não estiver sendo medida.
+     */
+    public MetricasArvore getMetricas() {
+        return metricas;
+    }
+
+    /**
+     * Modificador das métricas.
+     *
+     * @param metricas As métricas que passam a ser alimentadas pela árvore
+     * ou null para parar de medir.
+     */
+    public void setMetricas(MetricasArvore metricas) {
+        this.metricas = metricas;
+    }
+
+    /**
+     * Soma 1 a um contador das métricas, se a árvore estiver sendo medida.
+     *
+     * @param contador Contador a ser incrementado.
+     */
+    private void contar(MetricasArvore.Contador contador) {
+        if (metricas != null) {
+            metricas.contar(contador);
+        }
+    }
+
+    /**
+     * Soma uma quantidade a um contador das métricas, se a árvore estiver
+     * sendo medida.
+     *
+     * @param contador Contador a ser incrementado.
+     * @param qtde Quantidade a ser somada.
+     */
+    private void contar(MetricasArvore.Contador contador, long qtde) {
+        if (metricas != null) {
+            metricas.contar(contador, qtde);
+        }
+    }
+
+    /**
+     * Retorna se os nós internos mantêm as contagens dos filhos.
+     *
+     * @return Verdadeiro se as contagens são mantidas.
+     */
+    public boolean getContagens() {
+        return contagens;
+    }
+
+    /**
+     * Liga ou desliga as contagens dos filhos.
+     *
+     * Ao ligar, as contagens de todos os nós são calculadas, O(n).
+     *
+     * @param contagens Indica se as contagens devem ser mantidas.
+     */
+    public void setContagens(boolean contagens) {
+        this.contagens = contagens;
+        recontar(raiz);
+    }
+
+    /**
+     * Retorna se a árvore está no modo multiconjunto.
+     *
+     * @return Verdadeiro se as chaves repetidas são guardadas uma única vez.
+     */
+    public boolean getMulticonjunto() {
+        return multiconjunto;
+    }
+
+    /**
+     * Verifica se a árvore está no modo multiconjunto.
+     */
+    private void verificarMulticonjunto() {
+        if (!multiconjunto) {
+            throw new IllegalStateException("Árvore fora do modo multiconjunto");
+        }
+    }
+
+    /**
+     * Conta as ocorrências das chaves de uma folha.
+     *
+     * @param folha Folha a ser contada.
+     * @return A quantidade de chaves da folha, contando as repetições.
+     */
+    private int ocorrencias(No folha) {
+        if (!multiconjunto) {
+            return folha.getN();
+        }
+        int total = 0;
+        for (int i = 0; i < folha.getN(); i++) {
+            total = total + folha.getMultiplicidade(i);
+        }
+        return total;
+    }
+
+    /**
+     * Copia uma chave e, nas folhas do modo multiconjunto, a sua
+     * multiplicidade.
+     *
+     * @param origem Nó de origem.
+     * @param i Posição da chave na origem.
+     * @param destino Nó de destino do mesmo nível, que pode ser a origem.
+     * @param j Posição da chave no destino.
+     */
+    private void copiarChave(No origem, int i, No destino, int j) {
+        destino.setChave(j, origem.getChave(i));
+        if (multiconjunto && origem.getFolha()) {
+            destino.setMultiplicidade(j, origem.getMultiplicidade(i));
+        }
+    }
+
+    /**
+     * Recalcula a quantidade de chaves de uma sub-árvore e, se as contagens
+     * estiverem ligadas, a contagem de cada filho dos seus nós internos.
+     *
+     * @param no Raiz da sub-árvore ou null.
+     * @return A quantidade de chaves da sub-árvore.
+     */
+    private int recontar(No no) {
+        if (no == null) {
+            return 0;
+        }
+        if (!contagens) {
+            // Sem contagens, basta percorrer as folhas
+            while (!no.getFolha()) {
+                no = no.getC(0);
+            }
+            int total = 0;
+            for (No folha = no; folha != null; folha = folha.getProximo()) {
+                total = total + ocorrencias(folha);
+            }
+            return total;
+        }
+        if (no.getFolha()) {
+            return ocorrencias(no);
+        }
+        int total = 0;
+        for (int i = 0; i <= no.getN(); i++) {
+            int qtde = recontar(no.getC(i));
+            no.setContagem(i, qtde);
+            total = total + qtde;
+        }
+        return total;
+    }
+
+    /**
+     * Soma as contagens dos filhos de um nó.
+     *
+     * @param no Nó com as contagens atualizadas.
+     * @return A quantidade de chaves da sub-árvore do nó.
+     */
+    private int contar(No no) {
+        if (no.getFolha()) {
+            return ocorrencias(no);
+        }
+        int total = 0;
+        for (int i = 0; i <= no.getN(); i++) {
+            total = total + no.getContagem(i);
+        }
+        return total;
+    }
+
     /**
      * Caminhamento em pré-ordem na sub-árvore.
      *
@@ -278,6 +674,7 @@ public class ArvoreBPlus {
      * @return
      */
     public boolean atualizar(int antigo, int novo) {
+        contar(MetricasArvore.Contador.ATUALIZACOES);
         //Remove o nó antigo
         if (remover(antigo)) {
             //Insere o novo nó
@@ -299,13 +696,14 @@ public class ArvoreBPlus {
      * @param i Indíce da posição a ser dividida.
      */
     private void dividirNo(No pai, int i) {
+        contar(MetricasArvore.Contador.DIVISOES);
 
         // y é o nó filho que será dividido (filho do pai na posição i)
         No y = pai.getC(i);
 
         // z será o novo nó criado após a divisão
         // Ele terá o mesmo tipo de nó (folha ou interno) que y
-        No z = new No(t, y.getFolha());
+        No z = new No(ordem(y), y.getFolha());
 
         // =========================
         // CASO 1: NÓ FOLHA (B+ REAL)
@@ -322,7 +720,7 @@ public class ArvoreBPlus {
             // Copia a metade direita das chaves de y para z
             for (int k = meio; k < y.getN(); k++) {
                 // Copia chave para o novo nó (lado direito)
-                z.setChave(j, y.getChave(k));
+                copiarChave(y, k, z, j);
                 // Limpa a posição antiga no nó y (boa prática)
                 y.setChave(k, 0); // limpa
                 j++;
@@ -332,7 +730,7 @@ public class ArvoreBPlus {
             z.setN(j);
 
             // limpa posições não utilizadas do novo nó
-            for (int k = z.getN(); k < 2 * t - 1; k++) {
+            for (int k = z.getN(); k < 2 * tFolha - 1; k++) {
                 z.setChave(k, 0);
             }
 
@@ -340,7 +738,7 @@ public class ArvoreBPlus {
             y.setN(meio);
 
             // limpa posições restantes no nó esquerdo
-            for (int k = y.getN(); k < 2 * t - 1; k++) {
+            for (int k = y.getN(); k < 2 * tFolha - 1; k++) {
                 y.setChave(k, 0);
             }
 
@@ -395,6 +793,9 @@ public class ArvoreBPlus {
             for (int j = 0; j < t; j++) {
                 // Move ponteiro do filho
                 z.setC(j, y.getC(j + t));
+                if (contagens) {
+                    z.setContagem(j, y.getContagem(j + t));
+                }
                 // Remove referência antiga
                 y.setC(j + t, null); // limpa
             }
@@ -431,6 +832,15 @@ public class ArvoreBPlus {
             // Atualiza número de chaves do pai
             pai.setN(pai.getN() + 1);
         }
+
+        if (contagens) {
+            // Abre espaço para a contagem de z e recalcula as dos dois nós
+            for (int j = pai.getN() - 1; j >= i + 1; j--) {
+                pai.setContagem(j + 1, pai.getContagem(j));
+            }
+            pai.setContagem(i, contar(y));
+            pai.setContagem(i + 1, contar(z));
+        }
     }
 
     /**
@@ -440,55 +850,58 @@ public class ArvoreBPlus {
      *
      * @param _raiz Raiz da sub-árvore
      * @param k Chave a ser inserida.
+     * @param qtde Quantidade de ocorrências da chave, 1 fora do modo
+     * multiconjunto.
      */
-    private void inserirNaoCheio(No no, int k) {
-        // Começa do último índice válido de chaves no nó
-        int i = no.getN() - 1;
+    private void inserirNaoCheio(No no, int k, int qtde) {
+        contar(MetricasArvore.Contador.NOS_VISITADOS);
+        // Posição da primeira chave maior que k
+        int i = no.procurarPosicaoFilho(k, busca);
 
         // CASO 1: NÓ É FOLHA
         if (no.getFolha()) {
+            contar(MetricasArvore.Contador.DESLOCAMENTOS, no.getN() - i);
             // Desloca as chaves maiores que k uma posição para a direita
             // para abrir espaço para a nova chave
-            while (i >= 0 && k < no.getChave(i)) {
-                no.setChave(i + 1, no.getChave(i));
-                i--;
+            for (int j = no.getN() - 1; j >= i; j--) {
+                copiarChave(no, j, no, j + 1);
             }
 
             // Insere a nova chave na posição correta (ordenada)
-            no.setChave(i + 1, k);
+            no.setChave(i, k);
+            if (multiconjunto) {
+                no.setMultiplicidade(i, qtde);
+            }
 
             // Atualiza o número de chaves do nó
             no.setN(no.getN() + 1);
 
             // Limpa a próxima posição para evitar "lixo" no vetor
             // (boa prática quando se usa arrays fixos)
-            if (no.getN() + 1 < 2 * t - 1) {
+            if (no.getN() + 1 < 2 * tFolha - 1) {
                 no.setChave(no.getN(), 0);
             }
 
             // CASO 2: NÓ INTERNO
         } else {
-            // Encontra o filho que deve receber a nova chave
-            // (procura a posição correta descendo na árvore)
-            while (i >= 0 && k < no.getChave(i)) {
-                i--;
-            }
-            // Ajusta para o índice do filho correto
-            i++;
+            // O índice i já indica o filho que deve receber a nova chave
 
             // Verifica se o filho está cheio
-            if (no.getC(i).getN() == 2 * t - 1) {
+            if (cheio(no.getC(i))) {
                 // Divide o filho antes de descer
                 // (garante que nunca desceremos em nó cheio)
                 dividirNo(no, i);
                 // Após a divisão, decide para qual dos dois nós descer
-                // Se k for maior que a chave promovida, vai para o novo nó (direita)
-                if (k > no.getChave(i)) {
+                // Se k for maior ou igual à chave promovida, vai para o novo nó (direita)
+                if (k >= no.getChave(i)) {
                     i++;
                 }
             }
+            if (contagens) {
+                no.setContagem(i, no.getContagem(i) + qtde);
+            }
             // Chamada recursiva para continuar a inserção no filho correto
-            inserirNaoCheio(no.getC(i), k);
+            inserirNaoCheio(no.getC(i), k, qtde);
         }
     }
 
@@ -514,21 +927,59 @@ public class ArvoreBPlus {
      * @param k Chave a ser inserida.
      */
     public void inserir(int k) {
+        inserirOcorrencias(k, 1);
+    }
 
-        // CASO 1: ÁRVORE VAZIA
-        if (raiz == null) {
+    /**
+     * Insere várias ocorrências de uma chave no modo multiconjunto.
+     *
+     * Se a chave já estiver na árvore, só a sua multiplicidade aumenta, sem
+     * nenhuma divisão de nó.
+     *
+     * @param k Chave a ser inserida.
+     * @param qtde Quantidade de ocorrências, maior que zero.
+     */
+    public void inserir(int k, int qtde) {
+        verificarMulticonjunto();
+        if (qtde < 1) {
+            throw new IllegalArgumentException("Quantidade inválida: " + qtde);
+        }
+        inserirOcorrencias(k, qtde);
+    }
+
+    /**
+     * Insere ocorrências de uma chave.
+     *
+     * @param k Chave a ser inserida.
+     * @param qtde Quantidade de ocorrências, 1 fora do modo multiconjunto.
+     */
+    private void inserirOcorrencias(int k, int qtde) {
+        long inicio = metricas == null ? 0 : System.nanoTime();
+
+        // CASO 0: CHAVE REPETIDA NO MODO MULTICONJUNTO
+        if (multiconjunto && somar(k, qtde)) {
+            // Só a multiplicidade muda, a estrutura da árvore não
+
+            // CASO 1: ÁRVORE VAZIA
+        } else if (raiz == null) {
             // Cria a raiz como um nó folha
-            raiz = new No(t, true);
+            raiz = new No(tFolha, true);
             // Insere a primeira chave diretamente
             raiz.setChave(0, k);
+            if (multiconjunto) {
+                raiz.setMultiplicidade(0, qtde);
+            }
             // Atualiza a quantidade de chaves
             raiz.setN(1);
 
             // CASO 2: RAIZ CHEIA            
         } else {
-            if (raiz.getN() == 2 * t - 1) {
+            contar(MetricasArvore.Contador.DESCIDAS);
+            if (cheio(raiz)) {
                 // Cria um novo nó que será a nova raiz (não é folha)
                 No nova = new No(t, false);
+                contar(MetricasArvore.Contador.CRESCIMENTOS_RAIZ);
+                contar(MetricasArvore.Contador.NOS_VISITADOS);
                 // A antiga raiz passa a ser filha da nova raiz
                 nova.setC(0, raiz);
 
@@ -537,107 +988,1275 @@ public class ArvoreBPlus {
                 dividirNo(nova, 0);
 
                 // Decide em qual dos dois filhos inserir a nova chave
-                // Se for maior que a chave promovida → vai para o filho da direita
+                // Se for maior ou igual à chave promovida → vai para o filho da direita
                 int i = 0;
-                if (k > nova.getChave(0)) {
+                if (k >= nova.getChave(0)) {
                     i++;
                 }
 
+                if (contagens) {
+                    nova.setContagem(i, nova.getContagem(i) + qtde);
+                }
+
                 // Insere recursivamente no filho correto (garantido não cheio)
-                inserirNaoCheio(nova.getC(i), k);
+                inserirNaoCheio(nova.getC(i), k, qtde);
 
                 // Atualiza a referência da raiz da árvore
                 raiz = nova;
 
                 // CASO 3: RAIZ NÃO CHEIA
             } else {
-                inserirNaoCheio(raiz, k);
+                inserirNaoCheio(raiz, k, qtde);
             }
         }
+        tamanho = tamanho + qtde;
+        if (metricas != null) {
+            metricas.contar(MetricasArvore.Contador.INSERCOES);
+            metricas.registrarLatencia(MetricasArvore.Operacao.INSERIR, inicio);
+        }
     }
 
     /**
-     * Procura nó na árvore.Procura uma chave k na sub-arvore do nó atual.
+     * Carrega a árvore a partir de um vetor de chaves ordenado.
      *
-     * Baseado no métodoB-TREE-SEARCH(x,k) Thomas H. Cormen Página 492
+     * Substitui o conteúdo atual da árvore. As folhas são preenchidas até o
+     * fator de preenchimento, encadeadas pelo próximo nó e os níveis internos
+     * são construídos de baixo para cima, sem nenhuma divisão de nó. No modo
+     * multiconjunto, chaves repetidas ocupam uma única posição.
      *
-     * @param _raiz Raiz da sub-ãrvore.
-     * @param k Chave a ser procurada.
-     * @return Retorna o nó que possui o valor k.
+     * @param chaves Vetor de chaves em ordem crescente.
+     * @param fatorPreenchimento Fração (0, 1] da capacidade de cada nó a ser
+     * ocupada.
      */
-    private No procurar(No no, int k) {
-        // CASO BASE: NÓ NULO
-        if (no == null) {
-            // Se o nó for nulo, a chave não existe na árvore
-            return null;
-        }
-
-        // Índice usado para percorrer as chaves do nó
-        int i = 0;
-
-        // Avança enquanto k for maior que as chaves do nó
-        // Isso encontra a posição onde k deveria estar
-        while (i < no.getN() && k > no.getChave(i)) {
-            i++;
-        }
-
-        // CASO 1: NÓ É FOLHA
-        if (no.getFolha()) {
-            // Verifica se a chave foi encontrada na posição i
-            if (i < no.getN() && k == no.getChave(i)) {
-                // Retorna o nó onde a chave está localizada
-                return no;
-            }
-            // Se não encontrou, a chave não existe na árvore
-            return null;
+    public void carregarOrdenado(int[] chaves, double fatorPreenchimento) {
+        CarregadorOrdenado carregador = new CarregadorOrdenado(fatorPreenchimento);
+        for (int i = 0; i < chaves.length; i++) {
+            carregador.accept(chaves[i]);
         }
-
-        // CASO 2: NÓ INTERNO
-        // Continua a busca recursivamente no filho correto
-        // O índice i indica qual filho seguir
-        return procurar(no.getC(i), k);
+        this.setRaiz(carregador.finalizar());
     }
 
     /**
-     * Método auxiliar para procurar uma chave na árvore.
-     *
-     * Não precisa especificar a raiz.
+     * Carrega a árvore a partir de um fluxo de chaves ordenado.
      *
-     * @param k Chave a ser procurada na árvore.
-     * @return O nó encontrado ou null.
+     * @param chaves Fluxo de chaves em ordem crescente.
+     * @param fatorPreenchimento Fração (0, 1] da capacidade de cada nó a ser
+     * ocupada.
      */
-    public No procurar(int k) {
-        return this.procurar(this.getRaiz(), k);
+    public void carregarOrdenado(IntStream chaves, double fatorPreenchimento) {
+        CarregadorOrdenado carregador = new CarregadorOrdenado(fatorPreenchimento);
+        chaves.sequential().forEachOrdered(carregador);
+        this.setRaiz(carregador.finalizar());
     }
 
     /**
-     * Excluir árvore recursivamente apartir de _raiz.
+     * Carrega a árvore a partir de um arquivo de chaves ordenado.
      *
-     * @param _raiz Início da árvore a ser excluida.
-     * @return Retorna nul para o nó apgado.
+     * O arquivo contém as chaves em ordem crescente como inteiros de 32 bits
+     * big-endian, sem separadores.
+     *
+     * @param arquivo Caminho do arquivo de chaves.
+     * @param fatorPreenchimento Fração (0, 1] da capacidade de cada nó a ser
+     * ocupada.
+     * @throws IOException Se o arquivo não puder ser lido.
      */
-    private No apagar(No _raiz) {
-        if (_raiz != null) {
-            if (!_raiz.getFolha()) {
-                for (int i = 0; i <= _raiz.getN(); ++i) {
-                    apagar(_raiz.getC(i));
+    public void carregarOrdenado(Path arquivo, double fatorPreenchimento) throws IOException {
+        CarregadorOrdenado carregador = new CarregadorOrdenado(fatorPreenchimento);
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+            while (canal.read(buffer) != -1) {
+                buffer.flip();
+                while (buffer.remaining() >= 4) {
+                    carregador.accept(buffer.getInt());
                 }
+                buffer.compact();
+            }
+            if (buffer.position() != 0) {
+                throw new IOException("Tamanho do arquivo não é múltiplo de 4 bytes: " + arquivo);
             }
         }
-        return null;
+        this.setRaiz(carregador.finalizar());
     }
 
     /**
-     * Apaga a árvore apartir da raiz.
+     * Salva a árvore em uma imagem binária compacta.
+     *
+     * A imagem pode ser aberta somente para leitura, mapeada na memória, com
+     * ArvoreBPlusMapeada.abrir ou carregada de volta com abrir.
+     *
+     * @param arquivo Caminho do arquivo, substituído se existir.
+     * @throws IOException Se o arquivo não puder ser gravado.
      */
-    public void apagar() {
-        this.setRaiz(apagar(this.getRaiz()));
+    public void salvar(Path arquivo) throws IOException {
+        ArvoreBPlusMapeada.salvar(this, arquivo);
     }
 
     /**
-     * Encontra a chave com o valor mínimo na árvore.
+     * Abre uma imagem gravada por salvar como uma nova árvore modificável.
      *
-     * @param _raiz Início da árvore.
+     * No modo multiconjunto, carregarOrdenado soma as ocorrências gravadas
+     * de cada chave em uma única posição, como inserir(k, qtde).
+     *
+     * @param arquivo Caminho do arquivo.
+     * @param fatorPreenchimento Fração (0, 1] da capacidade de cada nó a ser
+     * ocupada.
+     * @return A árvore carregada, com as ordens e o modo gravados na imagem.
+     * @throws IOException Se o arquivo não puder ser lido ou for inválido.
+     */
+    public static ArvoreBPlus abrir(Path arquivo, double fatorPreenchimento) throws IOException {
+        ArvoreBPlusMapeada imagem = ArvoreBPlusMapeada.abrir(arquivo);
+        ArvoreBPlus arvore = new ArvoreBPlus(imagem.getT(), imagem.getTFolha(), EstrategiaBusca.BINARIA, false,
+                imagem.getMulticonjunto());
+        arvore.carregarOrdenado(imagem.chaves(), fatorPreenchimento);
+        return arvore;
+    }
+
+    /**
+     * Construtor da árvore de baixo para cima a partir de chaves ordenadas.
+     *
+     * As chaves são recebidas uma a uma e acumuladas em folhas. Ao final, os
+     * níveis internos são montados a partir da menor chave de cada nó do
+     * nível de baixo.
+     */
+    private class CarregadorOrdenado implements IntConsumer {
+
+        /**
+         * Quantidade de chaves por folha.
+         */
+        private final int chavesFolha;
+
+        /**
+         * Quantidade de filhos por nó interno.
+         */
+        private final int filhosInterno;
+
+        /**
+         * Nós do nível em construção.
+         */
+        private No[] nos;
+
+        /**
+         * Menor chave da sub-árvore de cada nó do nível em construção.
+         */
+        private int[] minimos;
+
+        /**
+         * Quantidade de nós do nível em construção.
+         */
+        private int m;
+
+        /**
+         * Folha sendo preenchida.
+         */
+        private No folha;
+
+        /**
+         * Indica se alguma chave já foi recebida.
+         */
+        private boolean vazio;
+
+        /**
+         * Última chave recebida.
+         */
+        private int ultima;
+
+        /**
+         * Construtor com parâmetros.
+         *
+         * @param fatorPreenchimento Fração (0, 1] da capacidade de cada nó.
+         */
+        CarregadorOrdenado(double fatorPreenchimento) {
+            if (!(fatorPreenchimento > 0 && fatorPreenchimento <= 1)) {
+                throw new IllegalArgumentException("Fator de preenchimento inválido: " + fatorPreenchimento);
+            }
+            // Nunca abaixo da ocupação mínima de um nó
+            this.chavesFolha = Math.max(Math.max(1, tFolha - 1), Math.min(2 * tFolha - 1, (int) Math.round(fatorPreenchimento * (2 * tFolha - 1))));
+            this.filhosInterno = Math.max(t, Math.min(2 * t, (int) Math.round(fatorPreenchimento * 2 * t)));
+            this.nos = new No[16];
+            this.minimos = new int[16];
+            this.m = 0;
+            this.folha = null;
+            this.vazio = true;
+        }
+
+        /**
+         * Recebe a próxima chave em ordem.
+         *
+         * @param k Chave a ser carregada.
+         */
+        @Override
+        public void accept(int k) {
+            if (!vazio && k < ultima) {
+                throw new IllegalArgumentException("Chaves fora de ordem: " + k + " após " + ultima);
+            }
+            if (multiconjunto && !vazio && k == ultima) {
+                // Chave repetida soma uma ocorrência à última posição
+                folha.setMultiplicidade(folha.getN() - 1, folha.getMultiplicidade(folha.getN() - 1) + 1);
+                return;
+            }
+            vazio = false;
+            ultima = k;
+            if (folha == null || folha.getN() == chavesFolha) {
+                No nova = new No(tFolha, true);
+                if (folha != null) {
+                    // Encadeamento das folhas
+                    folha.setProximo(nova);
+                }
+                folha = nova;
+                adicionar(nova, k);
+            }
+            folha.setChave(folha.getN(), k);
+            if (multiconjunto) {
+                folha.setMultiplicidade(folha.getN(), 1);
+            }
+            folha.setN(folha.getN() + 1);
+        }
+
+        /**
+         * Adiciona um nó ao nível em construção.
+         *
+         * @param no Nó a ser adicionado.
+         * @param minimo Menor chave da sub-árvore do nó.
+         */
+        private void adicionar(No no, int minimo) {
+            if (m == nos.length) {
+                nos = Arrays.copyOf(nos, 2 * m);
+                minimos = Arrays.copyOf(minimos, 2 * m);
+            }
+            nos[m] = no;
+            minimos[m] = minimo;
+            m = m + 1;
+        }
+
+        /**
+         * Completa a construção e retorna a raiz da nova árvore.
+         *
+         * @return A raiz da árvore ou null se nenhuma chave foi recebida.
+         */
+        No finalizar() {
+            if (m == 0) {
+                return null;
+            }
+            ajustarUltimaFolha();
+            // Constrói os níveis internos até restar um único nó
+            while (m > 1) {
+                construirNivel();
+            }
+            return nos[0];
+        }
+
+        /**
+         * Garante a ocupação mínima da última folha, juntando-a ou dividindo
+         * as chaves igualmente com a folha anterior.
+         */
+        private void ajustarUltimaFolha() {
+            if (m < 2 || folha.getN() >= tFolha - 1) {
+                return;
+            }
+            No anterior = nos[m - 2];
+            int total = anterior.getN() + folha.getN();
+            if (total <= 2 * tFolha - 1) {
+                // Junta a última folha na anterior
+                for (int i = 0; i < folha.getN(); i++) {
+                    copiarChave(folha, i, anterior, anterior.getN() + i);
+                }
+                anterior.setN(total);
+                anterior.setProximo(null);
+                m = m - 1;
+                nos[m] = null;
+            } else {
+                // Move chaves da anterior para a última folha
+                int mover = total / 2 - folha.getN();
+                for (int i = folha.getN() - 1; i >= 0; i--) {
+                    copiarChave(folha, i, folha, i + mover);
+                }
+                for (int i = 0; i < mover; i++) {
+                    copiarChave(anterior, anterior.getN() - mover + i, folha, i);
+                    anterior.setChave(anterior.getN() - mover + i, 0);
+                }
+                anterior.setN(anterior.getN() - mover);
+                folha.setN(folha.getN() + mover);
+                minimos[m - 1] = folha.getChave(0);
+            }
+        }
+
+        /**
+         * Constrói o nível acima do nível atual, distribuindo os filhos
+         * igualmente entre os novos nós.
+         */
+        private void construirNivel() {
+            int pais = (m + filhosInterno - 1) / filhosInterno;
+            if (pais > 1 && m / pais < t) {
+                pais = Math.max(1, m / t);
+            }
+            No[] nivel = new No[pais];
+            int[] minimosNivel = new int[pais];
+            int base = m / pais;
+            int resto = m % pais;
+            int inicio = 0;
+            for (int p = 0; p < pais; p++) {
+                int filhos = base + (p < resto ? 1 : 0);
+                No pai = new No(t, false);
+                for (int j = 0; j < filhos; j++) {
+                    pai.setC(j, nos[inicio + j]);
+                    if (j > 0) {
+                        // Separador é a menor chave do filho da direita
+                        pai.setChave(j - 1, minimos[inicio + j]);
+                    }
+                }
+                pai.setN(filhos - 1);
+                nivel[p] = pai;
+                minimosNivel[p] = minimos[inicio];
+                inicio = inicio + filhos;
+            }
+            nos = nivel;
+            minimos = minimosNivel;
+            m = pais;
+        }
+    }
+
+    /**
+     * Insere um lote de chaves na árvore.
+     *
+     * O lote é ordenado e cada sequência de chaves que cai na mesma folha é
+     * inserida de uma só vez: a descida da raiz até a folha é feita uma vez
+     * por folha de destino, as chaves são intercaladas com as da folha e, se
+     * não couberem, a folha é dividida no número de nós necessário em uma
+     * única etapa, propagando os novos separadores para cima. No modo
+     * multiconjunto, as repetições são somadas às multiplicidades durante a
+     * intercalação.
+     *
+     * @param chaves Chaves a serem inseridas, em qualquer ordem.
+     */
+    public void inserirLote(int[] chaves) {
+        long inicio = metricas == null ? 0 : System.nanoTime();
+        int[] v = chaves.clone();
+        Arrays.sort(v);
+        if (v.length > 0 && raiz == null) {
+            // Cria a raiz como um nó folha vazio
+            raiz = new No(tFolha, true);
+        }
+        int i = 0;
+        while (i < v.length) {
+            i = inserirSequencia(v, i);
+        }
+        tamanho = tamanho + v.length;
+        if (metricas != null) {
+            metricas.contar(MetricasArvore.Contador.INSERCOES, v.length);
+            metricas.registrarLatencia(MetricasArvore.Operacao.INSERIR_LOTE, inicio);
+        }
+    }
+
+    /**
+     * Insere a sequência de chaves do lote que pertence à folha de v[i].
+     *
+     * @param v Lote ordenado.
+     * @param i Posição da primeira chave ainda não inserida.
+     * @return A posição da primeira chave do lote que pertence a outra folha.
+     */
+    private int inserirSequencia(int[] v, int i) {
+        int altura = getAltura();
+        // Caminho da raiz até o pai da folha e a posição do filho seguido
+        No[] caminho = new No[altura - 1];
+        int[] posicao = new int[altura - 1];
+        // Menor separador à direita do caminho, limita as chaves da folha
+        boolean limitado = false;
+        int limite = 0;
+        No no = raiz;
+        for (int nivel = 0; nivel < altura - 1; nivel++) {
+            int p = no.procurarPosicaoFilho(v[i], busca);
+            if (p < no.getN()) {
+                limitado = true;
+                limite = no.getChave(p);
+            }
+            caminho[nivel] = no;
+            posicao[nivel] = p;
+            no = no.getC(p);
+        }
+        contar(MetricasArvore.Contador.NOS_VISITADOS, altura);
+        contar(MetricasArvore.Contador.DESCIDAS);
+
+        // Sequência v[i..fim) pertence à folha encontrada
+        int fim = i + 1;
+        while (fim < v.length && (!limitado || v[fim] < limite)) {
+            fim++;
+        }
+        if (contagens) {
+            // As divisões abaixo recalculam as contagens dos nós divididos
+            for (int nivel = 0; nivel < altura - 1; nivel++) {
+                caminho[nivel].setContagem(posicao[nivel], caminho[nivel].getContagem(posicao[nivel]) + fim - i);
+            }
+        }
+
+        int total = no.getN() + (fim - i);
+        if (!multiconjunto && total <= 2 * tFolha - 1) {
+            // Intercala de trás para frente dentro da própria folha
+            int a = no.getN() - 1;
+            int b = fim - 1;
+            for (int w = total - 1; b >= i; w--) {
+                if (a >= 0 && no.getChave(a) > v[b]) {
+                    no.setChave(w, no.getChave(a));
+                    a--;
+                } else {
+                    no.setChave(w, v[b]);
+                    b--;
+                }
+            }
+            no.setN(total);
+        } else {
+            // Intercala em um vetor auxiliar e divide em várias folhas
+            int[] chaves = new int[total];
+            int[] multiplicidades = multiconjunto ? new int[total] : null;
+            int a = 0;
+            int b = i;
+            int w = 0;
+            while (a < no.getN() || b < fim) {
+                int k;
+                int m;
+                if (b >= fim || (a < no.getN() && no.getChave(a) <= v[b])) {
+                    k = no.getChave(a);
+                    m = no.getMultiplicidade(a);
+                    a++;
+                } else {
+                    k = v[b];
+                    m = 1;
+                    b++;
+                }
+                if (multiconjunto && w > 0 && chaves[w - 1] == k) {
+                    // Repetição soma na posição já intercalada
+                    multiplicidades[w - 1] = multiplicidades[w - 1] + m;
+                } else {
+                    chaves[w] = k;
+                    if (multiconjunto) {
+                        multiplicidades[w] = m;
+                    }
+                    w++;
+                }
+            }
+            total = w;
+            int q = (total + 2 * tFolha - 2) / (2 * tFolha - 1);
+            contar(MetricasArvore.Contador.DIVISOES, q - 1);
+            int[] separadores = new int[q - 1];
+            No[] novos = new No[q - 1];
+            No folha = no;
+            No proximo = no.getProximo();
+            int inicio = 0;
+            for (int f = 0; f < q; f++) {
+                int qtde = total / q + (f < total % q ? 1 : 0);
+                if (f > 0) {
+                    No nova = new No(tFolha, true);
+                    // Encadeamento das folhas
+                    folha.setProximo(nova);
+                    folha = nova;
+                    separadores[f - 1] = chaves[inicio];
+                    novos[f - 1] = nova;
+                }
+                for (int j = 0; j < qtde; j++) {
+                    folha.setChave(j, chaves[inicio + j]);
+                    if (multiconjunto) {
+                        folha.setMultiplicidade(j, multiplicidades[inicio + j]);
+                    }
+                }
+                for (int j = qtde; j < 2 * tFolha - 1; j++) {
+                    folha.setChave(j, 0);
+                }
+                folha.setN(qtde);
+                inicio = inicio + qtde;
+            }
+            folha.setProximo(proximo);
+            inserirFilhos(caminho, posicao, altura - 2, separadores, novos, q - 1);
+        }
+        return fim;
+    }
+
+    /**
+     * Insere novos filhos à direita de um filho do caminho.
+     *
+     * Se o nó pai não comportar todos os novos filhos, ele é dividido no
+     * número de nós necessário e os separadores promovidos sobem para o nível
+     * de cima. Acima da raiz é criada uma nova raiz.
+     *
+     * @param caminho Nós internos da raiz até o pai dos novos filhos.
+     * @param posicao Posição do filho seguido em cada nó do caminho.
+     * @param nivel Nível do caminho que recebe os novos filhos.
+     * @param separadores Chaves separadoras dos novos filhos.
+     * @param novos Novos filhos a serem inseridos.
+     * @param qtd Quantidade de novos filhos.
+     */
+    private void inserirFilhos(No[] caminho, int[] posicao, int nivel, int[] separadores, No[] novos, int qtd) {
+        while (qtd > 0) {
+            No pai;
+            int p;
+            if (nivel < 0) {
+                // Cria uma nova raiz com a antiga como único filho
+                pai = new No(t, false);
+                contar(MetricasArvore.Contador.CRESCIMENTOS_RAIZ);
+                pai.setC(0, raiz);
+                raiz = pai;
+                p = 0;
+            } else {
+                pai = caminho[nivel];
+                p = posicao[nivel];
+            }
+            int n = pai.getN();
+
+            if (n + qtd <= 2 * t - 1) {
+                // Abre espaço de uma só vez para todas as chaves e filhos
+                for (int j = n - 1; j >= p; j--) {
+                    pai.setChave(j + qtd, pai.getChave(j));
+                    pai.setC(j + 1 + qtd, pai.getC(j + 1));
+                    if (contagens) {
+                        pai.setContagem(j + 1 + qtd, pai.getContagem(j + 1));
+                    }
+                }
+                for (int j = 0; j < qtd; j++) {
+                    pai.setChave(p + j, separadores[j]);
+                    pai.setC(p + 1 + j, novos[j]);
+                    if (contagens) {
+                        pai.setContagem(p + 1 + j, contar(novos[j]));
+                    }
+                }
+                if (contagens) {
+                    pai.setContagem(p, contar(pai.getC(p)));
+                }
+                pai.setN(n + qtd);
+                return;
+            }
+
+            // Junta chaves e filhos do pai com os novos
+            int total = n + qtd;
+            int[] chaves = new int[total];
+            No[] filhos = new No[total + 1];
+            int[] qtdes = new int[total + 1];
+            for (int j = 0; j < p; j++) {
+                chaves[j] = pai.getChave(j);
+            }
+            for (int j = 0; j <= p; j++) {
+                filhos[j] = pai.getC(j);
+                qtdes[j] = pai.getContagem(j);
+            }
+            for (int j = 0; j < qtd; j++) {
+                chaves[p + j] = separadores[j];
+                filhos[p + 1 + j] = novos[j];
+            }
+            for (int j = p; j < n; j++) {
+                chaves[j + qtd] = pai.getChave(j);
+                filhos[j + 1 + qtd] = pai.getC(j + 1);
+                qtdes[j + 1 + qtd] = pai.getContagem(j + 1);
+            }
+            if (contagens) {
+                // O filho dividido e os novos têm as contagens recalculadas
+                for (int j = p; j <= p + qtd; j++) {
+                    qtdes[j] = contar(filhos[j]);
+                }
+            }
+
+            // Divide os filhos igualmente entre q nós internos
+            int q = (total + 1 + 2 * t - 1) / (2 * t);
+            contar(MetricasArvore.Contador.DIVISOES, q - 1);
+            int[] promovidos = new int[q - 1];
+            No[] irmaos = new No[q - 1];
+            No atual = pai;
+            int inicio = 0;
+            for (int f = 0; f < q; f++) {
+                int qtdeFilhos = (total + 1) / q + (f < (total + 1) % q ? 1 : 0);
+                if (f > 0) {
+                    atual = new No(t, false);
+                    // A chave entre os dois nós sobe para o nível de cima
+                    promovidos[f - 1] = chaves[inicio - 1];
+                    irmaos[f - 1] = atual;
+                }
+                for (int j = 0; j < qtdeFilhos; j++) {
+                    atual.setC(j, filhos[inicio + j]);
+                    if (contagens) {
+                        atual.setContagem(j, qtdes[inicio + j]);
+                    }
+                    if (j > 0) {
+                        atual.setChave(j - 1, chaves[inicio + j - 1]);
+                    }
+                }
+                for (int j = qtdeFilhos - 1; j < 2 * t - 1; j++) {
+                    atual.setChave(j, 0);
+                    atual.setC(j + 1, null);
+                }
+                atual.setN(qtdeFilhos - 1);
+                // Pula a chave promovida entre este nó e o próximo
+                inicio = inicio + qtdeFilhos;
+            }
+            separadores = promovidos;
+            novos = irmaos;
+            qtd = q - 1;
+            nivel--;
+        }
+    }
+
+    /**
+     * Procura nó na árvore.Procura uma chave k na sub-arvore do nó atual.
+     *
+     * Baseado no métodoB-TREE-SEARCH(x,k) Thomas H. Cormen Página 492
+     *
+     * @param _raiz Raiz da sub-ãrvore.
+     * @param k Chave a ser procurada.
+     * @return Retorna o nó que possui o valor k.
+     */
+    private No procurar(No no, int k) {
+        // CASO BASE: NÓ NULO
+        if (no == null) {
+            // Se o nó for nulo, a chave não existe na árvore
+            return null;
+        }
+        contar(MetricasArvore.Contador.NOS_VISITADOS);
+
+        // CASO 1: NÓ É FOLHA
+        if (no.getFolha()) {
+            // Encontra a posição onde k deveria estar
+            int i = no.procurarPosicaoChave(k, busca);
+            // Verifica se a chave foi encontrada na posição i
+            if (i < no.getN() && k == no.getChave(i)) {
+                // Retorna o nó onde a chave está localizada
+                return no;
+            }
+            // Se não encontrou, a chave não existe na árvore
+            return null;
+        }
+
+        // CASO 2: NÓ INTERNO
+        // Continua a busca recursivamente no filho correto
+        // O filho a seguir é o da primeira chave maior que k
+        int i = no.procurarPosicaoFilho(k, busca);
+        No encontrado = procurar(no.getC(i), k);
+        // Chaves repetidas iguais ao separador podem ter ficado à esquerda
+        // dele em uma divisão
+        while (encontrado == null && i > 0 && no.getChave(i - 1) == k) {
+            i--;
+            encontrado = procurar(no.getC(i), k);
+        }
+        return encontrado;
+    }
+
+    /**
+     * Método auxiliar para procurar uma chave na árvore.
+     *
+     * Não precisa especificar a raiz.
+     *
+     * @param k Chave a ser procurada na árvore.
+     * @return O nó encontrado ou null.
+     */
+    public No procurar(int k) {
+        if (metricas == null) {
+            return this.procurar(this.getRaiz(), k);
+        }
+        long inicio = System.nanoTime();
+        No no = this.procurar(this.getRaiz(), k);
+        metricas.contar(MetricasArvore.Contador.BUSCAS);
+        metricas.contar(MetricasArvore.Contador.DESCIDAS);
+        metricas.registrarLatencia(MetricasArvore.Operacao.PROCURAR, inicio);
+        return no;
+    }
+
+    /**
+     * Soma qtde à multiplicidade de uma chave já presente no modo
+     * multiconjunto.
+     *
+     * A soma só é feita se a chave estiver na árvore e continuar com ao
+     * menos uma ocorrência, assim a estrutura da árvore não muda. As
+     * contagens dos filhos no caminho também recebem qtde.
+     *
+     * @param k Chave a ser alterada.
+     * @param qtde Quantidade a ser somada, negativa para remover.
+     * @return Verdadeiro se a multiplicidade foi alterada.
+     */
+    private boolean somar(int k, int qtde) {
+        No no = raiz;
+        if (no == null) {
+            return false;
+        }
+        contar(MetricasArvore.Contador.DESCIDAS);
+        // As chaves são distintas, a descida pelo separador é exata
+        while (!no.getFolha()) {
+            contar(MetricasArvore.Contador.NOS_VISITADOS);
+            no = no.getC(no.procurarPosicaoFilho(k, busca));
+        }
+        contar(MetricasArvore.Contador.NOS_VISITADOS);
+        int i = no.procurarPosicaoChave(k, busca);
+        if (i == no.getN() || no.getChave(i) != k || no.getMultiplicidade(i) + qtde < 1) {
+            return false;
+        }
+        no.setMultiplicidade(i, no.getMultiplicidade(i) + qtde);
+        if (contagens) {
+            for (No x = raiz; !x.getFolha();) {
+                int j = x.procurarPosicaoFilho(k, busca);
+                x.setContagem(j, x.getContagem(j) + qtde);
+                x = x.getC(j);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Conta as ocorrências de uma chave.
+     *
+     * Funciona nos dois modos: no multiconjunto lê a multiplicidade da
+     * chave, fora dele conta as posições repetidas seguindo as folhas.
+     *
+     * @param k Chave a ser contada.
+     * @return A quantidade de ocorrências de k, 0 se k não estiver na árvore.
+     */
+    public int multiplicidade(int k) {
+        int cont = 0;
+        No folha = procurarFolha(k);
+        if (folha != null) {
+            int i = folha.procurarPosicaoChave(k, busca);
+            while (folha != null) {
+                for (; i < folha.getN(); i++) {
+                    if (folha.getChave(i) != k) {
+                        return cont;
+                    }
+                    cont = cont + folha.getMultiplicidade(i);
+                }
+                folha = folha.getProximo();
+                i = 0;
+            }
+        }
+        return cont;
+    }
+
+    /**
+     * Percorre as chaves distintas do intervalo [lo, hi] com as suas
+     * multiplicidades, no modo multiconjunto.
+     *
+     * @param lo Limite inferior do intervalo (inclusivo).
+     * @param hi Limite superior do intervalo (inclusivo).
+     * @param consumidor Recebe cada chave e a sua quantidade de ocorrências.
+     * @return A quantidade de chaves distintas encontradas.
+     */
+    public int multiplicidades(int lo, int hi, ConsumidorChaveValorLong consumidor) {
+        verificarMulticonjunto();
+        int cont = 0;
+        No folha = procurarFolha(lo);
+        if (folha != null) {
+            int i = folha.procurarPosicaoChave(lo, busca);
+            while (folha != null) {
+                for (; i < folha.getN(); i++) {
+                    int k = folha.getChave(i);
+                    if (k > hi) {
+                        return cont;
+                    }
+                    consumidor.aceitar(k, folha.getMultiplicidade(i));
+                    cont = cont + 1;
+                }
+                folha = folha.getProximo();
+                i = 0;
+            }
+        }
+        return cont;
+    }
+
+    /**
+     * Procura a primeira folha que pode conter chaves maiores ou iguais a k.
+     *
+     * Desce uma única vez da raiz até a folha seguindo o filho da primeira
+     * chave maior ou igual a k, assim chaves repetidas iguais a k que ficaram
+     * à esquerda do separador não são perdidas.
+     *
+     * @param k Limite inferior da busca.
+     * @return A folha encontrada ou null se a árvore estiver vazia.
+     */
+    private No procurarFolha(int k) {
+        No no = this.getRaiz();
+        while (no != null && !no.getFolha()) {
+            contar(MetricasArvore.Contador.NOS_VISITADOS);
+            no = no.getC(no.procurarPosicaoChave(k, busca));
+        }
+        if (no != null) {
+            contar(MetricasArvore.Contador.NOS_VISITADOS);
+            contar(MetricasArvore.Contador.DESCIDAS);
+        }
+        return no;
+    }
+
+    /**
+     * Percorre as chaves do intervalo [lo, hi] em ordem.
+     *
+     * Desce uma vez até a primeira folha do intervalo e segue o encadeamento
+     * das folhas pelo próximo nó, sem percorrer a árvore inteira.
+     *
+     * @param lo Limite inferior do intervalo (inclusivo).
+     * @param hi Limite superior do intervalo (inclusivo).
+     * @param consumidor Recebe cada chave encontrada no intervalo.
+     * @return A quantidade de chaves encontradas.
+     */
+    public int intervalo(int lo, int hi, IntConsumer consumidor) {
+        if (metricas == null) {
+            return percorrerIntervalo(lo, hi, consumidor);
+        }
+        long inicio = System.nanoTime();
+        int cont = percorrerIntervalo(lo, hi, consumidor);
+        metricas.contar(MetricasArvore.Contador.INTERVALOS);
+        metricas.registrarLatencia(MetricasArvore.Operacao.INTERVALO, inicio);
+        return cont;
+    }
+
+    /**
+     * Percorre as chaves do intervalo [lo, hi] em ordem, sem medir.
+     *
+     * @param lo Limite inferior do intervalo (inclusivo).
+     * @param hi Limite superior do intervalo (inclusivo).
+     * @param consumidor Recebe cada chave encontrada no intervalo.
+     * @return A quantidade de chaves encontradas.
+     */
+    private int percorrerIntervalo(int lo, int hi, IntConsumer consumidor) {
+        int cont = 0;
+        No folha = procurarFolha(lo);
+        if (folha != null) {
+            int i = folha.procurarPosicaoChave(lo, busca);
+            while (folha != null) {
+                for (; i < folha.getN(); i++) {
+                    int k = folha.getChave(i);
+                    if (k > hi) {
+                        return cont;
+                    }
+                    // Uma vez para cada ocorrência da chave
+                    for (int r = folha.getMultiplicidade(i); r > 0; r--) {
+                        consumidor.accept(k);
+                        cont = cont + 1;
+                    }
+                }
+                // Segue para a próxima folha
+                folha = folha.getProximo();
+                i = 0;
+            }
+        }
+        return cont;
+    }
+
+    /**
+     * Preenche um vetor com as chaves do intervalo [lo, hi] em ordem.
+     *
+     * Para ler intervalos maiores que o vetor, chame novamente com lo igual à
+     * última chave devolvida mais 1. No modo multiconjunto, as ocorrências de
+     * uma chave só são copiadas se couberem todas no vetor, a não ser que a
+     * chave seja a primeira do intervalo.
+     *
+     * @param lo Limite inferior do intervalo (inclusivo).
+     * @param hi Limite superior do intervalo (inclusivo).
+     * @param destino Vetor a ser preenchido a partir da posição 0.
+     * @return A quantidade de chaves copiadas para o vetor.
+     */
+    public int intervalo(int lo, int hi, int[] destino) {
+        int cont = 0;
+        No folha = procurarFolha(lo);
+        if (folha != null) {
+            int i = folha.procurarPosicaoChave(lo, busca);
+            while (folha != null && cont < destino.length) {
+                int n = folha.getN();
+                for (; i < n && cont < destino.length; i++) {
+                    int k = folha.getChave(i);
+                    if (k > hi) {
+                        return cont;
+                    }
+                    int r = folha.getMultiplicidade(i);
+                    if (r > destino.length - cont) {
+                        if (cont > 0) {
+                            // A chave fica inteira para a próxima chamada
+                            return cont;
+                        }
+                        r = destino.length;
+                    }
+                    Arrays.fill(destino, cont, cont + r, k);
+                    cont = cont + r;
+                }
+                // Segue para a próxima folha
+                folha = folha.getProximo();
+                i = 0;
+            }
+        }
+        return cont;
+    }
+
+    /**
+     * Retorna um iterador sobre as chaves do intervalo [lo, hi] em ordem.
+     *
+     * O iterador devolve int primitivos e segue o encadeamento das folhas.
+     * A árvore não deve ser modificada enquanto o iterador estiver em uso.
+     *
+     * @param lo Limite inferior do intervalo (inclusivo).
+     * @param hi Limite superior do intervalo (inclusivo).
+     * @return Um iterador de int sobre o intervalo.
+     */
+    public PrimitiveIterator.OfInt intervalo(int lo, int hi) {
+        No folha = procurarFolha(lo);
+        int i = folha == null ? 0 : folha.procurarPosicaoChave(lo, busca);
+        return new IteradorIntervalo(folha, i, hi);
+    }
+
+    /**
+     * Iterador sobre as chaves de um intervalo seguindo o encadeamento das
+     * folhas.
+     */
+    private static class IteradorIntervalo implements PrimitiveIterator.OfInt {
+
+        /**
+         * Folha atual.
+         */
+        private No folha;
+
+        /**
+         * Posição da próxima chave na folha atual.
+         */
+        private int i;
+
+        /**
+         * Ocorrências da chave atual já devolvidas.
+         */
+        private int repeticoes;
+
+        /**
+         * Limite superior do intervalo (inclusivo).
+         */
+        private final int hi;
+
+        /**
+         * Construtor com parâmetros.
+         *
+         * @param folha Primeira folha do intervalo.
+         * @param i Posição da primeira chave na folha.
+         * @param hi Limite superior do intervalo (inclusivo).
+         */
+        IteradorIntervalo(No folha, int i, int hi) {
+            this.folha = folha;
+            this.i = i;
+            this.hi = hi;
+            avancar();
+        }
+
+        /**
+         * Posiciona na próxima chave válida, pulando folhas esgotadas.
+         */
+        private void avancar() {
+            while (folha != null && i >= folha.getN()) {
+                folha = folha.getProximo();
+                i = 0;
+            }
+            if (folha != null && folha.getChave(i) > hi) {
+                folha = null;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return folha != null;
+        }
+
+        @Override
+        public int nextInt() {
+            if (folha == null) {
+                throw new NoSuchElementException();
+            }
+            int k = folha.getChave(i);
+            repeticoes = repeticoes + 1;
+            if (repeticoes == folha.getMultiplicidade(i)) {
+                repeticoes = 0;
+                i = i + 1;
+                avancar();
+            }
+            return k;
+        }
+    }
+
+    /**
+     * Retorna todas as chaves em ordem.
+     *
+     * @return Fluxo com as chaves das folhas, que pode ser paralelizado.
+     */
+    public IntStream chaves() {
+        return chaves(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Retorna as chaves do intervalo [lo, hi] em ordem.
+     *
+     * O fluxo é dividido pelos filhos dos nós internos e não pelo
+     * encadeamento das folhas, assim parallel() distribui subárvores inteiras
+     * entre as threads do ForkJoinPool. A árvore não deve ser modificada
+     * enquanto o fluxo estiver em uso.
+     *
+     * @param lo Limite inferior do intervalo (inclusivo).
+     * @param hi Limite superior do intervalo (inclusivo).
+     * @return Fluxo com as chaves do intervalo.
+     */
+    public IntStream chaves(int lo, int hi) {
+        return StreamSupport.intStream(new DivisorChaves(raiz, lo, hi, t, tFolha, busca), false);
+    }
+
+    /**
+     * Divisor(spliterator) das chaves de um intervalo.
+     *
+     * Antes de começar o percurso, cobre uma faixa de filhos de um nó
+     * interno e se divide na metade dessa faixa, descendo para o filho
+     * quando só resta um. O percurso segue o encadeamento das folhas a partir
+     * da primeira folha da faixa até a primeira folha da faixa seguinte.
+     */
+    private static class DivisorChaves implements Spliterator.OfInt {
+
+        /**
+         * Nó cujos filhos são divididos ou null depois de iniciar o percurso.
+         */
+        private No no;
+
+        /**
+         * Primeiro filho da faixa.
+         */
+        private int de;
+
+        /**
+         * Último filho da faixa.
+         */
+        private int ate;
+
+        /**
+         * Quantidade de níveis abaixo do nó.
+         */
+        private int niveis;
+
+        /**
+         * Folha atual do percurso.
+         */
+        private No folha;
+
+        /**
+         * Posição da próxima chave na folha atual.
+         */
+        private int i;
+
+        /**
+         * Ocorrências da chave atual já devolvidas.
+         */
+        private int repeticoes;
+
+        /**
+         * Primeira folha depois da faixa ou null no fim do encadeamento.
+         */
+        private final No fim;
+
+        /**
+         * Limite inferior do intervalo (inclusivo).
+         */
+        private final int lo;
+
+        /**
+         * Limite superior do intervalo (inclusivo).
+         */
+        private final int hi;
+
+        /**
+         * Ordem dos nós internos, usada na estimativa de tamanho.
+         */
+        private final int t;
+
+        /**
+         * Ordem das folhas, usada na estimativa de tamanho.
+         */
+        private final int tFolha;
+
+        /**
+         * Estratégia de busca das chaves dentro dos nós.
+         */
+        private final EstrategiaBusca busca;
+
+        /**
+         * Construtor do intervalo inteiro a partir da raiz.
+         *
+         * @param raiz Raiz da árvore ou null.
+         * @param lo Limite inferior do intervalo (inclusivo).
+         * @param hi Limite superior do intervalo (inclusivo).
+         * @param t Ordem dos nós internos.
+         * @param tFolha Ordem das folhas.
+         * @param busca Estratégia de busca das chaves dentro dos nós.
+         */
+        DivisorChaves(No raiz, int lo, int hi, int t, int tFolha, EstrategiaBusca busca) {
+            this.lo = lo;
+            this.hi = hi;
+            this.t = t;
+            this.tFolha = tFolha;
+            this.busca = busca;
+            this.fim = null;
+            if (raiz == null || lo > hi) {
+                // Intervalo vazio
+                return;
+            }
+            if (raiz.getFolha()) {
+                this.folha = raiz;
+                this.i = raiz.procurarPosicaoChave(lo, busca);
+            } else {
+                this.no = raiz;
+                this.de = raiz.procurarPosicaoChave(lo, busca);
+                this.ate = Math.max(de, raiz.procurarPosicaoFilho(hi, busca));
+                for (No x = raiz; !x.getFolha(); x = x.getC(0)) {
+                    this.niveis++;
+                }
+            }
+        }
+
+        /**
+         * Construtor da parte da esquerda de uma divisão.
+         *
+         * @param outro Divisor que foi dividido.
+         * @param ate Último filho da parte da esquerda.
+         * @param fim Primeira folha da parte da direita.
+         */
+        private DivisorChaves(DivisorChaves outro, int ate, No fim) {
+            this.no = outro.no;
+            this.de = outro.de;
+            this.ate = ate;
+            this.niveis = outro.niveis;
+            this.fim = fim;
+            this.lo = outro.lo;
+            this.hi = outro.hi;
+            this.t = outro.t;
+            this.tFolha = outro.tFolha;
+            this.busca = outro.busca;
+        }
+
+        @Override
+        public OfInt trySplit() {
+            if (no == null) {
+                return null;
+            }
+            // Desce enquanto a faixa tiver um único filho interno
+            while (de == ate && niveis > 1) {
+                No filho = no.getC(de);
+                no = filho;
+                de = filho.procurarPosicaoChave(lo, busca);
+                ate = Math.max(de, filho.procurarPosicaoFilho(hi, busca));
+                niveis--;
+            }
+            if (de == ate) {
+                return null;
+            }
+            int meio = (de + ate + 1) / 2;
+            No primeira = no.getC(meio);
+            while (!primeira.getFolha()) {
+                primeira = primeira.getC(0);
+            }
+            DivisorChaves esquerda = new DivisorChaves(this, meio - 1, primeira);
+            de = meio;
+            return esquerda;
+        }
+
+        /**
+         * Desce até a primeira folha da faixa e encerra as divisões.
+         */
+        private void iniciar() {
+            if (no != null) {
+                No x = no.getC(de);
+                while (!x.getFolha()) {
+                    x = x.getC(x.procurarPosicaoChave(lo, busca));
+                }
+                folha = x;
+                i = x.procurarPosicaoChave(lo, busca);
+                no = null;
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer consumidor) {
+            iniciar();
+            while (folha != null && folha != fim) {
+                if (i < folha.getN()) {
+                    int k = folha.getChave(i);
+                    if (k > hi) {
+                        folha = null;
+                        return false;
+                    }
+                    repeticoes = repeticoes + 1;
+                    if (repeticoes == folha.getMultiplicidade(i)) {
+                        repeticoes = 0;
+                        i = i + 1;
+                    }
+                    consumidor.accept(k);
+                    return true;
+                }
+                // Segue para a próxima folha
+                folha = folha.getProximo();
+                i = 0;
+            }
+            folha = null;
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer consumidor) {
+            iniciar();
+            while (folha != null && folha != fim) {
+                for (; i < folha.getN(); i++) {
+                    int k = folha.getChave(i);
+                    if (k > hi) {
+                        folha = null;
+                        return;
+                    }
+                    for (int r = folha.getMultiplicidade(i) - repeticoes; r > 0; r--) {
+                        consumidor.accept(k);
+                    }
+                    repeticoes = 0;
+                }
+                folha = folha.getProximo();
+                i = 0;
+            }
+            folha = null;
+        }
+
+        @Override
+        public long estimateSize() {
+            if (no == null) {
+                return folha == null ? 0 : 2L * tFolha;
+            }
+            // Cada subárvore tem em média cerca de 1,5t filhos por nível
+            // interno e 1,5tFolha chaves por folha
+            double porFilho = Math.pow(1.5 * t, niveis - 1) * 1.5 * tFolha;
+            return (long) Math.min(Long.MAX_VALUE, (ate - de + 1) * porFilho);
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SORTED | Spliterator.NONNULL;
+        }
+
+        @Override
+        public Comparator<? super Integer> getComparator() {
+            // Ordem natural das chaves
+            return null;
+        }
+    }
+
+    /**
+     * Excluir árvore recursivamente apartir de _raiz.
+     *
+     * @param _raiz Início da árvore a ser excluida.
+     * @return Retorna nul para o nó apgado.
+     */
+    private No apagar(No _raiz) {
+        if (_raiz != null) {
+            if (!_raiz.getFolha()) {
+                for (int i = 0; i <= _raiz.getN(); ++i) {
+                    apagar(_raiz.getC(i));
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Apaga a árvore apartir da raiz.
+     */
+    public void apagar() {
+        this.setRaiz(apagar(this.getRaiz()));
+    }
+
+    /**
+     * Encontra a chave com o valor mínimo na árvore.
+     *
+     * @param _raiz Início da árvore.
      * @return A chave miníma da árvore.
      */
     private int getValorMinimo(No _raiz) {
@@ -719,6 +2338,106 @@ public class ArvoreBPlus {
         return this.contarNo(this.getRaiz());
     }
 
+    /**
+     * Retorna a quantidade de chaves da árvore, O(1).
+     *
+     * @return A quantidade de chaves.
+     */
+    public int tamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Verifica se as contagens dos filhos estão ligadas.
+     */
+    private void verificarContagens() {
+        if (!contagens) {
+            throw new IllegalStateException("Contagens dos filhos desligadas nesta árvore");
+        }
+    }
+
+    /**
+     * Conta as chaves menores que k, O(log n).
+     *
+     * Segue a mesma descida de procurarFolha e soma as contagens dos filhos
+     * à esquerda do caminho.
+     *
+     * @param k Chave de referência.
+     * @return A quantidade de chaves menores que k.
+     */
+    public int rank(int k) {
+        verificarContagens();
+        int cont = 0;
+        No no = raiz;
+        if (no == null) {
+            return 0;
+        }
+        while (!no.getFolha()) {
+            int i = no.procurarPosicaoChave(k, busca);
+            for (int j = 0; j < i; j++) {
+                cont = cont + no.getContagem(j);
+            }
+            no = no.getC(i);
+        }
+        int i = no.procurarPosicaoChave(k, busca);
+        if (!multiconjunto) {
+            return cont + i;
+        }
+        for (int j = 0; j < i; j++) {
+            cont = cont + no.getMultiplicidade(j);
+        }
+        return cont;
+    }
+
+    /**
+     * Encontra a chave da posição i na ordem crescente, O(log n).
+     *
+     * @param i Posição da chave, a partir de 0.
+     * @return A chave da posição i.
+     */
+    public int selecionar(int i) {
+        verificarContagens();
+        if (i < 0 || i >= tamanho) {
+            throw new IllegalArgumentException("Posição inválida: " + i);
+        }
+        No no = raiz;
+        while (!no.getFolha()) {
+            int j = 0;
+            // Pula os filhos com todas as chaves antes da posição i
+            while (i >= no.getContagem(j)) {
+                i = i - no.getContagem(j);
+                j = j + 1;
+            }
+            no = no.getC(j);
+        }
+        if (!multiconjunto) {
+            return no.getChave(i);
+        }
+        int j = 0;
+        // Pula as chaves com todas as ocorrências antes da posição i
+        while (i >= no.getMultiplicidade(j)) {
+            i = i - no.getMultiplicidade(j);
+            j = j + 1;
+        }
+        return no.getChave(j);
+    }
+
+    /**
+     * Conta as chaves do intervalo [lo, hi], O(log n).
+     *
+     * @param lo Limite inferior do intervalo (inclusivo).
+     * @param hi Limite superior do intervalo (inclusivo).
+     * @return A quantidade de chaves do intervalo.
+     */
+    public int contarIntervalo(int lo, int hi) {
+        verificarContagens();
+        if (lo > hi) {
+            return 0;
+        }
+        int ate = hi == Integer.MAX_VALUE ? tamanho : rank(hi + 1);
+        return ate - rank(lo);
+    }
+
     /**
      * Retorna uma String com os valores dos nós folhas de uma árvore binária.
      *
@@ -778,36 +2497,96 @@ public class ArvoreBPlus {
     /**
      * Remove uma chave da sub-árvore.
      *
-     * Utiliza uma rotina recursiva.
+     * Utiliza uma rotina recursiva. Ao retornar de um filho que ficou com
+     * menos de t - 1 chaves, o filho é corrigido pegando emprestada uma chave
+     * de um irmão ou juntando-se a ele, de modo que todo nó, exceto a raiz,
+     * mantenha a ocupação mínima.
+     *
+     * No modo multiconjunto remove uma única ocorrência da chave.
      *
-     * @param _raiz Raiz da sub-árvore.
      * @param k Chave a ser removida.
+     * @return Verdadeiro se a chave foi removida.
      */
     public boolean remover(int k) {
-        if (raiz == null) {
-            return false;
+        return removerOcorrencias(k, 1) > 0;
+    }
+
+    /**
+     * Remove até qtde ocorrências de uma chave no modo multiconjunto.
+     *
+     * Enquanto sobrar alguma ocorrência só a multiplicidade diminui; a
+     * posição da chave é retirada da folha quando todas são removidas.
+     *
+     * @param k Chave a ser removida.
+     * @param qtde Quantidade máxima de ocorrências, maior que zero.
+     * @return A quantidade de ocorrências removidas.
+     */
+    public int remover(int k, int qtde) {
+        verificarMulticonjunto();
+        if (qtde < 1) {
+            throw new IllegalArgumentException("Quantidade inválida: " + qtde);
         }
+        return removerOcorrencias(k, qtde);
+    }
 
-        boolean ok = remover(raiz, k);
+    /**
+     * Remove ocorrências de uma chave.
+     *
+     * @param k Chave a ser removida.
+     * @param qtde Quantidade máxima de ocorrências, 1 fora do modo
+     * multiconjunto.
+     * @return A quantidade de ocorrências removidas.
+     */
+    private int removerOcorrencias(int k, int qtde) {
+        if (raiz == null) {
+            return 0;
+        }
+        long inicio = metricas == null ? 0 : System.nanoTime();
 
-        if (!raiz.getFolha() && raiz.getN() == 0) {
-            raiz = raiz.getC(0);
+        int removidas;
+        if (multiconjunto && somar(k, -qtde)) {
+            // Sobraram ocorrências, a estrutura da árvore não muda
+            removidas = qtde;
+        } else {
+            contar(MetricasArvore.Contador.DESCIDAS);
+            removidas = remover(raiz, k);
+
+            if (!raiz.getFolha() && raiz.getN() == 0) {
+                // Raiz interna sem chaves, o único filho passa a ser a raiz
+                raiz = raiz.getC(0);
+                contar(MetricasArvore.Contador.COLAPSOS_RAIZ);
+            } else if (raiz.getFolha() && raiz.getN() == 0) {
+                // Última chave removida, a árvore fica vazia
+                raiz = null;
+            }
+        }
+        tamanho = tamanho - removidas;
+        if (metricas != null) {
+            metricas.contar(MetricasArvore.Contador.REMOCOES);
+            metricas.registrarLatencia(MetricasArvore.Operacao.REMOVER, inicio);
         }
 
-        return ok;
+        return removidas;
     }
 
-    private boolean remover(No no, int k) {
-        int i = 0;
-        while (i < no.getN() && k > no.getChave(i)) {
-            i++;
-        }
+    /**
+     * Remove uma chave da sub-árvore de no.
+     *
+     * @param no Raiz da sub-árvore.
+     * @param k Chave a ser removida.
+     * @return A quantidade de ocorrências removidas: 0 se a chave não foi
+     * encontrada, a multiplicidade da chave no modo multiconjunto ou 1.
+     */
+    private int remover(No no, int k) {
+        contar(MetricasArvore.Contador.NOS_VISITADOS);
         // Caso folha
         if (no.getFolha()) {
+            int i = no.procurarPosicaoChave(k, busca);
             if (i < no.getN() && no.getChave(i) == k) {
+                int removidas = no.getMultiplicidade(i);
                 // Shift para esquerda
                 for (int j = i + 1; j < no.getN(); j++) {
-                    no.setChave(j - 1, no.getChave(j));
+                    copiarChave(no, j, no, j - 1);
                 }
                 // Zera a última posição
                 no.setChave(no.getN() - 1, 0);
@@ -815,11 +2594,194 @@ public class ArvoreBPlus {
                 // Atualiza quantidade
                 no.setN(no.getN() - 1);
 
-                return true;
+                return removidas;
             }
-            return false;
+            return 0;
         }
 
-        return remover(no.getC(i), k);
+        int i = no.procurarPosicaoFilho(k, busca);
+        int removidas = remover(no.getC(i), k);
+        // Chaves repetidas iguais ao separador podem ter ficado à esquerda
+        // dele em uma divisão
+        while (removidas == 0 && i > 0 && no.getChave(i - 1) == k) {
+            i--;
+            removidas = remover(no.getC(i), k);
+        }
+        if (removidas > 0 && contagens) {
+            no.setContagem(i, no.getContagem(i) - removidas);
+        }
+        if (removidas > 0 && no.getC(i).getN() < ordem(no.getC(i)) - 1) {
+            // O filho ficou abaixo da ocupação mínima
+            corrigirFilho(no, i);
+        }
+        return removidas;
+    }
+
+    /**
+     * Corrige o filho i do pai que ficou abaixo da ocupação mínima.
+     *
+     * Se um irmão vizinho tiver chaves sobrando, uma chave é emprestada dele.
+     * Caso contrário o filho é juntado(merge) com um irmão.
+     *
+     * @param pai Nó pai do filho a ser corrigido.
+     * @param i Posição do filho no pai.
+     */
+    private void corrigirFilho(No pai, int i) {
+        // Os irmãos têm a mesma ordem do filho
+        int minimo = ordem(pai.getC(i)) - 1;
+        if (i > 0 && pai.getC(i - 1).getN() > minimo) {
+            emprestarEsquerda(pai, i);
+        } else if (i < pai.getN() && pai.getC(i + 1).getN() > minimo) {
+            emprestarDireita(pai, i);
+        } else if (i > 0) {
+            juntar(pai, i - 1);
+        } else {
+            juntar(pai, i);
+        }
+    }
+
+    /**
+     * Move a última chave do irmão da esquerda para o filho i.
+     *
+     * @param pai Nó pai do filho.
+     * @param i Posição do filho no pai.
+     */
+    private void emprestarEsquerda(No pai, int i) {
+        No filho = pai.getC(i);
+        No esq = pai.getC(i - 1);
+        // Quantidade de chaves que passa para o filho
+        int movidas = filho.getFolha() ? esq.getMultiplicidade(esq.getN() - 1) : esq.getContagem(esq.getN());
+        // Abre espaço na primeira posição do filho
+        for (int j = filho.getN() - 1; j >= 0; j--) {
+            copiarChave(filho, j, filho, j + 1);
+        }
+        if (filho.getFolha()) {
+            // A última chave da esquerda passa para o filho
+            copiarChave(esq, esq.getN() - 1, filho, 0);
+            // O separador passa a ser a nova menor chave do filho
+            pai.setChave(i - 1, filho.getChave(0));
+        } else {
+            for (int j = filho.getN(); j >= 0; j--) {
+                filho.setC(j + 1, filho.getC(j));
+                if (contagens) {
+                    filho.setContagem(j + 1, filho.getContagem(j));
+                }
+            }
+            // O separador desce para o filho e a última chave da esquerda sobe
+            filho.setChave(0, pai.getChave(i - 1));
+            filho.setC(0, esq.getC(esq.getN()));
+            if (contagens) {
+                filho.setContagem(0, movidas);
+            }
+            esq.setC(esq.getN(), null);
+            pai.setChave(i - 1, esq.getChave(esq.getN() - 1));
+        }
+        esq.setChave(esq.getN() - 1, 0);
+        esq.setN(esq.getN() - 1);
+        filho.setN(filho.getN() + 1);
+        if (contagens) {
+            pai.setContagem(i - 1, pai.getContagem(i - 1) - movidas);
+            pai.setContagem(i, pai.getContagem(i) + movidas);
+        }
+    }
+
+    /**
+     * Move a primeira chave do irmão da direita para o filho i.
+     *
+     * @param pai Nó pai do filho.
+     * @param i Posição do filho no pai.
+     */
+    private void emprestarDireita(No pai, int i) {
+        No filho = pai.getC(i);
+        No dir = pai.getC(i + 1);
+        // Quantidade de chaves que passa para o filho
+        int movidas = filho.getFolha() ? dir.getMultiplicidade(0) : dir.getContagem(0);
+        if (filho.getFolha()) {
+            // A primeira chave da direita passa para o filho
+            copiarChave(dir, 0, filho, filho.getN());
+        } else {
+            // O separador desce para o filho e a primeira chave da direita sobe
+            filho.setChave(filho.getN(), pai.getChave(i));
+            filho.setC(filho.getN() + 1, dir.getC(0));
+            if (contagens) {
+                filho.setContagem(filho.getN() + 1, movidas);
+            }
+            pai.setChave(i, dir.getChave(0));
+            for (int j = 0; j < dir.getN(); j++) {
+                dir.setC(j, dir.getC(j + 1));
+                if (contagens) {
+                    dir.setContagem(j, dir.getContagem(j + 1));
+                }
+            }
+            dir.setC(dir.getN(), null);
+        }
+        // Fecha o espaço da primeira posição da direita
+        for (int j = 0; j < dir.getN() - 1; j++) {
+            copiarChave(dir, j + 1, dir, j);
+        }
+        dir.setChave(dir.getN() - 1, 0);
+        dir.setN(dir.getN() - 1);
+        filho.setN(filho.getN() + 1);
+        if (filho.getFolha()) {
+            // O separador passa a ser a nova menor chave da direita
+            pai.setChave(i, dir.getChave(0));
+        }
+        if (contagens) {
+            pai.setContagem(i, pai.getContagem(i) + movidas);
+            pai.setContagem(i + 1, pai.getContagem(i + 1) - movidas);
+        }
+    }
+
+    /**
+     * Junta(merge) os filhos j e j + 1 do pai no filho j.
+     *
+     * O separador entre os dois é removido do pai. Em folhas o separador é
+     * apenas descartado e o encadeamento pula a folha da direita; em nós
+     * internos ele desce para o nó resultante.
+     *
+     * @param pai Nó pai dos filhos.
+     * @param j Posição do filho da esquerda no pai.
+     */
+    private void juntar(No pai, int j) {
+        No esq = pai.getC(j);
+        No dir = pai.getC(j + 1);
+        int n = esq.getN();
+        if (esq.getFolha()) {
+            for (int k = 0; k < dir.getN(); k++) {
+                copiarChave(dir, k, esq, n + k);
+            }
+            esq.setN(n + dir.getN());
+            // Retira a folha da direita do encadeamento
+            esq.setProximo(dir.getProximo());
+        } else {
+            // O separador desce para o nó resultante
+            esq.setChave(n, pai.getChave(j));
+            for (int k = 0; k < dir.getN(); k++) {
+                esq.setChave(n + 1 + k, dir.getChave(k));
+            }
+            for (int k = 0; k <= dir.getN(); k++) {
+                esq.setC(n + 1 + k, dir.getC(k));
+                if (contagens) {
+                    esq.setContagem(n + 1 + k, dir.getContagem(k));
+                }
+            }
+            esq.setN(n + 1 + dir.getN());
+        }
+        if (contagens) {
+            pai.setContagem(j, pai.getContagem(j) + pai.getContagem(j + 1));
+        }
+        // Remove o separador e o filho da direita do pai
+        for (int k = j; k < pai.getN() - 1; k++) {
+            pai.setChave(k, pai.getChave(k + 1));
+        }
+        for (int k = j + 1; k < pai.getN(); k++) {
+            pai.setC(k, pai.getC(k + 1));
+            if (contagens) {
+                pai.setContagem(k, pai.getContagem(k + 1));
+            }
+        }
+        pai.setChave(pai.getN() - 1, 0);
+        pai.setC(pai.getN(), null);
+        pai.setN(pai.getN() - 1);
     }
 }
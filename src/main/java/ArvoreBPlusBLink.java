@@ -0,0 +1,391 @@
+
+import java.util.function.IntConsumer;
+
+/**
+ * Árvore B-link (Lehman e Yao) para leituras sem travas.
+ *
+ * Todos os níveis têm ligações para a direita e chaves altas, não apenas as
+ * folhas. Ao dividir um nó, dividirNo publica primeiro o novo nó da direita e
+ * depois a nova versão do nó original, com a chave alta igual ao separador e
+ * a ligação para o novo nó. Quem procura uma chave e chega a um nó que foi
+ * dividido depois de ler o pai percebe que a chave está além da chave alta e
+ * segue a ligação para a direita, sem precisar de nenhuma trava.
+ *
+ * Quem escreve trava somente os nós que modifica: a folha e, em uma divisão,
+ * o pai onde o separador é inserido, soltando o filho depois de travar o
+ * pai. A remoção não junta nós, folhas podem ficar com poucas chaves ou
+ * vazias sem afetar a correção das buscas.
+ *
+ * As chaves formam um conjunto: inserir uma chave que já está na árvore não
+ * a modifica. Com chaves repetidas, uma divisão deixaria cópias iguais à
+ * chave alta na folha da esquerda, e quem segue a ligação para a direita ao
+ * chegar na chave alta nunca mais as encontraria.
+ *
+ */
+public class ArvoreBPlusBLink {
+
+    /**
+     * Nó de início da árvore.
+     */
+    private volatile NoBLink raiz;
+
+    /**
+     * Ordem da árvore;
+     */
+    private final int t;
+
+    /**
+     * Trava da criação de uma nova raiz.
+     */
+    private final Object travaRaiz;
+
+    /**
+     * Construtor com parâmetro.
+     *
+     * @param t Grau mínimo (define o intervalo para o número de chaves).
+     */
+    public ArvoreBPlusBLink(int t) {
+        if (t < 2) {
+            throw new IllegalArgumentException("Ordem inválida: " + t);
+        }
+        this.t = t;
+        this.travaRaiz = new Object();
+        // A árvore começa com uma folha vazia como raiz
+        this.raiz = new NoBLink(0, new NoBLink.Versao(new int[0], null, null, NoBLink.SEM_LIMITE));
+    }
+
+    /**
+     * Recuperador de t.
+     *
+     * @return O grau da árvore
+     */
+    public int getT() {
+        return t;
+    }
+
+    /**
+     * Encontra a altura da árvore.
+     *
+     * @return A altura da árvore.
+     */
+    public int getAltura() {
+        return raiz.getNivel() + 1;
+    }
+
+    /**
+     * Recuperador de início.
+     *
+     * @return O nó do início da árvore.
+     */
+    public NoBLink getRaiz() {
+        return raiz;
+    }
+
+    /**
+     * Desce sem travas até o nó do nível informado que cobre a chave k.
+     *
+     * @param k Chave procurada.
+     * @param nivel Nível de destino, 0 para as folhas.
+     * @param caminho Recebe o nó visitado em cada nível acima do destino ou
+     * null.
+     * @return O nó encontrado, que pode ter sido dividido depois da leitura.
+     */
+    private NoBLink descer(int k, int nivel, NoBLink[] caminho) {
+        NoBLink no = raiz;
+        while (true) {
+            NoBLink.Versao v = no.getVersao();
+            if (v.alemDoLimite(k)) {
+                // O nó foi dividido, a chave está à direita
+                no = v.getDireita();
+                continue;
+            }
+            if (no.getNivel() == nivel) {
+                return no;
+            }
+            if (caminho != null && no.getNivel() < caminho.length) {
+                caminho[no.getNivel()] = no;
+            }
+            no = v.getC(v.procurarPosicaoFilho(k));
+        }
+    }
+
+    /**
+     * Trava o nó que cobre a chave k, seguindo as ligações para a direita.
+     *
+     * O próximo nó é travado antes de soltar o atual.
+     *
+     * @param no Nó inicial do nível.
+     * @param k Chave procurada.
+     * @return O nó travado cuja chave alta é maior que k.
+     */
+    private static NoBLink travarCobrindo(NoBLink no, int k) {
+        no.getTrava().lock();
+        while (no.getVersao().alemDoLimite(k)) {
+            NoBLink direita = no.getVersao().getDireita();
+            direita.getTrava().lock();
+            no.getTrava().unlock();
+            no = direita;
+        }
+        return no;
+    }
+
+    /**
+     * Procura uma chave k na árvore, sem obter nenhuma trava.
+     *
+     * @param k Chave a ser procurada.
+     * @return Verdadeiro se a chave está na árvore.
+     */
+    public boolean procurar(int k) {
+        NoBLink.Versao v = descer(k, 0, null).getVersao();
+        while (v.alemDoLimite(k)) {
+            v = v.getDireita().getVersao();
+        }
+        int i = v.procurarPosicaoChave(k);
+        return i < v.getN() && v.getChave(i) == k;
+    }
+
+    /**
+     * Inserção na árvore B-link.
+     *
+     * Insere na folha e, se ela estiver cheia, divide-a e insere o
+     * separador no pai, subindo enquanto houver divisões.
+     *
+     * @param k Chave a ser inserida.
+     * @return Verdadeiro se a chave foi inserida, falso se ela já estava na
+     * árvore.
+     */
+    public boolean inserir(int k) {
+        NoBLink[] caminho = new NoBLink[raiz.getNivel() + 1];
+        NoBLink no = travarCobrindo(descer(k, 0, caminho), k);
+        NoBLink.Versao folha = no.getVersao();
+        int p = folha.procurarPosicaoChave(k);
+        if (p < folha.getN() && folha.getChave(p) == k) {
+            // A chave já está na árvore
+            no.getTrava().unlock();
+            return false;
+        }
+        int chave = k;
+        NoBLink filho = null;
+        while (true) {
+            NoBLink.Versao v = no.getVersao();
+            if (v.getN() < 2 * t - 1) {
+                no.setVersao(inserirEntrada(v, chave, filho));
+                no.getTrava().unlock();
+                return true;
+            }
+            NoBLink z = dividirNo(no, chave, filho);
+            // O separador é o limite entre o nó e o novo nó da direita
+            int separador = (int) no.getVersao().getAlta();
+            int nivelPai = no.getNivel() + 1;
+            NoBLink pai = nivelPai < caminho.length ? caminho[nivelPai] : null;
+            if (pai == null) {
+                if (criarRaiz(no, separador, z)) {
+                    no.getTrava().unlock();
+                    return true;
+                }
+                pai = procurarNivel(separador, nivelPai);
+            }
+            pai = travarCobrindo(pai, separador);
+            no.getTrava().unlock();
+            no = pai;
+            chave = separador;
+            filho = z;
+        }
+    }
+
+    /**
+     * Monta uma versão com uma nova entrada.
+     *
+     * @param v Versão atual do nó, que não está cheio.
+     * @param k Chave a ser inserida.
+     * @param filho Filho à direita da chave em um nó interno ou null.
+     * @return A nova versão.
+     */
+    private static NoBLink.Versao inserirEntrada(NoBLink.Versao v, int k, NoBLink filho) {
+        int n = v.getN();
+        int i = v.procurarPosicaoFilho(k);
+        int[] chave = new int[n + 1];
+        for (int j = 0; j < i; j++) {
+            chave[j] = v.getChave(j);
+        }
+        chave[i] = k;
+        for (int j = i; j < n; j++) {
+            chave[j + 1] = v.getChave(j);
+        }
+        NoBLink[] c = null;
+        if (filho != null) {
+            c = new NoBLink[n + 2];
+            for (int j = 0; j <= i; j++) {
+                c[j] = v.getC(j);
+            }
+            c[i + 1] = filho;
+            for (int j = i + 1; j <= n; j++) {
+                c[j + 1] = v.getC(j);
+            }
+        }
+        return new NoBLink.Versao(chave, c, v.getDireita(), v.getAlta());
+    }
+
+    /**
+     * Dividir(split) um nó cheio inserindo uma nova entrada.
+     *
+     * A folha da esquerda fica com as t menores chaves e a da direita com as
+     * demais, o separador é a menor chave da direita. Em um nó interno a
+     * chave do meio sobe e sai do nó, como em ArvoreBPlus.dividirNo. O novo
+     * nó é publicado antes da nova versão do nó dividido, que passa a ter o
+     * separador como chave alta e o novo nó à direita.
+     *
+     * @param no Nó cheio travado.
+     * @param k Chave a ser inserida.
+     * @param filho Filho à direita da chave em um nó interno ou null.
+     * @return O novo nó da direita.
+     */
+    private NoBLink dividirNo(NoBLink no, int k, NoBLink filho) {
+        NoBLink.Versao v = no.getVersao();
+        // Entradas do nó com a nova, 2t chaves
+        NoBLink.Versao cheia = inserirEntrada(v, k, filho);
+        int total = cheia.getN();
+        int[] esqChaves;
+        int[] dirChaves;
+        NoBLink[] esqFilhos = null;
+        NoBLink[] dirFilhos = null;
+        int separador;
+        if (no.getFolha()) {
+            esqChaves = new int[t];
+            dirChaves = new int[total - t];
+            for (int j = 0; j < total; j++) {
+                if (j < t) {
+                    esqChaves[j] = cheia.getChave(j);
+                } else {
+                    dirChaves[j - t] = cheia.getChave(j);
+                }
+            }
+            separador = dirChaves[0];
+        } else {
+            // A chave t sobe, t chaves à esquerda e t - 1 à direita
+            esqChaves = new int[t];
+            dirChaves = new int[total - t - 1];
+            esqFilhos = new NoBLink[t + 1];
+            dirFilhos = new NoBLink[total - t];
+            for (int j = 0; j < t; j++) {
+                esqChaves[j] = cheia.getChave(j);
+            }
+            for (int j = t + 1; j < total; j++) {
+                dirChaves[j - t - 1] = cheia.getChave(j);
+            }
+            for (int j = 0; j <= total; j++) {
+                if (j <= t) {
+                    esqFilhos[j] = cheia.getC(j);
+                } else {
+                    dirFilhos[j - t - 1] = cheia.getC(j);
+                }
+            }
+            separador = cheia.getChave(t);
+        }
+        NoBLink z = new NoBLink(no.getNivel(), new NoBLink.Versao(dirChaves, dirFilhos, v.getDireita(), v.getAlta()));
+        no.setVersao(new NoBLink.Versao(esqChaves, esqFilhos, z, separador));
+        return z;
+    }
+
+    /**
+     * Cria uma nova raiz acima do nó dividido, se ele ainda for a raiz.
+     *
+     * @param no Antiga raiz, travada.
+     * @param separador Separador entre a antiga raiz e o novo nó.
+     * @param z Novo nó da direita.
+     * @return Verdadeiro se a raiz foi criada.
+     */
+    private boolean criarRaiz(NoBLink no, int separador, NoBLink z) {
+        synchronized (travaRaiz) {
+            if (raiz != no) {
+                return false;
+            }
+            NoBLink.Versao v = new NoBLink.Versao(new int[]{separador}, new NoBLink[]{no, z}, null, NoBLink.SEM_LIMITE);
+            raiz = new NoBLink(no.getNivel() + 1, v);
+            return true;
+        }
+    }
+
+    /**
+     * Procura o nó de um nível acima do caminho percorrido na descida.
+     *
+     * Se a raiz foi dividida depois da descida, o nível pode ainda não
+     * existir: a thread que dividiu a raiz a está criando e a espera é curta.
+     *
+     * @param k Chave procurada.
+     * @param nivel Nível procurado.
+     * @return O nó do nível que cobria k na leitura.
+     */
+    private NoBLink procurarNivel(int k, int nivel) {
+        while (raiz.getNivel() < nivel) {
+            Thread.yield();
+        }
+        return descer(k, nivel, null);
+    }
+
+    /**
+     * Remove uma chave da árvore.
+     *
+     * Trava somente a folha. Os nós não são juntados.
+     *
+     * @param k Chave a ser removida.
+     * @return Verdadeiro se a chave foi removida.
+     */
+    public boolean remover(int k) {
+        NoBLink folha = travarCobrindo(descer(k, 0, null), k);
+        try {
+            NoBLink.Versao v = folha.getVersao();
+            int i = v.procurarPosicaoChave(k);
+            if (i >= v.getN() || v.getChave(i) != k) {
+                return false;
+            }
+            int[] chave = new int[v.getN() - 1];
+            for (int j = 0; j < chave.length; j++) {
+                chave[j] = v.getChave(j < i ? j : j + 1);
+            }
+            folha.setVersao(new NoBLink.Versao(chave, null, v.getDireita(), v.getAlta()));
+            return true;
+        } finally {
+            folha.getTrava().unlock();
+        }
+    }
+
+    /**
+     * Percorre as chaves do intervalo [lo, hi] em ordem, seguindo as
+     * ligações das folhas, sem obter nenhuma trava.
+     *
+     * Cada folha é lida em uma versão completa. Como a versão lida de uma
+     * folha cobre todas as chaves até a sua chave alta e a folha da direita
+     * cobre as chaves a partir dela, nenhuma chave é repetida ou perdida por
+     * divisões simultâneas.
+     *
+     * @param lo Limite inferior do intervalo (inclusivo).
+     * @param hi Limite superior do intervalo (inclusivo).
+     * @param consumidor Recebe cada chave encontrada no intervalo.
+     * @return A quantidade de chaves encontradas.
+     */
+    public int intervalo(int lo, int hi, IntConsumer consumidor) {
+        int cont = 0;
+        NoBLink.Versao v = descer(lo, 0, null).getVersao();
+        while (v.alemDoLimite(lo)) {
+            v = v.getDireita().getVersao();
+        }
+        int i = v.procurarPosicaoChave(lo);
+        while (true) {
+            for (; i < v.getN(); i++) {
+                int k = v.getChave(i);
+                if (k > hi) {
+                    return cont;
+                }
+                consumidor.accept(k);
+                cont = cont + 1;
+            }
+            if (v.getDireita() == null || v.getAlta() > hi) {
+                return cont;
+            }
+            // Segue para a próxima folha
+            v = v.getDireita().getVersao();
+            i = 0;
+        }
+    }
+}
@@ -0,0 +1,561 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Árvore B+ de chaves byte[].
+ *
+ * Especialização de ArvoreBPlus para chaves binárias de tamanho variável,
+ * comparadas em ordem lexicográfica sem sinal. As chaves são copiadas para o
+ * vetor de bytes empacotado de cada nó, e a busca e a consulta por intervalo
+ * comparam os bytes no próprio nó, sem alocar objetos.
+ *
+ */
+public class ArvoreBPlusBytes {
+
+    /**
+     * Capacidade inicial, em bytes, do vetor de chaves de um novo nó.
+     */
+    private static final int BYTES_INICIAIS = 64;
+
+    /**
+     * Nó de início da árvore.
+     */
+    private NoBytes raiz;
+
+    /**
+     * Ordem da árvore;
+     */
+    private int t;
+
+    /**
+     * Construtor sem parâmetro.
+     *
+     */
+    public ArvoreBPlusBytes() {
+        this(3);
+    }
+
+    /**
+     * Construtor com parâmetro.
+     *
+     * @param t Grau mínimo (define o intervalo para o número de chaves).
+     */
+    public ArvoreBPlusBytes(int t) {
+        this.t = t;
+
+        //Define árvore como vazia
+        this.raiz = null;
+    }
+
+    /**
+     * Recuperador de início.
+     *
+     * @return O nó do início da árvore.
+     */
+    public NoBytes getRaiz() {
+        return raiz;
+    }
+
+    /**
+     * Recuperador de t.
+     *
+     * @return O grau da árvore
+     */
+    public int getT() {
+        return t;
+    }
+
+    /**
+     * Atualiza um dado na árvore.
+     *
+     * @param antigo Dado a ser removido.
+     * @param novo Novo dado a ser inserido.
+     * @return Verdadeiro se o dado antigo foi encontrado.
+     */
+    public boolean atualizar(byte[] antigo, byte[] novo) {
+        if (remover(antigo)) {
+            inserir(novo);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Dividir(split) um nó em 2 nós descendentes.
+     *
+     * Mesma divisão de ArvoreBPlus.dividirNo.
+     *
+     * @param pai Nó pai, que não pode estar cheio.
+     * @param i Indíce do filho cheio a ser dividido.
+     */
+    private void dividirNo(NoBytes pai, int i) {
+        NoBytes y = pai.getC(i);
+        NoBytes z = new NoBytes(t, y.getFolha(), y.getDados().length);
+        byte[] dados = y.getDados();
+        byte[] chaveSobe;
+        if (y.getFolha()) {
+            // A folha da direita fica com a metade maior das chaves
+            int meio = (y.getN() + 1) / 2;
+            for (int k = meio; k < y.getN(); k++) {
+                z.inserirChave(k - meio, dados, y.getInicio(k), y.getTamanho(k));
+            }
+            y.truncar(meio);
+            // Encadeamento de folhas
+            z.setProximo(y.getProximo());
+            y.setProximo(z);
+            // Sobe uma cópia da menor chave da folha da direita
+            chaveSobe = z.getChave(0);
+        } else {
+            // A chave do meio sobe e sai do nó interno
+            chaveSobe = y.getChave(t - 1);
+            for (int j = 0; j < t - 1; j++) {
+                z.inserirChave(j, dados, y.getInicio(j + t), y.getTamanho(j + t));
+            }
+            for (int j = 0; j < t; j++) {
+                z.setC(j, y.getC(j + t));
+                y.setC(j + t, null);
+            }
+            y.truncar(t - 1);
+        }
+        // Abre espaço no pai para o novo filho e a chave promovida
+        for (int j = pai.getN(); j >= i + 1; j--) {
+            pai.setC(j + 1, pai.getC(j));
+        }
+        pai.setC(i + 1, z);
+        pai.inserirChave(i, chaveSobe, 0, chaveSobe.length);
+    }
+
+    /**
+     * Inserir quanto não estiver cheio.
+     *
+     * @param no Raiz da sub-árvore, que não pode estar cheia.
+     * @param k Chave a ser inserida.
+     */
+    private void inserirNaoCheio(NoBytes no, byte[] k) {
+        int i = no.procurarPosicaoFilho(k);
+        if (no.getFolha()) {
+            no.inserirChave(i, k, 0, k.length);
+        } else {
+            if (no.getC(i).getN() == 2 * t - 1) {
+                // Divide o filho antes de descer
+                dividirNo(no, i);
+                if (no.compararChave(i, k) <= 0) {
+                    i++;
+                }
+            }
+            inserirNaoCheio(no.getC(i), k);
+        }
+    }
+
+    /**
+     * Inserção na árvore B+.
+     *
+     * @param k Chave a ser inserida, copiada para a árvore.
+     */
+    public void inserir(byte[] k) {
+        if (raiz == null) {
+            // Cria a raiz como um nó folha
+            raiz = new NoBytes(t, true, Math.max(BYTES_INICIAIS, k.length));
+        } else if (raiz.getN() == 2 * t - 1) {
+            // Cria a nova raiz e divide a antiga
+            NoBytes nova = new NoBytes(t, false, BYTES_INICIAIS);
+            nova.setC(0, raiz);
+            dividirNo(nova, 0);
+            raiz = nova;
+        }
+        inserirNaoCheio(raiz, k);
+    }
+
+    /**
+     * Procura uma chave k na árvore.
+     *
+     * @param k Chave a ser procurada.
+     * @return Retorna o nó que possui o valor k ou null.
+     */
+    public NoBytes procurar(byte[] k) {
+        return raiz == null ? null : procurar(raiz, k);
+    }
+
+    /**
+     * Procura uma chave k na sub-árvore de no.
+     *
+     * @param no Raiz da sub-árvore.
+     * @param k Chave a ser procurada.
+     * @return Retorna a folha que possui o valor k ou null.
+     */
+    private NoBytes procurar(NoBytes no, byte[] k) {
+        if (no.getFolha()) {
+            int i = no.procurarPosicaoChave(k);
+            return i < no.getN() && no.compararChave(i, k) == 0 ? no : null;
+        }
+        int i = no.procurarPosicaoFilho(k);
+        NoBytes encontrado = procurar(no.getC(i), k);
+        // Chaves repetidas iguais ao separador podem ter ficado à esquerda
+        // dele em uma divisão
+        while (encontrado == null && i > 0 && no.compararChave(i - 1, k) == 0) {
+            i--;
+            encontrado = procurar(no.getC(i), k);
+        }
+        return encontrado;
+    }
+
+    /**
+     * Remove uma chave da árvore.
+     *
+     * Mesma remoção de ArvoreBPlus.remover: um filho que fica com menos de
+     * t - 1 chaves pega uma chave emprestada de um irmão ou é juntado a ele.
+     *
+     * @param k Chave a ser removida.
+     * @return Verdadeiro se a chave foi removida.
+     */
+    public boolean remover(byte[] k) {
+        if (raiz == null) {
+            return false;
+        }
+        boolean removida = remover(raiz, k);
+        if (!raiz.getFolha() && raiz.getN() == 0) {
+            // Raiz interna sem chaves, o único filho passa a ser a raiz
+            raiz = raiz.getC(0);
+        } else if (raiz.getFolha() && raiz.getN() == 0) {
+            // Última chave removida, a árvore fica vazia
+            raiz = null;
+        }
+        return removida;
+    }
+
+    /**
+     * Remove uma chave da sub-árvore de no.
+     *
+     * @param no Raiz da sub-árvore.
+     * @param k Chave a ser removida.
+     * @return Verdadeiro se a chave foi removida.
+     */
+    private boolean remover(NoBytes no, byte[] k) {
+        if (no.getFolha()) {
+            int i = no.procurarPosicaoChave(k);
+            if (i < no.getN() && no.compararChave(i, k) == 0) {
+                no.removerChave(i);
+                return true;
+            }
+            return false;
+        }
+        int i = no.procurarPosicaoFilho(k);
+        boolean removida = remover(no.getC(i), k);
+        // Chaves repetidas iguais ao separador podem ter ficado à esquerda
+        // dele em uma divisão
+        while (!removida && i > 0 && no.compararChave(i - 1, k) == 0) {
+            i--;
+            removida = remover(no.getC(i), k);
+        }
+        if (removida && no.getC(i).getN() < t - 1) {
+            // O filho ficou abaixo da ocupação mínima
+            corrigirFilho(no, i);
+        }
+        return removida;
+    }
+
+    /**
+     * Corrige o filho i do pai que ficou abaixo da ocupação mínima.
+     *
+     * @param pai Nó pai do filho a ser corrigido.
+     * @param i Posição do filho no pai.
+     */
+    private void corrigirFilho(NoBytes pai, int i) {
+        if (i > 0 && pai.getC(i - 1).getN() > t - 1) {
+            emprestarEsquerda(pai, i);
+        } else if (i < pai.getN() && pai.getC(i + 1).getN() > t - 1) {
+            emprestarDireita(pai, i);
+        } else if (i > 0) {
+            juntar(pai, i - 1);
+        } else {
+            juntar(pai, i);
+        }
+    }
+
+    /**
+     * Copia a chave j da origem para a posição i do destino.
+     *
+     * @param origem Nó com a chave.
+     * @param j Posição da chave na origem.
+     * @param destino Nó que recebe a chave.
+     * @param i Posição da nova chave no destino.
+     */
+    private static void copiarChave(NoBytes origem, int j, NoBytes destino, int i) {
+        destino.inserirChave(i, origem.getDados(), origem.getInicio(j), origem.getTamanho(j));
+    }
+
+    /**
+     * Troca o separador i do pai pela chave j de um filho.
+     *
+     * @param pai Nó pai.
+     * @param i Posição do separador.
+     * @param filho Nó com a nova chave.
+     * @param j Posição da chave no filho.
+     */
+    private static void trocarSeparador(NoBytes pai, int i, NoBytes filho, int j) {
+        pai.removerChave(i);
+        copiarChave(filho, j, pai, i);
+    }
+
+    /**
+     * Move a última chave do irmão da esquerda para o filho i.
+     *
+     * @param pai Nó pai do filho.
+     * @param i Posição do filho no pai.
+     */
+    private void emprestarEsquerda(NoBytes pai, int i) {
+        NoBytes filho = pai.getC(i);
+        NoBytes esq = pai.getC(i - 1);
+        int ultima = esq.getN() - 1;
+        if (filho.getFolha()) {
+            // A última chave da esquerda passa para o filho
+            copiarChave(esq, ultima, filho, 0);
+            // O separador passa a ser a nova menor chave do filho
+            trocarSeparador(pai, i - 1, filho, 0);
+        } else {
+            for (int j = filho.getN(); j >= 0; j--) {
+                filho.setC(j + 1, filho.getC(j));
+            }
+            // O separador desce para o filho e a última chave da esquerda sobe
+            copiarChave(pai, i - 1, filho, 0);
+            filho.setC(0, esq.getC(ultima + 1));
+            esq.setC(ultima + 1, null);
+            trocarSeparador(pai, i - 1, esq, ultima);
+        }
+        esq.removerChave(ultima);
+    }
+
+    /**
+     * Move a primeira chave do irmão da direita para o filho i.
+     *
+     * @param pai Nó pai do filho.
+     * @param i Posição do filho no pai.
+     */
+    private void emprestarDireita(NoBytes pai, int i) {
+        NoBytes filho = pai.getC(i);
+        NoBytes dir = pai.getC(i + 1);
+        if (filho.getFolha()) {
+            // A primeira chave da direita passa para o filho
+            copiarChave(dir, 0, filho, filho.getN());
+            dir.removerChave(0);
+            // O separador passa a ser a nova menor chave da direita
+            trocarSeparador(pai, i, dir, 0);
+        } else {
+            // O separador desce para o filho e a primeira chave da direita sobe
+            copiarChave(pai, i, filho, filho.getN());
+            filho.setC(filho.getN(), dir.getC(0));
+            trocarSeparador(pai, i, dir, 0);
+            for (int j = 0; j < dir.getN(); j++) {
+                dir.setC(j, dir.getC(j + 1));
+            }
+            dir.setC(dir.getN(), null);
+            dir.removerChave(0);
+        }
+    }
+
+    /**
+     * Junta(merge) os filhos j e j + 1 do pai no filho j.
+     *
+     * Mesma junção de ArvoreBPlus.juntar.
+     *
+     * @param pai Nó pai dos filhos.
+     * @param j Posição do filho da esquerda no pai.
+     */
+    private void juntar(NoBytes pai, int j) {
+        NoBytes esq = pai.getC(j);
+        NoBytes dir = pai.getC(j + 1);
+        if (esq.getFolha()) {
+            // Retira a folha da direita do encadeamento
+            esq.setProximo(dir.getProximo());
+        } else {
+            // O separador desce para o nó resultante
+            copiarChave(pai, j, esq, esq.getN());
+            for (int k = 0; k <= dir.getN(); k++) {
+                esq.setC(esq.getN() + k, dir.getC(k));
+            }
+        }
+        for (int k = 0; k < dir.getN(); k++) {
+            copiarChave(dir, k, esq, esq.getN());
+        }
+        // Remove o separador e o filho da direita do pai
+        pai.removerChave(j);
+        for (int k = j + 1; k <= pai.getN(); k++) {
+            pai.setC(k, pai.getC(k + 1));
+        }
+        pai.setC(pai.getN() + 1, null);
+    }
+
+    /**
+     * Apaga a árvore apartir da raiz.
+     */
+    public void apagar() {
+        this.raiz = null;
+    }
+
+    /**
+     * Encontra a chave com o valor mínimo da árvore.
+     *
+     * @return Uma cópia da chave mínima ou null se a árvore estiver vazia.
+     */
+    public byte[] getValorMinimo() {
+        NoBytes no = raiz;
+        while (no != null && !no.getFolha()) {
+            no = no.getC(0);
+        }
+        return no == null ? null : no.getChave(0);
+    }
+
+    /**
+     * Encontra a chave com o valor máximo da árvore.
+     *
+     * @return Uma cópia da chave máxima ou null se a árvore estiver vazia.
+     */
+    public byte[] getValorMaximo() {
+        NoBytes no = raiz;
+        while (no != null && !no.getFolha()) {
+            no = no.getC(no.getN());
+        }
+        return no == null ? null : no.getChave(no.getN() - 1);
+    }
+
+    /**
+     * Encontra a altura da árvore.
+     *
+     * @return A altura da árvore.
+     */
+    public int getAltura() {
+        int altura = 0;
+        NoBytes no = raiz;
+        while (no != null) {
+            altura = altura + 1;
+            no = no.getFolha() ? null : no.getC(0);
+        }
+        return altura;
+    }
+
+    /**
+     * Procura a primeira folha que pode conter chaves maiores ou iguais a k.
+     *
+     * @param k Limite inferior da busca.
+     * @return A folha encontrada ou null se a árvore estiver vazia.
+     */
+    private NoBytes procurarFolha(byte[] k) {
+        NoBytes no = raiz;
+        while (no != null && !no.getFolha()) {
+            no = no.getC(no.procurarPosicaoChave(k));
+        }
+        return no;
+    }
+
+    /**
+     * Percorre as chaves do intervalo [lo, hi] em ordem, seguindo o
+     * encadeamento das folhas.
+     *
+     * O consumidor recebe o trecho do vetor do nó onde está a chave, que só é
+     * válido durante a chamada.
+     *
+     * @param lo Limite inferior do intervalo (inclusivo).
+     * @param hi Limite superior do intervalo (inclusivo).
+     * @param consumidor Recebe cada chave encontrada no intervalo.
+     * @return A quantidade de chaves encontradas.
+     */
+    public int intervalo(byte[] lo, byte[] hi, ConsumidorBytes consumidor) {
+        int cont = 0;
+        NoBytes folha = procurarFolha(lo);
+        if (folha != null) {
+            int i = folha.procurarPosicaoChave(lo);
+            while (folha != null) {
+                for (; i < folha.getN(); i++) {
+                    if (folha.compararChave(i, hi) > 0) {
+                        return cont;
+                    }
+                    consumidor.aceitar(folha.getDados(), folha.getInicio(i), folha.getTamanho(i));
+                    cont = cont + 1;
+                }
+                // Segue para a próxima folha
+                folha = folha.getProximo();
+                i = 0;
+            }
+        }
+        return cont;
+    }
+
+    /**
+     * Preenche um vetor com cópias das chaves do intervalo [lo, hi] em ordem.
+     *
+     * @param lo Limite inferior do intervalo (inclusivo).
+     * @param hi Limite superior do intervalo (inclusivo).
+     * @param destino Vetor a ser preenchido a partir da posição 0.
+     * @return A quantidade de chaves copiadas para o vetor.
+     */
+    public int intervalo(byte[] lo, byte[] hi, byte[][] destino) {
+        int cont = 0;
+        NoBytes folha = procurarFolha(lo);
+        if (folha != null) {
+            int i = folha.procurarPosicaoChave(lo);
+            while (folha != null && cont < destino.length) {
+                for (; i < folha.getN() && cont < destino.length; i++) {
+                    if (folha.compararChave(i, hi) > 0) {
+                        return cont;
+                    }
+                    destino[cont] = folha.getChave(i);
+                    cont = cont + 1;
+                }
+                // Segue para a próxima folha
+                folha = folha.getProximo();
+                i = 0;
+            }
+        }
+        return cont;
+    }
+
+    /**
+     * Retorna um iterador sobre cópias das chaves do intervalo [lo, hi] em
+     * ordem.
+     *
+     * @param lo Limite inferior do intervalo (inclusivo).
+     * @param hi Limite superior do intervalo (inclusivo).
+     * @return Um iterador de byte[] sobre o intervalo.
+     */
+    public Iterator<byte[]> intervalo(byte[] lo, byte[] hi) {
+        NoBytes inicio = procurarFolha(lo);
+        int posicao = inicio == null ? 0 : inicio.procurarPosicaoChave(lo);
+        return new Iterator<byte[]>() {
+            private NoBytes folha = inicio;
+            private int i = posicao;
+
+            {
+                avancar();
+            }
+
+            /**
+             * Posiciona na próxima chave válida, pulando folhas esgotadas.
+             */
+            private void avancar() {
+                while (folha != null && i >= folha.getN()) {
+                    folha = folha.getProximo();
+                    i = 0;
+                }
+                if (folha != null && folha.compararChave(i, hi) > 0) {
+                    folha = null;
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return folha != null;
+            }
+
+            @Override
+            public byte[] next() {
+                if (folha == null) {
+                    throw new NoSuchElementException();
+                }
+                byte[] k = folha.getChave(i);
+                i = i + 1;
+                avancar();
+                return k;
+            }
+        };
+    }
+}
@@ -0,0 +1,480 @@
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+/**
+ * Árvore B+ de chaves int com folhas compactadas.
+ *
+ * As folhas são NoCompactado: uma base e as diferenças das chaves para a
+ * base empacotadas com a menor quantidade de bits possível. Com chaves
+ * densas, como identificadores sequenciais, as chaves de uma folha diferem
+ * só nos bits baixos e a folha ocupa de 2 a 4 vezes menos memória que um
+ * vetor de int, assim mais do índice cabe no cache e a consulta por
+ * intervalo lê menos linhas de cache.
+ *
+ * A busca dentro da folha é binária sobre as diferenças empacotadas. A
+ * inserção, a remoção e a divisão desempacotam a folha em um vetor de
+ * trabalho, modificam as chaves e empacotam a folha de novo, com o mesmo
+ * custo linear do deslocamento das chaves em um vetor comum. Como em
+ * ArvoreBPlusLong, a remoção retira a chave só da folha.
+ *
+ */
+public class ArvoreBPlusCompactada {
+
+    /**
+     * Nó de início da árvore.
+     */
+    private NoCompactado raiz;
+
+    /**
+     * Ordem da árvore;
+     */
+    private int t;
+
+    /**
+     * Vetor de trabalho com as chaves desempacotadas de uma folha, com uma
+     * posição a mais para a chave inserida.
+     */
+    private final int[] trabalho;
+
+    /**
+     * Construtor sem parâmetro.
+     *
+     */
+    public ArvoreBPlusCompactada() {
+        this(3);
+    }
+
+    /**
+     * Construtor com parâmetro.
+     *
+     * @param t Grau mínimo (define o intervalo para o número de chaves).
+     */
+    public ArvoreBPlusCompactada(int t) {
+        if (t < 2) {
+            throw new IllegalArgumentException("Ordem inválida: " + t);
+        }
+        this.t = t;
+        this.trabalho = new int[2 * t];
+
+        //Define árvore como vazia
+        this.raiz = null;
+    }
+
+    /**
+     * Recuperador de início.
+     *
+     * @return O nó do início da árvore.
+     */
+    public NoCompactado getRaiz() {
+        return raiz;
+    }
+
+    /**
+     * Recuperador de t.
+     *
+     * @return O grau da árvore
+     */
+    public int getT() {
+        return t;
+    }
+
+    /**
+     * Atualiza um dado na árvore.
+     *
+     * @param antigo Dado a ser removido.
+     * @param novo Novo dado a ser inserido.
+     * @return Verdadeiro se o dado antigo foi encontrado.
+     */
+    public boolean atualizar(int antigo, int novo) {
+        if (remover(antigo)) {
+            inserir(novo);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Dividir(split) um nó em 2 nós descendentes.
+     *
+     * Mesma divisão de ArvoreBPlus.dividirNo. Uma folha é desempacotada e
+     * cada metade é empacotada com a sua própria base.
+     *
+     * @param pai Nó pai, que não pode estar cheio.
+     * @param i Indíce do filho cheio a ser dividido.
+     */
+    private void dividirNo(NoCompactado pai, int i) {
+        NoCompactado y = pai.getC(i);
+        NoCompactado z = new NoCompactado(t, y.getFolha());
+        int chaveSobe;
+        if (y.getFolha()) {
+            // A folha da direita fica com a metade maior das chaves
+            int n = y.getN();
+            int meio = (n + 1) / 2;
+            y.decodificar(trabalho);
+            y.codificar(trabalho, meio);
+            System.arraycopy(trabalho, meio, trabalho, 0, n - meio);
+            z.codificar(trabalho, n - meio);
+            // Encadeamento de folhas
+            z.setProximo(y.getProximo());
+            y.setProximo(z);
+            // Sobe uma cópia da menor chave da folha da direita
+            chaveSobe = trabalho[0];
+        } else {
+            // A chave do meio sobe e sai do nó interno
+            chaveSobe = y.getChave(t - 1);
+            for (int j = 0; j < t - 1; j++) {
+                z.setChave(j, y.getChave(j + t));
+                y.setChave(j + t, 0);
+            }
+            for (int j = 0; j < t; j++) {
+                z.setC(j, y.getC(j + t));
+                y.setC(j + t, null);
+            }
+            y.setChave(t - 1, 0);
+            z.setN(t - 1);
+            y.setN(t - 1);
+        }
+        // Abre espaço no pai para o novo filho e a chave promovida
+        for (int j = pai.getN(); j >= i + 1; j--) {
+            pai.setC(j + 1, pai.getC(j));
+        }
+        pai.setC(i + 1, z);
+        for (int j = pai.getN() - 1; j >= i; j--) {
+            pai.setChave(j + 1, pai.getChave(j));
+        }
+        pai.setChave(i, chaveSobe);
+        pai.setN(pai.getN() + 1);
+    }
+
+    /**
+     * Inserir quanto não estiver cheio.
+     *
+     * @param no Raiz da sub-árvore, que não pode estar cheia.
+     * @param k Chave a ser inserida.
+     */
+    private void inserirNaoCheio(NoCompactado no, int k) {
+        int i = no.procurarPosicaoFilho(k);
+        if (no.getFolha()) {
+            // Desempacota, abre espaço para k e empacota de novo
+            int n = no.getN();
+            no.decodificar(trabalho);
+            System.arraycopy(trabalho, i, trabalho, i + 1, n - i);
+            trabalho[i] = k;
+            no.codificar(trabalho, n + 1);
+        } else {
+            if (no.getC(i).getN() == 2 * t - 1) {
+                // Divide o filho antes de descer
+                dividirNo(no, i);
+                if (k >= no.getChave(i)) {
+                    i++;
+                }
+            }
+            inserirNaoCheio(no.getC(i), k);
+        }
+    }
+
+    /**
+     * Inserção na árvore B+.
+     *
+     * @param k Chave a ser inserida.
+     */
+    public void inserir(int k) {
+        if (raiz == null) {
+            // Cria a raiz como um nó folha
+            raiz = new NoCompactado(t, true);
+            trabalho[0] = k;
+            raiz.codificar(trabalho, 1);
+        } else {
+            if (raiz.getN() == 2 * t - 1) {
+                // Cria a nova raiz e divide a antiga
+                NoCompactado nova = new NoCompactado(t, false);
+                nova.setC(0, raiz);
+                dividirNo(nova, 0);
+                raiz = nova;
+            }
+            inserirNaoCheio(raiz, k);
+        }
+    }
+
+    /**
+     * Procura uma chave k na árvore.
+     *
+     * @param k Chave a ser procurada.
+     * @return Retorna o nó que possui o valor k ou null.
+     */
+    public NoCompactado procurar(int k) {
+        return raiz == null ? null : procurar(raiz, k);
+    }
+
+    /**
+     * Procura uma chave k na sub-árvore de no.
+     *
+     * @param no Raiz da sub-árvore.
+     * @param k Chave a ser procurada.
+     * @return Retorna a folha que possui o valor k ou null.
+     */
+    private NoCompactado procurar(NoCompactado no, int k) {
+        if (no.getFolha()) {
+            int i = no.procurarPosicaoChave(k);
+            return i < no.getN() && no.getChave(i) == k ? no : null;
+        }
+        int i = no.procurarPosicaoFilho(k);
+        NoCompactado encontrado = procurar(no.getC(i), k);
+        // Chaves repetidas iguais ao separador podem ter ficado à esquerda
+        // dele em uma divisão
+        while (encontrado == null && i > 0 && no.getChave(i - 1) == k) {
+            i--;
+            encontrado = procurar(no.getC(i), k);
+        }
+        return encontrado;
+    }
+
+    /**
+     * Remove uma chave da árvore.
+     *
+     * @param k Chave a ser removida.
+     * @return Verdadeiro se a chave foi removida.
+     */
+    public boolean remover(int k) {
+        NoCompactado no = procurar(k);
+        if (no == null) {
+            return false;
+        }
+        int i = no.procurarPosicaoChave(k);
+        int n = no.getN();
+        no.decodificar(trabalho);
+        // Shift para esquerda
+        System.arraycopy(trabalho, i + 1, trabalho, i, n - i - 1);
+        no.codificar(trabalho, n - 1);
+        return true;
+    }
+
+    /**
+     * Apaga a árvore apartir da raiz.
+     */
+    public void apagar() {
+        this.raiz = null;
+    }
+
+    /**
+     * Encontra a chave com o valor mínimo da árvore.
+     *
+     * @return A chave mínima da árvore ou -1 se ela estiver vazia.
+     */
+    public int getValorMinimo() {
+        NoCompactado folha = procurarFolha(Integer.MIN_VALUE);
+        while (folha != null && folha.getN() == 0) {
+            folha = folha.getProximo();
+        }
+        return folha == null ? -1 : folha.getChave(0);
+    }
+
+    /**
+     * Encontra a chave com o valor máximo da árvore.
+     *
+     * @return A chave máxima da árvore ou -1 se ela estiver vazia.
+     */
+    public int getValorMaximo() {
+        NoCompactado folha = raiz == null ? null : ultimaFolha(raiz);
+        return folha == null ? -1 : folha.getChave(folha.getN() - 1);
+    }
+
+    /**
+     * Encontra a última folha não vazia de uma sub-árvore.
+     *
+     * Como remover não junta folhas, as folhas da direita podem ter ficado
+     * vazias e os filhos são tentados da direita para a esquerda.
+     *
+     * @param no Raiz da sub-árvore.
+     * @return A última folha com alguma chave ou null se todas estiverem
+     * vazias.
+     */
+    private NoCompactado ultimaFolha(NoCompactado no) {
+        if (no.getFolha()) {
+            return no.getN() == 0 ? null : no;
+        }
+        for (int i = no.getN(); i >= 0; i--) {
+            NoCompactado folha = ultimaFolha(no.getC(i));
+            if (folha != null) {
+                return folha;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Encontra a altura da árvore.
+     *
+     * @return A altura da árvore.
+     */
+    public int getAltura() {
+        int altura = 0;
+        NoCompactado no = raiz;
+        while (no != null) {
+            altura = altura + 1;
+            no = no.getFolha() ? null : no.getC(0);
+        }
+        return altura;
+    }
+
+    /**
+     * Soma os bytes ocupados pelas chaves das folhas.
+     *
+     * Uma folha com um vetor de int ocuparia 16 + 4(2t - 1) bytes.
+     *
+     * @return A quantidade de bytes das chaves das folhas.
+     */
+    public long getBytesFolhas() {
+        long total = 0;
+        for (NoCompactado folha = procurarFolha(Integer.MIN_VALUE); folha != null; folha = folha.getProximo()) {
+            total += folha.getBytesChaves();
+        }
+        return total;
+    }
+
+    /**
+     * Calcula quantas vezes as folhas são menores que folhas com vetores de
+     * int do mesmo tamanho.
+     *
+     * @return A razão entre os bytes sem e com compactação ou 1 se a
+     * árvore estiver vazia.
+     */
+    public double getTaxaCompactacao() {
+        long folhas = 0;
+        long total = 0;
+        for (NoCompactado folha = procurarFolha(Integer.MIN_VALUE); folha != null; folha = folha.getProximo()) {
+            folhas++;
+            total += folha.getBytesChaves();
+        }
+        return total == 0 ? 1 : (double) folhas * (16 + 4 * (2 * t - 1)) / total;
+    }
+
+    /**
+     * Procura a primeira folha que pode conter chaves maiores ou iguais a k.
+     *
+     * @param k Limite inferior da busca.
+     * @return A folha encontrada ou null se a árvore estiver vazia.
+     */
+    private NoCompactado procurarFolha(int k) {
+        NoCompactado no = raiz;
+        while (no != null && !no.getFolha()) {
+            no = no.getC(no.procurarPosicaoChave(k));
+        }
+        return no;
+    }
+
+    /**
+     * Percorre as chaves do intervalo [lo, hi] em ordem, seguindo o
+     * encadeamento das folhas.
+     *
+     * Cada folha é desempacotada de uma vez em um vetor local.
+     *
+     * @param lo Limite inferior do intervalo (inclusivo).
+     * @param hi Limite superior do intervalo (inclusivo).
+     * @param consumidor Recebe cada chave encontrada no intervalo.
+     * @return A quantidade de chaves encontradas.
+     */
+    public int intervalo(int lo, int hi, IntConsumer consumidor) {
+        int cont = 0;
+        NoCompactado folha = procurarFolha(lo);
+        if (folha != null) {
+            int[] chaves = new int[2 * t - 1];
+            int i = folha.procurarPosicaoChave(lo);
+            while (folha != null) {
+                folha.decodificar(chaves);
+                for (; i < folha.getN(); i++) {
+                    int k = chaves[i];
+                    if (k > hi) {
+                        return cont;
+                    }
+                    consumidor.accept(k);
+                    cont = cont + 1;
+                }
+                // Segue para a próxima folha
+                folha = folha.getProximo();
+                i = 0;
+            }
+        }
+        return cont;
+    }
+
+    /**
+     * Preenche um vetor com as chaves do intervalo [lo, hi] em ordem.
+     *
+     * @param lo Limite inferior do intervalo (inclusivo).
+     * @param hi Limite superior do intervalo (inclusivo).
+     * @param destino Vetor a ser preenchido a partir da posição 0.
+     * @return A quantidade de chaves copiadas para o vetor.
+     */
+    public int intervalo(int lo, int hi, int[] destino) {
+        int cont = 0;
+        NoCompactado folha = procurarFolha(lo);
+        if (folha != null) {
+            int i = folha.procurarPosicaoChave(lo);
+            while (folha != null && cont < destino.length) {
+                for (; i < folha.getN() && cont < destino.length; i++) {
+                    int k = folha.getChave(i);
+                    if (k > hi) {
+                        return cont;
+                    }
+                    destino[cont] = k;
+                    cont = cont + 1;
+                }
+                // Segue para a próxima folha
+                folha = folha.getProximo();
+                i = 0;
+            }
+        }
+        return cont;
+    }
+
+    /**
+     * Retorna um iterador sobre as chaves do intervalo [lo, hi] em ordem.
+     *
+     * @param lo Limite inferior do intervalo (inclusivo).
+     * @param hi Limite superior do intervalo (inclusivo).
+     * @return Um iterador de int sobre o intervalo.
+     */
+    public PrimitiveIterator.OfInt intervalo(int lo, int hi) {
+        NoCompactado inicio = procurarFolha(lo);
+        int posicao = inicio == null ? 0 : inicio.procurarPosicaoChave(lo);
+        return new PrimitiveIterator.OfInt() {
+            private NoCompactado folha = inicio;
+            private int i = posicao;
+
+            {
+                avancar();
+            }
+
+            /**
+             * Posiciona na próxima chave válida, pulando folhas esgotadas.
+             */
+            private void avancar() {
+                while (folha != null && i >= folha.getN()) {
+                    folha = folha.getProximo();
+                    i = 0;
+                }
+                if (folha != null && folha.getChave(i) > hi) {
+                    folha = null;
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return folha != null;
+            }
+
+            @Override
+            public int nextInt() {
+                if (folha == null) {
+                    throw new NoSuchElementException();
+                }
+                int k = folha.getChave(i);
+                i = i + 1;
+                avancar();
+                return k;
+            }
+        };
+    }
+}
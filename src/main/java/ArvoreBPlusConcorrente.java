@@ -0,0 +1,643 @@
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+
+/**
+ * Árvore B+ segura para várias threads, com acoplamento de travas(latch
+ * crabbing) nos nós.
+ *
+ * Cada NoConcorrente tem uma trava de leitura e escrita. A descida trava o
+ * filho antes de soltar o pai, assim nenhuma thread vê um nó durante uma
+ * divisão ou junção. Como a inserção divide preventivamente os filhos cheios
+ * e a remoção completa preventivamente os filhos com t - 1 chaves, o filho
+ * sempre fica seguro logo depois de travado e a trava do pai é solta na hora.
+ *
+ * Leituras e escritas que não mudam a estrutura descem com travas de leitura
+ * e só travam a folha para escrita. Se a folha estiver cheia (inserção) ou
+ * com a ocupação mínima (remoção), a operação recomeça da raiz travando cada
+ * nó para escrita.
+ *
+ * Irmãos são sempre travados da esquerda para a direita, a mesma ordem dos
+ * percursos pelo encadeamento das folhas, o que evita impasses(deadlock).
+ * A referência para a raiz tem a sua própria trava, mantida só enquanto a
+ * raiz pode mudar.
+ *
+ * As chaves formam um conjunto: inserir uma chave que já está na árvore
+ * não a modifica. Sem chaves repetidas, a descida pelo primeiro separador
+ * maior que k sempre chega à única folha que pode conter k, sem precisar
+ * voltar para o irmão da esquerda contra a ordem das travas.
+ *
+ */
+public class ArvoreBPlusConcorrente {
+
+    /**
+     * Nó de início da árvore.
+     */
+    private NoConcorrente raiz;
+
+    /**
+     * Trava da referência para a raiz.
+     */
+    private final ReentrantReadWriteLock travaRaiz;
+
+    /**
+     * Ordem da árvore;
+     */
+    private final int t;
+
+    /**
+     * Estratégia de busca das chaves dentro dos nós.
+     */
+    private final EstrategiaBusca busca;
+
+    /**
+     * Construtor com parâmetro.
+     *
+     * @param t Grau mínimo (define o intervalo para o número de chaves).
+     */
+    public ArvoreBPlusConcorrente(int t) {
+        this(t, EstrategiaBusca.BINARIA);
+    }
+
+    /**
+     * Construtor com parâmetros.
+     *
+     * @param t Grau mínimo (define o intervalo para o número de chaves).
+     * @param busca Estratégia de busca das chaves dentro dos nós.
+     */
+    public ArvoreBPlusConcorrente(int t, EstrategiaBusca busca) {
+        if (t < 2) {
+            throw new IllegalArgumentException("Ordem inválida: " + t);
+        }
+        this.t = t;
+        this.busca = busca;
+        this.travaRaiz = new ReentrantReadWriteLock();
+        this.raiz = null;
+    }
+
+    /**
+     * Recuperador de t.
+     *
+     * @return O grau da árvore
+     */
+    public int getT() {
+        return t;
+    }
+
+    /**
+     * Trava um nó para leitura ou escrita.
+     *
+     * @param no Nó a ser travado.
+     * @param escrita Indica se a trava é de escrita.
+     */
+    private static void travar(NoConcorrente no, boolean escrita) {
+        if (escrita) {
+            no.getTrava().writeLock().lock();
+        } else {
+            no.getTrava().readLock().lock();
+        }
+    }
+
+    /**
+     * Desce da raiz até a folha da chave k com travas de leitura.
+     *
+     * @param k Chave procurada.
+     * @param escrita Indica se a folha deve ser travada para escrita.
+     * @return A folha travada ou null se a árvore estiver vazia.
+     */
+    private NoConcorrente descerAteFolha(int k, boolean escrita) {
+        travaRaiz.readLock().lock();
+        NoConcorrente no = raiz;
+        if (no == null) {
+            travaRaiz.readLock().unlock();
+            return null;
+        }
+        travar(no, escrita && no.getFolha());
+        travaRaiz.readLock().unlock();
+        while (!no.getFolha()) {
+            NoConcorrente filho = no.getFilho(no.procurarPosicaoFilho(k, busca));
+            travar(filho, escrita && filho.getFolha());
+            no.getTrava().readLock().unlock();
+            no = filho;
+        }
+        return no;
+    }
+
+    /**
+     * Procura uma chave k na árvore.
+     *
+     * @param k Chave a ser procurada.
+     * @return Verdadeiro se a chave está na árvore.
+     */
+    public boolean procurar(int k) {
+        NoConcorrente folha = descerAteFolha(k, false);
+        if (folha == null) {
+            return false;
+        }
+        int i = folha.procurarPosicaoChave(k, busca);
+        boolean achou = i < folha.getN() && folha.getChave(i) == k;
+        folha.getTrava().readLock().unlock();
+        return achou;
+    }
+
+    /**
+     * Inserção na árvore B+.
+     *
+     * Tenta primeiro inserir travando só a folha para escrita. Se a folha
+     * estiver cheia, desce novamente travando para escrita e dividindo
+     * preventivamente os nós cheios.
+     *
+     * @param k Chave a ser inserida.
+     * @return Verdadeiro se a chave foi inserida, falso se ela já estava na
+     * árvore.
+     */
+    public boolean inserir(int k) {
+        NoConcorrente folha = descerAteFolha(k, true);
+        if (folha != null) {
+            int i = folha.procurarPosicaoChave(k, busca);
+            if (i < folha.getN() && folha.getChave(i) == k) {
+                // A chave já está na árvore
+                folha.getTrava().writeLock().unlock();
+                return false;
+            }
+            if (folha.getN() < 2 * t - 1) {
+                inserirNaFolha(folha, k);
+                folha.getTrava().writeLock().unlock();
+                return true;
+            }
+            folha.getTrava().writeLock().unlock();
+        }
+        return inserirPessimista(k);
+    }
+
+    /**
+     * Inserção travando para escrita cada nó do caminho.
+     *
+     * @param k Chave a ser inserida.
+     * @return Verdadeiro se a chave foi inserida.
+     */
+    private boolean inserirPessimista(int k) {
+        travaRaiz.writeLock().lock();
+        NoConcorrente no = raiz;
+        if (no == null) {
+            // Cria a raiz como um nó folha
+            no = new NoConcorrente(t, true);
+            no.setChave(0, k);
+            no.setN(1);
+            raiz = no;
+            travaRaiz.writeLock().unlock();
+            return true;
+        }
+        no.getTrava().writeLock().lock();
+        if (no.getN() == 2 * t - 1) {
+            // Cria a nova raiz e divide a antiga
+            NoConcorrente nova = new NoConcorrente(t, false);
+            nova.getTrava().writeLock().lock();
+            nova.setC(0, no);
+            dividirNo(nova, 0);
+            no.getTrava().writeLock().unlock();
+            raiz = nova;
+            no = nova;
+        }
+        // A raiz não está cheia e não muda mais nesta inserção
+        travaRaiz.writeLock().unlock();
+        while (!no.getFolha()) {
+            int i = no.procurarPosicaoFilho(k, busca);
+            NoConcorrente filho = no.getFilho(i);
+            filho.getTrava().writeLock().lock();
+            if (filho.getN() == 2 * t - 1) {
+                dividirNo(no, i);
+                if (k >= no.getChave(i)) {
+                    // O novo nó ainda não é visto por outras threads
+                    NoConcorrente dir = no.getFilho(i + 1);
+                    dir.getTrava().writeLock().lock();
+                    filho.getTrava().writeLock().unlock();
+                    filho = dir;
+                }
+            }
+            no.getTrava().writeLock().unlock();
+            no = filho;
+        }
+        boolean ok = inserirNaFolha(no, k);
+        no.getTrava().writeLock().unlock();
+        return ok;
+    }
+
+    /**
+     * Insere a chave em uma folha travada que não está cheia.
+     *
+     * @param folha Folha travada para escrita.
+     * @param k Chave a ser inserida.
+     * @return Verdadeiro se a chave foi inserida, falso se ela já estava na
+     * folha, inserida por outra thread entre as duas descidas.
+     */
+    private boolean inserirNaFolha(NoConcorrente folha, int k) {
+        int i = folha.procurarPosicaoFilho(k, busca);
+        if (i > 0 && folha.getChave(i - 1) == k) {
+            return false;
+        }
+        for (int j = folha.getN() - 1; j >= i; j--) {
+            folha.setChave(j + 1, folha.getChave(j));
+        }
+        folha.setChave(i, k);
+        folha.setN(folha.getN() + 1);
+        return true;
+    }
+
+    /**
+     * Dividir(split) um nó em 2 nós descendentes.
+     *
+     * Mesma divisão de ArvoreBPlus.dividirNo. O pai e o filho i devem estar
+     * travados para escrita, o novo nó só fica visível ao soltar o pai.
+     *
+     * @param pai Nó pai, que não pode estar cheio.
+     * @param i Indíce do filho cheio a ser dividido.
+     */
+    private void dividirNo(NoConcorrente pai, int i) {
+        NoConcorrente y = pai.getFilho(i);
+        NoConcorrente z = new NoConcorrente(t, y.getFolha());
+        int chaveSobe;
+        if (y.getFolha()) {
+            // A folha da direita fica com a metade maior das chaves
+            int n = y.getN();
+            int meio = (n + 1) / 2;
+            for (int k = meio; k < n; k++) {
+                z.setChave(k - meio, y.getChave(k));
+            }
+            z.setN(n - meio);
+            y.setN(meio);
+            // Encadeamento de folhas
+            z.setProximo(y.getProximo());
+            y.setProximo(z);
+            // Sobe uma cópia da menor chave da folha da direita
+            chaveSobe = z.getChave(0);
+        } else {
+            // A chave do meio sobe e sai do nó interno
+            chaveSobe = y.getChave(t - 1);
+            for (int j = 0; j < t - 1; j++) {
+                z.setChave(j, y.getChave(j + t));
+            }
+            for (int j = 0; j < t; j++) {
+                z.setC(j, y.getC(j + t));
+                y.setC(j + t, null);
+            }
+            z.setN(t - 1);
+            y.setN(t - 1);
+        }
+        // Abre espaço no pai para o novo filho e a chave promovida
+        for (int j = pai.getN(); j >= i + 1; j--) {
+            pai.setC(j + 1, pai.getC(j));
+        }
+        pai.setC(i + 1, z);
+        for (int j = pai.getN() - 1; j >= i; j--) {
+            pai.setChave(j + 1, pai.getChave(j));
+        }
+        pai.setChave(i, chaveSobe);
+        pai.setN(pai.getN() + 1);
+    }
+
+    /**
+     * Remove uma chave da árvore.
+     *
+     * Tenta primeiro remover travando só a folha para escrita. Se a folha
+     * tiver a ocupação mínima, desce novamente travando para escrita e
+     * completando preventivamente os filhos com t - 1 chaves, pegando
+     * emprestado de um irmão ou juntando-se a ele.
+     *
+     * @param k Chave a ser removida.
+     * @return Verdadeiro se a chave foi removida.
+     */
+    public boolean remover(int k) {
+        NoConcorrente folha = descerAteFolha(k, true);
+        if (folha == null) {
+            return false;
+        }
+        int i = folha.procurarPosicaoChave(k, busca);
+        if (i >= folha.getN() || folha.getChave(i) != k) {
+            folha.getTrava().writeLock().unlock();
+            return false;
+        }
+        if (folha.getN() > t - 1 && folha.getN() > 1) {
+            removerPosicao(folha, i);
+            folha.getTrava().writeLock().unlock();
+            return true;
+        }
+        folha.getTrava().writeLock().unlock();
+        return removerPessimista(k);
+    }
+
+    /**
+     * Remoção travando para escrita cada nó do caminho.
+     *
+     * @param k Chave a ser removida.
+     * @return Verdadeiro se a chave foi removida.
+     */
+    private boolean removerPessimista(int k) {
+        travaRaiz.writeLock().lock();
+        NoConcorrente no = raiz;
+        if (no == null) {
+            travaRaiz.writeLock().unlock();
+            return false;
+        }
+        no.getTrava().writeLock().lock();
+        boolean travaRaizMantida = true;
+        if (no.getFolha()) {
+            // A raiz folha pode ficar com menos de t - 1 chaves
+            boolean ok = removerDaFolha(no, k);
+            if (no.getN() == 0) {
+                raiz = null;
+            }
+            no.getTrava().writeLock().unlock();
+            travaRaiz.writeLock().unlock();
+            return ok;
+        }
+        while (!no.getFolha()) {
+            int i = no.procurarPosicaoFilho(k, busca);
+            NoConcorrente filho = no.getFilho(i);
+            filho.getTrava().writeLock().lock();
+            if (filho.getN() < t) {
+                filho = completarFilho(no, i, filho);
+                if (travaRaizMantida && no.getN() == 0) {
+                    // Raiz interna sem chaves, o único filho passa a ser a raiz
+                    raiz = filho;
+                }
+            }
+            if (travaRaizMantida) {
+                travaRaiz.writeLock().unlock();
+                travaRaizMantida = false;
+            }
+            no.getTrava().writeLock().unlock();
+            no = filho;
+        }
+        boolean ok = removerDaFolha(no, k);
+        no.getTrava().writeLock().unlock();
+        return ok;
+    }
+
+    /**
+     * Remove a chave k de uma folha travada.
+     *
+     * @param folha Folha travada para escrita.
+     * @param k Chave a ser removida.
+     * @return Verdadeiro se a chave foi removida.
+     */
+    private boolean removerDaFolha(NoConcorrente folha, int k) {
+        int i = folha.procurarPosicaoChave(k, busca);
+        if (i < folha.getN() && folha.getChave(i) == k) {
+            removerPosicao(folha, i);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Remove a chave da posição i de uma folha travada.
+     *
+     * @param folha Folha travada para escrita.
+     * @param i Posição da chave.
+     */
+    private void removerPosicao(NoConcorrente folha, int i) {
+        // Shift para esquerda
+        for (int j = i + 1; j < folha.getN(); j++) {
+            folha.setChave(j - 1, folha.getChave(j));
+        }
+        folha.setN(folha.getN() - 1);
+    }
+
+    /**
+     * Garante que o filho i tenha pelo menos t chaves antes da descida.
+     *
+     * O pai e o filho estão travados para escrita. Os irmãos são travados da
+     * esquerda para a direita, soltando o filho se for preciso travar o
+     * irmão da esquerda antes dele.
+     *
+     * @param pai Nó pai, com pelo menos t chaves ou raiz.
+     * @param i Posição do filho no pai.
+     * @param filho Filho com t - 1 chaves.
+     * @return O nó travado onde a descida continua.
+     */
+    private NoConcorrente completarFilho(NoConcorrente pai, int i, NoConcorrente filho) {
+        if (i > 0) {
+            filho.getTrava().writeLock().unlock();
+            NoConcorrente esq = pai.getFilho(i - 1);
+            esq.getTrava().writeLock().lock();
+            filho.getTrava().writeLock().lock();
+            if (esq.getN() >= t) {
+                emprestarEsquerda(pai, i, esq, filho);
+                esq.getTrava().writeLock().unlock();
+                return filho;
+            }
+            if (i < pai.getN()) {
+                NoConcorrente dir = pai.getFilho(i + 1);
+                dir.getTrava().writeLock().lock();
+                if (dir.getN() >= t) {
+                    emprestarDireita(pai, i, filho, dir);
+                    dir.getTrava().writeLock().unlock();
+                    esq.getTrava().writeLock().unlock();
+                    return filho;
+                }
+                dir.getTrava().writeLock().unlock();
+            }
+            // O filho é juntado ao irmão da esquerda e descartado
+            juntar(pai, i - 1, esq, filho);
+            filho.getTrava().writeLock().unlock();
+            return esq;
+        }
+        NoConcorrente dir = pai.getFilho(1);
+        dir.getTrava().writeLock().lock();
+        if (dir.getN() >= t) {
+            emprestarDireita(pai, 0, filho, dir);
+        } else {
+            juntar(pai, 0, filho, dir);
+        }
+        dir.getTrava().writeLock().unlock();
+        return filho;
+    }
+
+    /**
+     * Move a última chave do irmão da esquerda para o filho i.
+     *
+     * @param pai Nó pai.
+     * @param i Posição do filho no pai.
+     * @param esq Irmão da esquerda.
+     * @param filho Filho que recebe a chave.
+     */
+    private void emprestarEsquerda(NoConcorrente pai, int i, NoConcorrente esq, NoConcorrente filho) {
+        int n = filho.getN();
+        int ne = esq.getN();
+        for (int j = n - 1; j >= 0; j--) {
+            filho.setChave(j + 1, filho.getChave(j));
+        }
+        if (filho.getFolha()) {
+            filho.setChave(0, esq.getChave(ne - 1));
+            pai.setChave(i - 1, filho.getChave(0));
+        } else {
+            for (int j = n; j >= 0; j--) {
+                filho.setC(j + 1, filho.getC(j));
+            }
+            // O separador desce e a última chave da esquerda sobe
+            filho.setChave(0, pai.getChave(i - 1));
+            filho.setC(0, esq.getC(ne));
+            esq.setC(ne, null);
+            pai.setChave(i - 1, esq.getChave(ne - 1));
+        }
+        esq.setN(ne - 1);
+        filho.setN(n + 1);
+    }
+
+    /**
+     * Move a primeira chave do irmão da direita para o filho i.
+     *
+     * @param pai Nó pai.
+     * @param i Posição do filho no pai.
+     * @param filho Filho que recebe a chave.
+     * @param dir Irmão da direita.
+     */
+    private void emprestarDireita(NoConcorrente pai, int i, NoConcorrente filho, NoConcorrente dir) {
+        int n = filho.getN();
+        int nd = dir.getN();
+        if (filho.getFolha()) {
+            filho.setChave(n, dir.getChave(0));
+        } else {
+            // O separador desce e a primeira chave da direita sobe
+            filho.setChave(n, pai.getChave(i));
+            filho.setC(n + 1, dir.getC(0));
+            pai.setChave(i, dir.getChave(0));
+            for (int j = 0; j < nd; j++) {
+                dir.setC(j, dir.getC(j + 1));
+            }
+            dir.setC(nd, null);
+        }
+        for (int j = 0; j < nd - 1; j++) {
+            dir.setChave(j, dir.getChave(j + 1));
+        }
+        dir.setN(nd - 1);
+        filho.setN(n + 1);
+        if (filho.getFolha()) {
+            pai.setChave(i, dir.getChave(0));
+        }
+    }
+
+    /**
+     * Junta(merge) os filhos j e j + 1 do pai no filho j.
+     *
+     * @param pai Nó pai.
+     * @param j Posição do filho da esquerda no pai.
+     * @param esq Filho da esquerda, que recebe as chaves.
+     * @param dir Filho da direita, descartado.
+     */
+    private void juntar(NoConcorrente pai, int j, NoConcorrente esq, NoConcorrente dir) {
+        int n = esq.getN();
+        int nd = dir.getN();
+        if (esq.getFolha()) {
+            for (int k = 0; k < nd; k++) {
+                esq.setChave(n + k, dir.getChave(k));
+            }
+            esq.setN(n + nd);
+            // Retira a folha da direita do encadeamento
+            esq.setProximo(dir.getProximo());
+        } else {
+            esq.setChave(n, pai.getChave(j));
+            for (int k = 0; k < nd; k++) {
+                esq.setChave(n + 1 + k, dir.getChave(k));
+            }
+            for (int k = 0; k <= nd; k++) {
+                esq.setC(n + 1 + k, dir.getC(k));
+            }
+            esq.setN(n + 1 + nd);
+        }
+        // Remove o separador e o filho da direita do pai
+        int np = pai.getN();
+        for (int k = j; k < np - 1; k++) {
+            pai.setChave(k, pai.getChave(k + 1));
+        }
+        for (int k = j + 1; k < np; k++) {
+            pai.setC(k, pai.getC(k + 1));
+        }
+        pai.setC(np, null);
+        pai.setN(np - 1);
+    }
+
+    /**
+     * Percorre as chaves do intervalo [lo, hi] em ordem, seguindo o
+     * encadeamento das folhas.
+     *
+     * A próxima folha é travada para leitura antes de soltar a atual, assim
+     * o percurso vê cada folha em um estado consistente. O consumidor é
+     * chamado com a folha travada e não deve modificar a árvore.
+     *
+     * @param lo Limite inferior do intervalo (inclusivo).
+     * @param hi Limite superior do intervalo (inclusivo).
+     * @param consumidor Recebe cada chave encontrada no intervalo.
+     * @return A quantidade de chaves encontradas.
+     */
+    public int intervalo(int lo, int hi, IntConsumer consumidor) {
+        NoConcorrente folha = descerAteFolha(lo, false);
+        if (folha == null) {
+            return 0;
+        }
+        int cont = 0;
+        int i = folha.procurarPosicaoChave(lo, busca);
+        while (true) {
+            for (; i < folha.getN(); i++) {
+                int k = folha.getChave(i);
+                if (k > hi) {
+                    folha.getTrava().readLock().unlock();
+                    return cont;
+                }
+                consumidor.accept(k);
+                cont = cont + 1;
+            }
+            // Segue para a próxima folha
+            NoConcorrente proxima = folha.getProximoConcorrente();
+            if (proxima == null) {
+                folha.getTrava().readLock().unlock();
+                return cont;
+            }
+            proxima.getTrava().readLock().lock();
+            folha.getTrava().readLock().unlock();
+            folha = proxima;
+            i = 0;
+        }
+    }
+
+    /**
+     * Encontra a altura da árvore.
+     *
+     * @return A altura da árvore.
+     */
+    public int getAltura() {
+        int altura = 0;
+        travaRaiz.readLock().lock();
+        NoConcorrente no = raiz;
+        if (no == null) {
+            travaRaiz.readLock().unlock();
+            return 0;
+        }
+        no.getTrava().readLock().lock();
+        travaRaiz.readLock().unlock();
+        while (true) {
+            altura++;
+            if (no.getFolha()) {
+                no.getTrava().readLock().unlock();
+                return altura;
+            }
+            NoConcorrente filho = no.getFilho(0);
+            filho.getTrava().readLock().lock();
+            no.getTrava().readLock().unlock();
+            no = filho;
+        }
+    }
+
+    /**
+     * Recuperador de início.
+     *
+     * Não obtém nenhuma trava, serve apenas para inspecionar a árvore quando
+     * nenhuma outra thread a está modificando.
+     *
+     * @return O nó do início da árvore.
+     */
+    public No getRaiz() {
+        return raiz;
+    }
+}
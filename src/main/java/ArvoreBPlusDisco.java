@@ -0,0 +1,672 @@
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.function.IntConsumer;
+
+/**
+ * Árvore B+ armazenada em disco.
+ *
+ * Cada nó é uma página de tamanho fixo de um ArquivoPaginas e os filhos e o
+ * próximo nó são números de página. A ordem t é a maior que cabe na página.
+ * O cabeçalho do arquivo guarda a raiz, a altura e a lista de páginas livres,
+ * assim abrir um índice existente lê somente o cabeçalho.
+ *
+ * As páginas podem ser acessadas diretamente no arquivo ou por um
+ * PoolBuffers, que as mantém em cache e lê antecipadamente as próximas
+ * folhas dos percursos por intervalo.
+ *
+ */
+public class ArvoreBPlusDisco {
+
+    /**
+     * Arquivo com o cabeçalho da árvore.
+     */
+    private final ArquivoPaginas arquivo;
+
+    /**
+     * Acesso às páginas dos nós.
+     */
+    private final Paginador paginas;
+
+    /**
+     * Formato dos nós nas páginas.
+     */
+    private final FormatoNo formato;
+
+    /**
+     * Ordem da árvore;
+     */
+    private final int t;
+
+    /**
+     * Quantidade de folhas lidas antecipadamente nos percursos por intervalo.
+     */
+    private int leituraAntecipada;
+
+    /**
+     * Construtor com parâmetro.
+     *
+     * @param arquivo Arquivo de páginas da árvore.
+     */
+    public ArvoreBPlusDisco(ArquivoPaginas arquivo) {
+        this(arquivo, arquivo);
+    }
+
+    /**
+     * Construtor com parâmetros.
+     *
+     * @param arquivo Arquivo de páginas da árvore.
+     * @param paginas Acesso às páginas, como um PoolBuffers sobre o arquivo.
+     */
+    public ArvoreBPlusDisco(ArquivoPaginas arquivo, Paginador paginas) {
+        this.arquivo = arquivo;
+        this.paginas = paginas;
+        this.t = arquivo.getT();
+        this.formato = new FormatoNo(t);
+    }
+
+    /**
+     * Abre uma árvore existente com um pool de buffers.
+     *
+     * @param caminho Caminho do arquivo.
+     * @param memoria Orçamento de memória do pool em bytes.
+     * @param politica Política de substituição do pool.
+     * @return A árvore aberta.
+     * @throws IOException Se o arquivo não puder ser lido.
+     */
+    public static ArvoreBPlusDisco abrir(Path caminho, long memoria, PoliticaSubstituicao politica) throws IOException {
+        ArquivoPaginas arquivo = ArquivoPaginas.abrir(caminho);
+        return new ArvoreBPlusDisco(arquivo, new PoolBuffers(arquivo, memoria, politica));
+    }
+
+    /**
+     * Cria uma árvore vazia em um novo arquivo.
+     *
+     * @param caminho Caminho do arquivo, substituído se existir.
+     * @param tamanhoPagina Tamanho das páginas em bytes.
+     * @return A árvore criada.
+     * @throws IOException Se o arquivo não puder ser criado.
+     */
+    public static ArvoreBPlusDisco criar(Path caminho, int tamanhoPagina) throws IOException {
+        return new ArvoreBPlusDisco(ArquivoPaginas.criar(caminho, tamanhoPagina));
+    }
+
+    /**
+     * Abre uma árvore existente.
+     *
+     * @param caminho Caminho do arquivo.
+     * @return A árvore aberta.
+     * @throws IOException Se o arquivo não puder ser lido.
+     */
+    public static ArvoreBPlusDisco abrir(Path caminho) throws IOException {
+        return new ArvoreBPlusDisco(ArquivoPaginas.abrir(caminho));
+    }
+
+    /**
+     * Recuperador de t.
+     *
+     * @return O grau da árvore
+     */
+    public int getT() {
+        return t;
+    }
+
+    /**
+     * Recuperador da leitura antecipada.
+     *
+     * @return A quantidade de folhas lidas antecipadamente nos intervalos.
+     */
+    public int getLeituraAntecipada() {
+        return leituraAntecipada;
+    }
+
+    /**
+     * Modificador da leitura antecipada.
+     *
+     * Só tem efeito quando as páginas são acessadas por um PoolBuffers.
+     *
+     * @param leituraAntecipada Quantidade de folhas lidas antecipadamente nos
+     * intervalos, 0 para desligar.
+     */
+    public void setLeituraAntecipada(int leituraAntecipada) {
+        if (leituraAntecipada < 0) {
+            throw new IllegalArgumentException("Leitura antecipada inválida: " + leituraAntecipada);
+        }
+        this.leituraAntecipada = leituraAntecipada;
+    }
+
+    /**
+     * Encontra a altura da árvore.
+     *
+     * @return A altura da árvore.
+     */
+    public int getAltura() {
+        return arquivo.getAltura();
+    }
+
+    /**
+     * Dividir(split) um nó em 2 nós descendentes.
+     *
+     * Mesma divisão de ArvoreBPlus.dividirNo.
+     *
+     * @param pb Página fixada do nó pai, que não pode estar cheio.
+     * @param i Indíce do filho cheio a ser dividido.
+     * @throws IOException Se as páginas não puderem ser lidas ou gravadas.
+     */
+    private void dividirNo(ByteBuffer pb, int i) throws IOException {
+        int y = formato.getC(pb, i);
+        ByteBuffer yb = paginas.fixar(y);
+        boolean folha = formato.getFolha(yb);
+        int z = paginas.alocar();
+        ByteBuffer zb = paginas.fixar(z);
+        formato.iniciar(zb, folha);
+        int chaveSobe;
+        if (folha) {
+            // A folha da direita fica com a metade maior das chaves
+            int n = formato.getN(yb);
+            int meio = (n + 1) / 2;
+            for (int k = meio; k < n; k++) {
+                formato.setChave(zb, k - meio, formato.getChave(yb, k));
+            }
+            formato.setN(zb, n - meio);
+            formato.setN(yb, meio);
+            // Encadeamento de folhas
+            formato.setProximo(zb, formato.getProximo(yb));
+            formato.setProximo(yb, z);
+            // Sobe uma cópia da menor chave da folha da direita
+            chaveSobe = formato.getChave(zb, 0);
+        } else {
+            // A chave do meio sobe e sai do nó interno
+            chaveSobe = formato.getChave(yb, t - 1);
+            for (int j = 0; j < t - 1; j++) {
+                formato.setChave(zb, j, formato.getChave(yb, j + t));
+            }
+            for (int j = 0; j < t; j++) {
+                formato.setC(zb, j, formato.getC(yb, j + t));
+            }
+            formato.setN(zb, t - 1);
+            formato.setN(yb, t - 1);
+        }
+        paginas.desafixar(z, true);
+        paginas.desafixar(y, true);
+        // Abre espaço no pai para o novo filho e a chave promovida
+        int n = formato.getN(pb);
+        for (int j = n; j >= i + 1; j--) {
+            formato.setC(pb, j + 1, formato.getC(pb, j));
+        }
+        formato.setC(pb, i + 1, z);
+        for (int j = n - 1; j >= i; j--) {
+            formato.setChave(pb, j + 1, formato.getChave(pb, j));
+        }
+        formato.setChave(pb, i, chaveSobe);
+        formato.setN(pb, n + 1);
+    }
+
+    /**
+     * Inserção na árvore B+.
+     *
+     * Desce da raiz dividindo preventivamente os nós cheios, mantendo fixadas
+     * apenas a página atual e a do filho.
+     *
+     * @param k Chave a ser inserida.
+     * @throws IOException Se as páginas não puderem ser lidas ou gravadas.
+     */
+    public void inserir(int k) throws IOException {
+        int no = arquivo.getRaiz();
+        ByteBuffer buffer;
+        boolean suja = false;
+        if (no == Paginador.NULO) {
+            // Cria a raiz como um nó folha
+            no = paginas.alocar();
+            buffer = paginas.fixar(no);
+            formato.iniciar(buffer, true);
+            arquivo.setRaiz(no);
+            arquivo.setAltura(1);
+        } else {
+            buffer = paginas.fixar(no);
+            if (formato.getN(buffer) == 2 * t - 1) {
+                // Cria a nova raiz e divide a antiga
+                int nova = paginas.alocar();
+                ByteBuffer nb = paginas.fixar(nova);
+                formato.iniciar(nb, false);
+                formato.setC(nb, 0, no);
+                paginas.desafixar(no, false);
+                dividirNo(nb, 0);
+                arquivo.setRaiz(nova);
+                arquivo.setAltura(arquivo.getAltura() + 1);
+                no = nova;
+                buffer = nb;
+                suja = true;
+            }
+        }
+        while (!formato.getFolha(buffer)) {
+            int i = formato.procurarPosicaoFilho(buffer, k);
+            int filho = formato.getC(buffer, i);
+            ByteBuffer fb = paginas.fixar(filho);
+            if (formato.getN(fb) == 2 * t - 1) {
+                // Divide o filho antes de descer
+                paginas.desafixar(filho, false);
+                dividirNo(buffer, i);
+                suja = true;
+                if (k >= formato.getChave(buffer, i)) {
+                    i++;
+                }
+                filho = formato.getC(buffer, i);
+                fb = paginas.fixar(filho);
+            }
+            paginas.desafixar(no, suja);
+            no = filho;
+            buffer = fb;
+            suja = false;
+        }
+        // Desloca as chaves maiores que k para abrir espaço
+        int i = formato.procurarPosicaoFilho(buffer, k);
+        int n = formato.getN(buffer);
+        for (int j = n - 1; j >= i; j--) {
+            formato.setChave(buffer, j + 1, formato.getChave(buffer, j));
+        }
+        formato.setChave(buffer, i, k);
+        formato.setN(buffer, n + 1);
+        paginas.desafixar(no, true);
+    }
+
+    /**
+     * Procura uma chave k na árvore.
+     *
+     * @param k Chave a ser procurada.
+     * @return Verdadeiro se a chave está na árvore.
+     * @throws IOException Se as páginas não puderem ser lidas.
+     */
+    public boolean procurar(int k) throws IOException {
+        int raiz = arquivo.getRaiz();
+        return raiz != Paginador.NULO && procurar(raiz, k);
+    }
+
+    /**
+     * Procura uma chave k na sub-árvore de no.
+     *
+     * @param no Página da raiz da sub-árvore.
+     * @param k Chave a ser procurada.
+     * @return Verdadeiro se a chave está na sub-árvore.
+     * @throws IOException Se as páginas não puderem ser lidas.
+     */
+    private boolean procurar(int no, int k) throws IOException {
+        ByteBuffer buffer = paginas.fixar(no);
+        try {
+            if (formato.getFolha(buffer)) {
+                int i = formato.procurarPosicaoChave(buffer, k);
+                return i < formato.getN(buffer) && formato.getChave(buffer, i) == k;
+            }
+            int i = formato.procurarPosicaoFilho(buffer, k);
+            boolean achou = procurar(formato.getC(buffer, i), k);
+            // Chaves repetidas iguais ao separador podem ter ficado à
+            // esquerda dele em uma divisão
+            while (!achou && i > 0 && formato.getChave(buffer, i - 1) == k) {
+                i--;
+                achou = procurar(formato.getC(buffer, i), k);
+            }
+            return achou;
+        } finally {
+            paginas.desafixar(no, false);
+        }
+    }
+
+    /**
+     * Remove uma chave da árvore.
+     *
+     * Corrige os nós abaixo da ocupação mínima como em ArvoreBPlus.remover e
+     * devolve as páginas descartadas pelas junções para a lista de livres.
+     *
+     * @param k Chave a ser removida.
+     * @return Verdadeiro se a chave foi removida.
+     * @throws IOException Se as páginas não puderem ser lidas ou gravadas.
+     */
+    public boolean remover(int k) throws IOException {
+        int raiz = arquivo.getRaiz();
+        if (raiz == Paginador.NULO) {
+            return false;
+        }
+        boolean ok = remover(raiz, k);
+        ByteBuffer rb = paginas.fixar(raiz);
+        int n = formato.getN(rb);
+        boolean folha = formato.getFolha(rb);
+        int primeiro = formato.getC(rb, 0);
+        paginas.desafixar(raiz, false);
+        if (n == 0) {
+            // Raiz sem chaves: o único filho sobe ou a árvore fica vazia
+            paginas.liberar(raiz);
+            arquivo.setRaiz(folha ? Paginador.NULO : primeiro);
+            arquivo.setAltura(arquivo.getAltura() - 1);
+        }
+        return ok;
+    }
+
+    /**
+     * Remove uma chave da sub-árvore de no.
+     *
+     * @param no Página da raiz da sub-árvore.
+     * @param k Chave a ser removida.
+     * @return Verdadeiro se a chave foi removida.
+     * @throws IOException Se as páginas não puderem ser lidas ou gravadas.
+     */
+    private boolean remover(int no, int k) throws IOException {
+        ByteBuffer buffer = paginas.fixar(no);
+        boolean suja = false;
+        try {
+            if (formato.getFolha(buffer)) {
+                int i = formato.procurarPosicaoChave(buffer, k);
+                int n = formato.getN(buffer);
+                if (i < n && formato.getChave(buffer, i) == k) {
+                    // Shift para esquerda
+                    for (int j = i + 1; j < n; j++) {
+                        formato.setChave(buffer, j - 1, formato.getChave(buffer, j));
+                    }
+                    formato.setN(buffer, n - 1);
+                    suja = true;
+                    return true;
+                }
+                return false;
+            }
+            int i = formato.procurarPosicaoFilho(buffer, k);
+            int filho = formato.getC(buffer, i);
+            boolean ok = remover(filho, k);
+            // Chaves repetidas iguais ao separador podem ter ficado à
+            // esquerda dele em uma divisão
+            while (!ok && i > 0 && formato.getChave(buffer, i - 1) == k) {
+                i--;
+                filho = formato.getC(buffer, i);
+                ok = remover(filho, k);
+            }
+            if (ok && quantidade(filho) < t - 1) {
+                corrigirFilho(buffer, i);
+                suja = true;
+            }
+            return ok;
+        } finally {
+            paginas.desafixar(no, suja);
+        }
+    }
+
+    /**
+     * Retorna a quantidade de chaves de um nó.
+     *
+     * @param no Página do nó.
+     * @return A quantidade de chaves.
+     * @throws IOException Se a página não puder ser lida.
+     */
+    private int quantidade(int no) throws IOException {
+        int n = formato.getN(paginas.fixar(no));
+        paginas.desafixar(no, false);
+        return n;
+    }
+
+    /**
+     * Corrige o filho i do pai que ficou abaixo da ocupação mínima.
+     *
+     * @param pb Página fixada do nó pai.
+     * @param i Posição do filho no pai.
+     * @throws IOException Se as páginas não puderem ser lidas ou gravadas.
+     */
+    private void corrigirFilho(ByteBuffer pb, int i) throws IOException {
+        if (i > 0 && quantidade(formato.getC(pb, i - 1)) > t - 1) {
+            emprestarEsquerda(pb, i);
+        } else if (i < formato.getN(pb) && quantidade(formato.getC(pb, i + 1)) > t - 1) {
+            emprestarDireita(pb, i);
+        } else if (i > 0) {
+            juntar(pb, i - 1);
+        } else {
+            juntar(pb, i);
+        }
+    }
+
+    /**
+     * Move a última chave do irmão da esquerda para o filho i.
+     *
+     * @param pb Página fixada do nó pai.
+     * @param i Posição do filho no pai.
+     * @throws IOException Se as páginas não puderem ser lidas ou gravadas.
+     */
+    private void emprestarEsquerda(ByteBuffer pb, int i) throws IOException {
+        int filho = formato.getC(pb, i);
+        int esq = formato.getC(pb, i - 1);
+        ByteBuffer fb = paginas.fixar(filho);
+        ByteBuffer eb = paginas.fixar(esq);
+        int n = formato.getN(fb);
+        int ne = formato.getN(eb);
+        for (int j = n - 1; j >= 0; j--) {
+            formato.setChave(fb, j + 1, formato.getChave(fb, j));
+        }
+        if (formato.getFolha(fb)) {
+            formato.setChave(fb, 0, formato.getChave(eb, ne - 1));
+            formato.setChave(pb, i - 1, formato.getChave(fb, 0));
+        } else {
+            for (int j = n; j >= 0; j--) {
+                formato.setC(fb, j + 1, formato.getC(fb, j));
+            }
+            // O separador desce e a última chave da esquerda sobe
+            formato.setChave(fb, 0, formato.getChave(pb, i - 1));
+            formato.setC(fb, 0, formato.getC(eb, ne));
+            formato.setChave(pb, i - 1, formato.getChave(eb, ne - 1));
+        }
+        formato.setN(eb, ne - 1);
+        formato.setN(fb, n + 1);
+        paginas.desafixar(esq, true);
+        paginas.desafixar(filho, true);
+    }
+
+    /**
+     * Move a primeira chave do irmão da direita para o filho i.
+     *
+     * @param pb Página fixada do nó pai.
+     * @param i Posição do filho no pai.
+     * @throws IOException Se as páginas não puderem ser lidas ou gravadas.
+     */
+    private void emprestarDireita(ByteBuffer pb, int i) throws IOException {
+        int filho = formato.getC(pb, i);
+        int dir = formato.getC(pb, i + 1);
+        ByteBuffer fb = paginas.fixar(filho);
+        ByteBuffer db = paginas.fixar(dir);
+        int n = formato.getN(fb);
+        int nd = formato.getN(db);
+        boolean folha = formato.getFolha(fb);
+        if (folha) {
+            formato.setChave(fb, n, formato.getChave(db, 0));
+        } else {
+            // O separador desce e a primeira chave da direita sobe
+            formato.setChave(fb, n, formato.getChave(pb, i));
+            formato.setC(fb, n + 1, formato.getC(db, 0));
+            formato.setChave(pb, i, formato.getChave(db, 0));
+            for (int j = 0; j < nd; j++) {
+                formato.setC(db, j, formato.getC(db, j + 1));
+            }
+        }
+        for (int j = 0; j < nd - 1; j++) {
+            formato.setChave(db, j, formato.getChave(db, j + 1));
+        }
+        formato.setN(db, nd - 1);
+        formato.setN(fb, n + 1);
+        if (folha) {
+            formato.setChave(pb, i, formato.getChave(db, 0));
+        }
+        paginas.desafixar(dir, true);
+        paginas.desafixar(filho, true);
+    }
+
+    /**
+     * Junta(merge) os filhos j e j + 1 do pai no filho j e libera a página do
+     * filho da direita.
+     *
+     * @param pb Página fixada do nó pai.
+     * @param j Posição do filho da esquerda no pai.
+     * @throws IOException Se as páginas não puderem ser lidas ou gravadas.
+     */
+    private void juntar(ByteBuffer pb, int j) throws IOException {
+        int esq = formato.getC(pb, j);
+        int dir = formato.getC(pb, j + 1);
+        ByteBuffer eb = paginas.fixar(esq);
+        ByteBuffer db = paginas.fixar(dir);
+        int n = formato.getN(eb);
+        int nd = formato.getN(db);
+        if (formato.getFolha(eb)) {
+            for (int k = 0; k < nd; k++) {
+                formato.setChave(eb, n + k, formato.getChave(db, k));
+            }
+            formato.setN(eb, n + nd);
+            // Retira a folha da direita do encadeamento
+            formato.setProximo(eb, formato.getProximo(db));
+        } else {
+            formato.setChave(eb, n, formato.getChave(pb, j));
+            for (int k = 0; k < nd; k++) {
+                formato.setChave(eb, n + 1 + k, formato.getChave(db, k));
+            }
+            for (int k = 0; k <= nd; k++) {
+                formato.setC(eb, n + 1 + k, formato.getC(db, k));
+            }
+            formato.setN(eb, n + 1 + nd);
+        }
+        paginas.desafixar(dir, false);
+        paginas.desafixar(esq, true);
+        paginas.liberar(dir);
+        // Remove o separador e o filho da direita do pai
+        int np = formato.getN(pb);
+        for (int k = j; k < np - 1; k++) {
+            formato.setChave(pb, k, formato.getChave(pb, k + 1));
+        }
+        for (int k = j + 1; k < np; k++) {
+            formato.setC(pb, k, formato.getC(pb, k + 1));
+        }
+        formato.setN(pb, np - 1);
+    }
+
+    /**
+     * Percorre as chaves do intervalo [lo, hi] em ordem, seguindo o
+     * encadeamento das folhas.
+     *
+     * Com leitura antecipada, as próximas folhas são pedidas ao paginador
+     * antes de serem alcançadas. As páginas das folhas seguintes vêm do pai
+     * da folha atual, ao passar para as folhas de outro pai ele é procurado
+     * novamente a partir da raiz.
+     *
+     * @param lo Limite inferior do intervalo (inclusivo).
+     * @param hi Limite superior do intervalo (inclusivo).
+     * @param consumidor Recebe cada chave encontrada no intervalo.
+     * @return A quantidade de chaves encontradas.
+     * @throws IOException Se as páginas não puderem ser lidas.
+     */
+    public int intervalo(int lo, int hi, IntConsumer consumidor) throws IOException {
+        int cont = 0;
+        int no = arquivo.getRaiz();
+        if (no == Paginador.NULO) {
+            return 0;
+        }
+        ByteBuffer buffer = paginas.fixar(no);
+        while (!formato.getFolha(buffer)) {
+            int filho = formato.getC(buffer, formato.procurarPosicaoChave(buffer, lo));
+            paginas.desafixar(no, false);
+            no = filho;
+            buffer = paginas.fixar(no);
+        }
+        int i = formato.procurarPosicaoChave(buffer, lo);
+        int janela = leituraAntecipada;
+        int[] seguintes = janela > 0 ? new int[2 * t] : null;
+        int qtde = janela > 0 ? preverFolhas(lo, no, seguintes, janela) : 0;
+        int pos = 0;
+        while (true) {
+            int n = formato.getN(buffer);
+            for (; i < n; i++) {
+                int k = formato.getChave(buffer, i);
+                if (k > hi) {
+                    paginas.desafixar(no, false);
+                    return cont;
+                }
+                consumidor.accept(k);
+                cont = cont + 1;
+            }
+            // Segue para a próxima folha
+            int proximo = formato.getProximo(buffer);
+            paginas.desafixar(no, false);
+            if (proximo == Paginador.NULO) {
+                return cont;
+            }
+            no = proximo;
+            buffer = paginas.fixar(no);
+            i = 0;
+            if (janela > 0) {
+                if (pos < qtde && seguintes[pos] == no) {
+                    // Mantém a janela de folhas pedidas à frente
+                    pos++;
+                    if (pos + janela - 1 < qtde) {
+                        paginas.preCarregar(seguintes[pos + janela - 1]);
+                    }
+                } else if (formato.getN(buffer) > 0 && formato.getChave(buffer, 0) <= hi) {
+                    qtde = preverFolhas(formato.getChave(buffer, 0), no, seguintes, janela);
+                    pos = 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Pede a leitura antecipada das folhas seguintes à folha atual.
+     *
+     * A descida segue o filho da primeira chave maior ou igual a k, como em
+     * intervalo, e no pai das folhas a folha atual é procurada a partir
+     * desse filho, pois repetições de k podem se estender por várias folhas.
+     *
+     * @param k Menor chave que pode estar na folha atual.
+     * @param folha Página da folha atual.
+     * @param seguintes Recebe as páginas das folhas seguintes com o mesmo pai.
+     * @param janela Quantidade de folhas a pedir.
+     * @return A quantidade de páginas em seguintes, 0 se a folha atual não
+     * estiver no pai encontrado.
+     * @throws IOException Se as páginas não puderem ser lidas.
+     */
+    private int preverFolhas(int k, int folha, int[] seguintes, int janela) throws IOException {
+        if (arquivo.getAltura() < 2) {
+            return 0;
+        }
+        int no = arquivo.getRaiz();
+        ByteBuffer buffer = paginas.fixar(no);
+        for (int nivel = arquivo.getAltura(); nivel > 2; nivel--) {
+            int filho = formato.getC(buffer, formato.procurarPosicaoChave(buffer, k));
+            paginas.desafixar(no, false);
+            no = filho;
+            buffer = paginas.fixar(no);
+        }
+        // No pai das folhas, copia os filhos à direita da folha atual
+        int n = formato.getN(buffer);
+        int atual = formato.procurarPosicaoChave(buffer, k);
+        while (atual <= n && formato.getC(buffer, atual) != folha) {
+            atual++;
+        }
+        int qtde = 0;
+        for (int j = atual + 1; j <= n; j++) {
+            seguintes[qtde] = formato.getC(buffer, j);
+            qtde++;
+        }
+        paginas.desafixar(no, false);
+        for (int j = 0; j < Math.min(janela, qtde); j++) {
+            paginas.preCarregar(seguintes[j]);
+        }
+        return qtde;
+    }
+
+    /**
+     * Grava no disco as páginas modificadas e o cabeçalho.
+     *
+     * @throws IOException Se a gravação falhar.
+     */
+    public void descarregar() throws IOException {
+        paginas.descarregar();
+    }
+
+    /**
+     * Grava as modificações e fecha o arquivo.
+     *
+     * @throws IOException Se a gravação falhar.
+     */
+    public void fechar() throws IOException {
+        paginas.fechar();
+    }
+}
@@ -0,0 +1,373 @@
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Árvore B+ durável, com log de escrita antecipada e pontos de controle.
+ *
+ * Cada inserção, remoção e atualização é anexada a um LogEscrita antes de
+ * ser aplicada na ArvoreBPlus em memória e só retorna depois que o registro
+ * está no disco. O ponto de controle(checkpoint) grava todas as chaves em
+ * ordem em um arquivo no formato de ArvoreBPlus.carregarOrdenado e começa um
+ * novo log, assim a recuperação carrega o último ponto de controle sem
+ * nenhuma divisão de nó e reaplica apenas o final do log.
+ *
+ * Os arquivos do diretório são numerados por geração: checkpoint-g.bin
+ * contém a árvore no início de log-g.wal e os logs de gerações seguintes são
+ * reaplicados em ordem.
+ *
+ */
+public class ArvoreBPlusDuravel {
+
+    /**
+     * Fator de preenchimento das folhas carregadas do ponto de controle.
+     */
+    private static final double FATOR_PREENCHIMENTO = 0.75;
+
+    /**
+     * Diretório dos arquivos de log e pontos de controle.
+     */
+    private final Path diretorio;
+
+    /**
+     * Árvore em memória.
+     */
+    private final ArvoreBPlus arvore;
+
+    /**
+     * Log da geração atual.
+     */
+    private final LogEscrita log;
+
+    /**
+     * Geração atual.
+     */
+    private long geracao;
+
+    /**
+     * Quantidade de registros desde o último ponto de controle.
+     */
+    private long registros;
+
+    /**
+     * Quantidade de registros que dispara um ponto de controle, 0 para
+     * desligar.
+     */
+    private long limiteRegistros;
+
+    /**
+     * Construtor com parâmetros.
+     *
+     * @param diretorio Diretório dos arquivos.
+     * @param arvore Árvore recuperada.
+     * @param log Log da geração atual.
+     * @param geracao Geração atual.
+     * @param registros Quantidade de registros no log atual.
+     */
+    private ArvoreBPlusDuravel(Path diretorio, ArvoreBPlus arvore, LogEscrita log, long geracao, long registros) {
+        this.diretorio = diretorio;
+        this.arvore = arvore;
+        this.log = log;
+        this.geracao = geracao;
+        this.registros = registros;
+    }
+
+    /**
+     * Abre ou cria uma árvore durável, recuperando o seu conteúdo.
+     *
+     * Carrega o último ponto de controle e reaplica os logs seguintes,
+     * descartando um registro incompleto no final do último log.
+     *
+     * @param diretorio Diretório dos arquivos, criado se não existir.
+     * @param t Ordem da árvore.
+     * @param intervaloMicros Intervalo máximo de sincronização do log em
+     * microssegundos.
+     * @param tamanhoLote Quantidade de registros que dispara a sincronização.
+     * @return A árvore recuperada.
+     * @throws IOException Se os arquivos não puderem ser lidos.
+     */
+    public static ArvoreBPlusDuravel abrir(Path diretorio, int t, long intervaloMicros, int tamanhoLote) throws IOException {
+        Files.createDirectories(diretorio);
+        List<Long> pontos = new ArrayList<>();
+        List<Long> logs = new ArrayList<>();
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio)) {
+            for (Path arquivo : arquivos) {
+                String nome = arquivo.getFileName().toString();
+                if (nome.endsWith(".tmp")) {
+                    // Ponto de controle interrompido
+                    Files.delete(arquivo);
+                } else if (nome.startsWith("checkpoint-") && nome.endsWith(".bin")) {
+                    pontos.add(Long.parseLong(nome.substring(11, nome.length() - 4)));
+                } else if (nome.startsWith("log-") && nome.endsWith(".wal")) {
+                    logs.add(Long.parseLong(nome.substring(4, nome.length() - 4)));
+                }
+            }
+        }
+        Collections.sort(logs);
+        long geracao = pontos.isEmpty() ? 0 : Collections.max(pontos);
+        ArvoreBPlus arvore = new ArvoreBPlus(t);
+        if (!pontos.isEmpty()) {
+            arvore.carregarOrdenado(diretorio.resolve(nomeCheckpoint(geracao)), FATOR_PREENCHIMENTO);
+        }
+        long atual = geracao;
+        long valido = 0;
+        for (long g : logs) {
+            if (g >= geracao) {
+                valido = LogEscrita.reproduzir(diretorio.resolve(nomeLog(g)), arvore);
+                atual = g;
+            }
+        }
+        removerAnteriores(diretorio, geracao);
+        LogEscrita log = new LogEscrita(diretorio.resolve(nomeLog(atual)), valido, intervaloMicros, tamanhoLote);
+        return new ArvoreBPlusDuravel(diretorio, arvore, log, atual, valido / LogEscrita.TAMANHO_REGISTRO);
+    }
+
+    /**
+     * Nome do arquivo de ponto de controle de uma geração.
+     *
+     * @param geracao Geração.
+     * @return O nome do arquivo.
+     */
+    private static String nomeCheckpoint(long geracao) {
+        return "checkpoint-" + geracao + ".bin";
+    }
+
+    /**
+     * Nome do arquivo de log de uma geração.
+     *
+     * @param geracao Geração.
+     * @return O nome do arquivo.
+     */
+    private static String nomeLog(long geracao) {
+        return "log-" + geracao + ".wal";
+    }
+
+    /**
+     * Apaga os pontos de controle e logs de gerações anteriores.
+     *
+     * @param diretorio Diretório dos arquivos.
+     * @param geracao Geração do ponto de controle atual.
+     * @throws IOException Se um arquivo não puder ser apagado.
+     */
+    private static void removerAnteriores(Path diretorio, long geracao) throws IOException {
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio)) {
+            for (Path arquivo : arquivos) {
+                String nome = arquivo.getFileName().toString();
+                long g;
+                if (nome.startsWith("checkpoint-") && nome.endsWith(".bin")) {
+                    g = Long.parseLong(nome.substring(11, nome.length() - 4));
+                } else if (nome.startsWith("log-") && nome.endsWith(".wal")) {
+                    g = Long.parseLong(nome.substring(4, nome.length() - 4));
+                } else {
+                    continue;
+                }
+                if (g < geracao) {
+                    Files.delete(arquivo);
+                }
+            }
+        }
+    }
+
+    /**
+     * Modificador do limite de registros.
+     *
+     * @param limiteRegistros Quantidade de registros no log que dispara um
+     * ponto de controle, 0 para apenas pontos de controle explícitos.
+     */
+    public synchronized void setLimiteRegistros(long limiteRegistros) {
+        this.limiteRegistros = limiteRegistros;
+    }
+
+    /**
+     * Inserção durável.
+     *
+     * @param k Chave a ser inserida.
+     * @throws IOException Se o log não puder ser gravado.
+     */
+    public void inserir(int k) throws IOException {
+        long lsn;
+        synchronized (this) {
+            lsn = log.anexar(LogEscrita.INSERIR, k, 0);
+            arvore.inserir(k);
+            registrado();
+        }
+        log.aguardar(lsn);
+    }
+
+    /**
+     * Remoção durável.
+     *
+     * @param k Chave a ser removida.
+     * @return Verdadeiro se a chave foi removida.
+     * @throws IOException Se o log não puder ser gravado.
+     */
+    public boolean remover(int k) throws IOException {
+        long lsn;
+        boolean ok;
+        synchronized (this) {
+            lsn = log.anexar(LogEscrita.REMOVER, k, 0);
+            ok = arvore.remover(k);
+            registrado();
+        }
+        log.aguardar(lsn);
+        return ok;
+    }
+
+    /**
+     * Atualização durável.
+     *
+     * @param antigo Chave a ser removida.
+     * @param novo Nova chave a ser inserida.
+     * @return Verdadeiro se a chave antiga foi encontrada.
+     * @throws IOException Se o log não puder ser gravado.
+     */
+    public boolean atualizar(int antigo, int novo) throws IOException {
+        long lsn;
+        boolean ok;
+        synchronized (this) {
+            lsn = log.anexar(LogEscrita.ATUALIZAR, antigo, novo);
+            ok = arvore.atualizar(antigo, novo);
+            registrado();
+        }
+        log.aguardar(lsn);
+        return ok;
+    }
+
+    /**
+     * Conta um registro e faz o ponto de controle ao atingir o limite.
+     *
+     * @throws IOException Se o ponto de controle falhar.
+     */
+    private void registrado() throws IOException {
+        registros++;
+        if (limiteRegistros > 0 && registros >= limiteRegistros) {
+            checkpoint();
+        }
+    }
+
+    /**
+     * Procura uma chave k na árvore.
+     *
+     * @param k Chave a ser procurada.
+     * @return Verdadeiro se a chave está na árvore.
+     */
+    public synchronized boolean procurar(int k) {
+        return arvore.procurar(k) != null;
+    }
+
+    /**
+     * Percorre as chaves do intervalo [lo, hi] em ordem.
+     *
+     * @param lo Limite inferior do intervalo (inclusivo).
+     * @param hi Limite superior do intervalo (inclusivo).
+     * @param consumidor Recebe cada chave encontrada no intervalo.
+     * @return A quantidade de chaves encontradas.
+     */
+    public synchronized int intervalo(int lo, int hi, IntConsumer consumidor) {
+        return arvore.intervalo(lo, hi, consumidor);
+    }
+
+    /**
+     * Grava um ponto de controle e começa uma nova geração do log.
+     *
+     * As operações ficam bloqueadas enquanto as chaves são gravadas. O novo
+     * ponto de controle só substitui o anterior depois de sincronizado, por
+     * uma renomeação atômica.
+     *
+     * @throws IOException Se o ponto de controle não puder ser gravado.
+     */
+    public synchronized void checkpoint() throws IOException {
+        long nova = geracao + 1;
+        log.rotacionar(diretorio.resolve(nomeLog(nova)));
+        geracao = nova;
+        registros = 0;
+        Path temporario = diretorio.resolve(nomeCheckpoint(nova) + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+            IOException[] erro = new IOException[1];
+            arvore.intervalo(Integer.MIN_VALUE, Integer.MAX_VALUE, k -> {
+                if (!buffer.hasRemaining()) {
+                    esvaziar(canal, buffer, erro);
+                }
+                buffer.putInt(k);
+            });
+            esvaziar(canal, buffer, erro);
+            if (erro[0] != null) {
+                throw erro[0];
+            }
+            canal.force(true);
+        }
+        Files.move(temporario, diretorio.resolve(nomeCheckpoint(nova)), StandardCopyOption.ATOMIC_MOVE);
+        sincronizarDiretorio();
+        removerAnteriores(diretorio, nova);
+    }
+
+    /**
+     * Grava o conteúdo do buffer no canal, guardando a primeira falha.
+     *
+     * @param canal Canal do ponto de controle.
+     * @param buffer Buffer com as chaves.
+     * @param erro Recebe a primeira falha de gravação.
+     */
+    private static void esvaziar(FileChannel canal, ByteBuffer buffer, IOException[] erro) {
+        buffer.flip();
+        try {
+            while (erro[0] == null && buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+        } catch (IOException e) {
+            erro[0] = e;
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Sincroniza a entrada do diretório com a renomeação do ponto de
+     * controle.
+     */
+    private void sincronizarDiretorio() {
+        try (FileChannel canal = FileChannel.open(diretorio, StandardOpenOption.READ)) {
+            canal.force(true);
+        } catch (IOException e) {
+            // Nem todo sistema permite abrir diretórios(Windows)
+        }
+    }
+
+    /**
+     * Recuperador da geração.
+     *
+     * @return A geração atual do log.
+     */
+    public synchronized long getGeracao() {
+        return geracao;
+    }
+
+    /**
+     * Retorna a quantidade de registros desde o último ponto de controle.
+     *
+     * @return A quantidade de registros no log atual.
+     */
+    public synchronized long getRegistros() {
+        return registros;
+    }
+
+    /**
+     * Grava os registros pendentes e fecha o log.
+     *
+     * @throws IOException Se a gravação falhar.
+     */
+    public synchronized void fechar() throws IOException {
+        log.fechar();
+    }
+}
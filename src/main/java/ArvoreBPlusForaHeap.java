@@ -0,0 +1,440 @@
+
+import java.util.function.IntConsumer;
+
+/**
+ * Árvore B+ com os nós armazenados fora do heap.
+ *
+ * Mesmo algoritmo de ArvoreBPlus, mas cada nó é um slot de tamanho fixo de
+ * uma ArenaNos, identificado por um inteiro. Os nós liberados pelas junções
+ * da remoção voltam para a lista de livres da arena.
+ *
+ */
+public class ArvoreBPlusForaHeap {
+
+    /**
+     * Arena onde ficam os nós.
+     */
+    private final ArenaNos arena;
+
+    /**
+     * Nó de início da árvore.
+     */
+    private int raiz;
+
+    /**
+     * Ordem da árvore;
+     */
+    private final int t;
+
+    /**
+     * Construtor sem parâmetro.
+     *
+     */
+    public ArvoreBPlusForaHeap() {
+        this(3);
+    }
+
+    /**
+     * Construtor com parâmetro.
+     *
+     * @param t Grau mínimo (define o intervalo para o número de chaves).
+     */
+    public ArvoreBPlusForaHeap(int t) {
+        this.t = t;
+        this.arena = new ArenaNos(t);
+
+        //Define árvore como vazia
+        this.raiz = ArenaNos.NULO;
+    }
+
+    /**
+     * Recuperador de início.
+     *
+     * @return O identificador do nó do início da árvore ou ArenaNos.NULO.
+     */
+    public int getRaiz() {
+        return raiz;
+    }
+
+    /**
+     * Recuperador de t.
+     *
+     * @return O grau da árvore
+     */
+    public int getT() {
+        return t;
+    }
+
+    /**
+     * Recuperador da arena.
+     *
+     * @return A arena onde ficam os nós.
+     */
+    public ArenaNos getArena() {
+        return arena;
+    }
+
+    /**
+     * Dividir(split) um nó em 2 nós descendentes.
+     *
+     * Mesma divisão de ArvoreBPlus.dividirNo.
+     *
+     * @param pai Nó pai, que não pode estar cheio.
+     * @param i Indíce do filho cheio a ser dividido.
+     */
+    private void dividirNo(int pai, int i) {
+        int y = arena.getC(pai, i);
+        boolean folha = arena.getFolha(y);
+        int z = arena.alocar(folha);
+        int chaveSobe;
+        if (folha) {
+            // A folha da direita fica com a metade maior das chaves
+            int n = arena.getN(y);
+            int meio = (n + 1) / 2;
+            for (int k = meio; k < n; k++) {
+                arena.setChave(z, k - meio, arena.getChave(y, k));
+            }
+            arena.setN(z, n - meio);
+            arena.setN(y, meio);
+            // Encadeamento de folhas
+            arena.setProximo(z, arena.getProximo(y));
+            arena.setProximo(y, z);
+            // Sobe uma cópia da menor chave da folha da direita
+            chaveSobe = arena.getChave(z, 0);
+        } else {
+            // A chave do meio sobe e sai do nó interno
+            chaveSobe = arena.getChave(y, t - 1);
+            for (int j = 0; j < t - 1; j++) {
+                arena.setChave(z, j, arena.getChave(y, j + t));
+            }
+            for (int j = 0; j < t; j++) {
+                arena.setC(z, j, arena.getC(y, j + t));
+            }
+            arena.setN(z, t - 1);
+            arena.setN(y, t - 1);
+        }
+        // Abre espaço no pai para o novo filho e a chave promovida
+        int n = arena.getN(pai);
+        for (int j = n; j >= i + 1; j--) {
+            arena.setC(pai, j + 1, arena.getC(pai, j));
+        }
+        arena.setC(pai, i + 1, z);
+        for (int j = n - 1; j >= i; j--) {
+            arena.setChave(pai, j + 1, arena.getChave(pai, j));
+        }
+        arena.setChave(pai, i, chaveSobe);
+        arena.setN(pai, n + 1);
+    }
+
+    /**
+     * Inserção na árvore B+.
+     *
+     * Desce da raiz dividindo preventivamente os nós cheios.
+     *
+     * @param k Chave a ser inserida.
+     */
+    public void inserir(int k) {
+        if (raiz == ArenaNos.NULO) {
+            // Cria a raiz como um nó folha
+            raiz = arena.alocar(true);
+        } else if (arena.getN(raiz) == 2 * t - 1) {
+            // Cria a nova raiz e divide a antiga
+            int nova = arena.alocar(false);
+            arena.setC(nova, 0, raiz);
+            dividirNo(nova, 0);
+            raiz = nova;
+        }
+        int no = raiz;
+        while (!arena.getFolha(no)) {
+            int i = arena.procurarPosicaoFilho(no, k);
+            if (arena.getN(arena.getC(no, i)) == 2 * t - 1) {
+                // Divide o filho antes de descer
+                dividirNo(no, i);
+                if (k >= arena.getChave(no, i)) {
+                    i++;
+                }
+            }
+            no = arena.getC(no, i);
+        }
+        // Desloca as chaves maiores que k para abrir espaço
+        int i = arena.procurarPosicaoFilho(no, k);
+        int n = arena.getN(no);
+        for (int j = n - 1; j >= i; j--) {
+            arena.setChave(no, j + 1, arena.getChave(no, j));
+        }
+        arena.setChave(no, i, k);
+        arena.setN(no, n + 1);
+    }
+
+    /**
+     * Procura uma chave k na árvore.
+     *
+     * @param k Chave a ser procurada.
+     * @return O identificador do nó que possui o valor k ou ArenaNos.NULO.
+     */
+    public int procurar(int k) {
+        return raiz == ArenaNos.NULO ? ArenaNos.NULO : procurar(raiz, k);
+    }
+
+    /**
+     * Procura uma chave k na sub-árvore de no.
+     *
+     * @param no Raiz da sub-árvore.
+     * @param k Chave a ser procurada.
+     * @return O identificador da folha que possui o valor k ou ArenaNos.NULO.
+     */
+    private int procurar(int no, int k) {
+        if (arena.getFolha(no)) {
+            int i = arena.procurarPosicaoChave(no, k);
+            return i < arena.getN(no) && arena.getChave(no, i) == k ? no : ArenaNos.NULO;
+        }
+        int i = arena.procurarPosicaoFilho(no, k);
+        int encontrado = procurar(arena.getC(no, i), k);
+        // Chaves repetidas iguais ao separador podem ter ficado à esquerda
+        // dele em uma divisão
+        while (encontrado == ArenaNos.NULO && i > 0 && arena.getChave(no, i - 1) == k) {
+            i--;
+            encontrado = procurar(arena.getC(no, i), k);
+        }
+        return encontrado;
+    }
+
+    /**
+     * Remove uma chave da árvore.
+     *
+     * Corrige os nós abaixo da ocupação mínima como em ArvoreBPlus.remover e
+     * devolve à arena os nós descartados pelas junções.
+     *
+     * @param k Chave a ser removida.
+     * @return Verdadeiro se a chave foi removida.
+     */
+    public boolean remover(int k) {
+        if (raiz == ArenaNos.NULO) {
+            return false;
+        }
+        boolean ok = remover(raiz, k);
+        if (arena.getN(raiz) == 0) {
+            int antiga = raiz;
+            // Raiz sem chaves: o único filho sobe ou a árvore fica vazia
+            raiz = arena.getFolha(raiz) ? ArenaNos.NULO : arena.getC(raiz, 0);
+            arena.liberar(antiga);
+        }
+        return ok;
+    }
+
+    /**
+     * Remove uma chave da sub-árvore de no.
+     *
+     * @param no Raiz da sub-árvore.
+     * @param k Chave a ser removida.
+     * @return Verdadeiro se a chave foi removida.
+     */
+    private boolean remover(int no, int k) {
+        if (arena.getFolha(no)) {
+            int i = arena.procurarPosicaoChave(no, k);
+            int n = arena.getN(no);
+            if (i < n && arena.getChave(no, i) == k) {
+                // Shift para esquerda
+                for (int j = i + 1; j < n; j++) {
+                    arena.setChave(no, j - 1, arena.getChave(no, j));
+                }
+                arena.setN(no, n - 1);
+                return true;
+            }
+            return false;
+        }
+        int i = arena.procurarPosicaoFilho(no, k);
+        boolean ok = remover(arena.getC(no, i), k);
+        // Chaves repetidas iguais ao separador podem ter ficado à esquerda
+        // dele em uma divisão
+        while (!ok && i > 0 && arena.getChave(no, i - 1) == k) {
+            i--;
+            ok = remover(arena.getC(no, i), k);
+        }
+        if (ok && arena.getN(arena.getC(no, i)) < t - 1) {
+            corrigirFilho(no, i);
+        }
+        return ok;
+    }
+
+    /**
+     * Corrige o filho i do pai que ficou abaixo da ocupação mínima.
+     *
+     * @param pai Nó pai do filho a ser corrigido.
+     * @param i Posição do filho no pai.
+     */
+    private void corrigirFilho(int pai, int i) {
+        int n = arena.getN(pai);
+        if (i > 0 && arena.getN(arena.getC(pai, i - 1)) > t - 1) {
+            emprestarEsquerda(pai, i);
+        } else if (i < n && arena.getN(arena.getC(pai, i + 1)) > t - 1) {
+            emprestarDireita(pai, i);
+        } else if (i > 0) {
+            juntar(pai, i - 1);
+        } else {
+            juntar(pai, i);
+        }
+    }
+
+    /**
+     * Move a última chave do irmão da esquerda para o filho i.
+     *
+     * @param pai Nó pai do filho.
+     * @param i Posição do filho no pai.
+     */
+    private void emprestarEsquerda(int pai, int i) {
+        int filho = arena.getC(pai, i);
+        int esq = arena.getC(pai, i - 1);
+        int n = arena.getN(filho);
+        int ne = arena.getN(esq);
+        for (int j = n - 1; j >= 0; j--) {
+            arena.setChave(filho, j + 1, arena.getChave(filho, j));
+        }
+        if (arena.getFolha(filho)) {
+            arena.setChave(filho, 0, arena.getChave(esq, ne - 1));
+            arena.setChave(pai, i - 1, arena.getChave(filho, 0));
+        } else {
+            for (int j = n; j >= 0; j--) {
+                arena.setC(filho, j + 1, arena.getC(filho, j));
+            }
+            // O separador desce e a última chave da esquerda sobe
+            arena.setChave(filho, 0, arena.getChave(pai, i - 1));
+            arena.setC(filho, 0, arena.getC(esq, ne));
+            arena.setChave(pai, i - 1, arena.getChave(esq, ne - 1));
+        }
+        arena.setN(esq, ne - 1);
+        arena.setN(filho, n + 1);
+    }
+
+    /**
+     * Move a primeira chave do irmão da direita para o filho i.
+     *
+     * @param pai Nó pai do filho.
+     * @param i Posição do filho no pai.
+     */
+    private void emprestarDireita(int pai, int i) {
+        int filho = arena.getC(pai, i);
+        int dir = arena.getC(pai, i + 1);
+        int n = arena.getN(filho);
+        int nd = arena.getN(dir);
+        boolean folha = arena.getFolha(filho);
+        if (folha) {
+            arena.setChave(filho, n, arena.getChave(dir, 0));
+        } else {
+            // O separador desce e a primeira chave da direita sobe
+            arena.setChave(filho, n, arena.getChave(pai, i));
+            arena.setC(filho, n + 1, arena.getC(dir, 0));
+            arena.setChave(pai, i, arena.getChave(dir, 0));
+            for (int j = 0; j < nd; j++) {
+                arena.setC(dir, j, arena.getC(dir, j + 1));
+            }
+        }
+        for (int j = 0; j < nd - 1; j++) {
+            arena.setChave(dir, j, arena.getChave(dir, j + 1));
+        }
+        arena.setN(dir, nd - 1);
+        arena.setN(filho, n + 1);
+        if (folha) {
+            arena.setChave(pai, i, arena.getChave(dir, 0));
+        }
+    }
+
+    /**
+     * Junta(merge) os filhos j e j + 1 do pai no filho j e libera o slot do
+     * filho da direita.
+     *
+     * @param pai Nó pai dos filhos.
+     * @param j Posição do filho da esquerda no pai.
+     */
+    private void juntar(int pai, int j) {
+        int esq = arena.getC(pai, j);
+        int dir = arena.getC(pai, j + 1);
+        int n = arena.getN(esq);
+        int nd = arena.getN(dir);
+        if (arena.getFolha(esq)) {
+            for (int k = 0; k < nd; k++) {
+                arena.setChave(esq, n + k, arena.getChave(dir, k));
+            }
+            arena.setN(esq, n + nd);
+            // Retira a folha da direita do encadeamento
+            arena.setProximo(esq, arena.getProximo(dir));
+        } else {
+            arena.setChave(esq, n, arena.getChave(pai, j));
+            for (int k = 0; k < nd; k++) {
+                arena.setChave(esq, n + 1 + k, arena.getChave(dir, k));
+            }
+            for (int k = 0; k <= nd; k++) {
+                arena.setC(esq, n + 1 + k, arena.getC(dir, k));
+            }
+            arena.setN(esq, n + 1 + nd);
+        }
+        // Remove o separador e o filho da direita do pai
+        int np = arena.getN(pai);
+        for (int k = j; k < np - 1; k++) {
+            arena.setChave(pai, k, arena.getChave(pai, k + 1));
+        }
+        for (int k = j + 1; k < np; k++) {
+            arena.setC(pai, k, arena.getC(pai, k + 1));
+        }
+        arena.setN(pai, np - 1);
+        arena.liberar(dir);
+    }
+
+    /**
+     * Percorre as chaves do intervalo [lo, hi] em ordem, seguindo o
+     * encadeamento das folhas.
+     *
+     * @param lo Limite inferior do intervalo (inclusivo).
+     * @param hi Limite superior do intervalo (inclusivo).
+     * @param consumidor Recebe cada chave encontrada no intervalo.
+     * @return A quantidade de chaves encontradas.
+     */
+    public int intervalo(int lo, int hi, IntConsumer consumidor) {
+        int cont = 0;
+        int folha = raiz;
+        while (folha != ArenaNos.NULO && !arena.getFolha(folha)) {
+            folha = arena.getC(folha, arena.procurarPosicaoChave(folha, lo));
+        }
+        if (folha != ArenaNos.NULO) {
+            int i = arena.procurarPosicaoChave(folha, lo);
+            while (folha != ArenaNos.NULO) {
+                int n = arena.getN(folha);
+                for (; i < n; i++) {
+                    int k = arena.getChave(folha, i);
+                    if (k > hi) {
+                        return cont;
+                    }
+                    consumidor.accept(k);
+                    cont = cont + 1;
+                }
+                // Segue para a próxima folha
+                folha = arena.getProximo(folha);
+                i = 0;
+            }
+        }
+        return cont;
+    }
+
+    /**
+     * Encontra a altura da árvore.
+     *
+     * @return A altura da árvore.
+     */
+    public int getAltura() {
+        int altura = 0;
+        int no = raiz;
+        while (no != ArenaNos.NULO) {
+            altura = altura + 1;
+            no = arena.getFolha(no) ? ArenaNos.NULO : arena.getC(no, 0);
+        }
+        return altura;
+    }
+
+    /**
+     * Apaga a árvore, devolvendo todos os slots para a arena.
+     */
+    public void apagar() {
+        arena.liberarTudo();
+        raiz = ArenaNos.NULO;
+    }
+}
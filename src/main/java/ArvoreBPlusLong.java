@@ -0,0 +1,571 @@
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.LongConsumer;
+
+/**
+ * Árvore B+ de chaves long.
+ *
+ * Especialização de ArvoreBPlus para chaves de 64 bits, com as mesmas
+ * operações de inserção, busca, remoção e consulta por intervalo, sem
+ * conversão das chaves para objetos.
+ *
+ */
+public class ArvoreBPlusLong {
+
+    /**
+     * Nó de início da árvore.
+     */
+    private NoLong raiz;
+
+    /**
+     * Ordem da árvore;
+     */
+    private int t;
+
+    /**
+     * Construtor sem parâmetro.
+     *
+     */
+    public ArvoreBPlusLong() {
+        this(3);
+    }
+
+    /**
+     * Construtor com parâmetro.
+     *
+     * @param t Grau mínimo (define o intervalo para o número de chaves).
+     */
+    public ArvoreBPlusLong(int t) {
+        this.t = t;
+
+        //Define árvore como vazia
+        this.raiz = null;
+    }
+
+    /**
+     * Recuperador de início.
+     *
+     * @return O nó do início da árvore.
+     */
+    public NoLong getRaiz() {
+        return raiz;
+    }
+
+    /**
+     * Recuperador de t.
+     *
+     * @return O grau da árvore
+     */
+    public int getT() {
+        return t;
+    }
+
+    /**
+     * Atualiza um dado na árvore.
+     *
+     * @param antigo Dado a ser removido.
+     * @param novo Novo dado a ser inserido.
+     * @return Verdadeiro se o dado antigo foi encontrado.
+     */
+    public boolean atualizar(long antigo, long novo) {
+        if (remover(antigo)) {
+            inserir(novo);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Dividir(split) um nó em 2 nós descendentes.
+     *
+     * Mesma divisão de ArvoreBPlus.dividirNo.
+     *
+     * @param pai Nó pai, que não pode estar cheio.
+     * @param i Indíce do filho cheio a ser dividido.
+     */
+    private void dividirNo(NoLong pai, int i) {
+        NoLong y = pai.getC(i);
+        NoLong z = new NoLong(t, y.getFolha());
+        long chaveSobe;
+        if (y.getFolha()) {
+            // A folha da direita fica com a metade maior das chaves
+            int meio = (y.getN() + 1) / 2;
+            for (int k = meio; k < y.getN(); k++) {
+                z.setChave(k - meio, y.getChave(k));
+                y.setChave(k, 0);
+            }
+            z.setN(y.getN() - meio);
+            y.setN(meio);
+            // Encadeamento de folhas
+            z.setProximo(y.getProximo());
+            y.setProximo(z);
+            // Sobe uma cópia da menor chave da folha da direita
+            chaveSobe = z.getChave(0);
+        } else {
+            // A chave do meio sobe e sai do nó interno
+            chaveSobe = y.getChave(t - 1);
+            for (int j = 0; j < t - 1; j++) {
+                z.setChave(j, y.getChave(j + t));
+                y.setChave(j + t, 0);
+            }
+            for (int j = 0; j < t; j++) {
+                z.setC(j, y.getC(j + t));
+                y.setC(j + t, null);
+            }
+            y.setChave(t - 1, 0);
+            z.setN(t - 1);
+            y.setN(t - 1);
+        }
+        // Abre espaço no pai para o novo filho e a chave promovida
+        for (int j = pai.getN(); j >= i + 1; j--) {
+            pai.setC(j + 1, pai.getC(j));
+        }
+        pai.setC(i + 1, z);
+        for (int j = pai.getN() - 1; j >= i; j--) {
+            pai.setChave(j + 1, pai.getChave(j));
+        }
+        pai.setChave(i, chaveSobe);
+        pai.setN(pai.getN() + 1);
+    }
+
+    /**
+     * Inserir quanto não estiver cheio.
+     *
+     * @param no Raiz da sub-árvore, que não pode estar cheia.
+     * @param k Chave a ser inserida.
+     */
+    private void inserirNaoCheio(NoLong no, long k) {
+        int i = no.procurarPosicaoFilho(k);
+        if (no.getFolha()) {
+            // Desloca as chaves maiores que k para abrir espaço
+            for (int j = no.getN() - 1; j >= i; j--) {
+                no.setChave(j + 1, no.getChave(j));
+            }
+            no.setChave(i, k);
+            no.setN(no.getN() + 1);
+        } else {
+            if (no.getC(i).getN() == 2 * t - 1) {
+                // Divide o filho antes de descer
+                dividirNo(no, i);
+                if (k >= no.getChave(i)) {
+                    i++;
+                }
+            }
+            inserirNaoCheio(no.getC(i), k);
+        }
+    }
+
+    /**
+     * Inserção na árvore B+.
+     *
+     * @param k Chave a ser inserida.
+     */
+    public void inserir(long k) {
+        if (raiz == null) {
+            // Cria a raiz como um nó folha
+            raiz = new NoLong(t, true);
+            raiz.setChave(0, k);
+            raiz.setN(1);
+        } else {
+            if (raiz.getN() == 2 * t - 1) {
+                // Cria a nova raiz e divide a antiga
+                NoLong nova = new NoLong(t, false);
+                nova.setC(0, raiz);
+                dividirNo(nova, 0);
+                raiz = nova;
+            }
+            inserirNaoCheio(raiz, k);
+        }
+    }
+
+    /**
+     * Procura uma chave k na árvore.
+     *
+     * @param k Chave a ser procurada.
+     * @return Retorna o nó que possui o valor k ou null.
+     */
+    public NoLong procurar(long k) {
+        return raiz == null ? null : procurar(raiz, k);
+    }
+
+    /**
+     * Procura uma chave k na sub-árvore de no.
+     *
+     * @param no Raiz da sub-árvore.
+     * @param k Chave a ser procurada.
+     * @return Retorna a folha que possui o valor k ou null.
+     */
+    private NoLong procurar(NoLong no, long k) {
+        if (no.getFolha()) {
+            int i = no.procurarPosicaoChave(k);
+            return i < no.getN() && no.getChave(i) == k ? no : null;
+        }
+        int i = no.procurarPosicaoFilho(k);
+        NoLong encontrado = procurar(no.getC(i), k);
+        // Chaves repetidas iguais ao separador podem ter ficado à esquerda
+        // dele em uma divisão
+        while (encontrado == null && i > 0 && no.getChave(i - 1) == k) {
+            i--;
+            encontrado = procurar(no.getC(i), k);
+        }
+        return encontrado;
+    }
+
+    /**
+     * Remove uma chave da árvore.
+     *
+     * Mesma remoção de ArvoreBPlus.remover: um filho que fica com menos de
+     * t - 1 chaves pega uma chave emprestada de um irmão ou é juntado a ele.
+     *
+     * @param k Chave a ser removida.
+     * @return Verdadeiro se a chave foi removida.
+     */
+    public boolean remover(long k) {
+        if (raiz == null) {
+            return false;
+        }
+        boolean removida = remover(raiz, k);
+        if (!raiz.getFolha() && raiz.getN() == 0) {
+            // Raiz interna sem chaves, o único filho passa a ser a raiz
+            raiz = raiz.getC(0);
+        } else if (raiz.getFolha() && raiz.getN() == 0) {
+            // Última chave removida, a árvore fica vazia
+            raiz = null;
+        }
+        return removida;
+    }
+
+    /**
+     * Remove uma chave da sub-árvore de no.
+     *
+     * @param no Raiz da sub-árvore.
+     * @param k Chave a ser removida.
+     * @return Verdadeiro se a chave foi removida.
+     */
+    private boolean remover(NoLong no, long k) {
+        if (no.getFolha()) {
+            int i = no.procurarPosicaoChave(k);
+            if (i < no.getN() && no.getChave(i) == k) {
+                // Shift para esquerda
+                for (int j = i + 1; j < no.getN(); j++) {
+                    no.setChave(j - 1, no.getChave(j));
+                }
+                no.setChave(no.getN() - 1, 0);
+                no.setN(no.getN() - 1);
+                return true;
+            }
+            return false;
+        }
+        int i = no.procurarPosicaoFilho(k);
+        boolean removida = remover(no.getC(i), k);
+        // Chaves repetidas iguais ao separador podem ter ficado à esquerda
+        // dele em uma divisão
+        while (!removida && i > 0 && no.getChave(i - 1) == k) {
+            i--;
+            removida = remover(no.getC(i), k);
+        }
+        if (removida && no.getC(i).getN() < t - 1) {
+            // O filho ficou abaixo da ocupação mínima
+            corrigirFilho(no, i);
+        }
+        return removida;
+    }
+
+    /**
+     * Corrige o filho i do pai que ficou abaixo da ocupação mínima.
+     *
+     * @param pai Nó pai do filho a ser corrigido.
+     * @param i Posição do filho no pai.
+     */
+    private void corrigirFilho(NoLong pai, int i) {
+        if (i > 0 && pai.getC(i - 1).getN() > t - 1) {
+            emprestarEsquerda(pai, i);
+        } else if (i < pai.getN() && pai.getC(i + 1).getN() > t - 1) {
+            emprestarDireita(pai, i);
+        } else if (i > 0) {
+            juntar(pai, i - 1);
+        } else {
+            juntar(pai, i);
+        }
+    }
+
+    /**
+     * Move a última chave do irmão da esquerda para o filho i.
+     *
+     * @param pai Nó pai do filho.
+     * @param i Posição do filho no pai.
+     */
+    private void emprestarEsquerda(NoLong pai, int i) {
+        NoLong filho = pai.getC(i);
+        NoLong esq = pai.getC(i - 1);
+        // Abre espaço na primeira posição do filho
+        for (int j = filho.getN() - 1; j >= 0; j--) {
+            filho.setChave(j + 1, filho.getChave(j));
+        }
+        if (filho.getFolha()) {
+            // A última chave da esquerda passa para o filho
+            filho.setChave(0, esq.getChave(esq.getN() - 1));
+            // O separador passa a ser a nova menor chave do filho
+            pai.setChave(i - 1, filho.getChave(0));
+        } else {
+            for (int j = filho.getN(); j >= 0; j--) {
+                filho.setC(j + 1, filho.getC(j));
+            }
+            // O separador desce para o filho e a última chave da esquerda sobe
+            filho.setChave(0, pai.getChave(i - 1));
+            filho.setC(0, esq.getC(esq.getN()));
+            esq.setC(esq.getN(), null);
+            pai.setChave(i - 1, esq.getChave(esq.getN() - 1));
+        }
+        esq.setChave(esq.getN() - 1, 0);
+        esq.setN(esq.getN() - 1);
+        filho.setN(filho.getN() + 1);
+    }
+
+    /**
+     * Move a primeira chave do irmão da direita para o filho i.
+     *
+     * @param pai Nó pai do filho.
+     * @param i Posição do filho no pai.
+     */
+    private void emprestarDireita(NoLong pai, int i) {
+        NoLong filho = pai.getC(i);
+        NoLong dir = pai.getC(i + 1);
+        if (filho.getFolha()) {
+            // A primeira chave da direita passa para o filho
+            filho.setChave(filho.getN(), dir.getChave(0));
+        } else {
+            // O separador desce para o filho e a primeira chave da direita sobe
+            filho.setChave(filho.getN(), pai.getChave(i));
+            filho.setC(filho.getN() + 1, dir.getC(0));
+            pai.setChave(i, dir.getChave(0));
+            for (int j = 0; j < dir.getN(); j++) {
+                dir.setC(j, dir.getC(j + 1));
+            }
+            dir.setC(dir.getN(), null);
+        }
+        // Fecha o espaço da primeira posição da direita
+        for (int j = 0; j < dir.getN() - 1; j++) {
+            dir.setChave(j, dir.getChave(j + 1));
+        }
+        dir.setChave(dir.getN() - 1, 0);
+        dir.setN(dir.getN() - 1);
+        filho.setN(filho.getN() + 1);
+        if (filho.getFolha()) {
+            // O separador passa a ser a nova menor chave da direita
+            pai.setChave(i, dir.getChave(0));
+        }
+    }
+
+    /**
+     * Junta(merge) os filhos j e j + 1 do pai no filho j.
+     *
+     * Mesma junção de ArvoreBPlus.juntar.
+     *
+     * @param pai Nó pai dos filhos.
+     * @param j Posição do filho da esquerda no pai.
+     */
+    private void juntar(NoLong pai, int j) {
+        NoLong esq = pai.getC(j);
+        NoLong dir = pai.getC(j + 1);
+        int n = esq.getN();
+        if (esq.getFolha()) {
+            for (int k = 0; k < dir.getN(); k++) {
+                esq.setChave(n + k, dir.getChave(k));
+            }
+            esq.setN(n + dir.getN());
+            // Retira a folha da direita do encadeamento
+            esq.setProximo(dir.getProximo());
+        } else {
+            // O separador desce para o nó resultante
+            esq.setChave(n, pai.getChave(j));
+            for (int k = 0; k < dir.getN(); k++) {
+                esq.setChave(n + 1 + k, dir.getChave(k));
+            }
+            for (int k = 0; k <= dir.getN(); k++) {
+                esq.setC(n + 1 + k, dir.getC(k));
+            }
+            esq.setN(n + 1 + dir.getN());
+        }
+        // Remove o separador e o filho da direita do pai
+        for (int k = j; k < pai.getN() - 1; k++) {
+            pai.setChave(k, pai.getChave(k + 1));
+        }
+        for (int k = j + 1; k < pai.getN(); k++) {
+            pai.setC(k, pai.getC(k + 1));
+        }
+        pai.setChave(pai.getN() - 1, 0);
+        pai.setC(pai.getN(), null);
+        pai.setN(pai.getN() - 1);
+    }
+
+    /**
+     * Apaga a árvore apartir da raiz.
+     */
+    public void apagar() {
+        this.raiz = null;
+    }
+
+    /**
+     * Encontra a chave com o valor mínimo da árvore.
+     *
+     * @return A chave mínima da árvore ou -1 se ela estiver vazia.
+     */
+    public long getValorMinimo() {
+        NoLong folha = procurarFolha(Long.MIN_VALUE);
+        return folha == null ? -1 : folha.getChave(0);
+    }
+
+    /**
+     * Encontra a chave com o valor máximo da árvore.
+     *
+     * @return A chave máxima da árvore ou -1 se ela estiver vazia.
+     */
+    public long getValorMaximo() {
+        NoLong no = raiz;
+        while (no != null && !no.getFolha()) {
+            no = no.getC(no.getN());
+        }
+        return no == null ? -1 : no.getChave(no.getN() - 1);
+    }
+
+    /**
+     * Encontra a altura da árvore.
+     *
+     * @return A altura da árvore.
+     */
+    public int getAltura() {
+        int altura = 0;
+        NoLong no = raiz;
+        while (no != null) {
+            altura = altura + 1;
+            no = no.getFolha() ? null : no.getC(0);
+        }
+        return altura;
+    }
+
+    /**
+     * Procura a primeira folha que pode conter chaves maiores ou iguais a k.
+     *
+     * @param k Limite inferior da busca.
+     * @return A folha encontrada ou null se a árvore estiver vazia.
+     */
+    private NoLong procurarFolha(long k) {
+        NoLong no = raiz;
+        while (no != null && !no.getFolha()) {
+            no = no.getC(no.procurarPosicaoChave(k));
+        }
+        return no;
+    }
+
+    /**
+     * Percorre as chaves do intervalo [lo, hi] em ordem, seguindo o
+     * encadeamento das folhas.
+     *
+     * @param lo Limite inferior do intervalo (inclusivo).
+     * @param hi Limite superior do intervalo (inclusivo).
+     * @param consumidor Recebe cada chave encontrada no intervalo.
+     * @return A quantidade de chaves encontradas.
+     */
+    public int intervalo(long lo, long hi, LongConsumer consumidor) {
+        int cont = 0;
+        NoLong folha = procurarFolha(lo);
+        if (folha != null) {
+            int i = folha.procurarPosicaoChave(lo);
+            while (folha != null) {
+                for (; i < folha.getN(); i++) {
+                    long k = folha.getChave(i);
+                    if (k > hi) {
+                        return cont;
+                    }
+                    consumidor.accept(k);
+                    cont = cont + 1;
+                }
+                // Segue para a próxima folha
+                folha = folha.getProximo();
+                i = 0;
+            }
+        }
+        return cont;
+    }
+
+    /**
+     * Preenche um vetor com as chaves do intervalo [lo, hi] em ordem.
+     *
+     * @param lo Limite inferior do intervalo (inclusivo).
+     * @param hi Limite superior do intervalo (inclusivo).
+     * @param destino Vetor a ser preenchido a partir da posição 0.
+     * @return A quantidade de chaves copiadas para o vetor.
+     */
+    public int intervalo(long lo, long hi, long[] destino) {
+        int cont = 0;
+        NoLong folha = procurarFolha(lo);
+        if (folha != null) {
+            int i = folha.procurarPosicaoChave(lo);
+            while (folha != null && cont < destino.length) {
+                for (; i < folha.getN() && cont < destino.length; i++) {
+                    long k = folha.getChave(i);
+                    if (k > hi) {
+                        return cont;
+                    }
+                    destino[cont] = k;
+                    cont = cont + 1;
+                }
+                // Segue para a próxima folha
+                folha = folha.getProximo();
+                i = 0;
+            }
+        }
+        return cont;
+    }
+
+    /**
+     * Retorna um iterador sobre as chaves do intervalo [lo, hi] em ordem.
+     *
+     * @param lo Limite inferior do intervalo (inclusivo).
+     * @param hi Limite superior do intervalo (inclusivo).
+     * @return Um iterador de long sobre o intervalo.
+     */
+    public PrimitiveIterator.OfLong intervalo(long lo, long hi) {
+        NoLong inicio = procurarFolha(lo);
+        int posicao = inicio == null ? 0 : inicio.procurarPosicaoChave(lo);
+        return new PrimitiveIterator.OfLong() {
+            private NoLong folha = inicio;
+            private int i = posicao;
+
+            {
+                avancar();
+            }
+
+            /**
+             * Posiciona na próxima chave válida, pulando folhas esgotadas.
+             */
+            private void avancar() {
+                while (folha != null && i >= folha.getN()) {
+                    folha = folha.getProximo();
+                    i = 0;
+                }
+                if (folha != null && folha.getChave(i) > hi) {
+                    folha = null;
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return folha != null;
+            }
+
+            @Override
+            public long nextLong() {
+                if (folha == null) {
+                    throw new NoSuchElementException();
+                }
+                long k = folha.getChave(i);
+                i = i + 1;
+                avancar();
+                return k;
+            }
+        };
+    }
+}
@@ -0,0 +1,259 @@
+/**
+ * Base das árvores B+ de mapeamento chave → valor.
+ *
+ * Reúne a estrutura comum aos mapas: descida até a folha, divisão preventiva
+ * dos nós cheios e encadeamento das folhas. As subclasses definem apenas o
+ * tipo do valor guardado nas folhas.
+ *
+ */
+public abstract class ArvoreBPlusMapa {
+
+    /**
+     * Nó de início da árvore.
+     */
+    private NoMapa raiz;
+
+    /**
+     * Ordem da árvore;
+     */
+    private final int t;
+
+    /**
+     * Estratégia de busca das chaves dentro dos nós.
+     */
+    private final EstrategiaBusca busca;
+
+    /**
+     * Indica se as folhas guardam valores long primitivos.
+     */
+    private final boolean primitivo;
+
+    /**
+     * Quantidade de chaves armazenadas.
+     */
+    private int tamanho;
+
+    /**
+     * Construtor com parâmetros.
+     *
+     * @param t Grau mínimo (define o intervalo para o número de chaves).
+     * @param busca Estratégia de busca das chaves dentro dos nós.
+     * @param primitivo Indica se as folhas guardam valores long primitivos.
+     */
+    protected ArvoreBPlusMapa(int t, EstrategiaBusca busca, boolean primitivo) {
+        this.t = t;
+        this.busca = busca;
+        this.primitivo = primitivo;
+        //Define árvore como vazia
+        this.raiz = null;
+        this.tamanho = 0;
+    }
+
+    /**
+     * Recuperador de início.
+     *
+     * @return O nó do início da árvore.
+     */
+    public NoMapa getRaiz() {
+        return raiz;
+    }
+
+    /**
+     * Recuperador de t.
+     *
+     * @return O grau da árvore
+     */
+    public int getT() {
+        return t;
+    }
+
+    /**
+     * Recuperador da estratégia de busca.
+     *
+     * @return A estratégia de busca das chaves dentro dos nós.
+     */
+    public EstrategiaBusca getBusca() {
+        return busca;
+    }
+
+    /**
+     * Retorna a quantidade de chaves do mapa.
+     *
+     * @return A quantidade de chaves armazenadas.
+     */
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Verifica se o mapa possui a chave k.
+     *
+     * @param k Chave a ser procurada.
+     * @return Verdadeiro se a chave está no mapa.
+     */
+    public boolean contem(int k) {
+        NoMapa folha = procurarFolha(k);
+        return folha != null && posicao(folha, k) >= 0;
+    }
+
+    /**
+     * Apaga todas as chaves do mapa.
+     */
+    public void apagar() {
+        this.raiz = null;
+        this.tamanho = 0;
+    }
+
+    /**
+     * Desce da raiz até a folha que deve conter a chave k.
+     *
+     * @param k Chave a ser procurada.
+     * @return A folha encontrada ou null se a árvore estiver vazia.
+     */
+    protected NoMapa procurarFolha(int k) {
+        NoMapa no = raiz;
+        while (no != null && !no.getFolha()) {
+            no = no.getC(no.procurarPosicaoFilho(k, busca));
+        }
+        return no;
+    }
+
+    /**
+     * Procura a posição da chave k em uma folha.
+     *
+     * @param folha Folha a ser pesquisada.
+     * @param k Chave a ser procurada.
+     * @return A posição da chave ou -1 se ela não estiver na folha.
+     */
+    protected int posicao(NoMapa folha, int k) {
+        int i = folha.procurarPosicaoChave(k, busca);
+        if (i < folha.getN() && folha.getChave(i) == k) {
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Procura a posição da primeira chave maior ou igual a k em uma folha.
+     *
+     * @param folha Folha a ser pesquisada.
+     * @param k Chave a ser procurada.
+     * @return A posição encontrada.
+     */
+    protected int posicaoInicial(NoMapa folha, int k) {
+        return folha.procurarPosicaoChave(k, busca);
+    }
+
+    /**
+     * Prepara a inserção da chave k.
+     *
+     * Desce da raiz dividindo preventivamente os nós cheios, como em
+     * ArvoreBPlus.inserir, e garante que a folha devolvida tenha espaço para
+     * mais uma entrada.
+     *
+     * @param k Chave a ser inserida.
+     * @return A folha que deve conter a chave k.
+     */
+    protected NoMapa prepararInsercao(int k) {
+        if (raiz == null) {
+            raiz = new NoMapa(t, true, primitivo);
+        } else if (raiz.getN() == 2 * t - 1) {
+            // Cria um novo nó que será a nova raiz e divide a antiga
+            NoMapa nova = new NoMapa(t, false, primitivo);
+            nova.setC(0, raiz);
+            dividirNo(nova, 0);
+            raiz = nova;
+        }
+        NoMapa no = raiz;
+        while (!no.getFolha()) {
+            int i = no.procurarPosicaoFilho(k, busca);
+            if (no.getC(i).getN() == 2 * t - 1) {
+                // Divide o filho antes de descer
+                dividirNo(no, i);
+                if (k >= no.getChave(i)) {
+                    i++;
+                }
+            }
+            no = no.getC(i);
+        }
+        return no;
+    }
+
+    /**
+     * Insere a chave k na posição i da folha, deslocando as seguintes.
+     *
+     * @param folha Folha com espaço livre.
+     * @param i Posição da nova chave.
+     * @param k Chave a ser inserida.
+     */
+    protected void inserirChave(NoMapa folha, int i, int k) {
+        folha.abrirEspaco(i);
+        folha.setChave(i, k);
+        tamanho = tamanho + 1;
+    }
+
+    /**
+     * Remove a entrada da posição i da folha.
+     *
+     * @param folha Folha da entrada.
+     * @param i Posição a ser removida.
+     */
+    protected void removerEntrada(NoMapa folha, int i) {
+        folha.removerEntrada(i);
+        tamanho = tamanho - 1;
+    }
+
+    /**
+     * Dividir(split) um nó em 2 nós descendentes.
+     *
+     * Mesma divisão de ArvoreBPlus.dividirNo, movendo também os valores das
+     * folhas.
+     *
+     * @param pai Nó pai, que não pode estar cheio.
+     * @param i Indíce do filho cheio a ser dividido.
+     */
+    private void dividirNo(NoMapa pai, int i) {
+        NoMapa y = pai.getC(i);
+        NoMapa z = new NoMapa(t, y.getFolha(), primitivo);
+        int chaveSobe;
+        if (y.getFolha()) {
+            // A folha da direita fica com a metade maior das entradas
+            int meio = (y.getN() + 1) / 2;
+            for (int k = meio; k < y.getN(); k++) {
+                y.copiarEntrada(k, z, k - meio);
+                y.limparEntrada(k);
+            }
+            z.setN(y.getN() - meio);
+            y.setN(meio);
+            // Encadeamento de folhas
+            z.setProximo(y.getProximo());
+            y.setProximo(z);
+            // Sobe uma cópia da menor chave da folha da direita
+            chaveSobe = z.getChave(0);
+        } else {
+            // A chave do meio sobe e sai do nó interno
+            chaveSobe = y.getChave(t - 1);
+            for (int j = 0; j < t - 1; j++) {
+                z.setChave(j, y.getChave(j + t));
+                y.setChave(j + t, 0);
+            }
+            for (int j = 0; j < t; j++) {
+                z.setC(j, y.getC(j + t));
+                y.setC(j + t, null);
+            }
+            y.setChave(t - 1, 0);
+            z.setN(t - 1);
+            y.setN(t - 1);
+        }
+        // Abre espaço no pai para o novo filho e a chave promovida
+        for (int j = pai.getN(); j >= i + 1; j--) {
+            pai.setC(j + 1, pai.getC(j));
+        }
+        pai.setC(i + 1, z);
+        for (int j = pai.getN() - 1; j >= i; j--) {
+            pai.setChave(j + 1, pai.getChave(j));
+        }
+        pai.setChave(i, chaveSobe);
+        pai.setN(pai.getN() + 1);
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * Árvore B+ de mapeamento de chaves int para valores long.
+ *
+ * Os valores ficam em um vetor long[] paralelo às chaves das folhas,
+ * dispensando um mapa auxiliar e a conversão para objetos.
+ *
+ */
+public class ArvoreBPlusMapaLong extends ArvoreBPlusMapa {
+
+    /**
+     * Construtor sem parâmetro.
+     */
+    public ArvoreBPlusMapaLong() {
+        this(3);
+    }
+
+    /**
+     * Construtor com parâmetro.
+     *
+     * @param t Grau mínimo (define o intervalo para o número de chaves).
+     */
+    public ArvoreBPlusMapaLong(int t) {
+        this(t, EstrategiaBusca.BINARIA);
+    }
+
+    /**
+     * Construtor com parâmetros.
+     *
+     * @param t Grau mínimo (define o intervalo para o número de chaves).
+     * @param busca Estratégia de busca das chaves dentro dos nós.
+     */
+    public ArvoreBPlusMapaLong(int t, EstrategiaBusca busca) {
+        super(t, busca, true);
+    }
+
+    /**
+     * Recupera o valor associado à chave k.
+     *
+     * @param k Chave a ser procurada.
+     * @param padrao Valor retornado se a chave não existir.
+     * @return O valor da chave ou o padrão.
+     */
+    public long obter(int k, long padrao) {
+        NoMapa folha = procurarFolha(k);
+        if (folha != null) {
+            int i = posicao(folha, k);
+            if (i >= 0) {
+                return folha.getValorLong(i);
+            }
+        }
+        return padrao;
+    }
+
+    /**
+     * Associa o valor v à chave k, substituindo o valor anterior.
+     *
+     * @param k Chave a ser inserida.
+     * @param v Valor da chave.
+     * @return Verdadeiro se a chave não existia no mapa.
+     */
+    public boolean inserir(int k, long v) {
+        NoMapa folha = prepararInsercao(k);
+        int i = posicaoInicial(folha, k);
+        if (i < folha.getN() && folha.getChave(i) == k) {
+            folha.setValorLong(i, v);
+            return false;
+        }
+        inserirChave(folha, i, k);
+        folha.setValorLong(i, v);
+        return true;
+    }
+
+    /**
+     * Remove a chave k e o seu valor.
+     *
+     * @param k Chave a ser removida.
+     * @return Verdadeiro se a chave foi removida.
+     */
+    public boolean remover(int k) {
+        NoMapa folha = procurarFolha(k);
+        if (folha != null) {
+            int i = posicao(folha, k);
+            if (i >= 0) {
+                removerEntrada(folha, i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Percorre os pares do intervalo de chaves [lo, hi] em ordem, seguindo o
+     * encadeamento das folhas.
+     *
+     * @param lo Limite inferior do intervalo (inclusivo).
+     * @param hi Limite superior do intervalo (inclusivo).
+     * @param consumidor Recebe cada par encontrado no intervalo.
+     * @return A quantidade de pares encontrados.
+     */
+    public int intervalo(int lo, int hi, ConsumidorChaveValorLong consumidor) {
+        int cont = 0;
+        NoMapa folha = procurarFolha(lo);
+        if (folha != null) {
+            int i = posicaoInicial(folha, lo);
+            while (folha != null) {
+                for (; i < folha.getN(); i++) {
+                    int k = folha.getChave(i);
+                    if (k > hi) {
+                        return cont;
+                    }
+                    consumidor.aceitar(k, folha.getValorLong(i));
+                    cont = cont + 1;
+                }
+                // Segue para a próxima folha
+                folha = folha.getProximo();
+                i = 0;
+            }
+        }
+        return cont;
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * Árvore B+ de mapeamento de chaves int para valores do tipo V.
+ *
+ * Os valores ficam em um vetor Object[] paralelo às chaves das folhas,
+ * dispensando um mapa auxiliar e a conversão das chaves para objetos.
+ *
+ * @param <V> Tipo dos valores.
+ */
+public class ArvoreBPlusMapaObjeto<V> extends ArvoreBPlusMapa {
+
+    /**
+     * Construtor sem parâmetro.
+     */
+    public ArvoreBPlusMapaObjeto() {
+        this(3);
+    }
+
+    /**
+     * Construtor com parâmetro.
+     *
+     * @param t Grau mínimo (define o intervalo para o número de chaves).
+     */
+    public ArvoreBPlusMapaObjeto(int t) {
+        this(t, EstrategiaBusca.BINARIA);
+    }
+
+    /**
+     * Construtor com parâmetros.
+     *
+     * @param t Grau mínimo (define o intervalo para o número de chaves).
+     * @param busca Estratégia de busca das chaves dentro dos nós.
+     */
+    public ArvoreBPlusMapaObjeto(int t, EstrategiaBusca busca) {
+        super(t, busca, false);
+    }
+
+    /**
+     * Recupera o valor associado à chave k.
+     *
+     * @param k Chave a ser procurada.
+     * @return O valor da chave ou null se ela não existir.
+     */
+    @SuppressWarnings("unchecked")
+    public V obter(int k) {
+        NoMapa folha = procurarFolha(k);
+        if (folha != null) {
+            int i = posicao(folha, k);
+            if (i >= 0) {
+                return (V) folha.getValor(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Associa o valor v à chave k, substituindo o valor anterior.
+     *
+     * @param k Chave a ser inserida.
+     * @param v Valor da chave.
+     * @return O valor anterior ou null se a chave não existia.
+     */
+    @SuppressWarnings("unchecked")
+    public V inserir(int k, V v) {
+        NoMapa folha = prepararInsercao(k);
+        int i = posicaoInicial(folha, k);
+        if (i < folha.getN() && folha.getChave(i) == k) {
+            V anterior = (V) folha.getValor(i);
+            folha.setValor(i, v);
+            return anterior;
+        }
+        inserirChave(folha, i, k);
+        folha.setValor(i, v);
+        return null;
+    }
+
+    /**
+     * Remove a chave k e o seu valor.
+     *
+     * @param k Chave a ser removida.
+     * @return O valor removido ou null se a chave não existia.
+     */
+    @SuppressWarnings("unchecked")
+    public V remover(int k) {
+        NoMapa folha = procurarFolha(k);
+        if (folha != null) {
+            int i = posicao(folha, k);
+            if (i >= 0) {
+                V anterior = (V) folha.getValor(i);
+                removerEntrada(folha, i);
+                return anterior;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Percorre os pares do intervalo de chaves [lo, hi] em ordem, seguindo o
+     * encadeamento das folhas.
+     *
+     * @param lo Limite inferior do intervalo (inclusivo).
+     * @param hi Limite superior do intervalo (inclusivo).
+     * @param consumidor Recebe cada par encontrado no intervalo.
+     * @return A quantidade de pares encontrados.
+     */
+    @SuppressWarnings("unchecked")
+    public int intervalo(int lo, int hi, ConsumidorChaveValor<? super V> consumidor) {
+        int cont = 0;
+        NoMapa folha = procurarFolha(lo);
+        if (folha != null) {
+            int i = posicaoInicial(folha, lo);
+            while (folha != null) {
+                for (; i < folha.getN(); i++) {
+                    int k = folha.getChave(i);
+                    if (k > hi) {
+                        return cont;
+                    }
+                    consumidor.aceitar(k, (V) folha.getValor(i));
+                    cont = cont + 1;
+                }
+                // Segue para a próxima folha
+                folha = folha.getProximo();
+                i = 0;
+            }
+        }
+        return cont;
+    }
+}
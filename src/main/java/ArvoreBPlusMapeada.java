@@ -0,0 +1,466 @@
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+
+/**
+ * Imagem binária somente leitura de uma árvore B+, mapeada na memória.
+ *
+ * A imagem gravada por ArvoreBPlus.salvar guarda as chaves das folhas
+ * contíguas, na ordem do encadeamento, seguidas pelos níveis internos
+ * compactados: cada nível guarda a primeira chave de cada bloco de fanout
+ * entradas do nível de baixo, até um nível caber em um único bloco. Os
+ * filhos não precisam ser gravados, o filho i de um nível é o bloco i do
+ * nível de baixo.
+ *
+ * A imagem é aberta com um MappedByteBuffer e responde buscas e intervalos
+ * direto do arquivo, sem criar nenhum No.
+ *
+ * Formato, em inteiros de 32 bits big-endian:
+ * <pre>
+ * [assinatura] [versão] [t] [fanout] [quantidade de chaves] [quantidade de níveis internos] [CRC32]
+ * [tFolha] [opções] [0]
+ * [chaves das folhas] [nível interno 1] ... [nível interno h]
+ * </pre>
+ * O CRC32 cobre tudo o que vem depois do cabeçalho. As opções guardam o modo
+ * multiconjunto no bit OPCAO_MULTICONJUNTO; no modo multiconjunto cada
+ * ocorrência de uma chave é gravada, assim buscas e intervalos na imagem
+ * não mudam. A versão 1 tinha um cabeçalho de 32 bytes terminado em [0],
+ * sem tFolha nem opções, e ainda é aberta.
+ *
+ */
+public class ArvoreBPlusMapeada {
+
+    /**
+     * Assinatura do arquivo ("BPSN").
+     */
+    private static final int ASSINATURA = 0x4250534E;
+
+    /**
+     * Versão do formato do arquivo.
+     */
+    private static final int VERSAO = 2;
+
+    /**
+     * Tamanho do cabeçalho em bytes.
+     */
+    private static final int TAMANHO_CABECALHO = 40;
+
+    /**
+     * Tamanho do cabeçalho da versão 1 em bytes.
+     */
+    private static final int TAMANHO_CABECALHO_V1 = 32;
+
+    /**
+     * Bit das opções que indica o modo multiconjunto.
+     */
+    private static final int OPCAO_MULTICONJUNTO = 1;
+
+    /**
+     * Ordem da árvore que gerou a imagem.
+     */
+    private final int t;
+
+    /**
+     * Ordem das folhas da árvore que gerou a imagem.
+     */
+    private final int tFolha;
+
+    /**
+     * Indica se a árvore que gerou a imagem estava no modo multiconjunto.
+     */
+    private final boolean multiconjunto;
+
+    /**
+     * Entradas por bloco de cada nível.
+     */
+    private final int fanout;
+
+    /**
+     * Quantidade de chaves.
+     */
+    private final int n;
+
+    /**
+     * Chaves das folhas, em ordem.
+     */
+    private final IntBuffer chaves;
+
+    /**
+     * Níveis internos, do mais baixo para o mais alto.
+     */
+    private final IntBuffer[] niveis;
+
+    /**
+     * Construtor com parâmetros.
+     *
+     * @param t Ordem da árvore.
+     * @param tFolha Ordem das folhas da árvore.
+     * @param multiconjunto Indica se a árvore estava no modo multiconjunto.
+     * @param fanout Entradas por bloco.
+     * @param n Quantidade de chaves.
+     * @param chaves Chaves das folhas.
+     * @param niveis Níveis internos.
+     */
+    private ArvoreBPlusMapeada(int t, int tFolha, boolean multiconjunto, int fanout, int n, IntBuffer chaves,
+            IntBuffer[] niveis) {
+        this.t = t;
+        this.tFolha = tFolha;
+        this.multiconjunto = multiconjunto;
+        this.fanout = fanout;
+        this.n = n;
+        this.chaves = chaves;
+        this.niveis = niveis;
+    }
+
+    /**
+     * Grava a imagem de uma árvore.
+     *
+     * @param arvore Árvore a ser gravada.
+     * @param arquivo Caminho do arquivo, substituído se existir.
+     * @throws IOException Se o arquivo não puder ser gravado.
+     */
+    static void salvar(ArvoreBPlus arvore, Path arquivo) throws IOException {
+        int fanout = 2 * arvore.getT();
+        int n = arvore.intervalo(Integer.MIN_VALUE, Integer.MAX_VALUE, k -> {
+        });
+        int qtdeNiveis = qtdeNiveis(n, fanout);
+        int[][] niveis = new int[qtdeNiveis][];
+        int tam = n;
+        for (int j = 0; j < qtdeNiveis; j++) {
+            tam = (tam + fanout - 1) / fanout;
+            niveis[j] = new int[tam];
+        }
+        long tamanhoArquivo = TAMANHO_CABECALHO + 4L * n;
+        for (int[] nivel : niveis) {
+            tamanhoArquivo += 4L * nivel.length;
+        }
+        if (tamanhoArquivo > Integer.MAX_VALUE) {
+            throw new IOException("Árvore grande demais para uma imagem mapeada: " + n + " chaves");
+        }
+        CRC32 crc = new CRC32();
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+            IOException[] erro = new IOException[1];
+            long[] posicao = {TAMANHO_CABECALHO};
+            int[] i = {0};
+            arvore.intervalo(Integer.MIN_VALUE, Integer.MAX_VALUE, k -> {
+                if (qtdeNiveis > 0 && i[0] % fanout == 0) {
+                    // Primeira chave de cada bloco sobe para o nível 1
+                    niveis[0][i[0] / fanout] = k;
+                }
+                i[0]++;
+                if (!buffer.hasRemaining()) {
+                    esvaziar(canal, buffer, crc, posicao, erro);
+                }
+                buffer.putInt(k);
+            });
+            for (int j = 0; j < qtdeNiveis; j++) {
+                if (j + 1 < qtdeNiveis) {
+                    for (int b = 0; b < niveis[j + 1].length; b++) {
+                        niveis[j + 1][b] = niveis[j][b * fanout];
+                    }
+                }
+                for (int k : niveis[j]) {
+                    if (!buffer.hasRemaining()) {
+                        esvaziar(canal, buffer, crc, posicao, erro);
+                    }
+                    buffer.putInt(k);
+                }
+            }
+            esvaziar(canal, buffer, crc, posicao, erro);
+            if (erro[0] != null) {
+                throw erro[0];
+            }
+            ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO);
+            cabecalho.putInt(ASSINATURA).putInt(VERSAO).putInt(arvore.getT()).putInt(fanout);
+            cabecalho.putInt(n).putInt(qtdeNiveis).putInt((int) crc.getValue());
+            cabecalho.putInt(arvore.getTFolha()).putInt(arvore.getMulticonjunto() ? OPCAO_MULTICONJUNTO : 0).putInt(0);
+            cabecalho.flip();
+            while (cabecalho.hasRemaining()) {
+                canal.write(cabecalho, cabecalho.position());
+            }
+            canal.force(true);
+        }
+    }
+
+    /**
+     * Calcula a quantidade de níveis internos.
+     *
+     * @param n Quantidade de chaves.
+     * @param fanout Entradas por bloco.
+     * @return A quantidade de níveis até um nível caber em um bloco.
+     */
+    private static int qtdeNiveis(int n, int fanout) {
+        int qtde = 0;
+        for (long tam = n; tam > fanout; tam = (tam + fanout - 1) / fanout) {
+            qtde++;
+        }
+        return qtde;
+    }
+
+    /**
+     * Grava o conteúdo do buffer no canal, atualizando o CRC e guardando a
+     * primeira falha.
+     *
+     * @param canal Canal do arquivo.
+     * @param buffer Buffer com as chaves.
+     * @param crc CRC do conteúdo.
+     * @param posicao Posição de gravação no arquivo.
+     * @param erro Recebe a primeira falha de gravação.
+     */
+    private static void esvaziar(FileChannel canal, ByteBuffer buffer, CRC32 crc, long[] posicao, IOException[] erro) {
+        buffer.flip();
+        crc.update(buffer.duplicate());
+        try {
+            while (erro[0] == null && buffer.hasRemaining()) {
+                posicao[0] += canal.write(buffer, posicao[0]);
+            }
+        } catch (IOException e) {
+            erro[0] = e;
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Abre uma imagem verificando o CRC.
+     *
+     * @param arquivo Caminho do arquivo.
+     * @return A imagem aberta.
+     * @throws IOException Se o arquivo não puder ser lido ou for inválido.
+     */
+    public static ArvoreBPlusMapeada abrir(Path arquivo) throws IOException {
+        return abrir(arquivo, true);
+    }
+
+    /**
+     * Abre uma imagem, mapeando o arquivo na memória.
+     *
+     * @param arquivo Caminho do arquivo.
+     * @param verificar Indica se o CRC deve ser verificado, o que lê o
+     * arquivo inteiro.
+     * @return A imagem aberta.
+     * @throws IOException Se o arquivo não puder ser lido ou for inválido.
+     */
+    public static ArvoreBPlusMapeada abrir(Path arquivo, boolean verificar) throws IOException {
+        MappedByteBuffer mapa;
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            if (canal.size() < TAMANHO_CABECALHO_V1 || canal.size() > Integer.MAX_VALUE) {
+                throw new IOException("Imagem de árvore inválida: " + arquivo);
+            }
+            // O mapeamento continua válido depois de fechar o canal
+            mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+        if (mapa.getInt(0) != ASSINATURA) {
+            throw new IOException("Imagem de árvore inválida: " + arquivo);
+        }
+        int versao = mapa.getInt(4);
+        if (versao != 1 && versao != VERSAO) {
+            throw new IOException("Versão de imagem não suportada: " + versao);
+        }
+        int cabecalho = versao == 1 ? TAMANHO_CABECALHO_V1 : TAMANHO_CABECALHO;
+        if (mapa.capacity() < cabecalho) {
+            throw new IOException("Imagem de árvore inválida: " + arquivo);
+        }
+        int t = mapa.getInt(8);
+        int fanout = mapa.getInt(12);
+        int n = mapa.getInt(16);
+        int qtdeNiveis = mapa.getInt(20);
+        int tFolha = versao == 1 ? t : mapa.getInt(28);
+        boolean multiconjunto = versao != 1 && (mapa.getInt(32) & OPCAO_MULTICONJUNTO) != 0;
+        long esperado = cabecalho + 4L * n;
+        int tam = n;
+        for (int j = 0; j < qtdeNiveis; j++) {
+            tam = (tam + fanout - 1) / fanout;
+            esperado += 4L * tam;
+        }
+        if (t < 2 || tFolha < 2 || fanout < 2 || n < 0 || qtdeNiveis != qtdeNiveis(n, fanout)
+                || esperado != mapa.capacity()) {
+            throw new IOException("Imagem de árvore inválida: " + arquivo);
+        }
+        if (verificar) {
+            CRC32 crc = new CRC32();
+            ByteBuffer corpo = mapa.duplicate();
+            corpo.position(cabecalho);
+            crc.update(corpo);
+            if ((int) crc.getValue() != mapa.getInt(24)) {
+                throw new IOException("CRC inválido na imagem de árvore: " + arquivo);
+            }
+        }
+        ByteBuffer corpo = mapa.duplicate();
+        corpo.position(cabecalho);
+        corpo.limit(cabecalho + 4 * n);
+        IntBuffer chaves = corpo.slice().asIntBuffer();
+        IntBuffer[] niveis = new IntBuffer[qtdeNiveis];
+        int inicio = cabecalho + 4 * n;
+        tam = n;
+        for (int j = 0; j < qtdeNiveis; j++) {
+            tam = (tam + fanout - 1) / fanout;
+            corpo.limit(inicio + 4 * tam);
+            corpo.position(inicio);
+            niveis[j] = corpo.slice().asIntBuffer();
+            inicio += 4 * tam;
+        }
+        return new ArvoreBPlusMapeada(t, tFolha, multiconjunto, fanout, n, chaves, niveis);
+    }
+
+    /**
+     * Procura a posição da primeira chave maior ou igual a k.
+     *
+     * Desce do nível mais alto escolhendo, em cada bloco, a última entrada
+     * menor que k, que indica o bloco do nível de baixo onde a busca
+     * continua.
+     *
+     * @param k Chave a ser procurada.
+     * @return A posição nas chaves das folhas, n se todas forem menores.
+     */
+    private int limiteInferior(int k) {
+        int bloco = 0;
+        for (int j = niveis.length - 1; j >= 0; j--) {
+            IntBuffer nivel = niveis[j];
+            int inicio = bloco * fanout;
+            int fim = Math.min(inicio + fanout, nivel.limit());
+            int i = limiteInferior(nivel, inicio, fim, k);
+            bloco = Math.max(inicio, i - 1);
+        }
+        int inicio = bloco * fanout;
+        return limiteInferior(chaves, inicio, Math.min(inicio + fanout, n), k);
+    }
+
+    /**
+     * Busca binária da primeira entrada maior ou igual a k em [inicio, fim).
+     *
+     * @param nivel Entradas do nível.
+     * @param inicio Início da faixa (inclusivo).
+     * @param fim Fim da faixa (exclusivo).
+     * @param k Chave a ser procurada.
+     * @return A posição encontrada.
+     */
+    private static int limiteInferior(IntBuffer nivel, int inicio, int fim, int k) {
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (nivel.get(meio) < k) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return inicio;
+    }
+
+    /**
+     * Procura uma chave k na imagem.
+     *
+     * @param k Chave a ser procurada.
+     * @return Verdadeiro se a chave está na imagem.
+     */
+    public boolean procurar(int k) {
+        int i = limiteInferior(k);
+        return i < n && chaves.get(i) == k;
+    }
+
+    /**
+     * Percorre as chaves do intervalo [lo, hi] em ordem.
+     *
+     * @param lo Limite inferior do intervalo (inclusivo).
+     * @param hi Limite superior do intervalo (inclusivo).
+     * @param consumidor Recebe cada chave encontrada no intervalo.
+     * @return A quantidade de chaves encontradas.
+     */
+    public int intervalo(int lo, int hi, IntConsumer consumidor) {
+        int cont = 0;
+        for (int i = limiteInferior(lo); i < n; i++) {
+            int k = chaves.get(i);
+            if (k > hi) {
+                break;
+            }
+            consumidor.accept(k);
+            cont = cont + 1;
+        }
+        return cont;
+    }
+
+    /**
+     * Copia as chaves do intervalo [lo, hi] para o vetor de destino.
+     *
+     * @param lo Limite inferior do intervalo (inclusivo).
+     * @param hi Limite superior do intervalo (inclusivo).
+     * @param destino Vetor que recebe as chaves, até o seu tamanho.
+     * @return A quantidade de chaves copiadas.
+     */
+    public int intervalo(int lo, int hi, int[] destino) {
+        if (lo > hi) {
+            return 0;
+        }
+        int inicio = limiteInferior(lo);
+        int fim = hi == Integer.MAX_VALUE ? n : limiteInferior(hi + 1);
+        int qtde = Math.min(fim - inicio, destino.length);
+        IntBuffer faixa = chaves.duplicate();
+        faixa.position(inicio);
+        faixa.get(destino, 0, qtde);
+        return qtde;
+    }
+
+    /**
+     * Retorna todas as chaves em ordem.
+     *
+     * @return Fluxo com as chaves das folhas.
+     */
+    public IntStream chaves() {
+        return IntStream.range(0, n).map(chaves::get);
+    }
+
+    /**
+     * Retorna a quantidade de chaves.
+     *
+     * @return A quantidade de chaves da imagem.
+     */
+    public int getTamanho() {
+        return n;
+    }
+
+    /**
+     * Recuperador de t.
+     *
+     * @return A ordem da árvore que gerou a imagem.
+     */
+    public int getT() {
+        return t;
+    }
+
+    /**
+     * Recuperador da ordem das folhas.
+     *
+     * @return A ordem das folhas da árvore que gerou a imagem.
+     */
+    public int getTFolha() {
+        return tFolha;
+    }
+
+    /**
+     * Retorna se a imagem veio de uma árvore no modo multiconjunto.
+     *
+     * @return Verdadeiro se a árvore guardava as chaves repetidas uma única
+     * vez.
+     */
+    public boolean getMulticonjunto() {
+        return multiconjunto;
+    }
+
+    /**
+     * Encontra a altura da imagem.
+     *
+     * @return A quantidade de níveis, incluindo o das chaves.
+     */
+    public int getAltura() {
+        return n == 0 ? 0 : niveis.length + 1;
+    }
+}
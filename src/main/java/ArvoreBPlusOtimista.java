@@ -0,0 +1,418 @@
+import java.util.function.IntConsumer;
+
+/**
+ * Árvore B+ segura para várias threads, com acoplamento otimista de
+ * travas(optimistic lock coupling).
+ *
+ * Cada NoOtimista tem uma palavra de versão. Quem lê desce sem escrever na
+ * memória compartilhada: guarda a versão do nó, lê o nó, guarda a versão do
+ * filho e só então valida a versão do nó. Se a versão mudou, outra thread
+ * modificou o nó no meio da leitura e a operação recomeça da raiz. Assim
+ * as leituras não disputam a linha de cache da trava da raiz, como ocorre
+ * com as travas de leitura de ArvoreBPlusConcorrente.
+ *
+ * Quem escreve também desce de forma otimista e converte em trava exclusiva
+ * só as versões dos nós que modifica: a folha na inserção ou remoção, e o
+ * pai e o filho cheio em uma divisão. A conversão falha se o nó mudou desde
+ * a leitura e a operação recomeça. Os nós cheios são divididos
+ * preventivamente na descida, como em ArvoreBPlus, e a remoção retira a
+ * chave só da folha, sem juntar nós, assim o intervalo de chaves de um nó
+ * só muda quando a versão dele muda.
+ *
+ * As chaves formam um conjunto: inserir uma chave que já está na árvore não
+ * a modifica. Assim a descida pelo primeiro separador maior que k chega à
+ * única folha que pode conter k, e o intervalo pode recomeçar depois da
+ * última chave entregue sem perder repetições.
+ *
+ */
+public class ArvoreBPlusOtimista {
+
+    /**
+     * Nó de início da árvore.
+     */
+    private volatile NoOtimista raiz;
+
+    /**
+     * Ordem da árvore;
+     */
+    private final int t;
+
+    /**
+     * Estratégia de busca das chaves dentro dos nós.
+     */
+    private final EstrategiaBusca busca;
+
+    /**
+     * Construtor com parâmetro.
+     *
+     * @param t Grau mínimo (define o intervalo para o número de chaves).
+     */
+    public ArvoreBPlusOtimista(int t) {
+        this(t, EstrategiaBusca.BINARIA);
+    }
+
+    /**
+     * Construtor com parâmetros.
+     *
+     * @param t Grau mínimo (define o intervalo para o número de chaves).
+     * @param busca Estratégia de busca das chaves dentro dos nós.
+     */
+    public ArvoreBPlusOtimista(int t, EstrategiaBusca busca) {
+        if (t < 2) {
+            throw new IllegalArgumentException("Ordem inválida: " + t);
+        }
+        this.t = t;
+        this.busca = busca;
+        // A árvore começa com uma folha vazia como raiz
+        this.raiz = new NoOtimista(t, true);
+    }
+
+    /**
+     * Recuperador de t.
+     *
+     * @return O grau da árvore
+     */
+    public int getT() {
+        return t;
+    }
+
+    /**
+     * Lê a versão da raiz atual.
+     *
+     * @param versao Recebe a versão lida.
+     * @return A raiz ou null se ela estiver travada ou tiver mudado.
+     */
+    private NoOtimista lerRaiz(long[] versao) {
+        NoOtimista no = raiz;
+        long v = no.getVersao().tryOptimisticRead();
+        // A raiz só é trocada com a antiga travada
+        if (v == 0 || raiz != no) {
+            return null;
+        }
+        versao[0] = v;
+        return no;
+    }
+
+    /**
+     * Desce de forma otimista até a folha da chave k.
+     *
+     * @param k Chave procurada.
+     * @param versao Recebe a versão da folha, que ainda deve ser validada.
+     * @return A folha encontrada.
+     */
+    private NoOtimista descerAteFolha(int k, long[] versao) {
+        while (true) {
+            NoOtimista no = lerRaiz(versao);
+            while (no != null && !no.getFolha()) {
+                NoOtimista filho = no.getFilho(no.procurarPosicaoFilho(k, busca));
+                if (filho == null) {
+                    no = null;
+                    break;
+                }
+                long v = filho.getVersao().tryOptimisticRead();
+                if (v == 0 || !no.getVersao().validate(versao[0])) {
+                    no = null;
+                    break;
+                }
+                versao[0] = v;
+                no = filho;
+            }
+            if (no != null) {
+                return no;
+            }
+            // Outra thread está modificando o caminho
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Procura uma chave k na árvore.
+     *
+     * @param k Chave a ser procurada.
+     * @return Verdadeiro se a chave está na árvore.
+     */
+    public boolean procurar(int k) {
+        long[] versao = new long[1];
+        while (true) {
+            NoOtimista folha = descerAteFolha(k, versao);
+            int i = folha.procurarPosicaoChave(k, busca);
+            boolean achou = i < folha.getN() && folha.getChave(i) == k;
+            if (folha.getVersao().validate(versao[0])) {
+                return achou;
+            }
+        }
+    }
+
+    /**
+     * Inserção na árvore B+.
+     *
+     * Desce de forma otimista dividindo os nós cheios encontrados. Cada
+     * divisão trava só o pai e o nó cheio e recomeça a descida.
+     *
+     * @param k Chave a ser inserida.
+     * @return Verdadeiro se a chave foi inserida, falso se ela já estava na
+     * árvore.
+     */
+    public boolean inserir(int k) {
+        long[] versao = new long[1];
+        while (true) {
+            NoOtimista pai = null;
+            long versaoPai = 0;
+            int i = 0;
+            NoOtimista no = lerRaiz(versao);
+            while (no != null) {
+                long v = versao[0];
+                if (no.getN() == 2 * t - 1) {
+                    dividirCheio(pai, versaoPai, i, no, v);
+                    break;
+                }
+                if (no.getFolha()) {
+                    long escrita = no.getVersao().tryConvertToWriteLock(v);
+                    if (escrita == 0) {
+                        break;
+                    }
+                    boolean ok = inserirNaFolha(no, k);
+                    no.getVersao().unlockWrite(escrita);
+                    return ok;
+                }
+                int j = no.procurarPosicaoFilho(k, busca);
+                NoOtimista filho = no.getFilho(j);
+                if (filho == null) {
+                    break;
+                }
+                versao[0] = filho.getVersao().tryOptimisticRead();
+                if (versao[0] == 0 || !no.getVersao().validate(v)) {
+                    break;
+                }
+                pai = no;
+                versaoPai = v;
+                i = j;
+                no = filho;
+            }
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Divide um nó cheio encontrado na descida, se nenhum dos nós envolvidos
+     * mudou desde a leitura.
+     *
+     * @param pai Pai do nó ou null se o nó for a raiz.
+     * @param versaoPai Versão lida do pai.
+     * @param i Posição do nó no pai.
+     * @param no Nó cheio.
+     * @param versaoNo Versão lida do nó.
+     */
+    private void dividirCheio(NoOtimista pai, long versaoPai, int i, NoOtimista no, long versaoNo) {
+        long escritaPai = 0;
+        if (pai != null) {
+            escritaPai = pai.getVersao().tryConvertToWriteLock(versaoPai);
+            if (escritaPai == 0) {
+                return;
+            }
+        }
+        long escrita = no.getVersao().tryConvertToWriteLock(versaoNo);
+        if (escrita != 0) {
+            if (pai == null) {
+                // Cria a nova raiz e divide a antiga
+                NoOtimista nova = new NoOtimista(t, false);
+                nova.setC(0, no);
+                dividirNo(nova, 0);
+                raiz = nova;
+            } else {
+                dividirNo(pai, i);
+            }
+            no.getVersao().unlockWrite(escrita);
+        }
+        if (pai != null) {
+            pai.getVersao().unlockWrite(escritaPai);
+        }
+    }
+
+    /**
+     * Insere a chave em uma folha travada que não está cheia.
+     *
+     * @param folha Folha travada para escrita.
+     * @param k Chave a ser inserida.
+     * @return Verdadeiro se a chave foi inserida, falso se ela já estava na
+     * folha.
+     */
+    private boolean inserirNaFolha(NoOtimista folha, int k) {
+        int i = folha.procurarPosicaoFilho(k, busca);
+        if (i > 0 && folha.getChave(i - 1) == k) {
+            return false;
+        }
+        for (int j = folha.getN() - 1; j >= i; j--) {
+            folha.setChave(j + 1, folha.getChave(j));
+        }
+        folha.setChave(i, k);
+        folha.setN(folha.getN() + 1);
+        return true;
+    }
+
+    /**
+     * Dividir(split) um nó em 2 nós descendentes.
+     *
+     * Mesma divisão de ArvoreBPlus.dividirNo. O pai e o filho i devem estar
+     * travados, o novo nó só é alcançado por quem lê depois que as versões
+     * do pai e do filho mudam.
+     *
+     * @param pai Nó pai, que não pode estar cheio.
+     * @param i Indíce do filho cheio a ser dividido.
+     */
+    private void dividirNo(NoOtimista pai, int i) {
+        NoOtimista y = pai.getFilho(i);
+        NoOtimista z = new NoOtimista(t, y.getFolha());
+        int chaveSobe;
+        if (y.getFolha()) {
+            // A folha da direita fica com a metade maior das chaves
+            int n = y.getN();
+            int meio = (n + 1) / 2;
+            for (int k = meio; k < n; k++) {
+                z.setChave(k - meio, y.getChave(k));
+            }
+            z.setN(n - meio);
+            y.setN(meio);
+            // Encadeamento de folhas
+            z.setProximo(y.getProximo());
+            y.setProximo(z);
+            // Sobe uma cópia da menor chave da folha da direita
+            chaveSobe = z.getChave(0);
+        } else {
+            // A chave do meio sobe e sai do nó interno
+            chaveSobe = y.getChave(t - 1);
+            for (int j = 0; j < t - 1; j++) {
+                z.setChave(j, y.getChave(j + t));
+            }
+            for (int j = 0; j < t; j++) {
+                z.setC(j, y.getC(j + t));
+                y.setC(j + t, null);
+            }
+            z.setN(t - 1);
+            y.setN(t - 1);
+        }
+        // Abre espaço no pai para o novo filho e a chave promovida
+        for (int j = pai.getN(); j >= i + 1; j--) {
+            pai.setC(j + 1, pai.getC(j));
+        }
+        pai.setC(i + 1, z);
+        for (int j = pai.getN() - 1; j >= i; j--) {
+            pai.setChave(j + 1, pai.getChave(j));
+        }
+        pai.setChave(i, chaveSobe);
+        pai.setN(pai.getN() + 1);
+    }
+
+    /**
+     * Remove uma chave da árvore.
+     *
+     * Trava somente a folha. Os nós não são juntados.
+     *
+     * @param k Chave a ser removida.
+     * @return Verdadeiro se a chave foi removida.
+     */
+    public boolean remover(int k) {
+        long[] versao = new long[1];
+        while (true) {
+            NoOtimista folha = descerAteFolha(k, versao);
+            long escrita = folha.getVersao().tryConvertToWriteLock(versao[0]);
+            if (escrita == 0) {
+                Thread.yield();
+                continue;
+            }
+            int i = folha.procurarPosicaoChave(k, busca);
+            boolean achou = i < folha.getN() && folha.getChave(i) == k;
+            if (achou) {
+                for (int j = i; j < folha.getN() - 1; j++) {
+                    folha.setChave(j, folha.getChave(j + 1));
+                }
+                folha.setN(folha.getN() - 1);
+            }
+            folha.getVersao().unlockWrite(escrita);
+            return achou;
+        }
+    }
+
+    /**
+     * Percorre as chaves do intervalo [lo, hi] em ordem, seguindo o
+     * encadeamento das folhas.
+     *
+     * Cada folha é copiada e validada antes de as suas chaves serem
+     * entregues, assim o consumidor é chamado sem nenhuma trava. Se a cópia
+     * não puder ser validada, o percurso desce de novo a partir da última
+     * chave entregue.
+     *
+     * @param lo Limite inferior do intervalo (inclusivo).
+     * @param hi Limite superior do intervalo (inclusivo).
+     * @param consumidor Recebe cada chave encontrada no intervalo.
+     * @return A quantidade de chaves encontradas.
+     */
+    public int intervalo(int lo, int hi, IntConsumer consumidor) {
+        int cont = 0;
+        long[] versao = new long[1];
+        int[] copia = new int[2 * t - 1];
+        // Última chave entregue, as seguintes devem ser maiores
+        long ultimo = (long) lo - 1;
+        while (ultimo < hi) {
+            NoOtimista folha = descerAteFolha((int) (ultimo + 1), versao);
+            while (true) {
+                int n = folha.getN();
+                for (int i = 0; i < n; i++) {
+                    copia[i] = folha.getChave(i);
+                }
+                NoOtimista proxima = folha.getProximoOtimista();
+                if (!folha.getVersao().validate(versao[0])) {
+                    break;
+                }
+                for (int i = 0; i < n; i++) {
+                    int k = copia[i];
+                    if (k > hi) {
+                        return cont;
+                    }
+                    if (k > ultimo) {
+                        consumidor.accept(k);
+                        cont = cont + 1;
+                        ultimo = k;
+                    }
+                }
+                if (proxima == null) {
+                    return cont;
+                }
+                // Segue para a próxima folha
+                versao[0] = proxima.getVersao().tryOptimisticRead();
+                while (versao[0] == 0) {
+                    Thread.yield();
+                    versao[0] = proxima.getVersao().tryOptimisticRead();
+                }
+                folha = proxima;
+            }
+        }
+        return cont;
+    }
+
+    /**
+     * Encontra a altura da árvore.
+     *
+     * @return A altura da árvore.
+     */
+    public int getAltura() {
+        int altura = 1;
+        // O primeiro filho de um nó interno nunca muda e nós não são removidos
+        for (No no = raiz; !no.getFolha(); no = no.getC(0)) {
+            altura++;
+        }
+        return altura;
+    }
+
+    /**
+     * Recuperador de início.
+     *
+     * Não valida nenhuma versão, serve apenas para inspecionar a árvore
+     * quando nenhuma outra thread a está modificando.
+     *
+     * @return O nó do início da árvore.
+     */
+    public No getRaiz() {
+        return raiz;
+    }
+}
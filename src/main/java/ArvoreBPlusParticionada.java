@@ -0,0 +1,720 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Árvore B+ particionada por faixas de chaves.
+ *
+ * O espaço de chaves é dividido em faixas contíguas por um vetor ordenado de
+ * limites, e cada faixa é uma ArvoreBPlus com a sua própria trava de leitura
+ * e escrita. As operações pontuais encontram a partição com uma busca
+ * binária nos limites, O(log partições), e travam somente ela, assim
+ * operações em faixas diferentes não disputam a mesma raiz.
+ *
+ * Os percursos de intervalo consultam em paralelo as partições que o
+ * intervalo alcança e entregam as chaves na ordem das partições, que é a
+ * ordem das chaves. Inserções em lote são separadas por partição e
+ * aplicadas em paralelo. As partições são agrupadas em no máximo tantas
+ * tarefas quanto o paralelismo do executor, e intervalos e lotes pequenos,
+ * ou um executor sem paralelismo, rodam na thread que chamou.
+ *
+ * Uma partição é dividida na sua mediana quando passa do tamanho máximo ou
+ * quando rebalancear a encontra muito mais acessada que as demais. A divisão
+ * publica um novo mapa de partições e marca a antiga como descartada; quem
+ * esperava pela trava dela procura a partição de novo no mapa novo. Uma
+ * partição que não pode ser dividida, por ter todas as chaves iguais, só
+ * tenta de novo quando o seu tamanho dobrar.
+ *
+ * Um acesso em cada INTERVALO_REBALANCEAMENTO, sorteado sem estado
+ * compartilhado, agenda rebalancear no executor; rebalancear também pode
+ * ser chamada diretamente. Rebalancear só divide uma partição quente com
+ * pelo menos metade do tamanho máximo e junta partições vizinhas pequenas
+ * ou frias, assim a quantidade de partições acompanha a de chaves.
+ *
+ */
+public class ArvoreBPlusParticionada {
+
+    /**
+     * Quantidade média de acessos entre dois rebalanceamentos agendados.
+     */
+    private static final int INTERVALO_REBALANCEAMENTO = 1 << 16;
+
+    /**
+     * Quantidade estimada de chaves abaixo da qual intervalos e lotes rodam
+     * na thread que chamou.
+     */
+    private static final int MINIMO_PARALELO = 1 << 14;
+
+    /**
+     * Uma faixa de chaves e a árvore que a guarda.
+     */
+    private static final class Particao {
+
+        /**
+         * Árvore da faixa.
+         */
+        private final ArvoreBPlus arvore;
+
+        /**
+         * Trava da árvore.
+         */
+        private final ReentrantReadWriteLock trava;
+
+        /**
+         * Acessos desde o último rebalanceamento.
+         */
+        private final LongAdder acessos;
+
+        /**
+         * Quantidade de chaves, alterada com a trava de escrita.
+         */
+        private int tamanho;
+
+        /**
+         * Tamanho a partir do qual a partição é dividida, alterado com a
+         * trava de escrita.
+         */
+        private int tamanhoDivisao;
+
+        /**
+         * Indica que a partição foi substituída por uma divisão.
+         */
+        private volatile boolean descartada;
+
+        /**
+         * Construtor com parâmetros.
+         *
+         * @param arvore Árvore da faixa.
+         * @param tamanho Quantidade de chaves da árvore.
+         * @param tamanhoDivisao Tamanho a partir do qual a partição é
+         * dividida.
+         */
+        private Particao(ArvoreBPlus arvore, int tamanho, int tamanhoDivisao) {
+            this.arvore = arvore;
+            this.tamanho = tamanho;
+            this.tamanhoDivisao = tamanhoDivisao;
+            this.trava = new ReentrantReadWriteLock();
+            this.acessos = new LongAdder();
+        }
+    }
+
+    /**
+     * Mapa imutável das partições.
+     */
+    private static final class Mapa {
+
+        /**
+         * Limites entre as partições: a partição i guarda as chaves em
+         * [limite[i - 1], limite[i]).
+         */
+        private final int[] limite;
+
+        /**
+         * Partições em ordem de chaves, uma a mais que os limites.
+         */
+        private final Particao[] particao;
+
+        /**
+         * Construtor com parâmetros.
+         *
+         * @param limite Limites entre as partições.
+         * @param particao Partições em ordem de chaves.
+         */
+        private Mapa(int[] limite, Particao[] particao) {
+            this.limite = limite;
+            this.particao = particao;
+        }
+
+        /**
+         * Procura a partição da chave k.
+         *
+         * @param k Chave procurada.
+         * @return A posição da partição.
+         */
+        private int posicao(int k) {
+            return EstrategiaBusca.BINARIA.limiteSuperior(limite, limite.length, k);
+        }
+    }
+
+    /**
+     * Mapa atual das partições.
+     */
+    private volatile Mapa mapa;
+
+    /**
+     * Ordem das árvores das partições.
+     */
+    private final int t;
+
+    /**
+     * Quantidade de chaves que faz uma partição ser dividida.
+     */
+    private final int tamanhoMaximo;
+
+    /**
+     * Executor dos percursos e lotes paralelos.
+     */
+    private final Executor executor;
+
+    /**
+     * Quantidade máxima de tarefas de um percurso ou lote.
+     */
+    private final int paralelismo;
+
+    /**
+     * Indica que há um rebalanceamento agendado ou em andamento.
+     */
+    private final AtomicBoolean rebalanceando;
+
+    /**
+     * Construtor com parâmetros.
+     *
+     * @param t Grau mínimo das árvores das partições.
+     * @param limites Limites iniciais entre as partições, em ordem crescente.
+     * @param tamanhoMaximo Quantidade de chaves que faz uma partição ser
+     * dividida.
+     */
+    public ArvoreBPlusParticionada(int t, int[] limites, int tamanhoMaximo) {
+        this(t, limites, tamanhoMaximo, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Construtor com parâmetros.
+     *
+     * @param t Grau mínimo das árvores das partições.
+     * @param limites Limites iniciais entre as partições, em ordem crescente.
+     * @param tamanhoMaximo Quantidade de chaves que faz uma partição ser
+     * dividida.
+     * @param executor Executor dos percursos e lotes paralelos. O
+     * paralelismo de um ForkJoinPool limita as tarefas de cada operação; para
+     * outros executores o limite é a quantidade de processadores.
+     */
+    public ArvoreBPlusParticionada(int t, int[] limites, int tamanhoMaximo, Executor executor) {
+        if (t < 2) {
+            throw new IllegalArgumentException("Ordem inválida: " + t);
+        }
+        if (tamanhoMaximo < 2) {
+            throw new IllegalArgumentException("Tamanho máximo inválido: " + tamanhoMaximo);
+        }
+        for (int i = 1; i < limites.length; i++) {
+            if (limites[i - 1] >= limites[i]) {
+                throw new IllegalArgumentException("Limites fora de ordem na posição " + i);
+            }
+        }
+        this.t = t;
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.executor = executor;
+        // Com paralelismo 1, CompletableFuture trocaria o pool comum por uma
+        // thread nova por tarefa, então tudo roda na thread que chamou
+        this.paralelismo = executor instanceof ForkJoinPool
+                ? ((ForkJoinPool) executor).getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        this.rebalanceando = new AtomicBoolean();
+        Particao[] particoes = new Particao[limites.length + 1];
+        for (int i = 0; i < particoes.length; i++) {
+            particoes[i] = new Particao(new ArvoreBPlus(t), 0, tamanhoMaximo);
+        }
+        this.mapa = new Mapa(limites.clone(), particoes);
+    }
+
+    /**
+     * Recuperador de t.
+     *
+     * @return O grau das árvores das partições.
+     */
+    public int getT() {
+        return t;
+    }
+
+    /**
+     * Retorna a quantidade de partições.
+     *
+     * @return A quantidade de partições do mapa atual.
+     */
+    public int getQtdeParticoes() {
+        return mapa.particao.length;
+    }
+
+    /**
+     * Retorna os limites entre as partições.
+     *
+     * @return Uma cópia dos limites do mapa atual.
+     */
+    public int[] getLimites() {
+        return mapa.limite.clone();
+    }
+
+    /**
+     * Trava a partição da chave k.
+     *
+     * @param k Chave procurada.
+     * @param escrita Indica se a trava é de escrita.
+     * @return A partição travada, que não foi descartada.
+     */
+    private Particao travar(int k, boolean escrita) {
+        while (true) {
+            Mapa m = mapa;
+            Particao p = m.particao[m.posicao(k)];
+            if (escrita) {
+                p.trava.writeLock().lock();
+            } else {
+                p.trava.readLock().lock();
+            }
+            if (!p.descartada) {
+                p.acessos.increment();
+                if (ThreadLocalRandom.current().nextInt(INTERVALO_REBALANCEAMENTO) == 0) {
+                    agendarRebalanceamento();
+                }
+                return p;
+            }
+            // A partição foi dividida enquanto esperava, usa o novo mapa
+            soltar(p, escrita);
+        }
+    }
+
+    /**
+     * Solta a trava de uma partição.
+     *
+     * @param p Partição travada.
+     * @param escrita Indica se a trava é de escrita.
+     */
+    private static void soltar(Particao p, boolean escrita) {
+        if (escrita) {
+            p.trava.writeLock().unlock();
+        } else {
+            p.trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Procura uma chave k.
+     *
+     * @param k Chave a ser procurada.
+     * @return Verdadeiro se a chave está na árvore.
+     */
+    public boolean procurar(int k) {
+        Particao p = travar(k, false);
+        try {
+            return p.arvore.procurar(k) != null;
+        } finally {
+            soltar(p, false);
+        }
+    }
+
+    /**
+     * Insere uma chave na partição da sua faixa.
+     *
+     * @param k Chave a ser inserida.
+     */
+    public void inserir(int k) {
+        Particao p = travar(k, true);
+        try {
+            p.arvore.inserir(k);
+            p.tamanho++;
+            dividirSeGrande(p);
+        } finally {
+            p.trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove uma chave da partição da sua faixa.
+     *
+     * @param k Chave a ser removida.
+     * @return Verdadeiro se a chave foi removida.
+     */
+    public boolean remover(int k) {
+        Particao p = travar(k, true);
+        try {
+            boolean ok = p.arvore.remover(k);
+            if (ok) {
+                p.tamanho--;
+            }
+            return ok;
+        } finally {
+            p.trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Insere um lote de chaves, aplicando em paralelo a parte de cada
+     * partição com ArvoreBPlus.inserirLote.
+     *
+     * @param chaves Chaves a serem inseridas, em qualquer ordem.
+     */
+    public void inserirLote(int[] chaves) {
+        final int[] v = chaves.clone();
+        Arrays.sort(v);
+        Mapa m = mapa;
+        final List<Particao> particoes = new ArrayList<>();
+        final List<int[]> partes = new ArrayList<>();
+        int inicio = 0;
+        while (inicio < v.length) {
+            int j = m.posicao(v[inicio]);
+            // Fim da parte da partição j: primeira chave do limite seguinte
+            int fim = j < m.limite.length
+                    ? EstrategiaBusca.BINARIA.limiteInferior(v, v.length, m.limite[j])
+                    : v.length;
+            particoes.add(m.particao[j]);
+            partes.add(Arrays.copyOfRange(v, inicio, fim));
+            inicio = fim;
+        }
+        int grupos = Math.min(paralelismo, partes.size());
+        if (grupos <= 1 || v.length < MINIMO_PARALELO) {
+            for (int i = 0; i < partes.size(); i++) {
+                inserirLote(particoes.get(i), partes.get(i));
+            }
+            return;
+        }
+        // Cada tarefa aplica um grupo de partes vizinhas
+        List<CompletableFuture<Void>> tarefas = new ArrayList<>();
+        for (int g = 0; g < grupos; g++) {
+            final int de = g * partes.size() / grupos;
+            final int ate = (g + 1) * partes.size() / grupos;
+            tarefas.add(CompletableFuture.runAsync(() -> {
+                for (int i = de; i < ate; i++) {
+                    inserirLote(particoes.get(i), partes.get(i));
+                }
+            }, executor));
+        }
+        for (CompletableFuture<Void> tarefa : tarefas) {
+            tarefa.join();
+        }
+    }
+
+    /**
+     * Insere a parte de um lote em uma partição.
+     *
+     * @param p Partição da faixa do lote no mapa lido.
+     * @param parte Chaves ordenadas da faixa.
+     */
+    private void inserirLote(Particao p, int[] parte) {
+        p.trava.writeLock().lock();
+        try {
+            if (!p.descartada) {
+                p.arvore.inserirLote(parte);
+                p.tamanho += parte.length;
+                p.acessos.add(parte.length);
+                dividirSeGrande(p);
+                return;
+            }
+        } finally {
+            p.trava.writeLock().unlock();
+        }
+        // A partição foi dividida, as chaves são roteadas no novo mapa
+        for (int k : parte) {
+            inserir(k);
+        }
+    }
+
+    /**
+     * Percorre as chaves do intervalo [lo, hi] em ordem.
+     *
+     * As partições alcançadas são lidas em até paralelismo grupos de
+     * partições vizinhas e as chaves são entregues ao consumidor na ordem
+     * das partições, na thread que chamou, que também lê o primeiro grupo.
+     *
+     * @param lo Limite inferior do intervalo (inclusivo).
+     * @param hi Limite superior do intervalo (inclusivo).
+     * @param consumidor Recebe cada chave encontrada no intervalo.
+     * @return A quantidade de chaves encontradas.
+     */
+    public int intervalo(final int lo, final int hi, IntConsumer consumidor) {
+        if (lo > hi) {
+            return 0;
+        }
+        Mapa m = mapa;
+        int primeira = m.posicao(lo);
+        int ultima = m.posicao(hi);
+        int grupos = Math.min(paralelismo, ultima - primeira + 1);
+        if (grupos <= 1 || estimarTamanho(m, primeira, ultima) < MINIMO_PARALELO) {
+            return percorrer(lo, hi, consumidor);
+        }
+        // O grupo g lê as partições de primeira + g * qtde / grupos em diante
+        int qtde = ultima - primeira + 1;
+        List<CompletableFuture<int[]>> partes = new ArrayList<>();
+        for (int g = 1; g < grupos; g++) {
+            int de = primeira + g * qtde / grupos;
+            int ate = primeira + (g + 1) * qtde / grupos - 1;
+            final int chaveDe = m.limite[de - 1];
+            final int chaveAte = ate == ultima ? hi : m.limite[ate] - 1;
+            partes.add(CompletableFuture.supplyAsync(() -> copiarIntervalo(chaveDe, chaveAte), executor));
+        }
+        int fimPrimeiro = primeira + qtde / grupos - 1;
+        int cont = percorrer(lo, m.limite[fimPrimeiro] - 1, consumidor);
+        for (CompletableFuture<int[]> parte : partes) {
+            for (int k : parte.join()) {
+                consumidor.accept(k);
+                cont = cont + 1;
+            }
+        }
+        return cont;
+    }
+
+    /**
+     * Estima a quantidade de chaves de uma faixa de partições.
+     *
+     * Os tamanhos são lidos sem as travas, o resultado só decide se vale a
+     * pena dividir o trabalho.
+     *
+     * @param m Mapa das partições.
+     * @param primeira Posição da primeira partição.
+     * @param ultima Posição da última partição.
+     * @return A soma dos tamanhos lidos.
+     */
+    private static long estimarTamanho(Mapa m, int primeira, int ultima) {
+        long total = 0;
+        for (int j = primeira; j <= ultima; j++) {
+            total += m.particao[j].tamanho;
+        }
+        return total;
+    }
+
+    /**
+     * Copia as chaves do intervalo [lo, hi].
+     *
+     * @param lo Limite inferior do intervalo (inclusivo).
+     * @param hi Limite superior do intervalo (inclusivo).
+     * @return As chaves do intervalo em ordem.
+     */
+    private int[] copiarIntervalo(int lo, int hi) {
+        IntStream.Builder chaves = IntStream.builder();
+        percorrer(lo, hi, chaves);
+        return chaves.build().toArray();
+    }
+
+    /**
+     * Percorre as chaves do intervalo [lo, hi] uma partição por vez, que pode
+     * alcançar mais partições que as do mapa lido se houve divisões.
+     *
+     * @param lo Limite inferior do intervalo (inclusivo).
+     * @param hi Limite superior do intervalo (inclusivo).
+     * @param consumidor Recebe cada chave encontrada no intervalo.
+     * @return A quantidade de chaves encontradas.
+     */
+    private int percorrer(int lo, int hi, IntConsumer consumidor) {
+        int cont = 0;
+        long de = lo;
+        while (de <= hi) {
+            Particao p = travar((int) de, false);
+            long ate;
+            try {
+                Mapa m = mapa;
+                int j = m.posicao((int) de);
+                // Fim da faixa da partição, limitado por hi
+                ate = j < m.limite.length ? Math.min((long) m.limite[j] - 1, hi) : hi;
+                cont = cont + p.arvore.intervalo((int) de, (int) ate, consumidor);
+            } finally {
+                soltar(p, false);
+            }
+            de = ate + 1;
+        }
+        return cont;
+    }
+
+    /**
+     * Retorna a quantidade de chaves.
+     *
+     * @return A soma dos tamanhos das partições.
+     */
+    public long getTamanho() {
+        long total = 0;
+        for (Particao p : mapa.particao) {
+            p.trava.readLock().lock();
+            total += p.tamanho;
+            p.trava.readLock().unlock();
+        }
+        return total;
+    }
+
+    /**
+     * Agenda rebalancear no executor, se não houver outro agendado.
+     *
+     * Chamado com a trava de uma partição, por isso rebalancear, que trava
+     * outra partição, não roda na mesma thread.
+     */
+    private void agendarRebalanceamento() {
+        if (!rebalanceando.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    rebalancear();
+                } finally {
+                    rebalanceando.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Executor sendo fechado
+            rebalanceando.set(false);
+        }
+    }
+
+    /**
+     * Divide a partição mais acessada desde a última chamada, se ela teve
+     * mais que o dobro da média de acessos e pelo menos metade do tamanho
+     * máximo, junta partições vizinhas pequenas ou frias e zera os
+     * contadores.
+     *
+     * Um par de vizinhas é juntado se somar menos de um quarto do tamanho
+     * máximo, ou menos da metade quando o par teve no máximo a média de
+     * acessos de uma partição. A partição juntada não passa da metade do
+     * tamanho máximo, então não volta a ser dividida só por ser quente.
+     *
+     * @return Verdadeiro se alguma partição foi dividida ou juntada.
+     */
+    public boolean rebalancear() {
+        Particao[] particoes = mapa.particao;
+        long[] acessos = new long[particoes.length];
+        long total = 0;
+        int quente = 0;
+        for (int i = 0; i < particoes.length; i++) {
+            acessos[i] = particoes[i].acessos.sumThenReset();
+            total += acessos[i];
+            if (acessos[i] > acessos[quente]) {
+                quente = i;
+            }
+        }
+        boolean mudou = false;
+        if (acessos[quente] * particoes.length > 2 * total) {
+            Particao p = particoes[quente];
+            p.trava.writeLock().lock();
+            try {
+                mudou = !p.descartada && p.tamanho >= tamanhoMaximo / 2 && dividir(p);
+            } finally {
+                p.trava.writeLock().unlock();
+            }
+        }
+        for (int i = 0; i + 1 < particoes.length; i++) {
+            boolean frias = (acessos[i] + acessos[i + 1]) * particoes.length <= total;
+            int limite = frias ? tamanhoMaximo / 2 - 1 : tamanhoMaximo / 4;
+            if (juntar(particoes[i], particoes[i + 1], limite)) {
+                mudou = true;
+                // A vizinha da direita foi descartada junto
+                i++;
+            }
+        }
+        return mudou;
+    }
+
+    /**
+     * Junta duas partições vizinhas em uma, se elas ainda estiverem no mapa
+     * e somarem no máximo limite chaves.
+     *
+     * As travas são pegas da esquerda para a direita, a mesma ordem de
+     * qualquer outra junção, e a nova partição é carregada com
+     * carregarOrdenado e publicada em um novo mapa.
+     *
+     * @param esq Partição da esquerda.
+     * @param dir Partição da direita.
+     * @param limite Quantidade máxima de chaves da partição juntada.
+     * @return Verdadeiro se as partições foram juntadas.
+     */
+    private boolean juntar(Particao esq, Particao dir, int limite) {
+        esq.trava.writeLock().lock();
+        dir.trava.writeLock().lock();
+        try {
+            if (esq.descartada || dir.descartada || esq.tamanho + dir.tamanho > limite) {
+                return false;
+            }
+            IntStream.Builder construtor = IntStream.builder();
+            esq.arvore.intervalo(Integer.MIN_VALUE, Integer.MAX_VALUE, construtor);
+            dir.arvore.intervalo(Integer.MIN_VALUE, Integer.MAX_VALUE, construtor);
+            int[] chaves = construtor.build().toArray();
+            ArvoreBPlus arvore = new ArvoreBPlus(t);
+            arvore.carregarOrdenado(chaves, 0.75);
+            synchronized (this) {
+                Mapa m = mapa;
+                int j = Arrays.asList(m.particao).indexOf(esq);
+                int[] limites = new int[m.limite.length - 1];
+                Particao[] particao = new Particao[m.particao.length - 1];
+                System.arraycopy(m.limite, 0, limites, 0, j);
+                System.arraycopy(m.limite, j + 1, limites, j, m.limite.length - j - 1);
+                System.arraycopy(m.particao, 0, particao, 0, j);
+                particao[j] = new Particao(arvore, chaves.length, tamanhoMaximo);
+                System.arraycopy(m.particao, j + 2, particao, j + 1, m.particao.length - j - 2);
+                mapa = new Mapa(limites, particao);
+            }
+            esq.descartada = true;
+            dir.descartada = true;
+            return true;
+        } finally {
+            dir.trava.writeLock().unlock();
+            esq.trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Divide uma partição que passou do seu tamanho de divisão.
+     *
+     * Se todas as chaves forem iguais a divisão falha, e a próxima tentativa
+     * fica para quando o tamanho dobrar, em vez de copiar a partição inteira
+     * a cada inserção. A partição deve estar travada para escrita.
+     *
+     * @param p Partição travada para escrita.
+     */
+    private void dividirSeGrande(Particao p) {
+        if (p.tamanho > p.tamanhoDivisao && !dividir(p)) {
+            p.tamanhoDivisao = (int) Math.min(2L * p.tamanho, Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Divide uma partição na mediana das suas chaves.
+     *
+     * A partição deve estar travada para escrita. As duas novas partições
+     * são carregadas com carregarOrdenado e publicadas em um novo mapa.
+     *
+     * @param p Partição a ser dividida.
+     * @return Verdadeiro se a partição foi dividida, falso se todas as suas
+     * chaves forem iguais.
+     */
+    private boolean dividir(Particao p) {
+        IntStream.Builder construtor = IntStream.builder();
+        p.arvore.intervalo(Integer.MIN_VALUE, Integer.MAX_VALUE, construtor);
+        int[] chaves = construtor.build().toArray();
+        if (chaves.length < 2) {
+            return false;
+        }
+        // Chaves iguais à mediana ficam juntas em uma das partições
+        int mediana = chaves[chaves.length / 2];
+        int meio = EstrategiaBusca.BINARIA.limiteInferior(chaves, chaves.length, mediana);
+        if (meio == 0) {
+            meio = EstrategiaBusca.BINARIA.limiteSuperior(chaves, chaves.length, mediana);
+            if (meio == chaves.length) {
+                return false;
+            }
+        }
+        ArvoreBPlus esquerda = new ArvoreBPlus(t);
+        esquerda.carregarOrdenado(Arrays.copyOfRange(chaves, 0, meio), 0.75);
+        ArvoreBPlus direita = new ArvoreBPlus(t);
+        direita.carregarOrdenado(Arrays.copyOfRange(chaves, meio, chaves.length), 0.75);
+        synchronized (this) {
+            Mapa m = mapa;
+            int j = Arrays.asList(m.particao).indexOf(p);
+            int[] limite = new int[m.limite.length + 1];
+            Particao[] particao = new Particao[m.particao.length + 1];
+            System.arraycopy(m.limite, 0, limite, 0, j);
+            limite[j] = chaves[meio];
+            System.arraycopy(m.limite, j, limite, j + 1, m.limite.length - j);
+            System.arraycopy(m.particao, 0, particao, 0, j);
+            particao[j] = new Particao(esquerda, meio, tamanhoMaximo);
+            particao[j + 1] = new Particao(direita, chaves.length - meio, tamanhoMaximo);
+            System.arraycopy(m.particao, j + 1, particao, j + 2, m.particao.length - j - 1);
+            mapa = new Mapa(limite, particao);
+        }
+        p.descartada = true;
+        return true;
+    }
+}
@@ -0,0 +1,416 @@
+import java.util.function.IntConsumer;
+
+/**
+ * Árvore B+ com cópia na escrita(copy-on-write) e leituras por versões
+ * imutáveis(MVCC).
+ *
+ * Nenhum nó alcançável por uma versão publicada é modificado. Quem escreve
+ * copia os nós do caminho da raiz até a folha (path copying), incluindo os
+ * irmãos envolvidos em divisões, empréstimos e junções, aplica a operação
+ * nas cópias e publica a nova raiz de uma vez. As escritas são serializadas
+ * entre si, mas nunca bloqueiam quem lê, e quem lê nunca bloqueia quem
+ * escreve: snapshot devolve a versão atual, que continua válida e
+ * consistente enquanto for referenciada, mesmo depois de outras escritas.
+ *
+ * As folhas não são encadeadas, pois manter o encadeamento obrigaria a
+ * copiar também a folha anterior a cada escrita, e assim por diante.
+ *
+ */
+public class ArvoreBPlusVersionada {
+
+    /**
+     * Versão atual da árvore.
+     */
+    private volatile InstantaneoArvore atual;
+
+    /**
+     * Ordem da árvore;
+     */
+    private final int t;
+
+    /**
+     * Estratégia de busca das chaves dentro dos nós.
+     */
+    private final EstrategiaBusca busca;
+
+    /**
+     * Construtor com parâmetro.
+     *
+     * @param t Grau mínimo (define o intervalo para o número de chaves).
+     */
+    public ArvoreBPlusVersionada(int t) {
+        this(t, EstrategiaBusca.BINARIA);
+    }
+
+    /**
+     * Construtor com parâmetros.
+     *
+     * @param t Grau mínimo (define o intervalo para o número de chaves).
+     * @param busca Estratégia de busca das chaves dentro dos nós.
+     */
+    public ArvoreBPlusVersionada(int t, EstrategiaBusca busca) {
+        if (t < 2) {
+            throw new IllegalArgumentException("Ordem inválida: " + t);
+        }
+        this.t = t;
+        this.busca = busca;
+        this.atual = new InstantaneoArvore(null, 0, busca);
+    }
+
+    /**
+     * Recuperador de t.
+     *
+     * @return O grau da árvore
+     */
+    public int getT() {
+        return t;
+    }
+
+    /**
+     * Retorna uma visão imutável e consistente da versão atual.
+     *
+     * @return A versão atual.
+     */
+    public InstantaneoArvore snapshot() {
+        return atual;
+    }
+
+    /**
+     * Procura uma chave k na versão atual.
+     *
+     * @param k Chave a ser procurada.
+     * @return Verdadeiro se a chave está na árvore.
+     */
+    public boolean procurar(int k) {
+        return atual.procurar(k);
+    }
+
+    /**
+     * Percorre as chaves do intervalo [lo, hi] da versão atual em ordem.
+     *
+     * @param lo Limite inferior do intervalo (inclusivo).
+     * @param hi Limite superior do intervalo (inclusivo).
+     * @param consumidor Recebe cada chave encontrada no intervalo.
+     * @return A quantidade de chaves encontradas.
+     */
+    public int intervalo(int lo, int hi, IntConsumer consumidor) {
+        return atual.intervalo(lo, hi, consumidor);
+    }
+
+    /**
+     * Retorna a quantidade de chaves da versão atual.
+     *
+     * @return A quantidade de chaves.
+     */
+    public int getTamanho() {
+        return atual.getTamanho();
+    }
+
+    /**
+     * Encontra a altura da versão atual.
+     *
+     * @return A altura da árvore.
+     */
+    public int getAltura() {
+        return atual.getAltura();
+    }
+
+    /**
+     * Copia um nó publicado para ser modificado por uma escrita.
+     *
+     * @param no Nó a ser copiado.
+     * @return A cópia, ainda não visível para quem lê.
+     */
+    private No copiar(No no) {
+        No copia = new No(t, no.getFolha());
+        int n = no.getN();
+        for (int i = 0; i < n; i++) {
+            copia.setChave(i, no.getChave(i));
+        }
+        if (!no.getFolha()) {
+            for (int i = 0; i <= n; i++) {
+                copia.setC(i, no.getC(i));
+            }
+        }
+        copia.setN(n);
+        return copia;
+    }
+
+    /**
+     * Inserção na árvore B+.
+     *
+     * Copia o caminho até a folha, dividindo preventivamente as cópias
+     * cheias, e publica a nova versão.
+     *
+     * @param k Chave a ser inserida.
+     */
+    public synchronized void inserir(int k) {
+        InstantaneoArvore versao = atual;
+        No raiz;
+        if (versao.getRaiz() == null) {
+            // Cria a raiz como um nó folha
+            raiz = new No(t, true);
+        } else {
+            raiz = copiar(versao.getRaiz());
+            if (raiz.getN() == 2 * t - 1) {
+                // Cria a nova raiz e divide a cópia da antiga
+                No nova = new No(t, false);
+                nova.setC(0, raiz);
+                dividirNo(nova, 0);
+                raiz = nova;
+            }
+        }
+        No no = raiz;
+        while (!no.getFolha()) {
+            int i = no.procurarPosicaoFilho(k, busca);
+            No filho = copiar(no.getC(i));
+            no.setC(i, filho);
+            if (filho.getN() == 2 * t - 1) {
+                dividirNo(no, i);
+                if (k >= no.getChave(i)) {
+                    filho = no.getC(i + 1);
+                }
+            }
+            no = filho;
+        }
+        int i = no.procurarPosicaoFilho(k, busca);
+        for (int j = no.getN() - 1; j >= i; j--) {
+            no.setChave(j + 1, no.getChave(j));
+        }
+        no.setChave(i, k);
+        no.setN(no.getN() + 1);
+        atual = new InstantaneoArvore(raiz, versao.getTamanho() + 1, busca);
+    }
+
+    /**
+     * Dividir(split) uma cópia cheia em 2 nós descendentes.
+     *
+     * Mesma divisão de ArvoreBPlus.dividirNo, sem o encadeamento das
+     * folhas. O pai e o filho i devem ser cópias.
+     *
+     * @param pai Nó pai, que não pode estar cheio.
+     * @param i Indíce do filho cheio a ser dividido.
+     */
+    private void dividirNo(No pai, int i) {
+        No y = pai.getC(i);
+        No z = new No(t, y.getFolha());
+        int chaveSobe;
+        if (y.getFolha()) {
+            // A folha da direita fica com a metade maior das chaves
+            int n = y.getN();
+            int meio = (n + 1) / 2;
+            for (int k = meio; k < n; k++) {
+                z.setChave(k - meio, y.getChave(k));
+            }
+            z.setN(n - meio);
+            y.setN(meio);
+            // Sobe uma cópia da menor chave da folha da direita
+            chaveSobe = z.getChave(0);
+        } else {
+            // A chave do meio sobe e sai do nó interno
+            chaveSobe = y.getChave(t - 1);
+            for (int j = 0; j < t - 1; j++) {
+                z.setChave(j, y.getChave(j + t));
+            }
+            for (int j = 0; j < t; j++) {
+                z.setC(j, y.getC(j + t));
+                y.setC(j + t, null);
+            }
+            z.setN(t - 1);
+            y.setN(t - 1);
+        }
+        // Abre espaço no pai para o novo filho e a chave promovida
+        for (int j = pai.getN(); j >= i + 1; j--) {
+            pai.setC(j + 1, pai.getC(j));
+        }
+        pai.setC(i + 1, z);
+        for (int j = pai.getN() - 1; j >= i; j--) {
+            pai.setChave(j + 1, pai.getChave(j));
+        }
+        pai.setChave(i, chaveSobe);
+        pai.setN(pai.getN() + 1);
+    }
+
+    /**
+     * Remove uma chave da árvore.
+     *
+     * Copia o caminho até a folha, completando preventivamente as cópias
+     * com t - 1 chaves com cópias dos irmãos, e publica a nova versão. Se a
+     * chave não estiver na árvore, nada é copiado. Com repetições, a descida
+     * segue o filho que ainda contém k.
+     *
+     * @param k Chave a ser removida.
+     * @return Verdadeiro se a chave foi removida.
+     */
+    public synchronized boolean remover(int k) {
+        InstantaneoArvore versao = atual;
+        if (!versao.procurar(k)) {
+            return false;
+        }
+        No raiz = copiar(versao.getRaiz());
+        No no = raiz;
+        while (!no.getFolha()) {
+            int i = no.procurarPosicaoFilho(k, busca);
+            // Repetições de k podem estar à esquerda de um separador igual a k
+            while (i > 0 && no.getChave(i - 1) == k && !versao.procurar(no.getC(i), k)) {
+                i--;
+            }
+            No filho = copiar(no.getC(i));
+            no.setC(i, filho);
+            if (filho.getN() < t) {
+                filho = completarFilho(no, i, filho);
+                if (no == raiz && no.getN() == 0) {
+                    // Raiz interna sem chaves, o único filho passa a ser a raiz
+                    raiz = filho;
+                }
+            }
+            no = filho;
+        }
+        int i = no.procurarPosicaoChave(k, busca);
+        for (int j = i + 1; j < no.getN(); j++) {
+            no.setChave(j - 1, no.getChave(j));
+        }
+        no.setN(no.getN() - 1);
+        if (raiz.getN() == 0) {
+            raiz = null;
+        }
+        atual = new InstantaneoArvore(raiz, versao.getTamanho() - 1, busca);
+        return true;
+    }
+
+    /**
+     * Garante que a cópia do filho i tenha pelo menos t chaves antes da
+     * descida, copiando o irmão usado.
+     *
+     * @param pai Cópia do nó pai, com pelo menos t chaves ou raiz.
+     * @param i Posição do filho no pai.
+     * @param filho Cópia do filho, com t - 1 chaves.
+     * @return O nó onde a descida continua.
+     */
+    private No completarFilho(No pai, int i, No filho) {
+        if (i > 0 && pai.getC(i - 1).getN() >= t) {
+            No esq = copiar(pai.getC(i - 1));
+            pai.setC(i - 1, esq);
+            emprestarEsquerda(pai, i, esq, filho);
+            return filho;
+        }
+        if (i < pai.getN() && pai.getC(i + 1).getN() >= t) {
+            No dir = copiar(pai.getC(i + 1));
+            pai.setC(i + 1, dir);
+            emprestarDireita(pai, i, filho, dir);
+            return filho;
+        }
+        if (i > 0) {
+            // O filho é juntado à cópia do irmão da esquerda
+            No esq = copiar(pai.getC(i - 1));
+            pai.setC(i - 1, esq);
+            juntar(pai, i - 1, esq, filho);
+            return esq;
+        }
+        // O irmão da direita é lido e descartado, não precisa de cópia
+        juntar(pai, 0, filho, pai.getC(1));
+        return filho;
+    }
+
+    /**
+     * Move a última chave do irmão da esquerda para o filho i.
+     *
+     * @param pai Cópia do nó pai.
+     * @param i Posição do filho no pai.
+     * @param esq Cópia do irmão da esquerda.
+     * @param filho Cópia do filho que recebe a chave.
+     */
+    private void emprestarEsquerda(No pai, int i, No esq, No filho) {
+        int n = filho.getN();
+        int ne = esq.getN();
+        for (int j = n - 1; j >= 0; j--) {
+            filho.setChave(j + 1, filho.getChave(j));
+        }
+        if (filho.getFolha()) {
+            filho.setChave(0, esq.getChave(ne - 1));
+            pai.setChave(i - 1, filho.getChave(0));
+        } else {
+            for (int j = n; j >= 0; j--) {
+                filho.setC(j + 1, filho.getC(j));
+            }
+            // O separador desce e a última chave da esquerda sobe
+            filho.setChave(0, pai.getChave(i - 1));
+            filho.setC(0, esq.getC(ne));
+            esq.setC(ne, null);
+            pai.setChave(i - 1, esq.getChave(ne - 1));
+        }
+        esq.setN(ne - 1);
+        filho.setN(n + 1);
+    }
+
+    /**
+     * Move a primeira chave do irmão da direita para o filho i.
+     *
+     * @param pai Cópia do nó pai.
+     * @param i Posição do filho no pai.
+     * @param filho Cópia do filho que recebe a chave.
+     * @param dir Cópia do irmão da direita.
+     */
+    private void emprestarDireita(No pai, int i, No filho, No dir) {
+        int n = filho.getN();
+        int nd = dir.getN();
+        if (filho.getFolha()) {
+            filho.setChave(n, dir.getChave(0));
+        } else {
+            // O separador desce e a primeira chave da direita sobe
+            filho.setChave(n, pai.getChave(i));
+            filho.setC(n + 1, dir.getC(0));
+            pai.setChave(i, dir.getChave(0));
+            for (int j = 0; j < nd; j++) {
+                dir.setC(j, dir.getC(j + 1));
+            }
+            dir.setC(nd, null);
+        }
+        for (int j = 0; j < nd - 1; j++) {
+            dir.setChave(j, dir.getChave(j + 1));
+        }
+        dir.setN(nd - 1);
+        filho.setN(n + 1);
+        if (filho.getFolha()) {
+            pai.setChave(i, dir.getChave(0));
+        }
+    }
+
+    /**
+     * Junta(merge) os filhos j e j + 1 do pai no filho j.
+     *
+     * @param pai Cópia do nó pai.
+     * @param j Posição do filho da esquerda no pai.
+     * @param esq Cópia do filho da esquerda, que recebe as chaves.
+     * @param dir Filho da direita, apenas lido.
+     */
+    private void juntar(No pai, int j, No esq, No dir) {
+        int n = esq.getN();
+        int nd = dir.getN();
+        if (esq.getFolha()) {
+            for (int k = 0; k < nd; k++) {
+                esq.setChave(n + k, dir.getChave(k));
+            }
+            esq.setN(n + nd);
+        } else {
+            esq.setChave(n, pai.getChave(j));
+            for (int k = 0; k < nd; k++) {
+                esq.setChave(n + 1 + k, dir.getChave(k));
+            }
+            for (int k = 0; k <= nd; k++) {
+                esq.setC(n + 1 + k, dir.getC(k));
+            }
+            esq.setN(n + 1 + nd);
+        }
+        // Remove o separador e o filho da direita do pai
+        int np = pai.getN();
+        for (int k = j; k < np - 1; k++) {
+            pai.setChave(k, pai.getChave(k + 1));
+        }
+        for (int k = j + 1; k < np; k++) {
+            pai.setC(k, pai.getC(k + 1));
+        }
+        pai.setC(np, null);
+        pai.setN(np - 1);
+    }
+}
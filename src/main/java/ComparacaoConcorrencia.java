@@ -0,0 +1,169 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Compara as árvores concorrentes na mesma carga de procurar e inserir.
+ *
+ * Cada árvore é pré-carregada com as mesmas chaves e cada thread executa a
+ * mesma quantidade de operações, com chaves aleatórias e uma fração de
+ * inserções. O resultado é a vazão em milhões de operações por segundo.
+ *
+ * Uso: ComparacaoConcorrencia [t] [chaves] [operações por thread]
+ * [porcentagem de inserções] [threads...]
+ *
+ */
+public class ComparacaoConcorrencia {
+
+    /**
+     * Operações comuns às árvores comparadas.
+     */
+    private interface Alvo {
+
+        /**
+         * Procura uma chave.
+         *
+         * @param k Chave a ser procurada.
+         * @return Verdadeiro se a chave está na árvore.
+         */
+        boolean procurar(int k);
+
+        /**
+         * Insere uma chave.
+         *
+         * @param k Chave a ser inserida.
+         */
+        void inserir(int k);
+    }
+
+    /**
+     * Cria uma árvore vazia do tipo informado.
+     *
+     * @param tipo Nome da árvore.
+     * @param t Grau mínimo.
+     * @return A árvore adaptada.
+     */
+    private static Alvo criar(String tipo, int t) {
+        if (tipo.equals("acoplamento")) {
+            final ArvoreBPlusConcorrente arvore = new ArvoreBPlusConcorrente(t);
+            return new Alvo() {
+                @Override
+                public boolean procurar(int k) {
+                    return arvore.procurar(k);
+                }
+
+                @Override
+                public void inserir(int k) {
+                    arvore.inserir(k);
+                }
+            };
+        } else if (tipo.equals("b-link")) {
+            final ArvoreBPlusBLink arvore = new ArvoreBPlusBLink(t);
+            return new Alvo() {
+                @Override
+                public boolean procurar(int k) {
+                    return arvore.procurar(k);
+                }
+
+                @Override
+                public void inserir(int k) {
+                    arvore.inserir(k);
+                }
+            };
+        } else {
+            final ArvoreBPlusOtimista arvore = new ArvoreBPlusOtimista(t);
+            return new Alvo() {
+                @Override
+                public boolean procurar(int k) {
+                    return arvore.procurar(k);
+                }
+
+                @Override
+                public void inserir(int k) {
+                    arvore.inserir(k);
+                }
+            };
+        }
+    }
+
+    /**
+     * Executa a carga em uma árvore.
+     *
+     * @param alvo Árvore pré-carregada.
+     * @param threads Quantidade de threads.
+     * @param operacoes Operações por thread.
+     * @param insercoes Porcentagem de inserções.
+     * @param limite As chaves são sorteadas em [0, limite).
+     * @return A vazão em milhões de operações por segundo.
+     * @throws InterruptedException Se a espera pelas threads for interrompida.
+     */
+    private static double executar(final Alvo alvo, int threads, final int operacoes, final int insercoes,
+            final int limite) throws InterruptedException {
+        final CountDownLatch largada = new CountDownLatch(1);
+        List<Thread> lista = new ArrayList<>();
+        for (int j = 0; j < threads; j++) {
+            final long semente = j;
+            Thread thread = new Thread(() -> {
+                Random aleatorio = new Random(semente);
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < operacoes; i++) {
+                    int k = aleatorio.nextInt(limite);
+                    if (aleatorio.nextInt(100) < insercoes) {
+                        alvo.inserir(k);
+                    } else {
+                        alvo.procurar(k);
+                    }
+                }
+            });
+            thread.start();
+            lista.add(thread);
+        }
+        long inicio = System.nanoTime();
+        largada.countDown();
+        for (Thread thread : lista) {
+            thread.join();
+        }
+        long duracao = System.nanoTime() - inicio;
+        return (double) threads * operacoes * 1000 / duracao;
+    }
+
+    /**
+     * Método principal.
+     *
+     * @param args Parâmetros da comparação.
+     * @throws InterruptedException Se a espera pelas threads for interrompida.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int t = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int chaves = args.length > 1 ? Integer.parseInt(args[1]) : 1000000;
+        int operacoes = args.length > 2 ? Integer.parseInt(args[2]) : 1000000;
+        int insercoes = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        int[] threads = {1, 2, 4, 8};
+        if (args.length > 4) {
+            threads = new int[args.length - 4];
+            for (int i = 4; i < args.length; i++) {
+                threads[i - 4] = Integer.parseInt(args[i]);
+            }
+        }
+        String[] tipos = {"acoplamento", "b-link", "otimista"};
+        System.out.println("Árvore\tThreads\tMops/s");
+        for (String tipo : tipos) {
+            for (int n : threads) {
+                Alvo alvo = criar(tipo, t);
+                Random aleatorio = new Random(42);
+                for (int i = 0; i < chaves; i++) {
+                    alvo.inserir(aleatorio.nextInt(2 * chaves));
+                }
+                // Aquecimento
+                executar(alvo, n, operacoes / 10, insercoes, 2 * chaves);
+                double vazao = executar(alvo, n, operacoes, insercoes, 2 * chaves);
+                System.out.printf("%s\t%d\t%.2f%n", tipo, n, vazao);
+            }
+        }
+    }
+}
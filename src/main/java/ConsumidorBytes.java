@@ -0,0 +1,18 @@
+/**
+ * Recebe as chaves byte[] de uma consulta por intervalo sem cópia.
+ *
+ * A chave é o trecho dados[inicio .. inicio + tamanho - 1] do vetor do nó,
+ * válido somente durante a chamada.
+ */
+@FunctionalInterface
+public interface ConsumidorBytes {
+
+    /**
+     * Recebe uma chave do intervalo.
+     *
+     * @param dados Vetor de bytes do nó.
+     * @param inicio Posição do primeiro byte da chave.
+     * @param tamanho Quantidade de bytes da chave.
+     */
+    void aceitar(byte[] dados, int inicio, int tamanho);
+}
@@ -0,0 +1,17 @@
+/**
+ * Recebe os pares chave → valor de uma consulta por intervalo no mapa de
+ * objetos, sem conversão da chave para objeto.
+ *
+ * @param <V> Tipo dos valores.
+ */
+@FunctionalInterface
+public interface ConsumidorChaveValor<V> {
+
+    /**
+     * Recebe um par do intervalo.
+     *
+     * @param chave Chave do par.
+     * @param valor Valor associado à chave.
+     */
+    void aceitar(int chave, V valor);
+}
@@ -0,0 +1,15 @@
+/**
+ * Recebe os pares chave → valor de uma consulta por intervalo no mapa de
+ * valores long, sem conversão para objetos.
+ */
+@FunctionalInterface
+public interface ConsumidorChaveValorLong {
+
+    /**
+     * Recebe um par do intervalo.
+     *
+     * @param chave Chave do par.
+     * @param valor Valor associado à chave.
+     */
+    void aceitar(int chave, long valor);
+}
@@ -0,0 +1,637 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Executa cargas de trabalho na ArvoreBPlus pela linha de comando, sem
+ * interface gráfica.
+ *
+ * A carga é uma MisturaOperacoes executada por uma ou mais threads durante
+ * um aquecimento, que não é medido, e depois durante a duração informada.
+ * Com uma taxa alvo, cada thread agenda as operações em intervalos fixos e
+ * a latência é medida a partir do instante agendado, e não do instante em
+ * que a operação começou, assim os atrasos acumulados quando a árvore não
+ * acompanha a taxa aparecem nos percentis (omissão coordenada). Com mais
+ * de uma thread, a árvore é protegida por uma trava de leitura/escrita:
+ * procurar e intervalo usam a trava de leitura e as demais operações a de
+ * escrita.
+ *
+ * Ao final são mostradas a vazão e as latências de cada operação e a forma
+ * da árvore.
+ *
+ * A carga também pode vir de um rastro gravado em arquivo, com uma operação
+ * por linha: "procurar k", "inserir k", "remover k", "atualizar k novo" ou
+ * "intervalo k quantidade". Linhas vazias ou iniciadas por # são
+ * ignoradas. O rastro é executado uma vez, com as mesmas threads, taxa e
+ * aquecimento; a duração é ignorada. A opção --gerar grava um rastro a
+ * partir da mistura, sem executá-lo.
+ *
+ * Uso: DriverCarga [--opção=valor...]
+ *
+ * Opções: --t (grau mínimo, 32), --t-folha (grau mínimo das folhas, igual
+ * a --t), --registros (registros pré-carregados, 1000000), --carga (carga
+ * padrão do YCSB, de A a F), --procurar, --inserir, --remover, --atualizar,
+ * --intervalo (porcentagens de cada operação, substituem as da carga),
+ * --distribuicao (sequencial, uniforme, zipf, recente ou agrupada),
+ * --comprimento-intervalo (100), --threads (1),
+ * --aquecimento (segundos, 5), --duracao (segundos, 30), --taxa (operações
+ * por segundo de todas as threads, 0 para sem limite), --semente (42),
+ * --rastro (arquivo a executar), --gerar (arquivo a gravar) e --operacoes
+ * (operações gravadas, 1000000).
+ *
+ * Exemplo: DriverCarga --carga=B --threads=4 --taxa=200000 --duracao=60
+ *
+ */
+public class DriverCarga {
+
+    /**
+     * Antecedência com que a espera pelo instante agendado deixa de
+     * suspender a thread e passa a apenas ceder o processador, porque
+     * LockSupport.parkNanos costuma acordar dezenas de microssegundos
+     * depois do pedido.
+     */
+    private static final long ANTECEDENCIA_ESPERA = TimeUnit.MICROSECONDS.toNanos(100);
+
+    /**
+     * Nomes das opções reconhecidas.
+     */
+    private static final String[] OPCOES = {"t", "t-folha", "registros", "carga", "procurar", "inserir", "remover",
+        "atualizar", "intervalo", "distribuicao", "comprimento-intervalo", "threads", "aquecimento", "duracao",
+        "taxa", "semente", "rastro", "gerar", "operacoes"};
+
+    /**
+     * Árvore sob carga, com a trava usada quando há mais de uma thread.
+     */
+    private static final class Alvo {
+
+        /**
+         * Árvore sob carga.
+         */
+        private final ArvoreBPlus arvore;
+
+        /**
+         * Trava da árvore ou null com uma só thread.
+         */
+        private final ReentrantReadWriteLock trava;
+
+        /**
+         * Construtor com parâmetros.
+         *
+         * @param arvore Árvore sob carga.
+         * @param threads Quantidade de threads.
+         */
+        Alvo(ArvoreBPlus arvore, int threads) {
+            this.arvore = arvore;
+            this.trava = threads > 1 ? new ReentrantReadWriteLock() : null;
+        }
+
+        /**
+         * Executa uma operação.
+         *
+         * @param operacao Operação a ser executada.
+         * @param chave Chave da operação.
+         * @param argumento Nova chave de atualizar ou quantidade de chaves
+         * de intervalo.
+         * @return Um resultado da operação, para que ela não seja descartada.
+         */
+        int executar(MisturaOperacoes.Operacao operacao, int chave, int argumento) {
+            boolean leitura = operacao == MisturaOperacoes.Operacao.PROCURAR
+                    || operacao == MisturaOperacoes.Operacao.INTERVALO;
+            if (trava != null) {
+                if (leitura) {
+                    trava.readLock().lock();
+                } else {
+                    trava.writeLock().lock();
+                }
+            }
+            try {
+                switch (operacao) {
+                    case PROCURAR:
+                        return arvore.procurar(chave) != null ? 1 : 0;
+                    case INSERIR:
+                        arvore.inserir(chave);
+                        return 1;
+                    case REMOVER:
+                        return arvore.remover(chave) ? 1 : 0;
+                    case ATUALIZAR:
+                        return arvore.atualizar(chave, argumento) ? 1 : 0;
+                    default:
+                        PrimitiveIterator.OfInt it = arvore.intervalo(chave, Integer.MAX_VALUE);
+                        int lidas = 0;
+                        while (lidas < argumento && it.hasNext()) {
+                            it.nextInt();
+                            lidas++;
+                        }
+                        return lidas;
+                }
+            } finally {
+                if (trava != null) {
+                    if (leitura) {
+                        trava.readLock().unlock();
+                    } else {
+                        trava.writeLock().unlock();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Fonte das operações de uma thread: a mistura ou o rastro.
+     */
+    private interface Fonte {
+
+        /**
+         * Avança para a próxima operação.
+         *
+         * @return A operação ou null se não houver mais operações.
+         */
+        MisturaOperacoes.Operacao proxima();
+
+        /**
+         * Recuperador da chave.
+         *
+         * @return A chave da operação atual.
+         */
+        int getChave();
+
+        /**
+         * Recuperador do argumento.
+         *
+         * @return O argumento da operação atual.
+         */
+        int getArgumento();
+    }
+
+    /**
+     * Rastro de operações lido de um arquivo, compartilhado pelas threads.
+     */
+    private static final class Rastro {
+
+        /**
+         * Operações do rastro.
+         */
+        private final MisturaOperacoes.Operacao[] operacoes;
+
+        /**
+         * Chaves das operações.
+         */
+        private final int[] chaves;
+
+        /**
+         * Argumentos das operações.
+         */
+        private final int[] argumentos;
+
+        /**
+         * Próxima operação a ser executada por alguma thread.
+         */
+        private final AtomicInteger proxima = new AtomicInteger();
+
+        /**
+         * Lê o rastro de um arquivo.
+         *
+         * @param arquivo Arquivo do rastro.
+         * @throws IOException Se a leitura falhar.
+         */
+        Rastro(Path arquivo) throws IOException {
+            List<MisturaOperacoes.Operacao> lidas = new ArrayList<>();
+            List<int[]> valores = new ArrayList<>();
+            try (BufferedReader leitor = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+                String linha;
+                int numero = 0;
+                while ((linha = leitor.readLine()) != null) {
+                    numero++;
+                    linha = linha.trim();
+                    if (linha.isEmpty() || linha.startsWith("#")) {
+                        continue;
+                    }
+                    String[] partes = linha.split("\\s+");
+                    try {
+                        MisturaOperacoes.Operacao operacao = MisturaOperacoes.Operacao.deNome(partes[0]);
+                        boolean comArgumento = operacao == MisturaOperacoes.Operacao.ATUALIZAR
+                                || operacao == MisturaOperacoes.Operacao.INTERVALO;
+                        if (partes.length != (comArgumento ? 3 : 2)) {
+                            throw new IllegalArgumentException("Quantidade de valores inválida");
+                        }
+                        int chave = Integer.parseInt(partes[1]);
+                        int argumento = comArgumento ? Integer.parseInt(partes[2]) : 0;
+                        lidas.add(operacao);
+                        valores.add(new int[]{chave, argumento});
+                    } catch (IllegalArgumentException e) {
+                        throw new IOException("Linha " + numero + " inválida no rastro: " + linha, e);
+                    }
+                }
+            }
+            this.operacoes = lidas.toArray(new MisturaOperacoes.Operacao[0]);
+            this.chaves = new int[valores.size()];
+            this.argumentos = new int[valores.size()];
+            for (int i = 0; i < valores.size(); i++) {
+                chaves[i] = valores.get(i)[0];
+                argumentos[i] = valores.get(i)[1];
+            }
+        }
+
+        /**
+         * Retorna a quantidade de operações.
+         *
+         * @return A quantidade de operações do rastro.
+         */
+        int getTamanho() {
+            return operacoes.length;
+        }
+
+        /**
+         * Cria a fonte de operações de uma thread.
+         *
+         * @return A fonte criada.
+         */
+        Fonte fonte() {
+            return new Fonte() {
+                private int atual;
+
+                @Override
+                public MisturaOperacoes.Operacao proxima() {
+                    atual = proxima.getAndIncrement();
+                    return atual < operacoes.length ? operacoes[atual] : null;
+                }
+
+                @Override
+                public int getChave() {
+                    return chaves[atual];
+                }
+
+                @Override
+                public int getArgumento() {
+                    return argumentos[atual];
+                }
+            };
+        }
+    }
+
+    /**
+     * Cria a fonte de operações de uma thread a partir da mistura.
+     *
+     * @param mistura Mistura de operações.
+     * @param semente Semente da thread.
+     * @return A fonte criada.
+     */
+    private static Fonte fonte(MisturaOperacoes mistura, long semente) {
+        final MisturaOperacoes.Gerador gerador = mistura.gerador(semente);
+        return new Fonte() {
+            @Override
+            public MisturaOperacoes.Operacao proxima() {
+                return gerador.proxima();
+            }
+
+            @Override
+            public int getChave() {
+                return gerador.getChave();
+            }
+
+            @Override
+            public int getArgumento() {
+                return gerador.getArgumento();
+            }
+        };
+    }
+
+    /**
+     * Lê as opções da linha de comando.
+     *
+     * @param args Parâmetros no formato --opção=valor.
+     * @return As opções lidas, pelo nome.
+     */
+    private static Map<String, String> lerOpcoes(String[] args) {
+        Map<String, String> opcoes = new HashMap<>();
+        for (String arg : args) {
+            int igual = arg.indexOf('=');
+            if (!arg.startsWith("--") || igual < 0) {
+                throw new IllegalArgumentException("Parâmetro inválido, use --opção=valor: " + arg);
+            }
+            String nome = arg.substring(2, igual);
+            boolean conhecida = false;
+            for (String opcao : OPCOES) {
+                conhecida = conhecida || opcao.equals(nome);
+            }
+            if (!conhecida) {
+                throw new IllegalArgumentException("Opção desconhecida: " + nome);
+            }
+            opcoes.put(nome, arg.substring(igual + 1));
+        }
+        return opcoes;
+    }
+
+    /**
+     * Lê uma opção inteira.
+     *
+     * @param opcoes Opções lidas.
+     * @param nome Nome da opção.
+     * @param padrao Valor usado se a opção não foi informada.
+     * @return O valor da opção.
+     */
+    private static int inteiro(Map<String, String> opcoes, String nome, int padrao) {
+        String valor = opcoes.get(nome);
+        return valor == null ? padrao : Integer.parseInt(valor);
+    }
+
+    /**
+     * Monta a mistura de operações a partir das opções.
+     *
+     * Sem --carga e sem porcentagens, usa a carga A do YCSB.
+     *
+     * @param opcoes Opções lidas.
+     * @param registros Quantidade de registros pré-carregados.
+     * @return A mistura montada.
+     */
+    private static MisturaOperacoes mistura(Map<String, String> opcoes, int registros) {
+        MisturaOperacoes.Operacao[] operacoes = MisturaOperacoes.Operacao.values();
+        boolean algumaPorcentagem = false;
+        for (MisturaOperacoes.Operacao operacao : operacoes) {
+            algumaPorcentagem = algumaPorcentagem || opcoes.containsKey(operacao.getNome());
+        }
+        String carga = opcoes.get("carga");
+        if (carga == null && !algumaPorcentagem) {
+            carga = "A";
+        }
+        if (carga != null && carga.length() != 1) {
+            throw new IllegalArgumentException("Carga inválida: " + carga);
+        }
+        int[] porcentagens = carga != null ? MisturaOperacoes.porcentagensCarga(carga.charAt(0))
+                : new int[operacoes.length];
+        for (MisturaOperacoes.Operacao operacao : operacoes) {
+            porcentagens[operacao.ordinal()] = inteiro(opcoes, operacao.getNome(), porcentagens[operacao.ordinal()]);
+        }
+        MisturaOperacoes.Distribuicao distribuicao = carga != null
+                ? MisturaOperacoes.distribuicaoCarga(carga.charAt(0)) : MisturaOperacoes.Distribuicao.UNIFORME;
+        if (opcoes.containsKey("distribuicao")) {
+            distribuicao = MisturaOperacoes.Distribuicao.valueOf(opcoes.get("distribuicao").toUpperCase());
+        }
+        return new MisturaOperacoes(porcentagens, distribuicao, registros,
+                inteiro(opcoes, "comprimento-intervalo", 100));
+    }
+
+    /**
+     * Grava um rastro gerado pela mistura.
+     *
+     * @param mistura Mistura de operações.
+     * @param semente Semente do gerador.
+     * @param quantidade Quantidade de operações.
+     * @param arquivo Arquivo a ser gravado.
+     * @throws IOException Se a gravação falhar.
+     */
+    private static void gerar(MisturaOperacoes mistura, long semente, int quantidade, Path arquivo)
+            throws IOException {
+        MisturaOperacoes.Gerador gerador = mistura.gerador(semente);
+        try (BufferedWriter escritor = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8)) {
+            escritor.write("# " + mistura.getDistribuicao().name().toLowerCase());
+            escritor.newLine();
+            for (int i = 0; i < quantidade; i++) {
+                MisturaOperacoes.Operacao operacao = gerador.proxima();
+                escritor.write(operacao.getNome());
+                escritor.write(' ');
+                escritor.write(Integer.toString(gerador.getChave()));
+                if (operacao == MisturaOperacoes.Operacao.ATUALIZAR
+                        || operacao == MisturaOperacoes.Operacao.INTERVALO) {
+                    escritor.write(' ');
+                    escritor.write(Integer.toString(gerador.getArgumento()));
+                }
+                escritor.newLine();
+            }
+        }
+    }
+
+    /**
+     * Executa a carga e retorna a duração medida.
+     *
+     * Cada thread registra as latências em histogramas próprios, somados em
+     * latencias ao final, para não disputar os contadores.
+     *
+     * @param alvo Árvore sob carga.
+     * @param fontes Fonte de operações de cada thread.
+     * @param aquecimento Duração do aquecimento em nanossegundos.
+     * @param duracao Duração da medição em nanossegundos ou Long.MAX_VALUE
+     * para executar até o fim das fontes.
+     * @param taxa Operações por segundo de todas as threads ou 0.
+     * @param latencias Histograma de cada operação, em nanossegundos.
+     * @return A duração da medição em nanossegundos.
+     * @throws InterruptedException Se a espera pelas threads for interrompida.
+     */
+    private static long executar(final Alvo alvo, List<Fonte> fontes, long aquecimento, long duracao,
+            double taxa, final Histograma[] latencias) throws InterruptedException {
+        final int threads = fontes.size();
+        final long periodo = taxa > 0 ? (long) (threads * 1e9 / taxa) : 0;
+        final CountDownLatch largada = new CountDownLatch(1);
+        final long[] inicio = new long[1];
+        final long[] termino = new long[threads];
+        final Histograma[][] proprios = new Histograma[threads][];
+        final int[] resultados = new int[threads];
+        List<Thread> lista = new ArrayList<>();
+        for (int j = 0; j < threads; j++) {
+            final int indice = j;
+            final Fonte fonte = fontes.get(j);
+            Thread thread = new Thread(() -> {
+                Histograma[] h = new Histograma[latencias.length];
+                for (int i = 0; i < h.length; i++) {
+                    h[i] = new Histograma();
+                }
+                proprios[indice] = h;
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long inicioMedicao = inicio[0] + aquecimento;
+                long fim = duracao == Long.MAX_VALUE ? Long.MAX_VALUE : inicioMedicao + duracao;
+                long agendado = System.nanoTime();
+                int resultado = 0;
+                long agora = agendado;
+                while (agora < fim) {
+                    long partida;
+                    if (periodo > 0) {
+                        agendado += periodo;
+                        long espera;
+                        while ((espera = agendado - System.nanoTime()) > 0) {
+                            if (espera > ANTECEDENCIA_ESPERA) {
+                                LockSupport.parkNanos(espera - ANTECEDENCIA_ESPERA);
+                            } else {
+                                Thread.yield();
+                            }
+                        }
+                        partida = agendado;
+                    } else {
+                        partida = System.nanoTime();
+                    }
+                    MisturaOperacoes.Operacao operacao = fonte.proxima();
+                    if (operacao == null) {
+                        break;
+                    }
+                    resultado += alvo.executar(operacao, fonte.getChave(), fonte.getArgumento());
+                    agora = System.nanoTime();
+                    if (partida >= inicioMedicao) {
+                        h[operacao.ordinal()].registrar(agora - partida);
+                    }
+                }
+                termino[indice] = System.nanoTime();
+                resultados[indice] = resultado;
+            });
+            thread.start();
+            lista.add(thread);
+        }
+        inicio[0] = System.nanoTime();
+        largada.countDown();
+        long ultimo = inicio[0];
+        for (int j = 0; j < threads; j++) {
+            lista.get(j).join();
+            ultimo = Math.max(ultimo, termino[j]);
+            for (int i = 0; i < latencias.length; i++) {
+                latencias[i].somar(proprios[j][i]);
+            }
+        }
+        return Math.max(0, ultimo - inicio[0] - aquecimento);
+    }
+
+    /**
+     * Mostra a vazão e as latências de cada operação.
+     *
+     * @param latencias Histograma de cada operação, em nanossegundos.
+     * @param duracao Duração da medição em nanossegundos.
+     */
+    private static void relatar(Histograma[] latencias, long duracao) {
+        double segundos = duracao / 1e9;
+        System.out.printf("Duração medida: %.2f s%n", segundos);
+        System.out.println("Operação\tQtde\tVazão(op/s)\tMédia(us)\tp50(us)\tp99(us)\tp999(us)\tMáx(us)");
+        Histograma total = new Histograma();
+        for (MisturaOperacoes.Operacao operacao : MisturaOperacoes.Operacao.values()) {
+            Histograma h = latencias[operacao.ordinal()];
+            if (h.getQuantidade() > 0) {
+                relatar(operacao.getNome(), h, segundos);
+                total.somar(h);
+            }
+        }
+        relatar("total", total, segundos);
+    }
+
+    /**
+     * Mostra a linha de uma operação.
+     *
+     * @param nome Nome da operação.
+     * @param h Histograma de latências em nanossegundos.
+     * @param segundos Duração da medição em segundos.
+     */
+    private static void relatar(String nome, Histograma h, double segundos) {
+        long quantidade = h.getQuantidade();
+        System.out.printf("%s\t%d\t%.0f\t%.2f\t%.2f\t%.2f\t%.2f\t%.2f%n", nome, quantidade,
+                segundos > 0 ? quantidade / segundos : 0.0, h.getMedia() / 1e3, h.percentil(50) / 1e3,
+                h.percentil(99) / 1e3, h.percentil(99.9) / 1e3, h.getMaximo() / 1e3);
+    }
+
+    /**
+     * Conta os nós de uma sub-árvore.
+     *
+     * @param no Raiz da sub-árvore.
+     * @return A quantidade de nós.
+     */
+    private static int contarNos(No no) {
+        if (no == null) {
+            return 0;
+        }
+        int total = 1;
+        if (!no.getFolha()) {
+            for (int i = 0; i <= no.getN(); i++) {
+                total += contarNos(no.getC(i));
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Mostra a forma da árvore.
+     *
+     * @param arvore Árvore a ser descrita.
+     */
+    private static void relatarForma(ArvoreBPlus arvore) {
+        int folhas = 0;
+        No no = arvore.getRaiz();
+        while (no != null && !no.getFolha()) {
+            no = no.getC(0);
+        }
+        for (; no != null; no = no.getProximo()) {
+            folhas++;
+        }
+        int chaves = arvore.tamanho();
+        double ocupacao = folhas == 0 ? 0 : 100.0 * chaves / ((long) folhas * (2 * arvore.getTFolha() - 1));
+        System.out.printf("Árvore: t %d/%d, altura %d, %d nós, %d folhas, %d chaves, ocupação das folhas %.1f%%%n",
+                arvore.getT(), arvore.getTFolha(), arvore.getAltura(), contarNos(arvore.getRaiz()), folhas, chaves, ocupacao);
+    }
+
+    /**
+     * Método principal.
+     *
+     * @param args Opções no formato --opção=valor.
+     * @throws IOException Se a leitura ou a gravação do rastro falhar.
+     * @throws InterruptedException Se a espera pelas threads for interrompida.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> opcoes = lerOpcoes(args);
+        int registros = inteiro(opcoes, "registros", 1000000);
+        long semente = inteiro(opcoes, "semente", 42);
+        MisturaOperacoes mistura = mistura(opcoes, registros);
+        if (opcoes.containsKey("gerar")) {
+            gerar(mistura, semente, inteiro(opcoes, "operacoes", 1000000), Paths.get(opcoes.get("gerar")));
+            return;
+        }
+        int threads = inteiro(opcoes, "threads", 1);
+        if (threads < 1) {
+            throw new IllegalArgumentException("Quantidade de threads inválida: " + threads);
+        }
+        int t = inteiro(opcoes, "t", 32);
+        ArvoreBPlus arvore = new ArvoreBPlus(t, inteiro(opcoes, "t-folha", t), EstrategiaBusca.BINARIA, false);
+        int[] chaves = new int[registros];
+        for (int i = 0; i < registros; i++) {
+            chaves[i] = mistura.chave(i);
+        }
+        arvore.inserirLote(chaves);
+        List<Fonte> fontes = new ArrayList<>();
+        long duracao;
+        if (opcoes.containsKey("rastro")) {
+            Rastro rastro = new Rastro(Paths.get(opcoes.get("rastro")));
+            System.out.printf("Rastro: %d operações%n", rastro.getTamanho());
+            for (int j = 0; j < threads; j++) {
+                fontes.add(rastro.fonte());
+            }
+            duracao = Long.MAX_VALUE;
+        } else {
+            for (int j = 0; j < threads; j++) {
+                fontes.add(fonte(mistura, semente + j));
+            }
+            duracao = TimeUnit.SECONDS.toNanos(inteiro(opcoes, "duracao", 30));
+        }
+        long aquecimento = TimeUnit.SECONDS.toNanos(inteiro(opcoes, "aquecimento", 5));
+        Histograma[] latencias = new Histograma[MisturaOperacoes.Operacao.values().length];
+        for (int i = 0; i < latencias.length; i++) {
+            latencias[i] = new Histograma();
+        }
+        System.out.printf("Carga: %d registros, distribuição %s, %d threads%n", registros,
+                mistura.getDistribuicao().name().toLowerCase(), threads);
+        relatarForma(arvore);
+        long medida = executar(new Alvo(arvore, threads), fontes, aquecimento, duracao,
+                inteiro(opcoes, "taxa", 0), latencias);
+        relatar(latencias, medida);
+        relatarForma(arvore);
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ *
+ * Estratégia de busca das chaves dentro de um nó da árvore B+.
+ *
+ * Todas as estratégias trabalham sobre o vetor ordenado de chaves do nó e
+ * devolvem o mesmo resultado, variando apenas a forma de percorrer o vetor.
+ * Cada instância de ArvoreBPlus escolhe a sua estratégia, permitindo comparar
+ * o desempenho de cada uma com a distribuição de chaves real.
+ *
+ */
+public enum EstrategiaBusca {
+
+    /**
+     * Percorre as chaves uma a uma, O(t) por nó.
+     */
+    LINEAR {
+        @Override
+        public int limiteInferior(int[] chave, int n, int k) {
+            int i = 0;
+            while (i < n && chave[i] < k) {
+                i = i + 1;
+            }
+            return i;
+        }
+    },
+    /**
+     * Busca binária clássica, O(log t) por nó.
+     */
+    BINARIA {
+        @Override
+        public int limiteInferior(int[] chave, int n, int k) {
+            int inicio = 0;
+            int fim = n;
+            while (inicio < fim) {
+                int meio = (inicio + fim) >>> 1;
+                if (chave[meio] < k) {
+                    inicio = meio + 1;
+                } else {
+                    fim = meio;
+                }
+            }
+            return inicio;
+        }
+    },
+    /**
+     * Busca binária sem desvios.
+     *
+     * O laço executa sempre log2(n) iterações e a escolha da metade é feita
+     * com uma expressão condicional que o compilador JIT transforma em
+     * movimentação condicional (cmov), evitando erros de predição de desvio.
+     */
+    BINARIA_SEM_DESVIO {
+        @Override
+        public int limiteInferior(int[] chave, int n, int k) {
+            if (n == 0) {
+                return 0;
+            }
+            int base = 0;
+            int tamanho = n;
+            while (tamanho > 1) {
+                int metade = tamanho >>> 1;
+                base = (chave[base + metade] < k) ? base + metade : base;
+                tamanho = tamanho - metade;
+            }
+            return base + ((chave[base] < k) ? 1 : 0);
+        }
+    },
+    /**
+     * Busca vetorial.
+     *
+     * Reduz o intervalo com busca binária até um bloco de BLOCO_VETORIAL
+     * chaves e depois conta, sem desvios, quantas chaves do bloco são menores
+     * que k. O laço de contagem não possui dependência entre as iterações e é
+     * vetorizado (SIMD) pelo compilador JIT.
+     */
+    VETORIAL {
+        @Override
+        public int limiteInferior(int[] chave, int n, int k) {
+            int base = 0;
+            int tamanho = n;
+            while (tamanho > BLOCO_VETORIAL) {
+                int metade = tamanho >>> 1;
+                base = (chave[base + metade] < k) ? base + metade : base;
+                tamanho = tamanho - metade;
+            }
+            int cont = 0;
+            for (int i = base; i < base + tamanho; i++) {
+                cont = cont + ((chave[i] < k) ? 1 : 0);
+            }
+            return base + cont;
+        }
+    };
+
+    /**
+     * Quantidade de chaves comparadas de uma só vez pela busca vetorial.
+     */
+    private static final int BLOCO_VETORIAL = 16;
+
+    /**
+     * Procura a posição da primeira chave maior ou igual a k.
+     *
+     * Usada nas folhas para localizar uma chave ou a sua posição de inserção.
+     *
+     * @param chave Vetor ordenado de chaves.
+     * @param n Quantidade de chaves válidas no vetor.
+     * @param k Chave a ser procurada.
+     * @return A posição da primeira chave maior ou igual a k ou n.
+     */
+    public abstract int limiteInferior(int[] chave, int n, int k);
+
+    /**
+     * Procura a posição da primeira chave maior que k.
+     *
+     * Usada nos nós internos para escolher o filho a ser seguido, já que em
+     * uma árvore B+ a chave separadora é uma cópia da menor chave da
+     * sub-árvore da direita.
+     *
+     * @param chave Vetor ordenado de chaves.
+     * @param n Quantidade de chaves válidas no vetor.
+     * @param k Chave a ser procurada.
+     * @return A posição da primeira chave maior que k ou n.
+     */
+    public int limiteSuperior(int[] chave, int n, int k) {
+        if (k == Integer.MAX_VALUE) {
+            return n;
+        }
+        return limiteInferior(chave, n, k + 1);
+    }
+}
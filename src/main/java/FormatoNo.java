@@ -0,0 +1,209 @@
+
+import java.nio.ByteBuffer;
+
+/**
+ * Formato de um nó da árvore B+ dentro de uma página em disco.
+ *
+ * Mesmo formato dos slots de ArenaNos, em inteiros de 32 bits:
+ * <pre>
+ * [n] [folha] [próximo] [chave 0 .. chave 2t-2] [filho 0 .. filho 2t-1]
+ * </pre>
+ * Os campos são lidos e gravados por posição absoluta no buffer da página.
+ *
+ */
+public class FormatoNo {
+
+    /**
+     * Deslocamento do campo n.
+     */
+    private static final int N = 0;
+
+    /**
+     * Deslocamento do campo folha.
+     */
+    private static final int FOLHA = 4;
+
+    /**
+     * Deslocamento do campo próximo.
+     */
+    private static final int PROXIMO = 8;
+
+    /**
+     * Deslocamento da primeira chave.
+     */
+    private static final int CHAVES = 12;
+
+    /**
+     * Deslocamento do primeiro filho.
+     */
+    private final int filhos;
+
+    /**
+     * Construtor com parâmetro.
+     *
+     * @param t Ordem da árvore.
+     */
+    public FormatoNo(int t) {
+        this.filhos = CHAVES + 4 * (2 * t - 1);
+    }
+
+    /**
+     * Calcula a maior ordem t cujo nó cabe em uma página.
+     *
+     * Um nó ocupa 12 + 4 * (2t - 1) + 4 * 2t = 16t + 8 bytes.
+     *
+     * @param tamanhoPagina Tamanho da página em bytes.
+     * @return A ordem t da árvore.
+     */
+    public static int ordem(int tamanhoPagina) {
+        return (tamanhoPagina - 8) / 16;
+    }
+
+    /**
+     * Inicializa um nó vazio.
+     *
+     * @param pagina Buffer da página.
+     * @param folha Indica se o nó é uma folha.
+     */
+    public void iniciar(ByteBuffer pagina, boolean folha) {
+        pagina.putInt(N, 0);
+        pagina.putInt(FOLHA, folha ? 1 : 0);
+        pagina.putInt(PROXIMO, Paginador.NULO);
+    }
+
+    /**
+     * Retorna a quantidade de chaves.
+     *
+     * @param pagina Buffer da página.
+     * @return A quantidade de chaves.
+     */
+    public int getN(ByteBuffer pagina) {
+        return pagina.getInt(N);
+    }
+
+    /**
+     * Modificador da quantidade de chaves.
+     *
+     * @param pagina Buffer da página.
+     * @param n A quantidade de chaves.
+     */
+    public void setN(ByteBuffer pagina, int n) {
+        pagina.putInt(N, n);
+    }
+
+    /**
+     * Retorna se o nó é folha.
+     *
+     * @param pagina Buffer da página.
+     * @return Verdadeiro se o nó é folha.
+     */
+    public boolean getFolha(ByteBuffer pagina) {
+        return pagina.getInt(FOLHA) != 0;
+    }
+
+    /**
+     * Recuperador do próximo nó.
+     *
+     * @param pagina Buffer da página.
+     * @return A página do próximo nó ou NULO.
+     */
+    public int getProximo(ByteBuffer pagina) {
+        return pagina.getInt(PROXIMO);
+    }
+
+    /**
+     * Modificador do próximo nó.
+     *
+     * @param pagina Buffer da página.
+     * @param proximo A página do próximo nó ou NULO.
+     */
+    public void setProximo(ByteBuffer pagina, int proximo) {
+        pagina.putInt(PROXIMO, proximo);
+    }
+
+    /**
+     * Recuperador da chave.
+     *
+     * @param pagina Buffer da página.
+     * @param i Posição da chave.
+     * @return O valor da chave.
+     */
+    public int getChave(ByteBuffer pagina, int i) {
+        return pagina.getInt(CHAVES + 4 * i);
+    }
+
+    /**
+     * Modificador da chave.
+     *
+     * @param pagina Buffer da página.
+     * @param i Posição da chave.
+     * @param k Valor da chave.
+     */
+    public void setChave(ByteBuffer pagina, int i, int k) {
+        pagina.putInt(CHAVES + 4 * i, k);
+    }
+
+    /**
+     * Recuperador do nó filho.
+     *
+     * @param pagina Buffer da página.
+     * @param i Posição do filho.
+     * @return A página do filho.
+     */
+    public int getC(ByteBuffer pagina, int i) {
+        return pagina.getInt(filhos + 4 * i);
+    }
+
+    /**
+     * Modificador do nó filho.
+     *
+     * @param pagina Buffer da página.
+     * @param i Posição do filho.
+     * @param filho A página do filho.
+     */
+    public void setC(ByteBuffer pagina, int i, int filho) {
+        pagina.putInt(filhos + 4 * i, filho);
+    }
+
+    /**
+     * Procura a posição da primeira chave maior ou igual a k.
+     *
+     * @param pagina Buffer da página.
+     * @param k Chave a ser procurada.
+     * @return A posição encontrada.
+     */
+    public int procurarPosicaoChave(ByteBuffer pagina, int k) {
+        int inicio = 0;
+        int fim = pagina.getInt(N);
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (pagina.getInt(CHAVES + 4 * meio) < k) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return inicio;
+    }
+
+    /**
+     * Procura a posição da primeira chave maior que k.
+     *
+     * @param pagina Buffer da página.
+     * @param k Chave a ser procurada.
+     * @return A posição do filho a ser seguido.
+     */
+    public int procurarPosicaoFilho(ByteBuffer pagina, int k) {
+        int inicio = 0;
+        int fim = pagina.getInt(N);
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (pagina.getInt(CHAVES + 4 * meio) <= k) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return inicio;
+    }
+}
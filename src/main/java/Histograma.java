@@ -0,0 +1,191 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de valores positivos com precisão relativa fixa, no estilo do
+ * HdrHistogram.
+ *
+ * Os valores menores que 128 têm um contador cada. Acima disso, cada potência
+ * de 2 é dividida em 128 faixas iguais, assim o erro de um valor recuperado
+ * é menor que 1% em qualquer escala, de nanossegundos a horas, com cerca de
+ * 7 mil contadores. Registrar é uma soma atômica, sem travas e sem alocação,
+ * e pode ser feito por várias threads.
+ *
+ */
+public class Histograma {
+
+    /**
+     * Bits de precisão de cada potência de 2.
+     */
+    private static final int PRECISAO = 7;
+
+    /**
+     * Quantidade de faixas por potência de 2.
+     */
+    private static final int FAIXAS = 1 << PRECISAO;
+
+    /**
+     * Quantidade total de contadores, suficiente para Long.MAX_VALUE.
+     */
+    private static final int QTDE_CONTADORES = (64 - PRECISAO) * FAIXAS;
+
+    /**
+     * Contadores de cada faixa.
+     */
+    private final AtomicLongArray contadores;
+
+    /**
+     * Construtor sem parâmetros.
+     */
+    public Histograma() {
+        this.contadores = new AtomicLongArray(QTDE_CONTADORES);
+    }
+
+    /**
+     * Encontra o contador de um valor.
+     *
+     * @param valor Valor não negativo.
+     * @return A posição do contador.
+     */
+    private static int posicao(long valor) {
+        if (valor < FAIXAS) {
+            return (int) valor;
+        }
+        int expoente = 63 - Long.numberOfLeadingZeros(valor);
+        int deslocamento = expoente - PRECISAO;
+        // Faixa dentro da potência de 2, entre FAIXAS e 2 * FAIXAS - 1
+        int faixa = (int) (valor >>> deslocamento);
+        return (deslocamento + 1) * FAIXAS + faixa - FAIXAS;
+    }
+
+    /**
+     * Encontra o maior valor equivalente de um contador.
+     *
+     * @param posicao Posição do contador.
+     * @return O maior valor que cai no contador.
+     */
+    private static long valor(int posicao) {
+        if (posicao < FAIXAS) {
+            return posicao;
+        }
+        int deslocamento = posicao / FAIXAS - 1;
+        long faixa = posicao % FAIXAS + FAIXAS;
+        return (faixa << deslocamento) + (1L << deslocamento) - 1;
+    }
+
+    /**
+     * Registra um valor.
+     *
+     * @param valor Valor a ser registrado, negativos contam como 0.
+     */
+    public void registrar(long valor) {
+        contadores.incrementAndGet(posicao(Math.max(0, valor)));
+    }
+
+    /**
+     * Soma os contadores de outro histograma a este.
+     *
+     * @param outro Histograma a ser somado.
+     */
+    public void somar(Histograma outro) {
+        for (int i = 0; i < QTDE_CONTADORES; i++) {
+            long qtde = outro.contadores.get(i);
+            if (qtde != 0) {
+                contadores.addAndGet(i, qtde);
+            }
+        }
+    }
+
+    /**
+     * Retorna uma cópia do histograma.
+     *
+     * Com registros simultâneos, cada contador é copiado em um instante
+     * diferente.
+     *
+     * @return A cópia.
+     */
+    public Histograma copiar() {
+        Histograma copia = new Histograma();
+        copia.somar(this);
+        return copia;
+    }
+
+    /**
+     * Zera todos os contadores.
+     */
+    public void zerar() {
+        for (int i = 0; i < QTDE_CONTADORES; i++) {
+            contadores.set(i, 0);
+        }
+    }
+
+    /**
+     * Retorna a quantidade de valores registrados.
+     *
+     * @return A quantidade de valores.
+     */
+    public long getQuantidade() {
+        long total = 0;
+        for (int i = 0; i < QTDE_CONTADORES; i++) {
+            total += contadores.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Retorna o maior valor registrado, com a precisão do histograma.
+     *
+     * @return O maior valor ou 0 se o histograma estiver vazio.
+     */
+    public long getMaximo() {
+        for (int i = QTDE_CONTADORES - 1; i >= 0; i--) {
+            if (contadores.get(i) != 0) {
+                return valor(i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Retorna a média dos valores registrados, com a precisão do histograma.
+     *
+     * @return A média ou 0 se o histograma estiver vazio.
+     */
+    public double getMedia() {
+        long total = 0;
+        double soma = 0;
+        for (int i = 0; i < QTDE_CONTADORES; i++) {
+            long qtde = contadores.get(i);
+            if (qtde != 0) {
+                total += qtde;
+                soma += (double) qtde * valor(i);
+            }
+        }
+        return total == 0 ? 0 : soma / total;
+    }
+
+    /**
+     * Retorna o valor do percentil informado.
+     *
+     * @param percentil Percentil entre 0 e 100, por exemplo 99.9.
+     * @return O menor valor que não é superado pela fração informada dos
+     * registros, ou 0 se o histograma estiver vazio.
+     */
+    public long percentil(double percentil) {
+        if (percentil < 0 || percentil > 100) {
+            throw new IllegalArgumentException("Percentil inválido: " + percentil);
+        }
+        long total = getQuantidade();
+        if (total == 0) {
+            return 0;
+        }
+        long alvo = Math.max(1, (long) Math.ceil(percentil / 100 * total));
+        long acumulado = 0;
+        for (int i = 0; i < QTDE_CONTADORES; i++) {
+            acumulado += contadores.get(i);
+            if (acumulado >= alvo) {
+                return valor(i);
+            }
+        }
+        return getMaximo();
+    }
+}
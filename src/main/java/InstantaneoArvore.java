@@ -0,0 +1,155 @@
+import java.util.function.IntConsumer;
+
+/**
+ * Visão imutável de uma versão de ArvoreBPlusVersionada.
+ *
+ * Os nós alcançados pela raiz de uma versão nunca mais são modificados, assim
+ * a visão pode ser lida por qualquer quantidade de threads, pelo tempo que
+ * for preciso, sem travas. Os nós de versões antigas são liberados pelo
+ * coletor de lixo quando nenhuma visão os referencia.
+ *
+ */
+public class InstantaneoArvore {
+
+    /**
+     * Nó de início da versão ou null se ela estiver vazia.
+     */
+    private final No raiz;
+
+    /**
+     * Quantidade de chaves da versão.
+     */
+    private final int tamanho;
+
+    /**
+     * Estratégia de busca das chaves dentro dos nós.
+     */
+    private final EstrategiaBusca busca;
+
+    /**
+     * Construtor com parâmetros.
+     *
+     * @param raiz Raiz da versão, que não pode mais ser modificada.
+     * @param tamanho Quantidade de chaves.
+     * @param busca Estratégia de busca das chaves dentro dos nós.
+     */
+    InstantaneoArvore(No raiz, int tamanho, EstrategiaBusca busca) {
+        this.raiz = raiz;
+        this.tamanho = tamanho;
+        this.busca = busca;
+    }
+
+    /**
+     * Recuperador de início, usado só por ArvoreBPlusVersionada para copiar
+     * o caminho de uma escrita.
+     *
+     * @return O nó do início da versão ou null.
+     */
+    No getRaiz() {
+        return raiz;
+    }
+
+    /**
+     * Retorna a quantidade de chaves da versão.
+     *
+     * @return A quantidade de chaves.
+     */
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Encontra a altura da versão.
+     *
+     * @return A altura da árvore.
+     */
+    public int getAltura() {
+        int altura = 0;
+        for (No no = raiz; no != null; no = no.getFolha() ? null : no.getC(0)) {
+            altura++;
+        }
+        return altura;
+    }
+
+    /**
+     * Procura uma chave k na versão.
+     *
+     * @param k Chave a ser procurada.
+     * @return Verdadeiro se a chave está na versão.
+     */
+    public boolean procurar(int k) {
+        return raiz != null && procurar(raiz, k);
+    }
+
+    /**
+     * Procura uma chave k em uma subárvore.
+     *
+     * Repetições de k podem ficar no filho à esquerda de um separador igual
+     * a k, então a busca volta para a esquerda enquanto o separador for k.
+     *
+     * @param no Raiz da subárvore.
+     * @param k Chave a ser procurada.
+     * @return Verdadeiro se a chave está na subárvore.
+     */
+    boolean procurar(No no, int k) {
+        if (no.getFolha()) {
+            int i = no.procurarPosicaoChave(k, busca);
+            return i < no.getN() && no.getChave(i) == k;
+        }
+        int i = no.procurarPosicaoFilho(k, busca);
+        boolean achou = procurar(no.getC(i), k);
+        while (!achou && i > 0 && no.getChave(i - 1) == k) {
+            i--;
+            achou = procurar(no.getC(i), k);
+        }
+        return achou;
+    }
+
+    /**
+     * Percorre as chaves do intervalo [lo, hi] em ordem.
+     *
+     * As versões não têm encadeamento de folhas, que obrigaria a copiar
+     * todas as folhas a cada escrita, então o percurso desce pelos filhos
+     * que cobrem o intervalo.
+     *
+     * @param lo Limite inferior do intervalo (inclusivo).
+     * @param hi Limite superior do intervalo (inclusivo).
+     * @param consumidor Recebe cada chave encontrada no intervalo.
+     * @return A quantidade de chaves encontradas.
+     */
+    public int intervalo(int lo, int hi, IntConsumer consumidor) {
+        if (raiz == null || lo > hi) {
+            return 0;
+        }
+        return intervalo(raiz, lo, hi, consumidor);
+    }
+
+    /**
+     * Percorre as chaves do intervalo [lo, hi] em uma subárvore.
+     *
+     * @param no Raiz da subárvore.
+     * @param lo Limite inferior do intervalo (inclusivo).
+     * @param hi Limite superior do intervalo (inclusivo).
+     * @param consumidor Recebe cada chave encontrada no intervalo.
+     * @return A quantidade de chaves encontradas.
+     */
+    private int intervalo(No no, int lo, int hi, IntConsumer consumidor) {
+        int cont = 0;
+        if (no.getFolha()) {
+            for (int i = no.procurarPosicaoChave(lo, busca); i < no.getN() && no.getChave(i) <= hi; i++) {
+                consumidor.accept(no.getChave(i));
+                cont = cont + 1;
+            }
+            return cont;
+        }
+        // O filho i cobre as chaves de i - 1 até i, e repetições de lo podem
+        // estar à esquerda de um separador igual a lo
+        for (int i = no.procurarPosicaoChave(lo, busca); i <= no.getN(); i++) {
+            if (i > 0 && no.getChave(i - 1) > hi) {
+                break;
+            }
+            cont = cont + intervalo(no.getC(i), lo, hi, consumidor);
+        }
+        return cont;
+    }
+}
@@ -0,0 +1,414 @@
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Log de escrita antecipada(write-ahead log) das operações de uma árvore B+.
+ *
+ * Cada operação é anexada ao log antes de ser aplicada na árvore e só é
+ * considerada durável depois que o log é sincronizado com o disco(fsync).
+ * As operações anexadas são acumuladas em memória e gravadas em grupo(group
+ * commit) por uma thread de sincronização, quando o lote atinge o tamanho
+ * configurado ou quando o intervalo de sincronização termina, assim várias
+ * operações compartilham o mesmo fsync.
+ *
+ * Formato de um registro, 13 bytes:
+ * <pre>
+ * [tipo] [chave] [nova chave] [CRC32 dos 9 bytes anteriores]
+ * </pre>
+ * Um registro incompleto ou com CRC inválido marca o fim do log, como ocorre
+ * após uma queda durante a gravação.
+ *
+ */
+public class LogEscrita {
+
+    /**
+     * Registro de inserção.
+     */
+    public static final byte INSERIR = 1;
+
+    /**
+     * Registro de remoção.
+     */
+    public static final byte REMOVER = 2;
+
+    /**
+     * Registro de atualização.
+     */
+    public static final byte ATUALIZAR = 3;
+
+    /**
+     * Tamanho de um registro em bytes.
+     */
+    static final int TAMANHO_REGISTRO = 13;
+
+    /**
+     * Canal do arquivo de log atual.
+     */
+    private FileChannel canal;
+
+    /**
+     * Posição de gravação no arquivo atual.
+     */
+    private long posicao;
+
+    /**
+     * Registros anexados e ainda não gravados.
+     */
+    private ByteBuffer pendente;
+
+    /**
+     * Buffer trocado com o pendente a cada gravação.
+     */
+    private ByteBuffer reserva;
+
+    /**
+     * Quantidade de registros pendentes.
+     */
+    private int qtdePendente;
+
+    /**
+     * Instante, em nanossegundos, do primeiro registro pendente.
+     */
+    private long inicioPendente;
+
+    /**
+     * Número de sequência do último registro anexado.
+     */
+    private long ultimo;
+
+    /**
+     * Número de sequência do último registro durável.
+     */
+    private long duravel;
+
+    /**
+     * Intervalo máximo, em nanossegundos, entre um registro e o fsync.
+     */
+    private final long intervalo;
+
+    /**
+     * Quantidade de registros que dispara o fsync sem esperar o intervalo.
+     */
+    private final int tamanhoLote;
+
+    /**
+     * Calcula o CRC dos registros.
+     */
+    private final CRC32 crc;
+
+    /**
+     * Trava da gravação no canal, obtida antes do monitor do log.
+     */
+    private final Object gravacao;
+
+    /**
+     * Thread de sincronização.
+     */
+    private final Thread sincronizador;
+
+    /**
+     * Indica se o log foi fechado.
+     */
+    private boolean fechado;
+
+    /**
+     * Falha de gravação, repassada a quem espera a durabilidade.
+     */
+    private IOException falha;
+
+    /**
+     * Construtor com parâmetros.
+     *
+     * Abre o arquivo para anexar registros a partir do tamanho informado,
+     * descartando o que houver depois dele.
+     *
+     * @param arquivo Caminho do arquivo de log.
+     * @param tamanhoValido Tamanho em bytes dos registros válidos do arquivo.
+     * @param intervaloMicros Intervalo máximo de sincronização em
+     * microssegundos, 0 para sincronizar assim que houver registros.
+     * @param tamanhoLote Quantidade de registros que dispara a sincronização.
+     * @throws IOException Se o arquivo não puder ser aberto.
+     */
+    public LogEscrita(Path arquivo, long tamanhoValido, long intervaloMicros, int tamanhoLote) throws IOException {
+        if (intervaloMicros < 0 || tamanhoLote < 1) {
+            throw new IllegalArgumentException("Parâmetros de sincronização inválidos");
+        }
+        this.canal = abrirCanal(arquivo, tamanhoValido);
+        this.posicao = tamanhoValido;
+        this.intervalo = intervaloMicros * 1000;
+        this.tamanhoLote = tamanhoLote;
+        this.pendente = ByteBuffer.allocate(TAMANHO_REGISTRO * Math.min(tamanhoLote, 1 << 16));
+        this.reserva = ByteBuffer.allocate(pendente.capacity());
+        this.crc = new CRC32();
+        this.gravacao = new Object();
+        this.sincronizador = new Thread(this::sincronizar, "log-escrita-sincronizacao");
+        this.sincronizador.setDaemon(true);
+        this.sincronizador.start();
+    }
+
+    /**
+     * Abre um arquivo de log e descarta o conteúdo inválido do final.
+     *
+     * @param arquivo Caminho do arquivo de log.
+     * @param tamanhoValido Tamanho em bytes dos registros válidos.
+     * @return O canal aberto.
+     * @throws IOException Se o arquivo não puder ser aberto.
+     */
+    private static FileChannel abrirCanal(Path arquivo, long tamanhoValido) throws IOException {
+        FileChannel novo = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (novo.size() > tamanhoValido) {
+            novo.truncate(tamanhoValido);
+            novo.force(false);
+        }
+        return novo;
+    }
+
+    /**
+     * Anexa um registro ao log.
+     *
+     * O registro ainda não é durável ao retornar, use aguardar com o número
+     * de sequência devolvido.
+     *
+     * @param tipo Tipo do registro.
+     * @param a Chave da operação.
+     * @param b Nova chave de uma atualização ou 0.
+     * @return O número de sequência do registro.
+     * @throws IOException Se o log estiver fechado ou uma gravação falhou.
+     */
+    public synchronized long anexar(byte tipo, int a, int b) throws IOException {
+        verificar();
+        if (pendente.remaining() < TAMANHO_REGISTRO) {
+            ByteBuffer maior = ByteBuffer.allocate(pendente.capacity() * 2);
+            pendente.flip();
+            maior.put(pendente);
+            pendente = maior;
+        }
+        int inicio = pendente.position();
+        pendente.put(tipo).putInt(a).putInt(b);
+        crc.reset();
+        crc.update(pendente.array(), inicio, 9);
+        pendente.putInt((int) crc.getValue());
+        if (qtdePendente == 0) {
+            inicioPendente = System.nanoTime();
+        }
+        qtdePendente++;
+        ultimo++;
+        if (qtdePendente == 1 || qtdePendente >= tamanhoLote) {
+            // Inicia a contagem do intervalo ou antecipa o lote completo
+            notifyAll();
+        }
+        return ultimo;
+    }
+
+    /**
+     * Espera o registro tornar-se durável.
+     *
+     * @param lsn Número de sequência devolvido por anexar.
+     * @throws IOException Se a gravação do log falhar.
+     */
+    public synchronized void aguardar(long lsn) throws IOException {
+        while (duravel < lsn) {
+            // Ao fechar, os pendentes ainda são gravados antes da thread terminar
+            if (falha != null) {
+                throw new IOException("Falha ao gravar o log", falha);
+            }
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrompido esperando o log");
+            }
+        }
+    }
+
+    /**
+     * Verifica se o log ainda aceita registros.
+     *
+     * @throws IOException Se o log foi fechado ou uma gravação falhou.
+     */
+    private void verificar() throws IOException {
+        if (falha != null) {
+            throw new IOException("Falha ao gravar o log", falha);
+        }
+        if (fechado) {
+            throw new IOException("Log fechado");
+        }
+    }
+
+    /**
+     * Laço da thread de sincronização.
+     */
+    private void sincronizar() {
+        while (true) {
+            synchronized (this) {
+                try {
+                    while (!fechado && !loteCompleto()) {
+                        if (qtdePendente == 0) {
+                            wait();
+                        } else {
+                            long espera = inicioPendente + intervalo - System.nanoTime();
+                            wait(Math.max(1, espera / 1000000));
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (fechado && qtdePendente == 0) {
+                    return;
+                }
+            }
+            try {
+                gravarPendentes();
+            } catch (IOException e) {
+                synchronized (this) {
+                    falha = e;
+                    notifyAll();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Verifica se os registros pendentes devem ser sincronizados.
+     *
+     * @return Verdadeiro se o lote está completo ou o intervalo terminou.
+     */
+    private boolean loteCompleto() {
+        return qtdePendente > 0
+                && (qtdePendente >= tamanhoLote || System.nanoTime() - inicioPendente >= intervalo);
+    }
+
+    /**
+     * Grava e sincroniza os registros pendentes no arquivo atual.
+     *
+     * @throws IOException Se a gravação falhar.
+     */
+    private void gravarPendentes() throws IOException {
+        synchronized (gravacao) {
+            ByteBuffer gravar;
+            long alvo;
+            synchronized (this) {
+                if (qtdePendente == 0) {
+                    return;
+                }
+                gravar = pendente;
+                pendente = reserva;
+                pendente.clear();
+                reserva = gravar;
+                qtdePendente = 0;
+                alvo = ultimo;
+            }
+            gravar.flip();
+            while (gravar.hasRemaining()) {
+                posicao += canal.write(gravar, posicao);
+            }
+            canal.force(false);
+            synchronized (this) {
+                duravel = Math.max(duravel, alvo);
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Grava os registros pendentes e passa a anexar em outro arquivo.
+     *
+     * Usado pelo ponto de controle(checkpoint): os registros do arquivo
+     * anterior ficam duráveis e todos os seguintes vão para o novo arquivo.
+     *
+     * @param arquivo Caminho do novo arquivo de log.
+     * @throws IOException Se a gravação falhar.
+     */
+    public void rotacionar(Path arquivo) throws IOException {
+        synchronized (gravacao) {
+            gravarPendentes();
+            FileChannel novo = abrirCanal(arquivo, 0);
+            canal.close();
+            canal = novo;
+            posicao = 0;
+        }
+    }
+
+    /**
+     * Grava os registros pendentes, encerra a sincronização e fecha o
+     * arquivo.
+     *
+     * @throws IOException Se a gravação falhar.
+     */
+    public void fechar() throws IOException {
+        synchronized (this) {
+            if (fechado) {
+                return;
+            }
+            fechado = true;
+            notifyAll();
+        }
+        try {
+            sincronizador.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (gravacao) {
+            canal.close();
+        }
+        synchronized (this) {
+            if (falha != null) {
+                throw new IOException("Falha ao gravar o log", falha);
+            }
+        }
+    }
+
+    /**
+     * Aplica os registros válidos de um arquivo de log na árvore.
+     *
+     * @param arquivo Caminho do arquivo de log.
+     * @param arvore Árvore que recebe as operações.
+     * @return O tamanho em bytes dos registros válidos.
+     * @throws IOException Se o arquivo não puder ser lido.
+     */
+    public static long reproduzir(Path arquivo, ArvoreBPlus arvore) throws IOException {
+        long valido = 0;
+        if (!Files.exists(arquivo)) {
+            return valido;
+        }
+        CRC32 crc = new CRC32();
+        try (FileChannel leitura = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_REGISTRO * 4096);
+            while (leitura.read(buffer) != -1) {
+                buffer.flip();
+                while (buffer.remaining() >= TAMANHO_REGISTRO) {
+                    int inicio = buffer.position();
+                    crc.reset();
+                    crc.update(buffer.array(), inicio, 9);
+                    byte tipo = buffer.get();
+                    int a = buffer.getInt();
+                    int b = buffer.getInt();
+                    if (buffer.getInt() != (int) crc.getValue()) {
+                        // Registro corrompido: fim do log
+                        return valido;
+                    }
+                    if (tipo == INSERIR) {
+                        arvore.inserir(a);
+                    } else if (tipo == REMOVER) {
+                        arvore.remover(a);
+                    } else if (tipo == ATUALIZAR) {
+                        arvore.atualizar(a, b);
+                    } else {
+                        return valido;
+                    }
+                    valido += TAMANHO_REGISTRO;
+                }
+                buffer.compact();
+            }
+        }
+        return valido;
+    }
+}
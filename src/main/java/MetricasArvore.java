@@ -0,0 +1,330 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Métricas de operações e eventos estruturais de uma árvore B+.
+ *
+ * A árvore só mede quando recebe uma instância por setMetricas; sem
+ * métricas, o custo no caminho das operações é um teste de referência
+ * nula. Os contadores podem ser lidos por outras threads enquanto a árvore
+ * é usada, por instantaneo ou pelo MBean registrado com registrar.
+ *
+ */
+public class MetricasArvore implements MetricasArvoreMBean {
+
+    /**
+     * Eventos contados.
+     */
+    public enum Contador {
+        INSERCOES, BUSCAS, REMOCOES, ATUALIZACOES, INTERVALOS, DIVISOES,
+        CRESCIMENTOS_RAIZ, COLAPSOS_RAIZ, DESCIDAS, NOS_VISITADOS, DESLOCAMENTOS
+    }
+
+    /**
+     * Operações com latência medida.
+     */
+    public enum Operacao {
+        INSERIR, PROCURAR, REMOVER, INTERVALO, INSERIR_LOTE
+    }
+
+    /**
+     * Cópia das métricas em um instante.
+     */
+    public static final class Instantaneo {
+
+        /**
+         * Valores dos contadores.
+         */
+        private final long[] contadores;
+
+        /**
+         * Cópias dos histogramas de latência.
+         */
+        private final Histograma[] latencias;
+
+        /**
+         * Construtor com parâmetros.
+         *
+         * @param contadores Valores dos contadores.
+         * @param latencias Cópias dos histogramas.
+         */
+        private Instantaneo(long[] contadores, Histograma[] latencias) {
+            this.contadores = contadores;
+            this.latencias = latencias;
+        }
+
+        /**
+         * Recuperador de um contador.
+         *
+         * @param contador Contador desejado.
+         * @return O valor do contador.
+         */
+        public long getContador(Contador contador) {
+            return contadores[contador.ordinal()];
+        }
+
+        /**
+         * Recuperador do histograma de latência de uma operação.
+         *
+         * @param operacao Operação desejada.
+         * @return O histograma, em nanossegundos.
+         */
+        public Histograma getLatencia(Operacao operacao) {
+            return latencias[operacao.ordinal()];
+        }
+    }
+
+    /**
+     * Contadores dos eventos.
+     */
+    private final LongAdder[] contadores;
+
+    /**
+     * Histogramas de latência das operações, em nanossegundos.
+     */
+    private final Histograma[] latencias;
+
+    /**
+     * Nome com que as métricas foram registradas no servidor JMX.
+     */
+    private ObjectName nome;
+
+    /**
+     * Construtor sem parâmetros.
+     */
+    public MetricasArvore() {
+        this.contadores = new LongAdder[Contador.values().length];
+        for (int i = 0; i < contadores.length; i++) {
+            contadores[i] = new LongAdder();
+        }
+        this.latencias = new Histograma[Operacao.values().length];
+        for (int i = 0; i < latencias.length; i++) {
+            latencias[i] = new Histograma();
+        }
+    }
+
+    /**
+     * Soma 1 a um contador.
+     *
+     * @param contador Contador a ser incrementado.
+     */
+    public void contar(Contador contador) {
+        contadores[contador.ordinal()].increment();
+    }
+
+    /**
+     * Soma uma quantidade a um contador.
+     *
+     * @param contador Contador a ser incrementado.
+     * @param qtde Quantidade a ser somada.
+     */
+    public void contar(Contador contador, long qtde) {
+        contadores[contador.ordinal()].add(qtde);
+    }
+
+    /**
+     * Registra a latência de uma operação.
+     *
+     * @param operacao Operação executada.
+     * @param inicio Instante do início da operação, de System.nanoTime.
+     */
+    public void registrarLatencia(Operacao operacao, long inicio) {
+        latencias[operacao.ordinal()].registrar(System.nanoTime() - inicio);
+    }
+
+    /**
+     * Retorna uma cópia das métricas atuais.
+     *
+     * @return O instantâneo das métricas.
+     */
+    public Instantaneo instantaneo() {
+        long[] valores = new long[contadores.length];
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = contadores[i].sum();
+        }
+        Histograma[] copias = new Histograma[latencias.length];
+        for (int i = 0; i < copias.length; i++) {
+            copias[i] = latencias[i].copiar();
+        }
+        return new Instantaneo(valores, copias);
+    }
+
+    /**
+     * Registra as métricas no servidor JMX da plataforma com o nome
+     * ArvoreBPlus:type=Metricas,name=&lt;nome&gt;.
+     *
+     * @param nomeArvore Nome da árvore.
+     */
+    public synchronized void registrar(String nomeArvore) {
+        try {
+            ObjectName novo = new ObjectName("ArvoreBPlus:type=Metricas,name=" + ObjectName.quote(nomeArvore));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, novo);
+            nome = novo;
+        } catch (JMException e) {
+            throw new IllegalStateException("Não foi possível registrar as métricas: " + nomeArvore, e);
+        }
+    }
+
+    /**
+     * Remove o registro das métricas do servidor JMX, se houver.
+     */
+    public synchronized void desregistrar() {
+        if (nome == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(nome);
+        } catch (JMException e) {
+            throw new IllegalStateException("Não foi possível remover o registro das métricas: " + nome, e);
+        }
+        nome = null;
+    }
+
+    @Override
+    public void zerar() {
+        for (LongAdder contador : contadores) {
+            contador.reset();
+        }
+        for (Histograma latencia : latencias) {
+            latencia.zerar();
+        }
+    }
+
+    /**
+     * Valor atual de um contador.
+     *
+     * @param contador Contador desejado.
+     * @return O valor do contador.
+     */
+    private long valor(Contador contador) {
+        return contadores[contador.ordinal()].sum();
+    }
+
+    @Override
+    public long getInsercoes() {
+        return valor(Contador.INSERCOES);
+    }
+
+    @Override
+    public long getBuscas() {
+        return valor(Contador.BUSCAS);
+    }
+
+    @Override
+    public long getRemocoes() {
+        return valor(Contador.REMOCOES);
+    }
+
+    @Override
+    public long getAtualizacoes() {
+        return valor(Contador.ATUALIZACOES);
+    }
+
+    @Override
+    public long getIntervalos() {
+        return valor(Contador.INTERVALOS);
+    }
+
+    @Override
+    public long getDivisoes() {
+        return valor(Contador.DIVISOES);
+    }
+
+    @Override
+    public long getCrescimentosRaiz() {
+        return valor(Contador.CRESCIMENTOS_RAIZ);
+    }
+
+    @Override
+    public long getColapsosRaiz() {
+        return valor(Contador.COLAPSOS_RAIZ);
+    }
+
+    @Override
+    public double getMediaNosVisitados() {
+        long descidas = valor(Contador.DESCIDAS);
+        return descidas == 0 ? 0 : (double) valor(Contador.NOS_VISITADOS) / descidas;
+    }
+
+    @Override
+    public long getDeslocamentos() {
+        return valor(Contador.DESLOCAMENTOS);
+    }
+
+    @Override
+    public long getInserirP50() {
+        return latencias[Operacao.INSERIR.ordinal()].percentil(50);
+    }
+
+    @Override
+    public long getInserirP99() {
+        return latencias[Operacao.INSERIR.ordinal()].percentil(99);
+    }
+
+    @Override
+    public long getInserirP999() {
+        return latencias[Operacao.INSERIR.ordinal()].percentil(99.9);
+    }
+
+    @Override
+    public long getProcurarP50() {
+        return latencias[Operacao.PROCURAR.ordinal()].percentil(50);
+    }
+
+    @Override
+    public long getProcurarP99() {
+        return latencias[Operacao.PROCURAR.ordinal()].percentil(99);
+    }
+
+    @Override
+    public long getProcurarP999() {
+        return latencias[Operacao.PROCURAR.ordinal()].percentil(99.9);
+    }
+
+    @Override
+    public long getRemoverP50() {
+        return latencias[Operacao.REMOVER.ordinal()].percentil(50);
+    }
+
+    @Override
+    public long getRemoverP99() {
+        return latencias[Operacao.REMOVER.ordinal()].percentil(99);
+    }
+
+    @Override
+    public long getRemoverP999() {
+        return latencias[Operacao.REMOVER.ordinal()].percentil(99.9);
+    }
+
+    @Override
+    public long getIntervaloP50() {
+        return latencias[Operacao.INTERVALO.ordinal()].percentil(50);
+    }
+
+    @Override
+    public long getIntervaloP99() {
+        return latencias[Operacao.INTERVALO.ordinal()].percentil(99);
+    }
+
+    @Override
+    public long getIntervaloP999() {
+        return latencias[Operacao.INTERVALO.ordinal()].percentil(99.9);
+    }
+
+    @Override
+    public long getInserirLoteP50() {
+        return latencias[Operacao.INSERIR_LOTE.ordinal()].percentil(50);
+    }
+
+    @Override
+    public long getInserirLoteP99() {
+        return latencias[Operacao.INSERIR_LOTE.ordinal()].percentil(99);
+    }
+
+    @Override
+    public long getInserirLoteP999() {
+        return latencias[Operacao.INSERIR_LOTE.ordinal()].percentil(99.9);
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * Interface de gerenciamento(JMX) das métricas de uma árvore B+.
+ *
+ * As latências são em nanossegundos.
+ *
+ */
+public interface MetricasArvoreMBean {
+
+    /**
+     * @return A quantidade de inserções.
+     */
+    long getInsercoes();
+
+    /**
+     * @return A quantidade de buscas.
+     */
+    long getBuscas();
+
+    /**
+     * @return A quantidade de remoções.
+     */
+    long getRemocoes();
+
+    /**
+     * @return A quantidade de atualizações.
+     */
+    long getAtualizacoes();
+
+    /**
+     * @return A quantidade de percursos de intervalo.
+     */
+    long getIntervalos();
+
+    /**
+     * @return A quantidade de nós divididos.
+     */
+    long getDivisoes();
+
+    /**
+     * @return Quantas vezes a árvore ganhou um nível.
+     */
+    long getCrescimentosRaiz();
+
+    /**
+     * @return Quantas vezes a árvore perdeu um nível.
+     */
+    long getColapsosRaiz();
+
+    /**
+     * @return A média de nós visitados por descida.
+     */
+    double getMediaNosVisitados();
+
+    /**
+     * @return A quantidade de chaves deslocadas nas folhas pelas inserções.
+     */
+    long getDeslocamentos();
+
+    /**
+     * @return O percentil 50 da latência de inserir.
+     */
+    long getInserirP50();
+
+    /**
+     * @return O percentil 99 da latência de inserir.
+     */
+    long getInserirP99();
+
+    /**
+     * @return O percentil 99,9 da latência de inserir.
+     */
+    long getInserirP999();
+
+    /**
+     * @return O percentil 50 da latência de procurar.
+     */
+    long getProcurarP50();
+
+    /**
+     * @return O percentil 99 da latência de procurar.
+     */
+    long getProcurarP99();
+
+    /**
+     * @return O percentil 99,9 da latência de procurar.
+     */
+    long getProcurarP999();
+
+    /**
+     * @return O percentil 50 da latência de remover.
+     */
+    long getRemoverP50();
+
+    /**
+     * @return O percentil 99 da latência de remover.
+     */
+    long getRemoverP99();
+
+    /**
+     * @return O percentil 99,9 da latência de remover.
+     */
+    long getRemoverP999();
+
+    /**
+     * @return O percentil 50 da latência de intervalo.
+     */
+    long getIntervaloP50();
+
+    /**
+     * @return O percentil 99 da latência de intervalo.
+     */
+    long getIntervaloP99();
+
+    /**
+     * @return O percentil 99,9 da latência de intervalo.
+     */
+    long getIntervaloP999();
+
+    /**
+     * @return O percentil 50 da latência de inserirLote, por lote.
+     */
+    long getInserirLoteP50();
+
+    /**
+     * @return O percentil 99 da latência de inserirLote, por lote.
+     */
+    long getInserirLoteP99();
+
+    /**
+     * @return O percentil 99,9 da latência de inserirLote, por lote.
+     */
+    long getInserirLoteP999();
+
+    /**
+     * Zera contadores e histogramas.
+     */
+    void zerar();
+}
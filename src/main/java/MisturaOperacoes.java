@@ -0,0 +1,433 @@
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mistura de operações no estilo do YCSB, usada pelo DriverCarga.
+ *
+ * A mistura define a porcentagem de cada operação, a distribuição das
+ * chaves acessadas e o comprimento máximo das consultas por intervalo. Os
+ * registros são identificados por números 0, 1, 2, ... e cada número é
+ * convertido em uma chave da árvore pela distribuição. Os registros
+ * pré-carregados são os de 0 a n - 1 e cada inserção cria o próximo número,
+ * por isso as chaves inseridas nunca se repetem.
+ *
+ * A mistura é compartilhada pelas threads; cada thread usa o seu próprio
+ * Gerador, com uma semente própria.
+ *
+ */
+public class MisturaOperacoes {
+
+    /**
+     * Operações de uma carga.
+     */
+    public enum Operacao {
+
+        PROCURAR("procurar"),
+        INSERIR("inserir"),
+        REMOVER("remover"),
+        ATUALIZAR("atualizar"),
+        INTERVALO("intervalo");
+
+        /**
+         * Nome da operação nos rastros e nos relatórios.
+         */
+        private final String nome;
+
+        /**
+         * Construtor com parâmetro.
+         *
+         * @param nome Nome da operação.
+         */
+        Operacao(String nome) {
+            this.nome = nome;
+        }
+
+        /**
+         * Recuperador do nome.
+         *
+         * @return O nome da operação.
+         */
+        public String getNome() {
+            return nome;
+        }
+
+        /**
+         * Encontra a operação de um nome.
+         *
+         * @param nome Nome da operação.
+         * @return A operação encontrada.
+         */
+        public static Operacao deNome(String nome) {
+            for (Operacao operacao : values()) {
+                if (operacao.nome.equals(nome)) {
+                    return operacao;
+                }
+            }
+            throw new IllegalArgumentException("Operação inválida: " + nome);
+        }
+    }
+
+    /**
+     * Distribuições das chaves acessadas.
+     */
+    public enum Distribuicao {
+
+        /**
+         * Registros acessados em ordem crescente, chave igual ao número do
+         * registro; as inserções acontecem sempre à direita.
+         */
+        SEQUENCIAL,
+        /**
+         * Todos os registros com a mesma probabilidade, chaves espalhadas.
+         */
+        UNIFORME,
+        /**
+         * Poucos registros quentes, segundo uma lei de Zipf, espalhados pela
+         * árvore.
+         */
+        ZIPF,
+        /**
+         * Registros inseridos mais recentemente são os mais acessados.
+         */
+        RECENTE,
+        /**
+         * Grupos de registros com chaves consecutivas em posições
+         * espalhadas; cada thread faz vários acessos seguidos a um grupo.
+         */
+        AGRUPADA
+    }
+
+    /**
+     * Multiplicador ímpar que espalha as chaves: multiplicar por um número
+     * ímpar módulo 2^32 é uma bijeção, assim as chaves não se repetem.
+     */
+    private static final int MULTIPLICADOR = 0x9E3779B1;
+
+    /**
+     * Expoente da distribuição de Zipf, o mesmo do YCSB.
+     */
+    private static final double TETA = 0.99;
+
+    /**
+     * Bits do deslocamento de um registro dentro do grupo em AGRUPADA.
+     */
+    private static final int BITS_GRUPO = 6;
+
+    /**
+     * Quantidade de acessos seguidos a cada grupo em AGRUPADA.
+     */
+    private static final int ACESSOS_GRUPO = 16;
+
+    /**
+     * Porcentagens acumuladas das operações, na ordem de Operacao.
+     */
+    private final int[] acumulado;
+
+    /**
+     * Distribuição das chaves.
+     */
+    private final Distribuicao distribuicao;
+
+    /**
+     * Comprimento máximo das consultas por intervalo.
+     */
+    private final int comprimentoIntervalo;
+
+    /**
+     * Próximo registro a ser inserido.
+     */
+    private final AtomicInteger proximoRegistro;
+
+    /**
+     * Quantidade de registros sobre a qual a lei de Zipf é calculada.
+     */
+    private final int itensZipf;
+
+    /**
+     * Soma de 1 / i^TETA para i de 1 a itensZipf.
+     */
+    private final double zetaN;
+
+    /**
+     * 1 + 0,5^TETA.
+     */
+    private final double zeta2;
+
+    /**
+     * Constante eta da geração de Gray et al. usada pelo YCSB.
+     */
+    private final double eta;
+
+    /**
+     * Construtor com parâmetros.
+     *
+     * @param porcentagens Porcentagem de cada operação, na ordem de
+     * Operacao, somando 100.
+     * @param distribuicao Distribuição das chaves.
+     * @param registros Quantidade de registros pré-carregados.
+     * @param comprimentoIntervalo Comprimento máximo das consultas por
+     * intervalo.
+     */
+    public MisturaOperacoes(int[] porcentagens, Distribuicao distribuicao, int registros,
+            int comprimentoIntervalo) {
+        if (porcentagens.length != Operacao.values().length) {
+            throw new IllegalArgumentException("Quantidade de porcentagens inválida: " + porcentagens.length);
+        }
+        this.acumulado = new int[porcentagens.length];
+        int soma = 0;
+        for (int i = 0; i < porcentagens.length; i++) {
+            if (porcentagens[i] < 0) {
+                throw new IllegalArgumentException("Porcentagem inválida: " + porcentagens[i]);
+            }
+            soma = soma + porcentagens[i];
+            acumulado[i] = soma;
+        }
+        if (soma != 100) {
+            throw new IllegalArgumentException("As porcentagens somam " + soma + ", e não 100");
+        }
+        if (registros < 1) {
+            throw new IllegalArgumentException("Quantidade de registros inválida: " + registros);
+        }
+        if (comprimentoIntervalo < 1) {
+            throw new IllegalArgumentException("Comprimento de intervalo inválido: " + comprimentoIntervalo);
+        }
+        this.distribuicao = distribuicao;
+        this.comprimentoIntervalo = comprimentoIntervalo;
+        this.proximoRegistro = new AtomicInteger(registros);
+        this.itensZipf = registros;
+        double soma2 = 0;
+        for (int i = 1; i <= registros; i++) {
+            soma2 += 1.0 / Math.pow(i, TETA);
+        }
+        this.zetaN = soma2;
+        this.zeta2 = 1.0 + Math.pow(0.5, TETA);
+        this.eta = (1.0 - Math.pow(2.0 / registros, 1.0 - TETA)) / (1.0 - zeta2 / zetaN);
+    }
+
+    /**
+     * Cria a mistura de uma das cargas padrão do YCSB.
+     *
+     * A: 50% procurar e 50% atualizar. B: 95% procurar e 5% atualizar. C:
+     * só procurar. D: 95% procurar e 5% inserir, com os registros recentes
+     * mais acessados. E: 95% intervalo e 5% inserir. F: 50% procurar e 50%
+     * ler e atualizar, aqui tratado como 50% atualizar. As cargas A, B, C,
+     * E e F usam a distribuição de Zipf.
+     *
+     * @param carga Letra da carga, de A a F.
+     * @return As porcentagens da carga, na ordem de Operacao.
+     */
+    public static int[] porcentagensCarga(char carga) {
+        switch (Character.toUpperCase(carga)) {
+            case 'A':
+            case 'F':
+                return new int[]{50, 0, 0, 50, 0};
+            case 'B':
+                return new int[]{95, 0, 0, 5, 0};
+            case 'C':
+                return new int[]{100, 0, 0, 0, 0};
+            case 'D':
+                return new int[]{95, 5, 0, 0, 0};
+            case 'E':
+                return new int[]{0, 5, 0, 0, 95};
+            default:
+                throw new IllegalArgumentException("Carga inválida: " + carga);
+        }
+    }
+
+    /**
+     * Retorna a distribuição de uma das cargas padrão do YCSB.
+     *
+     * @param carga Letra da carga, de A a F.
+     * @return A distribuição da carga.
+     */
+    public static Distribuicao distribuicaoCarga(char carga) {
+        porcentagensCarga(carga);
+        return Character.toUpperCase(carga) == 'D' ? Distribuicao.RECENTE : Distribuicao.ZIPF;
+    }
+
+    /**
+     * Recuperador da distribuição.
+     *
+     * @return A distribuição das chaves.
+     */
+    public Distribuicao getDistribuicao() {
+        return distribuicao;
+    }
+
+    /**
+     * Converte o número de um registro na chave da árvore.
+     *
+     * @param registro Número do registro.
+     * @return A chave do registro.
+     */
+    public int chave(int registro) {
+        switch (distribuicao) {
+            case SEQUENCIAL:
+                return registro;
+            case AGRUPADA:
+                int grupo = registro >>> BITS_GRUPO;
+                return grupo * MULTIPLICADOR << BITS_GRUPO | registro & ((1 << BITS_GRUPO) - 1);
+            default:
+                return registro * MULTIPLICADOR;
+        }
+    }
+
+    /**
+     * Sorteia uma posição segundo a lei de Zipf, 0 sendo a mais acessada.
+     *
+     * @param aleatorio Gerador de números aleatórios.
+     * @return A posição sorteada, em [0, itensZipf).
+     */
+    private int zipf(Random aleatorio) {
+        double u = aleatorio.nextDouble();
+        double uz = u * zetaN;
+        if (uz < 1.0) {
+            return 0;
+        }
+        if (uz < zeta2) {
+            return 1;
+        }
+        long posicao = (long) (itensZipf * Math.pow(eta * u - eta + 1.0, 1.0 / (1.0 - TETA)));
+        return (int) Math.min(itensZipf - 1, posicao);
+    }
+
+    /**
+     * Cria um gerador de operações para uma thread.
+     *
+     * @param semente Semente do gerador de números aleatórios.
+     * @return O gerador criado.
+     */
+    public Gerador gerador(long semente) {
+        return new Gerador(semente);
+    }
+
+    /**
+     * Gera a sequência de operações de uma thread.
+     *
+     * Depois de cada chamada a proxima, getChave e getArgumento descrevem a
+     * operação gerada: a chave, e a nova chave de atualizar ou o
+     * comprimento de intervalo.
+     */
+    public class Gerador {
+
+        /**
+         * Gerador de números aleatórios da thread.
+         */
+        private final Random aleatorio;
+
+        /**
+         * Próximo registro em SEQUENCIAL ou início do grupo em AGRUPADA.
+         */
+        private int cursor;
+
+        /**
+         * Acessos restantes ao grupo atual em AGRUPADA.
+         */
+        private int restantesGrupo;
+
+        /**
+         * Chave da última operação gerada.
+         */
+        private int chave;
+
+        /**
+         * Argumento da última operação gerada.
+         */
+        private int argumento;
+
+        /**
+         * Construtor com parâmetro.
+         *
+         * @param semente Semente do gerador de números aleatórios.
+         */
+        private Gerador(long semente) {
+            this.aleatorio = new Random(semente);
+            this.cursor = aleatorio.nextInt(itensZipf);
+        }
+
+        /**
+         * Sorteia um registro já existente segundo a distribuição.
+         *
+         * @return O número do registro.
+         */
+        private int registroExistente() {
+            int limite = proximoRegistro.get();
+            switch (distribuicao) {
+                case SEQUENCIAL:
+                    if (cursor >= limite) {
+                        cursor = 0;
+                    }
+                    return cursor++;
+                case ZIPF:
+                    // Espalha as posições quentes entre os registros
+                    return Integer.remainderUnsigned(zipf(aleatorio) * MULTIPLICADOR, limite);
+                case RECENTE:
+                    return Math.max(0, limite - 1 - zipf(aleatorio));
+                case AGRUPADA:
+                    if (restantesGrupo == 0) {
+                        cursor = aleatorio.nextInt(limite) >>> BITS_GRUPO << BITS_GRUPO;
+                        restantesGrupo = ACESSOS_GRUPO;
+                    }
+                    restantesGrupo--;
+                    int registro = cursor + aleatorio.nextInt(1 << BITS_GRUPO);
+                    return registro < limite ? registro : aleatorio.nextInt(limite);
+                default:
+                    return aleatorio.nextInt(limite);
+            }
+        }
+
+        /**
+         * Gera a próxima operação.
+         *
+         * @return A operação gerada.
+         */
+        public Operacao proxima() {
+            int sorteio = aleatorio.nextInt(100);
+            int i = 0;
+            while (sorteio >= acumulado[i]) {
+                i++;
+            }
+            Operacao operacao = Operacao.values()[i];
+            switch (operacao) {
+                case INSERIR:
+                    chave = chave(proximoRegistro.getAndIncrement());
+                    argumento = 0;
+                    break;
+                case ATUALIZAR:
+                    // O registro continua o mesmo: a chave é removida e
+                    // inserida de novo, como a gravação de um registro
+                    chave = chave(registroExistente());
+                    argumento = chave;
+                    break;
+                case INTERVALO:
+                    chave = chave(registroExistente());
+                    argumento = 1 + aleatorio.nextInt(comprimentoIntervalo);
+                    break;
+                default:
+                    chave = chave(registroExistente());
+                    argumento = 0;
+                    break;
+            }
+            return operacao;
+        }
+
+        /**
+         * Recuperador da chave.
+         *
+         * @return A chave da última operação gerada.
+         */
+        public int getChave() {
+            return chave;
+        }
+
+        /**
+         * Recuperador do argumento.
+         *
+         * @return A nova chave de atualizar ou o comprimento de intervalo da
+         * última operação gerada.
+         */
+        public int getArgumento() {
+            return argumento;
+        }
+    }
+}
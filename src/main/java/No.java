@@ -12,10 +12,22 @@ public class No {
     private int[] chave;
 
     /**
-     * Vetor dos ponteiros dos filhos(children).
+     * Vetor dos ponteiros dos filhos(children), alocado só nos nós internos.
      */
     private No[] c;
 
+    /**
+     * Quantidade de chaves da sub-árvore de cada filho, alocado só quando a
+     * árvore mantém as contagens.
+     */
+    private int[] contagem;
+
+    /**
+     * Quantidade de ocorrências de cada chave de uma folha, alocado só nas
+     * folhas de uma árvore no modo multiconjunto.
+     */
+    private int[] multiplicidade;
+
     /**
      * Próxino nó.
      */
@@ -56,8 +68,8 @@ public class No {
         this.folha = folha;
         //Aloca o vetor de chaves
         this.chave = new int[2 * t - 1];
-        //Aloca o vetor nós filhos
-        this.c = new No[2 * t];
+        //Aloca o vetor nós filhos, que uma folha não usa
+        this.c = folha ? null : new No[2 * t];
     }
 
     /**
@@ -93,7 +105,7 @@ public class No {
      * @return Nó filho da posição i do nó atual.
      */
     public No getC(int i) {
-        return c[i];
+        return c == null ? null : c[i];
     }
 
     /**
@@ -105,9 +117,63 @@ public class No {
      * @param filho Nó filho a ser atribuído no nó atual.
      */
     public void setC(int i, No filho) {
+        if (c == null) {
+            c = new No[chave.length + 1];
+        }
         c[i] = filho;
     }
 
+    /**
+     * Recuperador da contagem de um filho.
+     *
+     * @param i Posição do filho.
+     * @return A quantidade de chaves da sub-árvore do filho i.
+     */
+    public int getContagem(int i) {
+        return contagem == null ? 0 : contagem[i];
+    }
+
+    /**
+     * Modificador da contagem de um filho.
+     *
+     * O vetor de contagens é alocado na primeira modificação.
+     *
+     * @param i Posição do filho.
+     * @param qtde Quantidade de chaves da sub-árvore do filho i.
+     */
+    public void setContagem(int i, int qtde) {
+        if (contagem == null) {
+            contagem = new int[chave.length + 1];
+        }
+        contagem[i] = qtde;
+    }
+
+    /**
+     * Recuperador da multiplicidade de uma chave da folha.
+     *
+     * @param i Posição da chave.
+     * @return A quantidade de ocorrências da chave i, 1 se a folha não
+     * guardar multiplicidades.
+     */
+    public int getMultiplicidade(int i) {
+        return multiplicidade == null ? 1 : multiplicidade[i];
+    }
+
+    /**
+     * Modificador da multiplicidade de uma chave da folha.
+     *
+     * O vetor de multiplicidades é alocado na primeira modificação.
+     *
+     * @param i Posição da chave.
+     * @param qtde Quantidade de ocorrências da chave i.
+     */
+    public void setMultiplicidade(int i, int qtde) {
+        if (multiplicidade == null) {
+            multiplicidade = new int[chave.length];
+        }
+        multiplicidade[i] = qtde;
+    }
+
     /**
      * Recuperador o próximo nó.
      *
@@ -195,14 +261,34 @@ public class No {
      * @return Indica da posição no vetor.
      */
     public int procurarPosicaoChave(int k) {
-        int i = 0;
-        while ((i < n) && (chave[i] < k)) {
-            if (k == chave[i]) {
-                return i;
-            }
-            i = i + 1;
-        }
-        return i;
+        return procurarPosicaoChave(k, EstrategiaBusca.BINARIA);
+    }
+
+    /**
+     * Procurar posição da chave dentro do vetor de chaves.
+     *
+     * Retorna a posição da primeira chave maior ou igual a k.
+     *
+     * @param k Chave a ser procurada.
+     * @param busca Estratégia de busca no vetor de chaves.
+     * @return Indica da posição no vetor.
+     */
+    public int procurarPosicaoChave(int k, EstrategiaBusca busca) {
+        return busca.limiteInferior(chave, n, k);
+    }
+
+    /**
+     * Procurar o filho a ser seguido para a chave k.
+     *
+     * Retorna a posição da primeira chave maior que k, pois a chave
+     * separadora é uma cópia da menor chave do filho da direita.
+     *
+     * @param k Chave a ser procurada.
+     * @param busca Estratégia de busca no vetor de chaves.
+     * @return Indica da posição do filho.
+     */
+    public int procurarPosicaoFilho(int k, EstrategiaBusca busca) {
+        return busca.limiteSuperior(chave, n, k);
     }
 
     /**
@@ -229,7 +315,7 @@ public class No {
         chaves_str = chaves_str + "]";
 
         String filhos_str = "[";
-        for (int i = 0; i < c.length; i++) {;
+        for (int i = 0; c != null && i < c.length; i++) {;
 
             filhos_str = filhos_str + this.getC(i) + " ";
         }
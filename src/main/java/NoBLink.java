@@ -0,0 +1,215 @@
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ *
+ * Nó da árvore B-link.
+ *
+ * O conteúdo do nó é uma Versao imutável publicada por um campo volatile:
+ * quem escreve trava o nó, monta uma nova versão e a publica, assim quem lê
+ * sempre vê um conteúdo completo sem obter nenhuma trava. Cada versão guarda
+ * a ligação para o nó da direita no mesmo nível e a chave alta, o limite
+ * superior (exclusivo) das chaves do nó.
+ *
+ */
+public class NoBLink {
+
+    /**
+     * Chave alta do nó mais à direita de cada nível.
+     */
+    public static final long SEM_LIMITE = Long.MAX_VALUE;
+
+    /**
+     * Nível do nó, 0 para as folhas.
+     */
+    private final int nivel;
+
+    /**
+     * Trava obtida por quem modifica o nó.
+     */
+    private final ReentrantLock trava;
+
+    /**
+     * Versão atual do conteúdo.
+     */
+    private volatile Versao versao;
+
+    /**
+     * Conteúdo imutável de um nó.
+     */
+    public static final class Versao {
+
+        /**
+         * Chaves do nó, o tamanho do vetor é a quantidade de chaves.
+         */
+        private final int[] chave;
+
+        /**
+         * Filhos de um nó interno ou null em uma folha.
+         */
+        private final NoBLink[] c;
+
+        /**
+         * Nó à direita no mesmo nível ou null.
+         */
+        private final NoBLink direita;
+
+        /**
+         * Limite superior (exclusivo) das chaves do nó.
+         */
+        private final long alta;
+
+        /**
+         * Construtor com parâmetros.
+         *
+         * Os vetores passam a pertencer à versão e não podem mais ser
+         * modificados.
+         *
+         * @param chave Chaves do nó.
+         * @param c Filhos do nó ou null em uma folha.
+         * @param direita Nó à direita ou null.
+         * @param alta Limite superior das chaves ou SEM_LIMITE.
+         */
+        public Versao(int[] chave, NoBLink[] c, NoBLink direita, long alta) {
+            this.chave = chave;
+            this.c = c;
+            this.direita = direita;
+            this.alta = alta;
+        }
+
+        /**
+         * Retorna a quantidade de chaves.
+         *
+         * @return A quantidade de chaves.
+         */
+        public int getN() {
+            return chave.length;
+        }
+
+        /**
+         * Recuperador da chave.
+         *
+         * @param i Posição da chave.
+         * @return O valor da chave.
+         */
+        public int getChave(int i) {
+            return chave[i];
+        }
+
+        /**
+         * Recuperador do nó filho.
+         *
+         * @param i Posição do filho.
+         * @return O nó filho.
+         */
+        public NoBLink getC(int i) {
+            return c[i];
+        }
+
+        /**
+         * Recuperador do nó da direita.
+         *
+         * @return O nó à direita no mesmo nível ou null.
+         */
+        public NoBLink getDireita() {
+            return direita;
+        }
+
+        /**
+         * Recuperador da chave alta.
+         *
+         * @return O limite superior (exclusivo) das chaves do nó.
+         */
+        public long getAlta() {
+            return alta;
+        }
+
+        /**
+         * Verifica se a chave está além do nó e deve ser procurada à direita.
+         *
+         * @param k Chave procurada.
+         * @return Verdadeiro se k não é menor que a chave alta.
+         */
+        public boolean alemDoLimite(int k) {
+            return k >= alta;
+        }
+
+        /**
+         * Procura a posição da primeira chave maior ou igual a k.
+         *
+         * @param k Chave a ser procurada.
+         * @return A posição encontrada.
+         */
+        public int procurarPosicaoChave(int k) {
+            return EstrategiaBusca.BINARIA.limiteInferior(chave, chave.length, k);
+        }
+
+        /**
+         * Procura a posição da primeira chave maior que k.
+         *
+         * @param k Chave a ser procurada.
+         * @return A posição do filho a ser seguido.
+         */
+        public int procurarPosicaoFilho(int k) {
+            return EstrategiaBusca.BINARIA.limiteSuperior(chave, chave.length, k);
+        }
+    }
+
+    /**
+     * Construtor com parâmetros.
+     *
+     * @param nivel Nível do nó, 0 para as folhas.
+     * @param versao Conteúdo inicial.
+     */
+    public NoBLink(int nivel, Versao versao) {
+        this.nivel = nivel;
+        this.trava = new ReentrantLock();
+        this.versao = versao;
+    }
+
+    /**
+     * Recuperador do nível.
+     *
+     * @return O nível do nó, 0 para as folhas.
+     */
+    public int getNivel() {
+        return nivel;
+    }
+
+    /**
+     * Retorna se o nó é folha.
+     *
+     * @return Verdadeiro se o nó é folha.
+     */
+    public boolean getFolha() {
+        return nivel == 0;
+    }
+
+    /**
+     * Recuperador da trava.
+     *
+     * @return A trava de quem modifica o nó.
+     */
+    public ReentrantLock getTrava() {
+        return trava;
+    }
+
+    /**
+     * Recuperador da versão.
+     *
+     * @return A versão atual do conteúdo.
+     */
+    public Versao getVersao() {
+        return versao;
+    }
+
+    /**
+     * Publica uma nova versão do conteúdo.
+     *
+     * Deve ser chamado com o nó travado.
+     *
+     * @param versao A nova versão.
+     */
+    public void setVersao(Versao versao) {
+        this.versao = versao;
+    }
+}
@@ -0,0 +1,290 @@
+/**
+ *
+ * Nó a ser armazenado na árvore B+ de chaves byte[].
+ *
+ * As chaves de tamanho variável ficam empacotadas em ordem em um único vetor
+ * de bytes. A chave i ocupa as posições de inicio[i] até inicio[i + 1] - 1,
+ * assim o nó não guarda um objeto por chave.
+ *
+ */
+public class NoBytes {
+
+    /**
+     * Bytes das chaves armazenadas no nó, empacotados em ordem.
+     */
+    private byte[] dados;
+
+    /**
+     * Posição inicial de cada chave em dados; inicio[n] é o total usado.
+     */
+    private int[] inicio;
+
+    /**
+     * Vetor dos ponteiros dos filhos(children).
+     */
+    private NoBytes[] c;
+
+    /**
+     * Próximo nó.
+     */
+    private NoBytes proximo;
+
+    /**
+     * Número de chaves armazenadas.
+     */
+    private int n;
+
+    /**
+     * Indica se é um nó folha.
+     */
+    private boolean folha;
+
+    /**
+     * Construtor com parâmetros.
+     *
+     * @param t Grau da árvore, quantidade de filhos para o nó.
+     * @param folha Indica se o nó é uma folha ou não.
+     * @param bytesIniciais Capacidade inicial do vetor de bytes das chaves.
+     */
+    public NoBytes(int t, boolean folha, int bytesIniciais) {
+        this.proximo = null;
+        this.n = 0;
+        this.folha = folha;
+        this.dados = new byte[bytesIniciais];
+        this.inicio = new int[2 * t];
+        if (!folha) {
+            //Aloca o vetor nós filhos
+            this.c = new NoBytes[2 * t];
+        }
+    }
+
+    /**
+     * Compara dois trechos de bytes em ordem lexicográfica sem sinal.
+     *
+     * @param a Vetor do primeiro trecho.
+     * @param ai Início do primeiro trecho.
+     * @param al Tamanho do primeiro trecho.
+     * @param b Vetor do segundo trecho.
+     * @param bi Início do segundo trecho.
+     * @param bl Tamanho do segundo trecho.
+     * @return Negativo, zero ou positivo se o primeiro for menor, igual ou
+     * maior que o segundo.
+     */
+    public static int comparar(byte[] a, int ai, int al, byte[] b, int bi, int bl) {
+        int menor = Math.min(al, bl);
+        for (int i = 0; i < menor; i++) {
+            int x = a[ai + i] & 0xff;
+            int y = b[bi + i] & 0xff;
+            if (x != y) {
+                return x - y;
+            }
+        }
+        return al - bl;
+    }
+
+    /**
+     * Compara a chave i do nó com a chave k.
+     *
+     * @param i Posição da chave no nó.
+     * @param k Chave a ser comparada.
+     * @return Negativo, zero ou positivo se a chave i for menor, igual ou
+     * maior que k.
+     */
+    public int compararChave(int i, byte[] k) {
+        return comparar(dados, inicio[i], inicio[i + 1] - inicio[i], k, 0, k.length);
+    }
+
+    /**
+     * Recuperador do vetor de bytes das chaves.
+     *
+     * @return O vetor com as chaves empacotadas.
+     */
+    public byte[] getDados() {
+        return dados;
+    }
+
+    /**
+     * Posição inicial da chave i no vetor de bytes.
+     *
+     * @param i Posição da chave.
+     * @return A posição do primeiro byte da chave.
+     */
+    public int getInicio(int i) {
+        return inicio[i];
+    }
+
+    /**
+     * Tamanho em bytes da chave i.
+     *
+     * @param i Posição da chave.
+     * @return A quantidade de bytes da chave.
+     */
+    public int getTamanho(int i) {
+        return inicio[i + 1] - inicio[i];
+    }
+
+    /**
+     * Retorna uma cópia da chave i.
+     *
+     * @param i Posição da chave.
+     * @return Um novo vetor com os bytes da chave.
+     */
+    public byte[] getChave(int i) {
+        byte[] k = new byte[getTamanho(i)];
+        System.arraycopy(dados, inicio[i], k, 0, k.length);
+        return k;
+    }
+
+    /**
+     * Insere a chave na posição i, deslocando as chaves seguintes.
+     *
+     * O vetor de bytes só é realocado quando não há espaço livre.
+     *
+     * @param i Posição da nova chave.
+     * @param k Vetor com a chave.
+     * @param ki Início da chave no vetor.
+     * @param kl Tamanho da chave.
+     */
+    public void inserirChave(int i, byte[] k, int ki, int kl) {
+        int usado = inicio[n];
+        if (usado + kl > dados.length) {
+            byte[] novo = new byte[Math.max(2 * dados.length, usado + kl)];
+            System.arraycopy(dados, 0, novo, 0, usado);
+            dados = novo;
+        }
+        // Desloca os bytes e as posições das chaves seguintes
+        System.arraycopy(dados, inicio[i], dados, inicio[i] + kl, usado - inicio[i]);
+        for (int j = n; j >= i; j--) {
+            inicio[j + 1] = inicio[j] + kl;
+        }
+        System.arraycopy(k, ki, dados, inicio[i], kl);
+        n = n + 1;
+    }
+
+    /**
+     * Remove a chave da posição i, deslocando as chaves seguintes.
+     *
+     * @param i Posição da chave a ser removida.
+     */
+    public void removerChave(int i) {
+        int kl = getTamanho(i);
+        System.arraycopy(dados, inicio[i + 1], dados, inicio[i], inicio[n] - inicio[i + 1]);
+        for (int j = i + 1; j <= n; j++) {
+            inicio[j - 1] = inicio[j] - kl;
+        }
+        n = n - 1;
+    }
+
+    /**
+     * Remove as chaves a partir da posição i.
+     *
+     * @param i Nova quantidade de chaves.
+     */
+    public void truncar(int i) {
+        for (int j = i + 1; j <= n; j++) {
+            inicio[j] = 0;
+        }
+        n = i;
+    }
+
+    /**
+     * Recuperador do nó filho.
+     *
+     * @param i Posição a ser recuperada.
+     * @return Nó filho da posição i do nó atual.
+     */
+    public NoBytes getC(int i) {
+        return c[i];
+    }
+
+    /**
+     * Modificador do nó filho.
+     *
+     * @param i Posição do nó filho a ser modificada do nó atual.
+     * @param filho Nó filho a ser atribuído no nó atual.
+     */
+    public void setC(int i, NoBytes filho) {
+        c[i] = filho;
+    }
+
+    /**
+     * Recuperador o próximo nó.
+     *
+     * @return O próximo nó.
+     */
+    public NoBytes getProximo() {
+        return proximo;
+    }
+
+    /**
+     * Modificador do próximo nó.
+     *
+     * @param proximo O próximo nó.
+     */
+    public void setProximo(NoBytes proximo) {
+        this.proximo = proximo;
+    }
+
+    /**
+     * Retorna a quantidade de chaves.
+     *
+     * @return Um inteiro com a quantidade de chaves.
+     */
+    public int getN() {
+        return n;
+    }
+
+    /**
+     * Retorna se o nó é folha.
+     *
+     * @return Verdadeiro ou falso se o nó é folha.
+     */
+    public boolean getFolha() {
+        return folha;
+    }
+
+    /**
+     * Procurar posição da chave dentro do nó.
+     *
+     * Busca binária que retorna a posição da primeira chave maior ou igual a
+     * k.
+     *
+     * @param k Chave a ser procurada.
+     * @return Indica da posição no nó.
+     */
+    public int procurarPosicaoChave(byte[] k) {
+        int ini = 0;
+        int fim = n;
+        while (ini < fim) {
+            int meio = (ini + fim) >>> 1;
+            if (compararChave(meio, k) < 0) {
+                ini = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return ini;
+    }
+
+    /**
+     * Procurar o filho a ser seguido para a chave k.
+     *
+     * Busca binária que retorna a posição da primeira chave maior que k.
+     *
+     * @param k Chave a ser procurada.
+     * @return Indica da posição do filho.
+     */
+    public int procurarPosicaoFilho(byte[] k) {
+        int ini = 0;
+        int fim = n;
+        while (ini < fim) {
+            int meio = (ini + fim) >>> 1;
+            if (compararChave(meio, k) <= 0) {
+                ini = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return ini;
+    }
+}
@@ -0,0 +1,357 @@
+import java.util.Arrays;
+
+/**
+ *
+ * Nó da árvore B+ de folhas compactadas.
+ *
+ * Os nós internos guardam as chaves em um vetor de int, como No. As folhas
+ * guardam as chaves em quadro de referência(frame of reference): a menor
+ * chave é a base e cada chave é gravada como a diferença para a base, sem
+ * sinal, com a menor quantidade de bits que comporta a maior diferença. As
+ * diferenças ficam empacotadas em sequência em um vetor de long. Como as
+ * chaves da folha estão ordenadas, as diferenças também estão, e a busca
+ * binária compara diferenças sem desempacotar a folha inteira.
+ *
+ */
+public class NoCompactado {
+
+    /**
+     * Chaves de um nó interno ou null em uma folha.
+     */
+    private int[] chave;
+
+    /**
+     * Vetor dos ponteiros dos filhos(children) ou null em uma folha.
+     */
+    private NoCompactado[] c;
+
+    /**
+     * Próxino nó.
+     */
+    private NoCompactado proximo;
+
+    /**
+     * Número de chaves armazenadas.
+     */
+    private int n;
+
+    /**
+     * Ordem da árvore;
+     */
+    private int t;
+
+    /**
+     * Indica se é um nó folha;
+     */
+    private boolean folha;
+
+    /**
+     * Menor chave da folha, referência das diferenças.
+     */
+    private int base;
+
+    /**
+     * Quantidade de bits de cada diferença, de 0 a 32.
+     */
+    private int bits;
+
+    /**
+     * Diferenças empacotadas da folha.
+     */
+    private long[] palavras;
+
+    /**
+     * Construtor com parâmetros.
+     *
+     * @param t Grau da árvore, quantidade de filhos para o nó.
+     * @param folha Indica se o nó é uma folha ou não.
+     */
+    public NoCompactado(int t, boolean folha) {
+        this.proximo = null;
+        this.n = 0;
+        this.t = t;
+        this.folha = folha;
+        if (folha) {
+            this.palavras = new long[0];
+        } else {
+            //Aloca o vetor de chaves
+            this.chave = new int[2 * t - 1];
+            //Aloca o vetor nós filhos
+            this.c = new NoCompactado[2 * t];
+        }
+    }
+
+    /**
+     * Recuperador da chave.
+     *
+     * Em uma folha, desempacota a diferença da posição i.
+     *
+     * @param i Posição da chave.
+     * @return O valor da chave.
+     */
+    public int getChave(int i) {
+        if (!folha) {
+            return chave[i];
+        }
+        return base + (int) diferenca(i);
+    }
+
+    /**
+     * Modificador da chave de um nó interno.
+     *
+     * As chaves das folhas só são modificadas por codificar.
+     *
+     * @param i Posição a ser atualizada.
+     * @param k Valor a ser atualizado.
+     */
+    public void setChave(int i, int k) {
+        chave[i] = k;
+    }
+
+    /**
+     * Desempacota a diferença da posição i de uma folha.
+     *
+     * @param i Posição da chave.
+     * @return A diferença para a base, sem sinal.
+     */
+    private long diferenca(int i) {
+        if (bits == 0) {
+            return 0;
+        }
+        long bit = (long) i * bits;
+        int palavra = (int) (bit >>> 6);
+        int deslocamento = (int) (bit & 63);
+        long valor = palavras[palavra] >>> deslocamento;
+        if (deslocamento + bits > 64) {
+            // A diferença continua na palavra seguinte
+            valor |= palavras[palavra + 1] << (64 - deslocamento);
+        }
+        return valor & ((1L << bits) - 1);
+    }
+
+    /**
+     * Desempacota todas as chaves de uma folha.
+     *
+     * @param destino Vetor que recebe as chaves a partir da posição 0.
+     */
+    public void decodificar(int[] destino) {
+        if (bits == 0) {
+            for (int i = 0; i < n; i++) {
+                destino[i] = base;
+            }
+            return;
+        }
+        long mascara = (1L << bits) - 1;
+        int palavra = 0;
+        int deslocamento = 0;
+        for (int i = 0; i < n; i++) {
+            long valor = palavras[palavra] >>> deslocamento;
+            if (deslocamento + bits > 64) {
+                valor |= palavras[palavra + 1] << (64 - deslocamento);
+            }
+            destino[i] = base + (int) (valor & mascara);
+            deslocamento += bits;
+            if (deslocamento >= 64) {
+                deslocamento -= 64;
+                palavra++;
+            }
+        }
+    }
+
+    /**
+     * Empacota as chaves de uma folha.
+     *
+     * O vetor de palavras só é trocado quando a quantidade de bits muda, e
+     * então é alocado com espaço para a folha cheia.
+     *
+     * @param origem Chaves em ordem crescente.
+     * @param n Quantidade de chaves.
+     */
+    public void codificar(int[] origem, int n) {
+        setN(n);
+        int novosBits = 0;
+        if (n > 0) {
+            base = origem[0];
+            // Diferença sem sinal entre a maior e a menor chave
+            long maior = (origem[n - 1] - base) & 0xFFFFFFFFL;
+            novosBits = 64 - Long.numberOfLeadingZeros(maior);
+        }
+        if (novosBits != bits) {
+            bits = novosBits;
+            palavras = new long[(int) (((long) (2 * t - 1) * bits + 63) >>> 6)];
+        } else {
+            Arrays.fill(palavras, 0);
+        }
+        if (bits == 0) {
+            return;
+        }
+        int palavra = 0;
+        int deslocamento = 0;
+        for (int i = 0; i < n; i++) {
+            long valor = (origem[i] - base) & 0xFFFFFFFFL;
+            palavras[palavra] |= valor << deslocamento;
+            if (deslocamento + bits > 64) {
+                palavras[palavra + 1] |= valor >>> (64 - deslocamento);
+            }
+            deslocamento += bits;
+            if (deslocamento >= 64) {
+                deslocamento -= 64;
+                palavra++;
+            }
+        }
+    }
+
+    /**
+     * Recuperador do nó filho.
+     *
+     * Recupera o nó filho da posição i do nó atual.
+     *
+     * @param i Posição a ser recuperada.
+     * @return Nó filho da posição i do nó atual.
+     */
+    public NoCompactado getC(int i) {
+        return c[i];
+    }
+
+    /**
+     * Modificador do nó filho.
+     *
+     * Modifica o nó filho da posição i do nó atual.
+     *
+     * @param i Posição do nó filho a ser modificada do nó atual.
+     * @param filho Nó filho a ser atribuído no nó atual.
+     */
+    public void setC(int i, NoCompactado filho) {
+        c[i] = filho;
+    }
+
+    /**
+     * Recuperador o próximo nó.
+     *
+     * @return O próxim nó.
+     */
+    public NoCompactado getProximo() {
+        return proximo;
+    }
+
+    /**
+     * Modificador do próximo nó.
+     *
+     * @param proximo O próximo nó.
+     */
+    public void setProximo(NoCompactado proximo) {
+        this.proximo = proximo;
+    }
+
+    /**
+     * Retorna a quantidade de chaves.
+     *
+     * @return Um inteiro com a quantidade chaves.
+     */
+    public int getN() {
+        return n;
+    }
+
+    /**
+     * Modificador da quantidade de chaves.
+     *
+     * @param n Um inteiro a ser modificado.
+     */
+    public void setN(int n) {
+        if ((n >= 0) && (n <= 2 * t - 1)) {
+            this.n = n;
+        } else {
+            throw new RuntimeException("N inválido");
+        }
+    }
+
+    /**
+     * Retorna se o nó é folha.
+     *
+     * @return Verdadeiro ou falso se o nó é folha.
+     */
+    public boolean getFolha() {
+        return folha;
+    }
+
+    /**
+     * Recuperador da quantidade de bits das diferenças de uma folha.
+     *
+     * @return A quantidade de bits de cada diferença.
+     */
+    public int getBits() {
+        return bits;
+    }
+
+    /**
+     * Retorna os bytes ocupados pelas chaves do nó.
+     *
+     * Conta só os vetores de chaves ou de palavras, com o cabeçalho de 16
+     * bytes de cada vetor, e a base em uma folha.
+     *
+     * @return A quantidade de bytes.
+     */
+    public long getBytesChaves() {
+        return folha ? 16 + 8L * palavras.length + 4 : 16 + 4L * chave.length;
+    }
+
+    /**
+     * Procurar posição da chave dentro do nó.
+     *
+     * Busca binária que retorna a posição da primeira chave maior ou igual a
+     * k.
+     *
+     * @param k Chave a ser procurada.
+     * @return Indica da posição no vetor.
+     */
+    public int procurarPosicaoChave(int k) {
+        if (!folha) {
+            return EstrategiaBusca.BINARIA.limiteInferior(chave, n, k);
+        }
+        if (n == 0 || k <= base) {
+            return 0;
+        }
+        // Com k > base, a diferença de k cabe em 32 bits sem sinal
+        long alvo = ((long) k - base);
+        int inicio = 0;
+        int fim = n;
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (diferenca(meio) < alvo) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return inicio;
+    }
+
+    /**
+     * Procurar o filho a ser seguido para a chave k.
+     *
+     * Busca binária que retorna a posição da primeira chave maior que k.
+     *
+     * @param k Chave a ser procurada.
+     * @return Indica da posição do filho.
+     */
+    public int procurarPosicaoFilho(int k) {
+        if (!folha) {
+            return EstrategiaBusca.BINARIA.limiteSuperior(chave, n, k);
+        }
+        if (n == 0 || k < base) {
+            return 0;
+        }
+        long alvo = ((long) k - base);
+        int inicio = 0;
+        int fim = n;
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (diferenca(meio) <= alvo) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return inicio;
+    }
+}
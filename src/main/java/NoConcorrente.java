@@ -0,0 +1,56 @@
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ *
+ * Nó da árvore B+ concorrente.
+ *
+ * Além dos campos de No, cada nó tem a sua trava de leitura e escrita(latch),
+ * obtida antes de ler ou modificar o nó.
+ *
+ */
+public class NoConcorrente extends No {
+
+    /**
+     * Trava de leitura e escrita do nó.
+     */
+    private final ReentrantReadWriteLock trava;
+
+    /**
+     * Construtor com parâmetros.
+     *
+     * @param t Grau da árvore, quantidade de filhos para o nó.
+     * @param folha Indica se o nó é uma folha ou não.
+     */
+    public NoConcorrente(int t, boolean folha) {
+        super(t, folha);
+        this.trava = new ReentrantReadWriteLock();
+    }
+
+    /**
+     * Recuperador da trava.
+     *
+     * @return A trava de leitura e escrita do nó.
+     */
+    public ReentrantReadWriteLock getTrava() {
+        return trava;
+    }
+
+    /**
+     * Recuperador do nó filho.
+     *
+     * @param i Posição do filho.
+     * @return O nó filho.
+     */
+    public NoConcorrente getFilho(int i) {
+        return (NoConcorrente) getC(i);
+    }
+
+    /**
+     * Recuperador do próximo nó.
+     *
+     * @return O próximo nó concorrente ou null.
+     */
+    public NoConcorrente getProximoConcorrente() {
+        return (NoConcorrente) getProximo();
+    }
+}
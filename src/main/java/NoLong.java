@@ -0,0 +1,268 @@
+
+/**
+ *
+ * Nó a ser armazenado na árvore B+ de chaves long.
+ *
+ */
+public class NoLong {
+
+    /**
+     * Chaves armazenadas no nó.
+     */
+    private long[] chave;
+
+    /**
+     * Vetor dos ponteiros dos filhos(children).
+     */
+    private NoLong[] c;
+
+    /**
+     * Próxino nó.
+     */
+    private NoLong proximo;
+
+    /**
+     * Número de chaves armazenadas.
+     */
+    private int n;
+
+    /**
+     * Ordem da árvore;
+     */
+    private int t;
+
+    /**
+     * Indica ´se é um nó folha;
+     */
+    private boolean folha;
+
+    /**
+     * Construtor sem parâmetros.
+     */
+    public NoLong() {
+        this(3, true);
+    }
+
+    /**
+     * Construtor com parâmetros.
+     *
+     * @param t Grau da árvore, quantidade de filhos para o nó.
+     * @param folha Indica se o nó é uma folha ou não.
+     */
+    public NoLong(int t, boolean folha) {
+        this.proximo = null;
+        this.n = 0;
+        this.t = t;
+        this.folha = folha;
+        //Aloca o vetor de chaves
+        this.chave = new long[2 * t - 1];
+        //Aloca o vetor nós filhos
+        this.c = new NoLong[2 * t];
+    }
+
+    /**
+     * Recuperador da chave.
+     *
+     * Recupera a chave de uma posição i do nó.
+     *
+     * @param i Posição da chave.
+     * @return O valor da chave.
+     */
+    public long getChave(int i) {
+        return chave[i];
+    }
+
+    /**
+     * Modificador da chave.
+     *
+     * Modifica a chave da posição i do nó.
+     *
+     * @param i Posição a ser atualizada.
+     * @param k Valor a ser atualizado.
+     */
+    public void setChave(int i, long k) {
+        chave[i] = k;
+    }
+
+    /**
+     * Recuperador do nó filho.
+     *
+     * Recupera o nó filho da posição i do nó atual.
+     *
+     * @param i Posição a ser recuperada.
+     * @return Nó filho da posição i do nó atual.
+     */
+    public NoLong getC(int i) {
+        return c[i];
+    }
+
+    /**
+     * Modificador do nó filho.
+     *
+     * Modifica o nó filho da posição i do nó atual.
+     *
+     * @param i Posição do nó filho a ser modificada do nó atual.
+     * @param filho Nó filho a ser atribuído no nó atual.
+     */
+    public void setC(int i, NoLong filho) {
+        c[i] = filho;
+    }
+
+    /**
+     * Recuperador o próximo nó.
+     *
+     * Recupera o próximo nó dó atual.
+     *
+     * @return O próxim nó.
+     */
+    public NoLong getProximo() {
+        return proximo;
+    }
+
+    /**
+     * Modificador do próximo nó.
+     *
+     * Modifica o atributo próximo do nó atual.
+     *
+     * @param proximo O próximo nó.
+     */
+    public void setProximo(NoLong proximo) {
+        this.proximo = proximo;
+    }
+
+    /**
+     * Retorna a quantidade de nós.
+     *
+     * @return Um inteiro com a quantidade nós.
+     */
+    public int getN() {
+        return n;
+    }
+
+    /**
+     * Modificador da quantidade de nós.
+     *
+     * @param n Um inteiro a ser modificado.
+     */
+    public void setN(int n) {
+        if ((n >= 0) && (n <= chave.length)) {
+            this.n = n;
+        } else {
+            throw new RuntimeException("N inválido");
+        }
+    }
+
+    /**
+     * Recuperador de t.
+     *
+     * @return O grau da árvore
+     */
+    public int getT() {
+        return t;
+    }
+
+    /**
+     * Modificador de t.
+     *
+     * @param t O grau da árvore.
+     */
+    public void setT(int t) {
+        this.t = t;
+    }
+
+    /**
+     * Retorna se´o nó é folha.
+     *
+     * @return Verdadeiro ou falso se o nó é folha.
+     */
+    public boolean getFolha() {
+        return folha;
+    }
+
+    /**
+     * Modificador se é folha
+     *
+     * @param folha Um valor boleando para indicar se é ou não folha.
+     */
+    public void setFolha(boolean folha) {
+        this.folha = folha;
+    }
+
+    /**
+     * Procurar posição da chave dentro do vetor de chaves.
+     *
+     * Busca binária que retorna a posição da primeira chave maior ou igual a
+     * k.
+     *
+     * @param k Chave a ser procurada.
+     * @return Indica da posição no vetor.
+     */
+    public int procurarPosicaoChave(long k) {
+        int inicio = 0;
+        int fim = n;
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (chave[meio] < k) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return inicio;
+    }
+
+    /**
+     * Procurar o filho a ser seguido para a chave k.
+     *
+     * Busca binária que retorna a posição da primeira chave maior que k.
+     *
+     * @param k Chave a ser procurada.
+     * @return Indica da posição do filho.
+     */
+    public int procurarPosicaoFilho(long k) {
+        int inicio = 0;
+        int fim = n;
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (chave[meio] <= k) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return inicio;
+    }
+
+    /**
+     * Retorna o valor em String do dado.
+     *
+     * @return Uma string com o valor do dado do nó.
+     */
+    public String paraString() {
+        return "OID: " + this + " / n:" + n + " / folha:" + folha + " / chave: " + chave + " / filhos: " + c;
+    }
+
+    /**
+     * Retorna o valor em String dos dados dos vetores.
+     *
+     * @return Uma string com o valor do dado do nó.
+     */
+    public String getDadosVetoresStr() {
+
+        String chaves_str = "[";
+        for (int i = 0; i < chave.length; i++) {;
+
+            chaves_str = chaves_str + this.getChave(i) + " ";
+        }
+        chaves_str = chaves_str + "]";
+
+        String filhos_str = "[";
+        for (int i = 0; i < c.length; i++) {;
+
+            filhos_str = filhos_str + this.getC(i) + " ";
+        }
+        filhos_str = filhos_str + "]";
+
+        return "OID: " + this + " / n:" + this.n + " / folha:" + this.folha + " / chaves: " + chaves_str + " / c: " + filhos_str + " / próximo: " + this.getProximo();
+    }
+}
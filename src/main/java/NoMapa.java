@@ -0,0 +1,286 @@
+/**
+ *
+ * Nó a ser armazenado na árvore B+ de mapeamento chave → valor.
+ *
+ * Os nós internos guardam apenas chaves e filhos, mantendo o grau da árvore.
+ * As folhas guardam os valores em um vetor paralelo ao vetor de chaves, do
+ * tipo long primitivo ou Object.
+ *
+ */
+public class NoMapa {
+
+    /**
+     * Chaves armazenadas no nó.
+     */
+    private int[] chave;
+
+    /**
+     * Vetor dos ponteiros dos filhos(children), somente nos nós internos.
+     */
+    private NoMapa[] c;
+
+    /**
+     * Valores primitivos das chaves, somente nas folhas do mapa de long.
+     */
+    private long[] valorLong;
+
+    /**
+     * Valores das chaves, somente nas folhas do mapa de objetos.
+     */
+    private Object[] valor;
+
+    /**
+     * Próximo nó folha.
+     */
+    private NoMapa proximo;
+
+    /**
+     * Número de chaves armazenadas.
+     */
+    private int n;
+
+    /**
+     * Indica se é um nó folha.
+     */
+    private boolean folha;
+
+    /**
+     * Construtor com parâmetros.
+     *
+     * @param t Grau da árvore, quantidade de filhos para o nó.
+     * @param folha Indica se o nó é uma folha ou não.
+     * @param primitivo Indica se as folhas guardam valores long primitivos.
+     */
+    public NoMapa(int t, boolean folha, boolean primitivo) {
+        this.proximo = null;
+        this.n = 0;
+        this.folha = folha;
+        //Aloca o vetor de chaves
+        this.chave = new int[2 * t - 1];
+        if (folha) {
+            //Aloca o vetor de valores paralelo às chaves
+            if (primitivo) {
+                this.valorLong = new long[2 * t - 1];
+            } else {
+                this.valor = new Object[2 * t - 1];
+            }
+        } else {
+            //Aloca o vetor nós filhos
+            this.c = new NoMapa[2 * t];
+        }
+    }
+
+    /**
+     * Recuperador da chave.
+     *
+     * @param i Posição da chave.
+     * @return O valor da chave.
+     */
+    public int getChave(int i) {
+        return chave[i];
+    }
+
+    /**
+     * Modificador da chave.
+     *
+     * @param i Posição a ser atualizada.
+     * @param k Valor a ser atualizado.
+     */
+    public void setChave(int i, int k) {
+        chave[i] = k;
+    }
+
+    /**
+     * Recuperador do nó filho.
+     *
+     * @param i Posição a ser recuperada.
+     * @return Nó filho da posição i do nó atual.
+     */
+    public NoMapa getC(int i) {
+        return c[i];
+    }
+
+    /**
+     * Modificador do nó filho.
+     *
+     * @param i Posição do nó filho a ser modificada do nó atual.
+     * @param filho Nó filho a ser atribuído no nó atual.
+     */
+    public void setC(int i, NoMapa filho) {
+        c[i] = filho;
+    }
+
+    /**
+     * Recuperador do valor primitivo.
+     *
+     * @param i Posição do valor.
+     * @return O valor da posição i.
+     */
+    public long getValorLong(int i) {
+        return valorLong[i];
+    }
+
+    /**
+     * Modificador do valor primitivo.
+     *
+     * @param i Posição do valor.
+     * @param v Valor a ser atribuído.
+     */
+    public void setValorLong(int i, long v) {
+        valorLong[i] = v;
+    }
+
+    /**
+     * Recuperador do valor.
+     *
+     * @param i Posição do valor.
+     * @return O valor da posição i.
+     */
+    public Object getValor(int i) {
+        return valor[i];
+    }
+
+    /**
+     * Modificador do valor.
+     *
+     * @param i Posição do valor.
+     * @param v Valor a ser atribuído.
+     */
+    public void setValor(int i, Object v) {
+        valor[i] = v;
+    }
+
+    /**
+     * Recuperador o próximo nó.
+     *
+     * @return O próximo nó.
+     */
+    public NoMapa getProximo() {
+        return proximo;
+    }
+
+    /**
+     * Modificador do próximo nó.
+     *
+     * @param proximo O próximo nó.
+     */
+    public void setProximo(NoMapa proximo) {
+        this.proximo = proximo;
+    }
+
+    /**
+     * Retorna a quantidade de chaves.
+     *
+     * @return Um inteiro com a quantidade de chaves.
+     */
+    public int getN() {
+        return n;
+    }
+
+    /**
+     * Modificador da quantidade de chaves.
+     *
+     * @param n Um inteiro a ser modificado.
+     */
+    public void setN(int n) {
+        if ((n >= 0) && (n <= chave.length)) {
+            this.n = n;
+        } else {
+            throw new RuntimeException("N inválido");
+        }
+    }
+
+    /**
+     * Retorna se o nó é folha.
+     *
+     * @return Verdadeiro ou falso se o nó é folha.
+     */
+    public boolean getFolha() {
+        return folha;
+    }
+
+    /**
+     * Procurar posição da chave dentro do vetor de chaves.
+     *
+     * @param k Chave a ser procurada.
+     * @param busca Estratégia de busca no vetor de chaves.
+     * @return A posição da primeira chave maior ou igual a k.
+     */
+    public int procurarPosicaoChave(int k, EstrategiaBusca busca) {
+        return busca.limiteInferior(chave, n, k);
+    }
+
+    /**
+     * Procurar o filho a ser seguido para a chave k.
+     *
+     * @param k Chave a ser procurada.
+     * @param busca Estratégia de busca no vetor de chaves.
+     * @return A posição da primeira chave maior que k.
+     */
+    public int procurarPosicaoFilho(int k, EstrategiaBusca busca) {
+        return busca.limiteSuperior(chave, n, k);
+    }
+
+    /**
+     * Copia a chave e o valor da posição i de uma folha para outra.
+     *
+     * @param i Posição de origem nesta folha.
+     * @param destino Folha de destino.
+     * @param j Posição de destino.
+     */
+    public void copiarEntrada(int i, NoMapa destino, int j) {
+        destino.chave[j] = chave[i];
+        if (valorLong != null) {
+            destino.valorLong[j] = valorLong[i];
+        } else {
+            destino.valor[j] = valor[i];
+        }
+    }
+
+    /**
+     * Limpa a chave e o valor da posição i da folha.
+     *
+     * Libera a referência ao objeto para o coletor de lixo.
+     *
+     * @param i Posição a ser limpa.
+     */
+    public void limparEntrada(int i) {
+        chave[i] = 0;
+        if (valorLong != null) {
+            valorLong[i] = 0;
+        } else {
+            valor[i] = null;
+        }
+    }
+
+    /**
+     * Abre espaço na posição i da folha deslocando as entradas seguintes.
+     *
+     * @param i Posição a ser liberada.
+     */
+    public void abrirEspaco(int i) {
+        System.arraycopy(chave, i, chave, i + 1, n - i);
+        if (valorLong != null) {
+            System.arraycopy(valorLong, i, valorLong, i + 1, n - i);
+        } else {
+            System.arraycopy(valor, i, valor, i + 1, n - i);
+        }
+        n = n + 1;
+    }
+
+    /**
+     * Remove a entrada da posição i da folha deslocando as seguintes.
+     *
+     * @param i Posição a ser removida.
+     */
+    public void removerEntrada(int i) {
+        System.arraycopy(chave, i + 1, chave, i, n - i - 1);
+        if (valorLong != null) {
+            System.arraycopy(valorLong, i + 1, valorLong, i, n - i - 1);
+        } else {
+            System.arraycopy(valor, i + 1, valor, i, n - i - 1);
+        }
+        n = n - 1;
+        limparEntrada(n);
+    }
+}
@@ -0,0 +1,58 @@
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ *
+ * Nó da árvore B+ com acoplamento otimista de travas.
+ *
+ * Além dos campos de No, cada nó tem uma palavra de versão, mantida por um
+ * StampedLock: quem lê guarda a versão antes de ler o nó e a valida depois,
+ * sem escrever na memória compartilhada; quem modifica converte a versão
+ * lida em trava exclusiva, o que só é possível se o nó não mudou.
+ *
+ */
+public class NoOtimista extends No {
+
+    /**
+     * Palavra de versão do nó.
+     */
+    private final StampedLock versao;
+
+    /**
+     * Construtor com parâmetros.
+     *
+     * @param t Grau da árvore, quantidade de filhos para o nó.
+     * @param folha Indica se o nó é uma folha ou não.
+     */
+    public NoOtimista(int t, boolean folha) {
+        super(t, folha);
+        this.versao = new StampedLock();
+    }
+
+    /**
+     * Recuperador da versão.
+     *
+     * @return A palavra de versão do nó.
+     */
+    public StampedLock getVersao() {
+        return versao;
+    }
+
+    /**
+     * Recuperador do nó filho.
+     *
+     * @param i Posição do filho.
+     * @return O nó filho, que pode ser null em uma leitura inconsistente.
+     */
+    public NoOtimista getFilho(int i) {
+        return (NoOtimista) getC(i);
+    }
+
+    /**
+     * Recuperador do próximo nó.
+     *
+     * @return O próximo nó otimista ou null.
+     */
+    public NoOtimista getProximoOtimista() {
+        return (NoOtimista) getProximo();
+    }
+}
@@ -0,0 +1,85 @@
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Acesso às páginas de tamanho fixo de uma árvore B+ em disco.
+ *
+ * Uma página é fixada(pin) antes de ser lida ou modificada e desafixada
+ * depois, indicando se foi modificada. Enquanto estiver fixada, o conteúdo
+ * devolvido permanece válido e fixar a mesma página novamente devolve o
+ * mesmo buffer.
+ *
+ */
+public interface Paginador {
+
+    /**
+     * Número de página nulo.
+     */
+    int NULO = -1;
+
+    /**
+     * Retorna o tamanho das páginas.
+     *
+     * @return O tamanho da página em bytes.
+     */
+    int getTamanhoPagina();
+
+    /**
+     * Fixa uma página na memória.
+     *
+     * @param pagina Número da página.
+     * @return O buffer com o conteúdo da página, acessado por posição absoluta.
+     * @throws IOException Se a página não puder ser lida.
+     */
+    ByteBuffer fixar(int pagina) throws IOException;
+
+    /**
+     * Desafixa uma página fixada anteriormente.
+     *
+     * @param pagina Número da página.
+     * @param suja Indica se o conteúdo foi modificado.
+     * @throws IOException Se a página não puder ser gravada.
+     */
+    void desafixar(int pagina, boolean suja) throws IOException;
+
+    /**
+     * Aloca uma página, reaproveitando as páginas liberadas.
+     *
+     * @return O número da nova página.
+     * @throws IOException Se o arquivo não puder ser estendido.
+     */
+    int alocar() throws IOException;
+
+    /**
+     * Devolve uma página para a lista de páginas livres.
+     *
+     * @param pagina Número da página.
+     * @throws IOException Se a lista de livres não puder ser gravada.
+     */
+    void liberar(int pagina) throws IOException;
+
+    /**
+     * Indica que a página será lida em breve.
+     *
+     * Implementações com cache podem carregá-la antecipadamente, sem
+     * bloquear quem chamou.
+     *
+     * @param pagina Número da página.
+     */
+    void preCarregar(int pagina);
+
+    /**
+     * Grava todas as páginas modificadas e o cabeçalho no disco.
+     *
+     * @throws IOException Se a gravação falhar.
+     */
+    void descarregar() throws IOException;
+
+    /**
+     * Grava as modificações e fecha o arquivo.
+     *
+     * @throws IOException Se a gravação falhar.
+     */
+    void fechar() throws IOException;
+}
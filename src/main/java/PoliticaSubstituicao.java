@@ -0,0 +1,22 @@
+/**
+ *
+ * Política de substituição das páginas de um PoolBuffers.
+ *
+ * Quando não há quadro livre, a política escolhe qual página não fixada sai
+ * da memória para dar lugar à nova.
+ *
+ */
+public enum PoliticaSubstituicao {
+
+    /**
+     * Algoritmo do relógio(CLOCK): cada uso marca um bit de referência e o
+     * ponteiro do relógio despeja a primeira página sem o bit, limpando os
+     * bits por onde passa. Custo O(1) por acesso.
+     */
+    CLOCK,
+    /**
+     * Menos recentemente usada(LRU): despeja a página não fixada usada há
+     * mais tempo, mantendo os quadros em uma lista ordenada pelo último uso.
+     */
+    LRU
+}
@@ -0,0 +1,640 @@
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool de buffers(cache de páginas) entre a árvore B+ em disco e o arquivo.
+ *
+ * Mantém na memória uma quantidade fixa de quadros, calculada pelo orçamento
+ * de memória e pelo tamanho da página. Páginas fixadas nunca são despejadas;
+ * quando não há quadro livre, a política de substituição escolhe uma página
+ * não fixada e, se estiver suja, grava o seu conteúdo antes de reutilizar o
+ * quadro. Páginas sujas também são gravadas ao descarregar.
+ *
+ * O pré-carregamento lê as páginas em uma thread separada e as instala no
+ * pool sem bloquear quem pediu. Fixar uma página que está sendo
+ * pré-carregada espera a leitura terminar.
+ *
+ * Os contadores de acertos, faltas e despejos permitem dimensionar o pool
+ * com a carga real.
+ *
+ */
+public class PoolBuffers implements Paginador {
+
+    /**
+     * Tamanho máximo, em bytes, de cada bloco de memória dos quadros.
+     */
+    private static final int BYTES_BLOCO = 64 << 20;
+
+    /**
+     * Quantidade mínima de quadros, suficiente para as páginas fixadas ao
+     * mesmo tempo pelas operações da árvore.
+     */
+    public static final int MINIMO_QUADROS = 16;
+
+    /**
+     * Arquivo de páginas.
+     */
+    private final ArquivoPaginas arquivo;
+
+    /**
+     * Tamanho das páginas em bytes.
+     */
+    private final int tamanhoPagina;
+
+    /**
+     * Política de substituição.
+     */
+    private final PoliticaSubstituicao politica;
+
+    /**
+     * Conteúdo de cada quadro.
+     */
+    private final ByteBuffer[] quadros;
+
+    /**
+     * Página de cada quadro ou NULO se o quadro está livre.
+     */
+    private final int[] pagina;
+
+    /**
+     * Quantidade de fixações de cada quadro.
+     */
+    private final int[] fixacoes;
+
+    /**
+     * Indica se o conteúdo do quadro foi modificado.
+     */
+    private final boolean[] suja;
+
+    /**
+     * Bit de referência de cada quadro (CLOCK).
+     */
+    private final boolean[] referencia;
+
+    /**
+     * Posição do ponteiro do relógio (CLOCK).
+     */
+    private int ponteiro;
+
+    /**
+     * Quadro usado antes de cada quadro na lista de uso (LRU).
+     */
+    private final int[] anterior;
+
+    /**
+     * Quadro usado depois de cada quadro na lista de uso (LRU).
+     */
+    private final int[] seguinte;
+
+    /**
+     * Quadro usado mais recentemente (LRU).
+     */
+    private int maisRecente;
+
+    /**
+     * Quadro usado há mais tempo (LRU).
+     */
+    private int menosRecente;
+
+    /**
+     * Pilha de quadros livres.
+     */
+    private final int[] livres;
+
+    /**
+     * Quantidade de quadros livres.
+     */
+    private int qtdeLivres;
+
+    /**
+     * Tabela de dispersão(hash) de página para quadro, com endereçamento
+     * aberto e sondagem linear. Posições vazias valem NULO.
+     */
+    private final int[] tabelaPagina;
+
+    /**
+     * Quadro de cada posição da tabela.
+     */
+    private final int[] tabelaQuadro;
+
+    /**
+     * Páginas sendo pré-carregadas.
+     */
+    private final Set<Integer> pendentes;
+
+    /**
+     * Thread de pré-carregamento, criada no primeiro pedido.
+     */
+    private ExecutorService leitor;
+
+    /**
+     * Quantidade de fixações atendidas pelo pool.
+     */
+    private long acertos;
+
+    /**
+     * Quantidade de fixações que precisaram ler a página do disco.
+     */
+    private long faltas;
+
+    /**
+     * Quantidade de páginas despejadas.
+     */
+    private long despejos;
+
+    /**
+     * Quantidade de páginas sujas gravadas no disco.
+     */
+    private long gravacoes;
+
+    /**
+     * Quantidade de páginas instaladas pelo pré-carregamento.
+     */
+    private long preCarregadas;
+
+    /**
+     * Construtor com parâmetros.
+     *
+     * @param arquivo Arquivo de páginas.
+     * @param memoria Orçamento de memória dos quadros em bytes.
+     * @param politica Política de substituição.
+     */
+    public PoolBuffers(ArquivoPaginas arquivo, long memoria, PoliticaSubstituicao politica) {
+        this.arquivo = arquivo;
+        this.tamanhoPagina = arquivo.getTamanhoPagina();
+        this.politica = politica;
+        long qtde = memoria / tamanhoPagina;
+        if (qtde < MINIMO_QUADROS || qtde > Integer.MAX_VALUE / 4) {
+            throw new IllegalArgumentException("Memória inválida para o pool: " + memoria);
+        }
+        int m = (int) qtde;
+        this.quadros = new ByteBuffer[m];
+        // Os quadros são fatias de blocos de memória fora do heap
+        int porBloco = Math.max(1, BYTES_BLOCO / tamanhoPagina);
+        ByteBuffer bloco = null;
+        for (int q = 0; q < m; q++) {
+            if (q % porBloco == 0) {
+                bloco = ByteBuffer.allocateDirect(Math.min(porBloco, m - q) * tamanhoPagina);
+            }
+            bloco.limit((q % porBloco + 1) * tamanhoPagina);
+            bloco.position((q % porBloco) * tamanhoPagina);
+            quadros[q] = bloco.slice();
+        }
+        this.pagina = new int[m];
+        this.fixacoes = new int[m];
+        this.suja = new boolean[m];
+        this.referencia = new boolean[m];
+        this.anterior = new int[m];
+        this.seguinte = new int[m];
+        this.livres = new int[m];
+        Arrays.fill(pagina, NULO);
+        for (int q = 0; q < m; q++) {
+            livres[q] = m - 1 - q;
+        }
+        this.qtdeLivres = m;
+        this.maisRecente = NULO;
+        this.menosRecente = NULO;
+        int capacidade = Integer.highestOneBit(m) * 4;
+        this.tabelaPagina = new int[capacidade];
+        this.tabelaQuadro = new int[capacidade];
+        Arrays.fill(tabelaPagina, NULO);
+        this.pendentes = new HashSet<>();
+    }
+
+    @Override
+    public int getTamanhoPagina() {
+        return tamanhoPagina;
+    }
+
+    @Override
+    public synchronized ByteBuffer fixar(int p) throws IOException {
+        esperarPreCarregamento(p);
+        int q = localizar(p);
+        if (q != NULO) {
+            acertos++;
+        } else {
+            faltas++;
+            q = obterQuadro();
+            arquivo.ler(p, quadros[q]);
+            instalar(p, q);
+        }
+        fixacoes[q]++;
+        usar(q);
+        return quadros[q];
+    }
+
+    @Override
+    public synchronized void desafixar(int p, boolean modificada) {
+        int q = localizar(p);
+        if (q == NULO || fixacoes[q] == 0) {
+            throw new IllegalArgumentException("Página não fixada: " + p);
+        }
+        suja[q] = suja[q] || modificada;
+        fixacoes[q]--;
+    }
+
+    @Override
+    public synchronized int alocar() throws IOException {
+        return arquivo.alocar();
+    }
+
+    @Override
+    public synchronized void liberar(int p) throws IOException {
+        esperarPreCarregamento(p);
+        int q = localizar(p);
+        if (q != NULO) {
+            if (fixacoes[q] > 0) {
+                throw new IllegalArgumentException("Página fixada não pode ser liberada: " + p);
+            }
+            // O conteúdo descartado não pode sobrescrever a lista de livres
+            remover(q);
+            livres[qtdeLivres] = q;
+            qtdeLivres++;
+        }
+        arquivo.liberar(p);
+    }
+
+    @Override
+    public synchronized void preCarregar(int p) {
+        if (p == NULO || localizar(p) != NULO || pendentes.contains(p)) {
+            return;
+        }
+        if (leitor == null) {
+            leitor = Executors.newSingleThreadExecutor(tarefa -> {
+                Thread thread = new Thread(tarefa, "pool-buffers-leitura");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        pendentes.add(p);
+        try {
+            leitor.execute(() -> lerAntecipado(p));
+        } catch (RejectedExecutionException e) {
+            // Pool sendo fechado
+            pendentes.remove(p);
+        }
+    }
+
+    /**
+     * Lê uma página fora do monitor e a instala no pool.
+     *
+     * Falhas apenas descartam a leitura antecipada, a página volta a ser lida
+     * quando for fixada.
+     *
+     * @param p Número da página.
+     */
+    private void lerAntecipado(int p) {
+        ByteBuffer conteudo = ByteBuffer.allocate(tamanhoPagina);
+        boolean lida;
+        try {
+            arquivo.ler(p, conteudo);
+            lida = true;
+        } catch (IOException e) {
+            lida = false;
+        }
+        synchronized (this) {
+            try {
+                if (lida && localizar(p) == NULO) {
+                    int q = obterQuadro();
+                    quadros[q].clear();
+                    quadros[q].put(conteudo);
+                    quadros[q].clear();
+                    instalar(p, q);
+                    usar(q);
+                    preCarregadas++;
+                }
+            } catch (IOException e) {
+                // Nenhum quadro disponível ou falha ao gravar a vítima
+            } finally {
+                pendentes.remove(p);
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Espera o término do pré-carregamento da página, se houver.
+     *
+     * @param p Número da página.
+     * @throws InterruptedIOException Se a thread for interrompida.
+     */
+    private void esperarPreCarregamento(int p) throws InterruptedIOException {
+        while (!pendentes.isEmpty() && pendentes.contains(p)) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrompido esperando a página " + p);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void descarregar() throws IOException {
+        for (int q = 0; q < quadros.length; q++) {
+            if (pagina[q] != NULO && suja[q]) {
+                arquivo.gravar(pagina[q], quadros[q]);
+                suja[q] = false;
+                gravacoes++;
+            }
+        }
+        arquivo.descarregar();
+    }
+
+    /**
+     * Grava as páginas sujas, encerra o pré-carregamento e fecha o arquivo.
+     *
+     * @throws IOException Se a gravação falhar.
+     */
+    @Override
+    public void fechar() throws IOException {
+        ExecutorService l;
+        synchronized (this) {
+            l = leitor;
+        }
+        if (l != null) {
+            l.shutdown();
+            try {
+                l.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        descarregar();
+        arquivo.fechar();
+    }
+
+    /**
+     * Obtém um quadro para uma nova página, despejando outra se necessário.
+     *
+     * @return O quadro obtido, fora da tabela e da lista de uso.
+     * @throws IOException Se todas as páginas estiverem fixadas ou a vítima
+     * suja não puder ser gravada.
+     */
+    private int obterQuadro() throws IOException {
+        if (qtdeLivres > 0) {
+            qtdeLivres--;
+            return livres[qtdeLivres];
+        }
+        int q = politica == PoliticaSubstituicao.CLOCK ? vitimaRelogio() : vitimaMenosRecente();
+        if (q == NULO) {
+            throw new IOException("Pool sem quadros disponíveis: todas as " + quadros.length + " páginas estão fixadas");
+        }
+        if (suja[q]) {
+            arquivo.gravar(pagina[q], quadros[q]);
+            gravacoes++;
+        }
+        remover(q);
+        despejos++;
+        return q;
+    }
+
+    /**
+     * Escolhe a vítima pelo algoritmo do relógio.
+     *
+     * @return O quadro escolhido ou NULO se todos estão fixados.
+     */
+    private int vitimaRelogio() {
+        // Duas voltas bastam: a primeira limpa os bits de referência
+        for (int passo = 0; passo < 2 * quadros.length; passo++) {
+            int q = ponteiro;
+            ponteiro = ponteiro + 1 == quadros.length ? 0 : ponteiro + 1;
+            if (fixacoes[q] > 0) {
+                continue;
+            }
+            if (referencia[q]) {
+                referencia[q] = false;
+                continue;
+            }
+            return q;
+        }
+        return NULO;
+    }
+
+    /**
+     * Escolhe a vítima menos recentemente usada.
+     *
+     * @return O quadro escolhido ou NULO se todos estão fixados.
+     */
+    private int vitimaMenosRecente() {
+        int q = menosRecente;
+        while (q != NULO && fixacoes[q] > 0) {
+            q = anterior[q];
+        }
+        return q;
+    }
+
+    /**
+     * Registra o uso de um quadro pela política de substituição.
+     *
+     * @param q Quadro usado.
+     */
+    private void usar(int q) {
+        if (politica == PoliticaSubstituicao.CLOCK) {
+            referencia[q] = true;
+        } else if (maisRecente != q) {
+            desencadear(q);
+            encadear(q);
+        }
+    }
+
+    /**
+     * Associa um quadro a uma página recém lida.
+     *
+     * @param p Número da página.
+     * @param q Quadro.
+     */
+    private void instalar(int p, int q) {
+        pagina[q] = p;
+        suja[q] = false;
+        referencia[q] = false;
+        if (politica == PoliticaSubstituicao.LRU) {
+            encadear(q);
+        }
+        int i = posicao(p);
+        while (tabelaPagina[i] != NULO) {
+            i = (i + 1) & (tabelaPagina.length - 1);
+        }
+        tabelaPagina[i] = p;
+        tabelaQuadro[i] = q;
+    }
+
+    /**
+     * Desassocia um quadro da sua página, sem gravar o conteúdo.
+     *
+     * @param q Quadro.
+     */
+    private void remover(int q) {
+        if (politica == PoliticaSubstituicao.LRU) {
+            desencadear(q);
+        }
+        int mascara = tabelaPagina.length - 1;
+        int i = posicao(pagina[q]);
+        while (tabelaPagina[i] != pagina[q]) {
+            i = (i + 1) & mascara;
+        }
+        // Remoção com deslocamento para trás, sem marcas de removido
+        int j = i;
+        while (true) {
+            j = (j + 1) & mascara;
+            if (tabelaPagina[j] == NULO) {
+                break;
+            }
+            int ideal = posicao(tabelaPagina[j]);
+            if (((j - ideal) & mascara) >= ((j - i) & mascara)) {
+                tabelaPagina[i] = tabelaPagina[j];
+                tabelaQuadro[i] = tabelaQuadro[j];
+                i = j;
+            }
+        }
+        tabelaPagina[i] = NULO;
+        pagina[q] = NULO;
+        suja[q] = false;
+    }
+
+    /**
+     * Procura o quadro de uma página.
+     *
+     * @param p Número da página.
+     * @return O quadro da página ou NULO se ela não está no pool.
+     */
+    private int localizar(int p) {
+        int i = posicao(p);
+        while (tabelaPagina[i] != NULO) {
+            if (tabelaPagina[i] == p) {
+                return tabelaQuadro[i];
+            }
+            i = (i + 1) & (tabelaPagina.length - 1);
+        }
+        return NULO;
+    }
+
+    /**
+     * Calcula a posição inicial de uma página na tabela.
+     *
+     * @param p Número da página.
+     * @return A posição na tabela.
+     */
+    private int posicao(int p) {
+        int h = p * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (tabelaPagina.length - 1);
+    }
+
+    /**
+     * Coloca o quadro no início da lista de uso.
+     *
+     * @param q Quadro.
+     */
+    private void encadear(int q) {
+        anterior[q] = NULO;
+        seguinte[q] = maisRecente;
+        if (maisRecente != NULO) {
+            anterior[maisRecente] = q;
+        } else {
+            menosRecente = q;
+        }
+        maisRecente = q;
+    }
+
+    /**
+     * Retira o quadro da lista de uso.
+     *
+     * @param q Quadro.
+     */
+    private void desencadear(int q) {
+        if (anterior[q] != NULO) {
+            seguinte[anterior[q]] = seguinte[q];
+        } else {
+            maisRecente = seguinte[q];
+        }
+        if (seguinte[q] != NULO) {
+            anterior[seguinte[q]] = anterior[q];
+        } else {
+            menosRecente = anterior[q];
+        }
+    }
+
+    /**
+     * Retorna a quantidade de quadros do pool.
+     *
+     * @return A quantidade de quadros.
+     */
+    public int getQtdeQuadros() {
+        return quadros.length;
+    }
+
+    /**
+     * Retorna a quantidade de fixações atendidas sem ler o disco.
+     *
+     * @return A quantidade de acertos.
+     */
+    public synchronized long getAcertos() {
+        return acertos;
+    }
+
+    /**
+     * Retorna a quantidade de fixações que leram a página do disco.
+     *
+     * @return A quantidade de faltas.
+     */
+    public synchronized long getFaltas() {
+        return faltas;
+    }
+
+    /**
+     * Retorna a quantidade de páginas despejadas para liberar quadros.
+     *
+     * @return A quantidade de despejos.
+     */
+    public synchronized long getDespejos() {
+        return despejos;
+    }
+
+    /**
+     * Retorna a quantidade de páginas sujas gravadas no disco.
+     *
+     * @return A quantidade de gravações.
+     */
+    public synchronized long getGravacoes() {
+        return gravacoes;
+    }
+
+    /**
+     * Retorna a quantidade de páginas instaladas pelo pré-carregamento.
+     *
+     * @return A quantidade de páginas pré-carregadas.
+     */
+    public synchronized long getPreCarregadas() {
+        return preCarregadas;
+    }
+
+    /**
+     * Retorna a fração das fixações atendidas sem ler o disco.
+     *
+     * @return A taxa de acerto entre 0 e 1.
+     */
+    public synchronized double getTaxaAcerto() {
+        long total = acertos + faltas;
+        return total == 0 ? 0 : (double) acertos / total;
+    }
+
+    /**
+     * Zera os contadores.
+     */
+    public synchronized void zerarContadores() {
+        acertos = 0;
+        faltas = 0;
+        despejos = 0;
+        gravacoes = 0;
+        preCarregadas = 0;
+    }
+}